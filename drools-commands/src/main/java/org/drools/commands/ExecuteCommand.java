@@ -18,7 +18,7 @@ package org.drools.commands;
 
 import java.util.HashMap;
 
-import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.InternalFactHandle;
 import org.drools.commands.runtime.ExecutionResultImpl;
 import org.kie.api.command.Command;
 import org.kie.api.command.ExecutableCommand;
@@ -68,7 +68,7 @@ public class ExecuteCommand
             for (String key : kresults.getIdentifiers()) {
                 FactHandle handle = (FactHandle) kresults.getFactHandle(key);
                 if (handle != null) {
-                    DefaultFactHandle disconnectedHandle = ((DefaultFactHandle) handle).clone();
+                    InternalFactHandle disconnectedHandle = ((InternalFactHandle) handle).clone();
                     disconnectedHandle.disconnect();
                     disconnectedHandles.put(key, disconnectedHandle);
                 }
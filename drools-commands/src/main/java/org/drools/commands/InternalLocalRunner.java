@@ -39,13 +39,19 @@ public interface InternalLocalRunner extends ExecutableRunner<RequestContext> {
 
     default <T> T execute( Command<T> command ) {
         Context ctx = execute( new SingleCommandExecutable( command ) );
-        return command instanceof BatchExecutionCommand ?
-               (T) ( (RegistryContext) ctx ).lookup( ExecutionResults.class ) :
-               (T) ( (RequestContext) ctx ).getResult();
+        return getResult( command, ctx );
     }
 
     default <T> T execute( Command<T> command, Context ctx ) {
         execute( new SingleCommandExecutable( command ), (RequestContext) ctx );
+        return getResult( command, ctx );
+    }
+
+    /**
+     * Returns the result of the given command from the context it has been executed with
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T getResult( Command<T> command, Context ctx ) {
         return command instanceof BatchExecutionCommand ?
                (T) ( (RegistryContext) ctx ).lookup( ExecutionResults.class ) :
                (T) ( (RequestContext) ctx ).getResult();
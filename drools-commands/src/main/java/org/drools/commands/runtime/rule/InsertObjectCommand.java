@@ -24,7 +24,7 @@ import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 import org.drools.commands.IdentifiableResult;
-import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.InternalFactHandle;
 import org.drools.commands.runtime.ExecutionResultImpl;
 import org.drools.util.StringUtils;
 import org.drools.commands.jaxb.JaxbUnknownAdapter;
@@ -95,7 +95,7 @@ public class InsertObjectCommand
         }
 
         if ( disconnected ) {
-            DefaultFactHandle disconnectedHandle = ((DefaultFactHandle)factHandle).clone();
+            InternalFactHandle disconnectedHandle = ((InternalFactHandle) factHandle).clone();
             disconnectedHandle.disconnect();
             return disconnectedHandle;
         }
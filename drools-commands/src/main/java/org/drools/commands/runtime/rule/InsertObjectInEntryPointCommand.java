@@ -22,7 +22,7 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 
 import org.drools.commands.IdentifiableResult;
-import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.InternalFactHandle;
 import org.drools.commands.runtime.ExecutionResultImpl;
 import org.kie.api.command.ExecutableCommand;
 import org.kie.api.runtime.Context;
@@ -68,7 +68,7 @@ public class InsertObjectInEntryPointCommand
         EntryPoint ep = ksession.getEntryPoint(entryPoint);
         FactHandle factHandle = ep.insert(object);
 
-        DefaultFactHandle disconnectedHandle = ((DefaultFactHandle) factHandle).clone();
+        InternalFactHandle disconnectedHandle = ((InternalFactHandle) factHandle).clone();
         disconnectedHandle.disconnect();
 
         if (outIdentifier != null) {
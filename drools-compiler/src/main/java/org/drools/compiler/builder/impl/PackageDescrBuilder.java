@@ -15,6 +15,7 @@
  */
 package org.drools.compiler.builder.impl;
 
+import org.drools.compiler.builder.impl.resources.DrlResourceHandler;
 import org.drools.compiler.builder.impl.resources.ResourceHandler;
 import org.drools.compiler.lang.descr.CompositePackageDescr;
 import org.drools.drl.ast.descr.PackageDescr;
@@ -28,14 +29,19 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
+import static java.util.stream.Collectors.toList;
+
 public class PackageDescrBuilder {
+    private final KnowledgeBuilderConfigurationImpl configuration;
     private final BuildResultCollector buildResultCollector;
     private ResourceHandlerManager handlerManager;
     private RuntimeException buildException;
 
     public PackageDescrBuilder(KnowledgeBuilderConfigurationImpl configuration, ReleaseId releaseId, Supplier<DefaultExpander> dslExpander) {
+        this.configuration = configuration;
         this.buildResultCollector = new BuildResultCollectorImpl();
         this.handlerManager = new ResourceHandlerManager(configuration,releaseId,dslExpander);
     }
@@ -65,6 +71,10 @@ public class PackageDescrBuilder {
             Map<ResourceType, List<CompositeKnowledgeBuilderImpl.ResourceDescr>> resourcesByType) {
         List<CompositeKnowledgeBuilderImpl.ResourceDescr> resourceDescrs = resourcesByType.remove(resourceType);
         if (resourceDescrs != null) {
+            if (mapper instanceof DrlResourceHandler && parallelParsing(resourceDescrs)) {
+                parseInParallel(packages, resourceDescrs);
+                return;
+            }
             for (CompositeKnowledgeBuilderImpl.ResourceDescr resourceDescr : resourceDescrs) {
                 try {
                     PackageDescr packageDescr = mapper.process(resourceDescr.resource, resourceDescr.configuration);
@@ -83,6 +93,63 @@ public class PackageDescrBuilder {
         }
     }
 
+    private boolean parallelParsing(List<CompositeKnowledgeBuilderImpl.ResourceDescr> resourceDescrs) {
+        int parallelRulesBuildThreshold = configuration.getParallelRulesBuildThreshold();
+        return parallelRulesBuildThreshold != -1 && resourceDescrs.size() > parallelRulesBuildThreshold;
+    }
+
+    /**
+     * Parses the DRL resources concurrently, each one with its own handler, and then registers their
+     * package descrs and results in the same order they would have been registered by a sequential parsing.
+     */
+    private void parseInParallel(Map<String, CompositePackageDescr> packages, List<CompositeKnowledgeBuilderImpl.ResourceDescr> resourceDescrs) {
+        List<ParsedResource> parsedResources;
+        try {
+            parsedResources = KnowledgeBuilderImpl.ForkJoinPoolHolder.COMPILER_POOL.submit(() ->
+                    resourceDescrs.stream().parallel()
+                            .map(this::parse)
+                            .collect(toList())
+            ).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Resources parsing failed or interrupted", e);
+        }
+
+        for (ParsedResource parsedResource : parsedResources) {
+            parsedResource.results.forEach(buildResultCollector::addBuilderResult);
+            if (parsedResource.exception == null) {
+                registerPackageDescr(parsedResource.resourceDescr, packages, parsedResource.resourceDescr.resource, parsedResource.packageDescr);
+            } else if (buildException == null) {
+                buildException = parsedResource.exception instanceof RuntimeException ?
+                        (RuntimeException) parsedResource.exception :
+                        new RuntimeException( parsedResource.exception );
+            }
+        }
+    }
+
+    private ParsedResource parse(CompositeKnowledgeBuilderImpl.ResourceDescr resourceDescr) {
+        ResourceHandler handler = new DrlResourceHandler(configuration);
+        try {
+            PackageDescr packageDescr = handler.process(resourceDescr.resource, resourceDescr.configuration);
+            return new ParsedResource(resourceDescr, packageDescr, handler.getResults(), null);
+        } catch (Exception e) {
+            return new ParsedResource(resourceDescr, null, handler.getResults(), e);
+        }
+    }
+
+    private static class ParsedResource {
+        private final CompositeKnowledgeBuilderImpl.ResourceDescr resourceDescr;
+        private final PackageDescr packageDescr;
+        private final Collection<KnowledgeBuilderResult> results;
+        private final Exception exception;
+
+        private ParsedResource(CompositeKnowledgeBuilderImpl.ResourceDescr resourceDescr, PackageDescr packageDescr,
+                               Collection<KnowledgeBuilderResult> results, Exception exception) {
+            this.resourceDescr = resourceDescr;
+            this.packageDescr = packageDescr;
+            this.results = results;
+            this.exception = exception;
+        }
+    }
 
     private void registerPackageDescr(
             CompositeKnowledgeBuilderImpl.ResourceDescr resourceDescr, Map<String, CompositePackageDescr> packages, Resource resource, PackageDescr packageDescr) {
@@ -16,9 +16,12 @@
 package org.drools.compiler.compiler;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.drools.compiler.builder.impl.KnowledgeBuilderConfigurationImpl;
 import org.drools.compiler.builder.impl.errors.ErrorHandler;
@@ -116,5 +119,11 @@ public class ProjectJavaCompiler {
         public void remove(PortablePath resourcePath) {
             throw new UnsupportedOperationException("org.drools.compiler.compiler.ProjectJavaCompiler.ProjectResourceStore.remove -> TODO");
         }
+
+        @Override
+        public Collection<PortablePath> getFilePaths() {
+            Map<String, byte[]> store = projectClassLoader.getStore();
+            return store == null ? Collections.emptyList() : store.keySet().stream().map(PortablePath::of).collect(Collectors.toList());
+        }
     }
 }
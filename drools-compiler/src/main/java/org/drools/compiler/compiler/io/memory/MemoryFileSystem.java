@@ -85,6 +85,7 @@ public class MemoryFileSystem
         return folder;
     }
 
+    @Override
     public Collection<PortablePath> getFilePaths() {
         return fileContents.keySet();
     }
@@ -191,6 +191,11 @@ public abstract class AbstractKieModule implements InternalKieModule, Serializab
     public KnowledgePackagesBuildResult buildKnowledgePackages(KieBaseModelImpl kBaseModel, KieProject kieProject, BuildContext buildContext) {
         Collection<KiePackage> pkgs = getKnowledgePackagesForKieBase(kBaseModel.getName());
 
+        if ( pkgs == null ) {
+            // a KieModule not built in this JVM may provide the already compiled packages
+            pkgs = KieBaseImage.readKieBaseImage(this, kBaseModel.getName(), kieProject.getClassLoader());
+        }
+
         if ( pkgs == null ) {
             KnowledgeBuilder kbuilder = kieProject.buildKnowledgePackages(kBaseModel, buildContext);
             if ( kbuilder.hasErrors() ) {
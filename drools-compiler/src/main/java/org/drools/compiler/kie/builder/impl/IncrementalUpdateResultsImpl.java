@@ -0,0 +1,55 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.compiler.kie.builder.impl;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.kie.api.builder.Message;
+import org.kie.internal.builder.IncrementalResults;
+
+/**
+ * The results of the update of a KieContainer to a new version. The messages are the ones produced while
+ * rebuilding its KieBases, and the update times are registered as the KieBases are updated, possibly after
+ * the update of the KieContainer returned.
+ */
+public class IncrementalUpdateResultsImpl extends ResultsImpl implements IncrementalResults {
+
+    private final Map<String, Long> kieBaseUpdateTimes = new ConcurrentHashMap<>();
+
+    @Override
+    public List<Message> getAddedMessages() {
+        return getMessages();
+    }
+
+    @Override
+    public List<Message> getRemovedMessages() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public Map<String, Long> getKieBaseUpdateTimes() {
+        return Collections.unmodifiableMap( kieBaseUpdateTimes );
+    }
+
+    public void registerKieBaseUpdateTime( String kieBaseName, long millis ) {
+        kieBaseUpdateTimes.put( kieBaseName, millis );
+    }
+}
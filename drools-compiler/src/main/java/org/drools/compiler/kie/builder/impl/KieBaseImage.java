@@ -0,0 +1,106 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.kie.builder.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.common.DroolsObjectOutputStream;
+import org.drools.core.util.Drools;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.definition.KiePackage;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.memorycompiler.resources.ResourceStore;
+import org.kie.util.maven.support.ReleaseIdImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The image of a KieBase is the serialized form of its compiled packages, written at build time together with the
+ * other meta information of the KieModule. When a KieBase of a KieModule that hasn't been built in the current JVM
+ * is created, its packages are read from the image instead of parsing and compiling its resources again, while the
+ * network is still built from them. A KieBase whose packages can't be serialized has no image, and an image written
+ * by a different version of Drools or that can't be read is ignored: in both cases the KieBase is built from its
+ * resources as usual.
+ */
+public class KieBaseImage {
+
+    private static final Logger log = LoggerFactory.getLogger(KieBaseImage.class);
+
+    public static final String KIE_BASE_IMAGE_PROPERTY = "drools.kieBaseImage";
+
+    private KieBaseImage() { }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty(KIE_BASE_IMAGE_PROPERTY, "false"));
+    }
+
+    public static String getKieBaseImagePath(ReleaseId releaseId, String kbaseName) {
+        return ((ReleaseIdImpl) releaseId).getCompilationCachePathPrefix() + kbaseName.replace('.', '/') + "/kbase.image";
+    }
+
+    public static void writeKieBaseImages(InternalKieModule kModule, ResourceStore trgMfs) {
+        for (String kieBaseName : kModule.getKieModuleModel().getKieBaseModels().keySet()) {
+            KnowledgeBuilder kBuilder = kModule.getKnowledgeBuilderForKieBase(kieBaseName);
+            if (kBuilder != null && !kBuilder.hasErrors()) {
+                byte[] image = serialize(kieBaseName, kBuilder.getKnowledgePackages());
+                if (image != null) {
+                    trgMfs.write(getKieBaseImagePath(kModule.getReleaseId(), kieBaseName), image, true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the packages of the given KieBase read from its image, or null if the KieModule has no usable image for it
+     */
+    public static Collection<KiePackage> readKieBaseImage(InternalKieModule kModule, String kieBaseName, ClassLoader classLoader) {
+        String imagePath = getKieBaseImagePath(kModule.getReleaseId(), kieBaseName);
+        if (!kModule.isAvailable(imagePath)) {
+            return null;
+        }
+        try (DroolsObjectInputStream in = new DroolsObjectInputStream(new ByteArrayInputStream(kModule.getBytes(imagePath)), classLoader)) {
+            String version = in.readUTF();
+            if (!Drools.getFullVersion().equals(version)) {
+                log.warn("The image of the KieBase " + kieBaseName + " has been built with Drools " + version +
+                         ", the KieBase will be built from its resources. You should recompile your project in order to use it with current release.");
+                return null;
+            }
+            return (Collection<KiePackage>) in.readObject();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            log.warn("Unable to read the image of the KieBase " + kieBaseName + ", it will be built from its resources", e);
+            return null;
+        }
+    }
+
+    private static byte[] serialize(String kieBaseName, Collection<KiePackage> pkgs) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DroolsObjectOutputStream out = new DroolsObjectOutputStream(bytes)) {
+            out.writeUTF(Drools.getFullVersion());
+            out.writeObject(new ArrayList<>(pkgs));
+        } catch (IOException e) {
+            // e.g. a consequence or a constraint that is not serializable
+            log.info("No image written for the KieBase " + kieBaseName + " since its packages can't be serialized: " + e.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+}
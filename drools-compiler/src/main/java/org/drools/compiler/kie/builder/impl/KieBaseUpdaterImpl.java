@@ -16,7 +16,10 @@
 
 package org.drools.compiler.kie.builder.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.drools.compiler.builder.InternalKnowledgeBuilder;
 import org.drools.compiler.compiler.PackageBuilderErrors;
@@ -158,8 +161,14 @@ public class KieBaseUpdaterImpl implements KieBaseUpdater {
         if (ctx.modifyingUsedClass) {
             // invalidate accessors for old class
             invalidateAccessorForOldClass();
-            // there are modified classes used by this kbase, so it has to be completely updated
-            updateAllResources(kbuilder, ckbuilder);
+            Set<String> dependentResources = new ModifiedClassesDependencies(ctx).findDependentResources(getCurrentResources());
+            if (dependentResources == null) {
+                // there are modified classes used by this kbase, so it has to be completely updated
+                updateAllResources(kbuilder, ckbuilder);
+            } else {
+                // only the resources depending on the modified classes have to be rebuilt, together with the changed ones
+                updateDependentResources(kbuilder, ckbuilder, dependentResources);
+            }
         } else {
             // there are no modified classes used by this kbase, so update it incrementally
             shouldRebuild = updateResourcesIncrementally(kbuilder, ckbuilder) > 0;
@@ -230,6 +239,35 @@ public class KieBaseUpdaterImpl implements KieBaseUpdater {
         return false;
     }
 
+    private Collection<String> getCurrentResources() {
+        List<String> resourceNames = new ArrayList<>();
+        for (String resourceName : ctx.currentKM.getFileNames()) {
+            if ( !resourceName.endsWith( ".properties" ) && isFileInKBase(ctx.currentKM, ctx.newKieBaseModel, resourceName) ) {
+                resourceNames.add(resourceName);
+            }
+        }
+        return resourceNames;
+    }
+
+    protected void updateDependentResources(InternalKnowledgeBuilder kbuilder, CompositeKnowledgeBuilder ckbuilder, Set<String> dependentResources) {
+        for ( ResourceChangeSet rcs : ctx.cs.getChanges().values()) {
+            if ( !dependentResources.contains( rcs.getResourceName() ) ) {
+                updateResource(kbuilder, ckbuilder, rcs);
+            }
+        }
+        for (String resourceName : dependentResources) {
+            ResourceChangeSet rcs = ctx.cs.getChanges().get(resourceName);
+            if ( rcs != null && rcs.getChangeType() == ChangeType.REMOVED ) {
+                // removed by removeResources()
+                continue;
+            }
+            kbuilder.removeObjectsGeneratedFromResource(ctx.currentKM.getResource(resourceName));
+            if ( isFileInKBase(ctx.newKM, ctx.newKieBaseModel, resourceName) ) {
+                ctx.newKM.addResourceToCompiler(ckbuilder, ctx.newKieBaseModel, resourceName);
+            }
+        }
+    }
+
     protected void updateAllResources(InternalKnowledgeBuilder kbuilder, CompositeKnowledgeBuilder ckbuilder) {
         for (String resourceName : ctx.currentKM.getFileNames()) {
             if ( !resourceName.endsWith( ".properties" ) && isFileInKBase(ctx.currentKM, ctx.newKieBaseModel, resourceName) ) {
@@ -26,6 +26,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import javax.management.ObjectName;
 
 import org.drools.compiler.builder.InternalKnowledgeBuilder;
@@ -242,13 +243,14 @@ public class KieContainerImpl
     private Results update( InternalKieModule currentKM, InternalKieModule newKM ) {
         final KieJarChangeSet cs = currentKM.getChanges( newKM );
         List<String> modifiedClassNames = getModifiedClasses(cs);
+        detachSharedClasses( cs, getClassLoader(), modifiedClassNames );
         final boolean modifyingUsedClass = isModifyingUsedClass( modifiedClassNames, getClassLoader() ) || isModifyingUsedFunction(cs);
         final Collection<Class<?>> modifiedClasses = reinitModifiedClasses( newKM, modifiedClassNames, getClassLoader(), modifyingUsedClass );
         final Collection<String> unchangedResources = getUnchangedResources( newKM, cs );
 
         Map<String, KieBaseModel> currentKieBaseModels = ((KieModuleKieProject ) kProject).updateToModule( newKM );
 
-        final ResultsImpl results = new ResultsImpl();
+        final IncrementalUpdateResultsImpl results = new IncrementalUpdateResultsImpl();
 
         currentKM.updateKieModule(newKM);
 
@@ -295,7 +297,11 @@ public class KieContainerImpl
                                                                           )))
                         .forEach(compositeUpdater::add);
 
-                kBase.enqueueModification(compositeUpdater);
+                kBase.enqueueModification(() -> {
+                    long start = System.nanoTime();
+                    compositeUpdater.run();
+                    results.registerKieBaseUpdateTime(kbaseName, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                });
 
             }
         }
@@ -329,7 +335,7 @@ public class KieContainerImpl
         }
     }
 
-    private boolean isModifyingUsedFunction(KieJarChangeSet cs) {
+    static boolean isModifyingUsedFunction(KieJarChangeSet cs) {
         return cs.getChanges().values()
                 .stream()
                 .flatMap(resourceChangeSet -> resourceChangeSet.getChanges().stream())
@@ -357,6 +363,23 @@ public class KieContainerImpl
         return false;
     }
 
+    private void detachSharedClasses( KieJarChangeSet cs, ClassLoader classLoader, List<String> modifiedClasses ) {
+        if ( !(classLoader instanceof ProjectClassLoader) || !((ProjectClassLoader) classLoader).hasSharedClassLoader() ) {
+            return;
+        }
+        if ( cs.getChanges().values().stream().noneMatch( rcs -> rcs.getResourceName().endsWith( ".class" ) ) ) {
+            return;
+        }
+        // the classes shared with the other containers can't be redefined, so from now on this container defines
+        // its own classes and the ones it already loaded from the shared class loader are reloaded as if modified
+        for ( String className : ((ProjectClassLoader) classLoader).detachSharedClassLoader() ) {
+            String resourceName = ClassUtils.convertClassToResourcePath( className );
+            if ( !modifiedClasses.contains( resourceName ) ) {
+                modifiedClasses.add( resourceName );
+            }
+        }
+    }
+
     private boolean isModifyingUsedClass( List<String> modifiedClasses, ClassLoader classLoader ) {
         return modifiedClasses.stream().anyMatch( c -> isClassInUse( classLoader, convertResourceToClassName(c) ) );
     }
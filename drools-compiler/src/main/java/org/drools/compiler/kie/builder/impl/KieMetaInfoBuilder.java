@@ -54,6 +54,9 @@ public class KieMetaInfoBuilder {
                     info.marshallMetaInfos().getBytes( IoUtils.UTF8_CHARSET ),
                     true );
         }
+        if (KieBaseImage.isEnabled()) {
+            KieBaseImage.writeKieBaseImages( kModule, trgMfs );
+        }
     }
 
     public KieModuleMetaInfo getKieModuleMetaInfo(){
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.drools.wiring.api.classloader.ProjectClassLoader;
 import org.kie.api.builder.ReleaseId;
@@ -39,6 +40,11 @@ public class KieModuleKieProject extends AbstractKieProject {
 
     private static final Logger            log               = LoggerFactory.getLogger( KieModuleKieProject.class );
 
+    public static final String SHARE_COMPILED_CLASSES_PROPERTY = "drools.kieContainer.shareCompiledClasses";
+
+    // the class loaders defining the compiled classes of a KieModule once for all the KieContainers created from it
+    private static final Map<InternalKieModule, ProjectClassLoader> sharedClassLoaders = new WeakHashMap<>();
+
     private List<InternalKieModule>        kieModules;
 
     private Map<String, InternalKieModule> kJarFromKBaseName = new HashMap<>();
@@ -47,6 +53,8 @@ public class KieModuleKieProject extends AbstractKieProject {
 
     private ProjectClassLoader cl;
 
+    private boolean shareCompiledClasses;
+
     public KieModuleKieProject( InternalKieModule kieModule ) {
         this( kieModule, null );
     }
@@ -54,6 +62,9 @@ public class KieModuleKieProject extends AbstractKieProject {
     public KieModuleKieProject(InternalKieModule kieModule, ClassLoader parent) {
         this.kieModule = kieModule;
         this.cl = kieModule.createModuleClassLoader( parent );
+        // a ProjectClassLoader passed as parent is used directly, so its classes are not shared
+        this.shareCompiledClasses = Boolean.parseBoolean( System.getProperty( SHARE_COMPILED_CLASSES_PROPERTY, "false" ) ) && cl != parent &&
+                                    cl.getParent() != null && !(cl.getParent() instanceof ProjectClassLoader);
     }
 
     public void init() {
@@ -63,7 +74,28 @@ public class KieModuleKieProject extends AbstractKieProject {
             kieModules = new ArrayList<>();
             kieModules.addAll( depKieModules );
             kieModules.add( kieModule );
-            cl.storeClasses( getClassesMap() );
+            Map<String, byte[]> classes = getClassesMap();
+            cl.storeClasses( classes );
+            if ( shareCompiledClasses ) {
+                // only the classes of the KieModule the container has been created from are shared
+                shareCompiledClasses = false;
+                ProjectClassLoader sharedClassLoader = getSharedClassLoader( kieModule, cl.getParent(), classes );
+                if ( sharedClassLoader != null ) {
+                    cl.setSharedClassLoader( sharedClassLoader );
+                }
+            }
+        }
+    }
+
+    private static ProjectClassLoader getSharedClassLoader( InternalKieModule kieModule, ClassLoader parent, Map<String, byte[]> classes ) {
+        synchronized (sharedClassLoaders) {
+            ProjectClassLoader sharedClassLoader = sharedClassLoaders.get( kieModule );
+            if ( sharedClassLoader == null ) {
+                sharedClassLoader = ProjectClassLoader.createProjectClassLoader( parent, new HashMap<>( classes ) );
+                sharedClassLoaders.put( kieModule, sharedClassLoader );
+            }
+            // the classes of a container created with a different parent class loader can't be shared
+            return sharedClassLoader.getParent() == parent ? sharedClassLoader : null;
         }
     }
 
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.drools.compiler.kie.builder.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.definitions.InternalKnowledgePackage;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.rule.DialectRuntimeData;
+import org.drools.core.rule.Function;
+import org.drools.core.rule.JavaDialectRuntimeData;
+import org.drools.core.rule.Pattern;
+import org.drools.core.rule.QueryElement;
+import org.drools.core.rule.RuleConditionElement;
+import org.drools.core.rule.TypeDeclaration;
+import org.kie.api.definition.rule.Rule;
+import org.kie.api.io.Resource;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.rule.AccumulateFunction;
+
+/**
+ * Finds the resources of a KieBase depending on the classes reloaded by an update of its KieContainer, so that
+ * only those resources have to be rebuilt, instead of all the resources of the KieBase. A resource depends on a
+ * reloaded class when
+ * - its text mentions the simple name of that class
+ * - one of its rules has a pattern of that class, extends a rule depending on it or calls a query depending on it
+ * - it contributes to a package whose compiled java classes refer to that class
+ * The resources that can't be read as text, like decision tables, are always considered dependent.
+ */
+class ModifiedClassesDependencies {
+
+    private static final ResourceType[] TEXT_TYPES = new ResourceType[] {
+            ResourceType.DRL, ResourceType.GDRL, ResourceType.RDRL, ResourceType.TDRL, ResourceType.DSLR, ResourceType.RDSLR };
+
+    private final KieBaseUpdaterImplContext ctx;
+    private final Set<String> classNames = new HashSet<>();
+    private final Set<String> simpleNames = new HashSet<>();
+    private final Set<String> internalNames = new HashSet<>();
+
+    ModifiedClassesDependencies( KieBaseUpdaterImplContext ctx ) {
+        this.ctx = ctx;
+        for (Class<?> cls : ctx.modifiedClasses) {
+            classNames.add( cls.getName() );
+            internalNames.add( new String( cls.getName().replace( '.', '/' ).getBytes( StandardCharsets.UTF_8 ), StandardCharsets.ISO_8859_1 ) );
+            if (!cls.getSimpleName().isEmpty()) {
+                simpleNames.add( cls.getSimpleName() );
+            }
+        }
+    }
+
+    /**
+     * Returns the names of the given resources depending on the reloaded classes, or null when it isn't possible
+     * to establish it, like when a function has been modified or a global has a reloaded type, so that the whole
+     * KieBase has to be rebuilt.
+     */
+    Set<String> findDependentResources( Collection<String> resourceNames ) {
+        if (ctx.modifiedClasses.isEmpty() || KieContainerImpl.isModifyingUsedFunction( ctx.cs ) || hasUntrackedDependencies()) {
+            return null;
+        }
+
+        Map<String, Resource> resources = new HashMap<>();
+        for (String resourceName : resourceNames) {
+            Resource resource = ctx.currentKM.getResource( resourceName );
+            if (resource != null) {
+                resources.put( resourceName, resource );
+            }
+        }
+
+        Set<String> dependentResources = new HashSet<>();
+        for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+            if (!isTextResource( entry.getKey() ) || mentionsModifiedClass( entry.getKey() )) {
+                dependentResources.add( entry.getKey() );
+            }
+        }
+
+        Map<Resource, List<RuleImpl>> rulesByResource = new HashMap<>();
+        for (InternalKnowledgePackage pkg : ctx.kBase.getPackagesMap().values()) {
+            for (Rule rule : pkg.getRules()) {
+                Resource resource = ((RuleImpl) rule).getResource();
+                if (resource != null) {
+                    rulesByResource.computeIfAbsent( resource, r -> new ArrayList<>() ).add( (RuleImpl) rule );
+                }
+            }
+        }
+
+        for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+            List<RuleImpl> rules = rulesByResource.getOrDefault( entry.getValue(), Collections.emptyList() );
+            if (rules.stream().anyMatch( rule -> matchesModifiedClass( rule.getLhs() ) )) {
+                dependentResources.add( entry.getKey() );
+            }
+        }
+
+        for (InternalKnowledgePackage pkg : ctx.kBase.getPackagesMap().values()) {
+            if (compiledCodeRefersModifiedClass( pkg )) {
+                for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+                    if (isGeneratingObjectsIn( pkg, entry.getValue() )) {
+                        dependentResources.add( entry.getKey() );
+                    }
+                }
+            }
+        }
+
+        addResourcesOfDependentRules( resources, rulesByResource, dependentResources );
+
+        for (String resourceName : dependentResources) {
+            if (isGeneratingFunction( resources.get( resourceName ) )) {
+                // the rules calling a rebuilt function would keep on using its former version
+                return null;
+            }
+        }
+        return dependentResources;
+    }
+
+    private boolean hasUntrackedDependencies() {
+        for (InternalKnowledgePackage pkg : ctx.kBase.getPackagesMap().values()) {
+            if (!pkg.getWindowDeclarations().isEmpty()) {
+                return true;
+            }
+            for (Class<?> globalType : pkg.getGlobals().values()) {
+                if (classNames.contains( globalType.getName() )) {
+                    return true;
+                }
+            }
+            for (AccumulateFunction function : pkg.getAccumulateFunctions().values()) {
+                if (classNames.contains( function.getClass().getName() )) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isTextResource( String resourceName ) {
+        for (ResourceType type : TEXT_TYPES) {
+            if (type.matchesExtension( resourceName )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean mentionsModifiedClass( String resourceName ) {
+        return mentionsModifiedClass( ctx.currentKM.getBytes( resourceName ) ) || mentionsModifiedClass( ctx.newKM.getBytes( resourceName ) );
+    }
+
+    private boolean mentionsModifiedClass( byte[] bytes ) {
+        if (bytes == null) {
+            return false;
+        }
+        String text = new String( bytes, StandardCharsets.UTF_8 );
+        return simpleNames.stream().anyMatch( text::contains );
+    }
+
+    private boolean compiledCodeRefersModifiedClass( InternalKnowledgePackage pkg ) {
+        DialectRuntimeData dialectData = pkg.getDialectRuntimeRegistry().getDialectData( "java" );
+        if (!(dialectData instanceof JavaDialectRuntimeData) || ((JavaDialectRuntimeData) dialectData).getStore() == null) {
+            return false;
+        }
+        for (byte[] bytecode : ((JavaDialectRuntimeData) dialectData).getStore().values()) {
+            String code = new String( bytecode, StandardCharsets.ISO_8859_1 );
+            if (internalNames.stream().anyMatch( code::contains )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesModifiedClass( RuleConditionElement element ) {
+        if (element instanceof Pattern) {
+            Pattern pattern = (Pattern) element;
+            if (pattern.getObjectType() instanceof ClassObjectType &&
+                    classNames.contains( ((ClassObjectType) pattern.getObjectType()).getClassName() )) {
+                return true;
+            }
+        }
+        for (RuleConditionElement nested : element.getNestedElements()) {
+            if (matchesModifiedClass( nested )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isGeneratingObjectsIn( InternalKnowledgePackage pkg, Resource resource ) {
+        if (!pkg.getRulesGeneratedFromResource( resource ).isEmpty()) {
+            return true;
+        }
+        for (TypeDeclaration type : pkg.getTypeDeclarations().values()) {
+            if (resource.equals( type.getResource() )) {
+                return true;
+            }
+        }
+        for (Function function : pkg.getFunctions().values()) {
+            if (resource.equals( function.getResource() )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isGeneratingFunction( Resource resource ) {
+        for (InternalKnowledgePackage pkg : ctx.kBase.getPackagesMap().values()) {
+            for (Function function : pkg.getFunctions().values()) {
+                if (resource.equals( function.getResource() )) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void addResourcesOfDependentRules( Map<String, Resource> resources, Map<Resource, List<RuleImpl>> rulesByResource, Set<String> dependentResources ) {
+        boolean changed = true;
+        while (changed) {
+            Set<String> dependentRules = new HashSet<>();
+            for (String resourceName : dependentResources) {
+                for (RuleImpl rule : rulesByResource.getOrDefault( resources.get( resourceName ), Collections.emptyList() )) {
+                    dependentRules.add( rule.getFullyQualifiedName() );
+                    dependentRules.add( rule.getName() );
+                }
+            }
+
+            changed = false;
+            for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+                if (!dependentResources.contains( entry.getKey() ) &&
+                        dependsOnRules( rulesByResource.getOrDefault( entry.getValue(), Collections.emptyList() ), dependentRules )) {
+                    dependentResources.add( entry.getKey() );
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private boolean dependsOnRules( List<RuleImpl> rules, Set<String> dependentRules ) {
+        for (RuleImpl rule : rules) {
+            if (rule.getParent() != null && dependentRules.contains( rule.getParent().getFullyQualifiedName() )) {
+                return true;
+            }
+            if (callsQuery( rule.getLhs(), dependentRules )) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean callsQuery( RuleConditionElement element, Set<String> rules ) {
+        if (element instanceof QueryElement && rules.contains( ((QueryElement) element).getQueryName() )) {
+            return true;
+        }
+        for (RuleConditionElement nested : element.getNestedElements()) {
+            if (callsQuery( nested, rules )) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -52,16 +52,22 @@ import org.kie.internal.conf.AlphaRangeIndexThresholdOption;
 import org.kie.internal.conf.AlphaThresholdOption;
 import org.kie.internal.conf.CompositeKeyDepthOption;
 import org.kie.internal.conf.ConsequenceExceptionHandlerOption;
+import org.kie.internal.conf.BatchedExpirationOption;
+import org.kie.internal.conf.CompactFactHandlesOption;
 import org.kie.internal.conf.ConstraintJittingThresholdOption;
 import org.kie.internal.conf.IndexLeftBetaMemoryOption;
 import org.kie.internal.conf.IndexPrecedenceOption;
 import org.kie.internal.conf.IndexRightBetaMemoryOption;
+import org.kie.internal.conf.JoinOrderOptimizationOption;
 import org.kie.internal.conf.MaxThreadsOption;
 import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.conf.ParallelEvaluationSlotsOption;
+import org.kie.internal.conf.ParallelExecutorOption;
 import org.kie.internal.conf.PermGenThresholdOption;
 import org.kie.internal.conf.SequentialAgendaOption;
 import org.kie.internal.conf.ShareAlphaNodesOption;
 import org.kie.internal.conf.ShareBetaNodesOption;
+import org.kie.internal.conf.TypedBetaMemoryIndexOption;
 import org.kie.internal.utils.ChainedProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -100,6 +106,10 @@ import static org.drools.core.util.MemoryUtil.hasPermGen;
  * drools.compositeKeyDepth = &lt;1..3&gt;
  * drools.indexLeftBetaMemory = &lt;true/false&gt;
  * drools.indexRightBetaMemory = &lt;true/false&gt;
+ * drools.typedBetaMemoryIndex = &lt;true/false&gt;
+ * drools.joinOrderOptimization = &lt;true/false&gt;
+ * drools.batchedExpiration = &lt;true/false&gt;
+ * drools.compactFactHandles = &lt;true/false&gt;
  * drools.equalityBehavior = &lt;identity|equality&gt;
  * drools.conflictResolver = &lt;qualified class name&gt;
  * drools.consequenceExceptionHandler = &lt;qualified class name&gt;
@@ -110,6 +120,8 @@ import static org.drools.core.util.MemoryUtil.hasPermGen;
  * drools.declarativeAgendaEnabled =  &lt;true|false&gt;
  * drools.permgenThreshold = &lt;1...n&gt;
  * drools.jittingThreshold = &lt;1...n&gt;
+ * drools.parallelEvaluationSlots = &lt;1...n&gt;
+ * drools.parallelExecutor = &lt;shared|fixed|forkjoin|virtual&gt;
  * </pre>
  */
 public class RuleBaseConfiguration
@@ -144,6 +156,10 @@ public class RuleBaseConfiguration
     private int             compositeKeyDepth;
     private boolean         indexLeftBetaMemory;
     private boolean         indexRightBetaMemory;
+    private boolean         typedBetaMemoryIndex;
+    private boolean         joinOrderOptimization;
+    private boolean         batchedExpiration;
+    private boolean         compactFactHandles;
     private AssertBehaviour assertBehaviour;
     private String          consequenceExceptionHandler;
     private String          ruleBaseUpdateHandler;
@@ -160,6 +176,8 @@ public class RuleBaseConfiguration
     // in parallel by using multiple internal threads
     private boolean multithread;
     private int     maxThreads;
+    private int     parallelEvaluationSlotsNumber;
+    private ParallelExecutorOption parallelExecutor;
 
     // this property activates MBean monitoring and management
     private boolean mbeansEnabled;
@@ -214,6 +232,12 @@ public class RuleBaseConfiguration
         out.writeBoolean(declarativeAgenda);
         out.writeInt(sessionPoolSize);
         out.writeBoolean(mutabilityEnabled);
+        out.writeInt(parallelEvaluationSlotsNumber);
+        out.writeObject(parallelExecutor);
+        out.writeBoolean(typedBetaMemoryIndex);
+        out.writeBoolean(joinOrderOptimization);
+        out.writeBoolean(batchedExpiration);
+        out.writeBoolean(compactFactHandles);
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -246,6 +270,12 @@ public class RuleBaseConfiguration
         declarativeAgenda = in.readBoolean();
         sessionPoolSize = in.readInt();
         mutabilityEnabled = in.readBoolean();
+        parallelEvaluationSlotsNumber = in.readInt();
+        parallelExecutor = (ParallelExecutorOption) in.readObject();
+        typedBetaMemoryIndex = in.readBoolean();
+        joinOrderOptimization = in.readBoolean();
+        batchedExpiration = in.readBoolean();
+        compactFactHandles = in.readBoolean();
     }
 
     /**
@@ -321,6 +351,14 @@ public class RuleBaseConfiguration
             setIndexLeftBetaMemory( StringUtils.isEmpty( value ) ? true : Boolean.valueOf(value));
         } else if ( name.equals( IndexRightBetaMemoryOption.PROPERTY_NAME ) ) {
             setIndexRightBetaMemory( StringUtils.isEmpty( value ) ? true : Boolean.valueOf(value));
+        } else if ( name.equals( TypedBetaMemoryIndexOption.PROPERTY_NAME ) ) {
+            setTypedBetaMemoryIndex( StringUtils.isEmpty( value ) ? true : Boolean.valueOf(value));
+        } else if ( name.equals( JoinOrderOptimizationOption.PROPERTY_NAME ) ) {
+            setJoinOrderOptimization( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( BatchedExpirationOption.PROPERTY_NAME ) ) {
+            setBatchedExpiration( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( CompactFactHandlesOption.PROPERTY_NAME ) ) {
+            setCompactFactHandles( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
         } else if ( name.equals( IndexPrecedenceOption.PROPERTY_NAME ) ) {
             setIndexPrecedenceOption( StringUtils.isEmpty( value ) ? IndexPrecedenceOption.EQUALITY_PRIORITY : IndexPrecedenceOption.determineIndexPrecedence(value));
         } else if ( name.equals( EqualityBehaviorOption.PROPERTY_NAME ) ) {
@@ -335,6 +373,10 @@ public class RuleBaseConfiguration
             setMultithreadEvaluation( StringUtils.isEmpty( value ) ? false : Boolean.valueOf(value));
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
             setMaxThreads( StringUtils.isEmpty( value ) ? 3 : Integer.parseInt(value));
+        } else if ( name.equals( ParallelEvaluationSlotsOption.PROPERTY_NAME ) ) {
+            setParallelEvaluationSlotsNumber( StringUtils.isEmpty( value ) ? ParallelEvaluationSlotsOption.DEFAULT_VALUE : Integer.parseInt(value));
+        } else if ( name.equals( ParallelExecutorOption.PROPERTY_NAME ) ) {
+            setParallelExecutor( StringUtils.isEmpty( value ) ? ParallelExecutorOption.SHARED : ParallelExecutorOption.determineParallelExecutor(value));
         } else if ( name.equals( EventProcessingOption.PROPERTY_NAME ) ) {
             setEventProcessingMode( EventProcessingOption.determineEventProcessingMode( StringUtils.isEmpty( value ) ? "cloud" : value));
         } else if ( name.equals( MBeansOption.PROPERTY_NAME ) ) {
@@ -378,6 +420,14 @@ public class RuleBaseConfiguration
             return Boolean.toString( isIndexLeftBetaMemory() );
         } else if ( name.equals( IndexRightBetaMemoryOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isIndexRightBetaMemory());
+        } else if ( name.equals( TypedBetaMemoryIndexOption.PROPERTY_NAME ) ) {
+            return Boolean.toString( isTypedBetaMemoryIndex() );
+        } else if ( name.equals( JoinOrderOptimizationOption.PROPERTY_NAME ) ) {
+            return Boolean.toString( isJoinOrderOptimization() );
+        } else if ( name.equals( BatchedExpirationOption.PROPERTY_NAME ) ) {
+            return Boolean.toString( isBatchedExpiration() );
+        } else if ( name.equals( CompactFactHandlesOption.PROPERTY_NAME ) ) {
+            return Boolean.toString( isCompactFactHandles() );
         } else if ( name.equals( IndexPrecedenceOption.PROPERTY_NAME ) ) {
             return getIndexPrecedenceOption().getValue();
         } else if ( name.equals( EqualityBehaviorOption.PROPERTY_NAME ) ) {
@@ -392,6 +442,10 @@ public class RuleBaseConfiguration
             return Boolean.toString( isMultithreadEvaluation() );
         } else if ( name.equals( MaxThreadsOption.PROPERTY_NAME ) ) {
             return Integer.toString( getMaxThreads());
+        } else if ( name.equals( ParallelEvaluationSlotsOption.PROPERTY_NAME ) ) {
+            return Integer.toString( getParallelEvaluationSlotsNumber() );
+        } else if ( name.equals( ParallelExecutorOption.PROPERTY_NAME ) ) {
+            return getParallelExecutor().getValue();
         } else if ( name.equals( EventProcessingOption.PROPERTY_NAME ) ) {
             return getEventProcessingMode().getMode();
         } else if ( name.equals( MBeansOption.PROPERTY_NAME ) ) {
@@ -458,6 +512,14 @@ public class RuleBaseConfiguration
 
         setIndexRightBetaMemory(Boolean.valueOf(this.chainedProperties.getProperty(IndexRightBetaMemoryOption.PROPERTY_NAME, "true")).booleanValue());
 
+        setTypedBetaMemoryIndex(Boolean.valueOf(this.chainedProperties.getProperty(TypedBetaMemoryIndexOption.PROPERTY_NAME, "true")).booleanValue());
+
+        setJoinOrderOptimization(Boolean.valueOf(this.chainedProperties.getProperty(JoinOrderOptimizationOption.PROPERTY_NAME, "false")).booleanValue());
+
+        setBatchedExpiration(Boolean.valueOf(this.chainedProperties.getProperty(BatchedExpirationOption.PROPERTY_NAME, "false")).booleanValue());
+
+        setCompactFactHandles(Boolean.valueOf(this.chainedProperties.getProperty(CompactFactHandlesOption.PROPERTY_NAME, "false")).booleanValue());
+
         setIndexPrecedenceOption(IndexPrecedenceOption.determineIndexPrecedence(this.chainedProperties.getProperty(IndexPrecedenceOption.PROPERTY_NAME, "equality")));
 
         setAssertBehaviour(AssertBehaviour.determineAssertBehaviour(this.chainedProperties.getProperty(EqualityBehaviorOption.PROPERTY_NAME, "identity")));
@@ -479,6 +541,12 @@ public class RuleBaseConfiguration
         setMaxThreads( Integer.parseInt( this.chainedProperties.getProperty( MaxThreadsOption.PROPERTY_NAME,
                                                                              "3" ) ) );
 
+        setParallelEvaluationSlotsNumber( Integer.parseInt( this.chainedProperties.getProperty( ParallelEvaluationSlotsOption.PROPERTY_NAME,
+                                                                                                "" + ParallelEvaluationSlotsOption.DEFAULT_VALUE ) ) );
+
+        setParallelExecutor( ParallelExecutorOption.determineParallelExecutor( this.chainedProperties.getProperty( ParallelExecutorOption.PROPERTY_NAME,
+                                                                                                                  ParallelExecutorOption.SHARED.getValue() ) ) );
+
         setEventProcessingMode( EventProcessingOption.determineEventProcessingMode( this.chainedProperties.getProperty( EventProcessingOption.PROPERTY_NAME,
                                                                                                                         "cloud" ) ) );
 
@@ -675,6 +743,42 @@ public class RuleBaseConfiguration
         this.indexRightBetaMemory = indexRightBetaMemory;
     }
 
+    public boolean isTypedBetaMemoryIndex() {
+        return this.typedBetaMemoryIndex;
+    }
+
+    public void setTypedBetaMemoryIndex(final boolean typedBetaMemoryIndex) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.typedBetaMemoryIndex = typedBetaMemoryIndex;
+    }
+
+    public boolean isJoinOrderOptimization() {
+        return this.joinOrderOptimization;
+    }
+
+    public void setJoinOrderOptimization(final boolean joinOrderOptimization) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.joinOrderOptimization = joinOrderOptimization;
+    }
+
+    public boolean isBatchedExpiration() {
+        return this.batchedExpiration;
+    }
+
+    public void setBatchedExpiration(final boolean batchedExpiration) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.batchedExpiration = batchedExpiration;
+    }
+
+    public boolean isCompactFactHandles() {
+        return this.compactFactHandles;
+    }
+
+    public void setCompactFactHandles(final boolean compactFactHandles) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.compactFactHandles = compactFactHandles;
+    }
+
     public IndexPrecedenceOption getIndexPrecedenceOption() {
         return this.indexPrecedenceOption;
     }
@@ -766,6 +870,40 @@ public class RuleBaseConfiguration
         return this.maxThreads;
     }
 
+    /**
+     * If multi-thread evaluation is enabled, this parameter configures the
+     * number of slots among which the partitions of the rule base are distributed,
+     * and then the number of partitions that can be evaluated in parallel.
+     *
+     * @param parallelEvaluationSlotsNumber the number of parallel evaluation slots.
+     *                   Default is the number of available processors.
+     */
+    public void setParallelEvaluationSlotsNumber(final int parallelEvaluationSlotsNumber) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        if ( parallelEvaluationSlotsNumber < 1 ) {
+            throw new IllegalArgumentException( "The number of parallel evaluation slots must be positive: " + parallelEvaluationSlotsNumber );
+        }
+        this.parallelEvaluationSlotsNumber = parallelEvaluationSlotsNumber;
+    }
+
+    public int getParallelEvaluationSlotsNumber() {
+        return this.parallelEvaluationSlotsNumber;
+    }
+
+    /**
+     * Defines the executor used to evaluate the partitions of the rule base
+     * in parallel when multi-thread evaluation is enabled. Default is the
+     * executor shared by all the rule bases of the JVM.
+     */
+    public void setParallelExecutor(final ParallelExecutorOption parallelExecutor) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.parallelExecutor = parallelExecutor;
+    }
+
+    public ParallelExecutorOption getParallelExecutor() {
+        return this.parallelExecutor;
+    }
+
     public boolean isDeclarativeAgenda() {
         return this.declarativeAgenda;
     }
@@ -1033,6 +1171,14 @@ public class RuleBaseConfiguration
             return (T) (this.indexLeftBetaMemory ? IndexLeftBetaMemoryOption.YES : IndexLeftBetaMemoryOption.NO);
         } else if (IndexRightBetaMemoryOption.class.equals(option)) {
             return (T) (this.indexRightBetaMemory ? IndexRightBetaMemoryOption.YES : IndexRightBetaMemoryOption.NO);
+        } else if (TypedBetaMemoryIndexOption.class.equals(option)) {
+            return (T) (this.typedBetaMemoryIndex ? TypedBetaMemoryIndexOption.YES : TypedBetaMemoryIndexOption.NO);
+        } else if (JoinOrderOptimizationOption.class.equals(option)) {
+            return (T) (this.joinOrderOptimization ? JoinOrderOptimizationOption.YES : JoinOrderOptimizationOption.NO);
+        } else if (BatchedExpirationOption.class.equals(option)) {
+            return (T) (this.batchedExpiration ? BatchedExpirationOption.YES : BatchedExpirationOption.NO);
+        } else if (CompactFactHandlesOption.class.equals(option)) {
+            return (T) (this.compactFactHandles ? CompactFactHandlesOption.YES : CompactFactHandlesOption.NO);
         } else if (IndexPrecedenceOption.class.equals(option)) {
             return (T) getIndexPrecedenceOption();
         } else if (EqualityBehaviorOption.class.equals(option)) {
@@ -1066,6 +1212,10 @@ public class RuleBaseConfiguration
             return (T) getEventProcessingMode();
         } else if (MaxThreadsOption.class.equals(option)) {
             return (T) MaxThreadsOption.get(getMaxThreads());
+        } else if (ParallelEvaluationSlotsOption.class.equals(option)) {
+            return (T) ParallelEvaluationSlotsOption.get(getParallelEvaluationSlotsNumber());
+        } else if (ParallelExecutorOption.class.equals(option)) {
+            return (T) getParallelExecutor();
         } else if (MultithreadEvaluationOption.class.equals(option)) {
             return (T) (this.multithread ? MultithreadEvaluationOption.YES : MultithreadEvaluationOption.NO);
         } else if (MBeansOption.class.equals(option)) {
@@ -1092,6 +1242,14 @@ public class RuleBaseConfiguration
             setIndexLeftBetaMemory(((IndexLeftBetaMemoryOption) option).isIndexLeftBetaMemory());
         } else if (option instanceof IndexRightBetaMemoryOption) {
             setIndexRightBetaMemory(((IndexRightBetaMemoryOption) option).isIndexRightBetaMemory());
+        } else if (option instanceof TypedBetaMemoryIndexOption) {
+            setTypedBetaMemoryIndex(((TypedBetaMemoryIndexOption) option).isTypedBetaMemoryIndex());
+        } else if (option instanceof JoinOrderOptimizationOption) {
+            setJoinOrderOptimization(((JoinOrderOptimizationOption) option).isJoinOrderOptimization());
+        } else if (option instanceof BatchedExpirationOption) {
+            setBatchedExpiration(((BatchedExpirationOption) option).isBatchedExpiration());
+        } else if (option instanceof CompactFactHandlesOption) {
+            setCompactFactHandles(((CompactFactHandlesOption) option).isCompactFactHandles());
         } else if (option instanceof IndexPrecedenceOption) {
             setIndexPrecedenceOption((IndexPrecedenceOption) option);
         } else if (option instanceof EqualityBehaviorOption) {
@@ -1118,6 +1276,10 @@ public class RuleBaseConfiguration
             setEventProcessingMode( (EventProcessingOption) option);
         } else if (option instanceof MaxThreadsOption) {
             setMaxThreads( ( (MaxThreadsOption) option ).getMaxThreads());
+        } else if (option instanceof ParallelEvaluationSlotsOption) {
+            setParallelEvaluationSlotsNumber( ( (ParallelEvaluationSlotsOption) option ).getSlots());
+        } else if (option instanceof ParallelExecutorOption) {
+            setParallelExecutor( (ParallelExecutorOption) option );
         } else if (option instanceof MultithreadEvaluationOption) {
             setMultithreadEvaluation( ( (MultithreadEvaluationOption) option ).isMultithreadEvaluation());
         } else if (option instanceof MBeansOption) {
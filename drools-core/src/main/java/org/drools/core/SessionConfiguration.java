@@ -44,6 +44,7 @@ import org.kie.api.runtime.conf.WorkItemHandlerOption;
 import org.kie.api.runtime.process.WorkItemHandler;
 import org.kie.internal.runtime.conf.ForceEagerActivationFilter;
 import org.kie.internal.runtime.conf.ForceEagerActivationOption;
+import org.kie.internal.runtime.conf.LockFreePropagationListOption;
 
 public abstract class SessionConfiguration implements KieSessionConfiguration, Externalizable {
 
@@ -61,6 +62,8 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
     public abstract boolean isDirectFiring();
     public abstract void setThreadSafe(boolean threadSafe);
     public abstract boolean isThreadSafe();
+    public abstract void setLockFreePropagationList(boolean lockFreePropagationList);
+    public abstract boolean isLockFreePropagationList();
     public abstract void setAccumulateNullPropagation(boolean accumulateNullPropagation);
     public abstract boolean isAccumulateNullPropagation();
 
@@ -118,6 +121,8 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             setDirectFiring(((DirectFiringOption) option).isDirectFiring());
         } else if ( option instanceof ThreadSafeOption ) {
             setThreadSafe(((ThreadSafeOption) option).isThreadSafe());
+        } else if ( option instanceof LockFreePropagationListOption ) {
+            setLockFreePropagationList(((LockFreePropagationListOption) option).isLockFree());
         } else if ( option instanceof AccumulateNullPropagationOption ) {
             setAccumulateNullPropagation(((AccumulateNullPropagationOption) option).isAccumulateNullPropagation());
         } else if ( option instanceof ForceEagerActivationOption ) {
@@ -144,6 +149,8 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             return (T) (isDirectFiring() ? DirectFiringOption.YES : DirectFiringOption.NO);
         } else if ( ThreadSafeOption.class.equals( option ) ) {
             return (T) (isThreadSafe() ? ThreadSafeOption.YES : ThreadSafeOption.NO);
+        } else if ( LockFreePropagationListOption.class.equals( option ) ) {
+            return (T) (isLockFreePropagationList() ? LockFreePropagationListOption.YES : LockFreePropagationListOption.NO);
         } else if ( AccumulateNullPropagationOption.class.equals( option ) ) {
             return (T) (isAccumulateNullPropagation() ? AccumulateNullPropagationOption.YES : AccumulateNullPropagationOption.NO);
         } else if ( TimerJobFactoryOption.class.equals( option ) ) {
@@ -179,6 +186,8 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             setDirectFiring(!StringUtils.isEmpty(value) && Boolean.parseBoolean(value));
         }else if ( name.equals( ThreadSafeOption.PROPERTY_NAME ) ) {
             setThreadSafe( StringUtils.isEmpty( value ) || Boolean.parseBoolean( value ) );
+        } else if ( name.equals( LockFreePropagationListOption.PROPERTY_NAME ) ) {
+            setLockFreePropagationList( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
         } else if ( name.equals( AccumulateNullPropagationOption.PROPERTY_NAME ) ) {
             setAccumulateNullPropagation( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
         } else if ( name.equals( ForceEagerActivationOption.PROPERTY_NAME ) ) {
@@ -209,6 +218,8 @@ public abstract class SessionConfiguration implements KieSessionConfiguration, E
             return Boolean.toString(isDirectFiring());
         }else if ( name.equals( ThreadSafeOption.PROPERTY_NAME ) ) {
             return Boolean.toString(isThreadSafe());
+        } else if ( name.equals( LockFreePropagationListOption.PROPERTY_NAME ) ) {
+            return Boolean.toString(isLockFreePropagationList());
         } else if ( name.equals( AccumulateNullPropagationOption.PROPERTY_NAME ) ) {
             return Boolean.toString(isAccumulateNullPropagation());
         } else if ( name.equals( ClockTypeOption.PROPERTY_NAME ) ) {
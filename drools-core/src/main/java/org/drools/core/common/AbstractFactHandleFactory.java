@@ -98,7 +98,7 @@ public abstract class AbstractFactHandleFactory implements FactHandleFactory  {
         }
     }
 
-    protected DefaultFactHandle createDefaultFactHandle(long id, Object object, long recency, WorkingMemoryEntryPoint entryPoint) {
+    protected InternalFactHandle createDefaultFactHandle(long id, Object object, long recency, WorkingMemoryEntryPoint entryPoint) {
         return new DefaultFactHandle(id, object, recency, entryPoint);
     }
 
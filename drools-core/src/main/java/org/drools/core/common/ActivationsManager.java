@@ -17,6 +17,7 @@
 package org.drools.core.common;
 
 import org.drools.core.event.AgendaEventSupport;
+import org.drools.core.impl.ExpirationManager;
 import org.drools.core.phreak.ExecutableEntry;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -49,6 +50,10 @@ public interface ActivationsManager {
 
     void registerExpiration(PropagationContext expirationContext);
 
+    ExpirationManager getExpirationManager();
+
+    void reset();
+
     void clearAndCancelActivationGroup(String name);
     void clearAndCancelActivationGroup(InternalActivationGroup activationGroup);
 
@@ -26,25 +26,36 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 import org.drools.core.factmodel.traits.CoreWrapper;
+import org.drools.util.ClassUtils;
 import org.kie.api.runtime.ClassObjectFilter;
 import org.kie.api.runtime.ObjectFilter;
 
+/**
+ * An object store keeping the fact handles of each concrete class in a separate store, so they can be iterated
+ * by class without filtering all the facts.
+ * The facts can be iterated and looked up by other threads while the engine is inserting them: the iterators
+ * work on a snapshot of the fact handles of each class, copied in chunks so the engine is usually blocked for no more
+ * than a chunk while changing the facts of that class.
+ */
 public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
     private Lock lock;
 
-    private Map<String, SingleClassStore> storesMap = new HashMap<>();
+    private Map<String, SingleClassStore> storesMap = new ConcurrentHashMap<>();
     private List<ConcreteClassStore> concreteStores = new CopyOnWriteArrayList<>();
 
     private FactHandleMap equalityMap;
 
     private boolean isEqualityBehaviour;
 
-    private int size;
+    private volatile int size;
 
     public ClassAwareObjectStore() { }
 
@@ -68,8 +79,8 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
-        storesMap = (Map<String, SingleClassStore>) in.readObject();
-        concreteStores = (List<ConcreteClassStore>) in.readObject();
+        storesMap = new ConcurrentHashMap<>((Map<String, SingleClassStore>) in.readObject());
+        concreteStores = new CopyOnWriteArrayList<>((List<ConcreteClassStore>) in.readObject());
         equalityMap = (FactHandleMap) in.readObject();
         size = in.readInt();
         isEqualityBehaviour = in.readBoolean();
@@ -245,11 +256,11 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
     public SingleClassStore getOrCreateClassStore(Class<?> clazz) {
         SingleClassStore store = storesMap.get(clazz.getName());
-        if (store == null) {
-            store = createClassStoreAndAddConcreteSubStores(clazz);
-            storesMap.put(clazz.getName(), store);
-        }
-        return store;
+        return store != null ? store : createClassStore(clazz);
+    }
+
+    private synchronized SingleClassStore createClassStore(Class<?> clazz) {
+        return storesMap.computeIfAbsent(clazz.getName(), name -> createClassStoreAndAddConcreteSubStores(clazz));
     }
 
     private ConcreteClassStore getOrCreateConcreteClassStore(Object object) {
@@ -266,24 +277,36 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
     }
 
-    private ConcreteClassStore makeStoreConcrete(SingleClassStore storeToMakeConcrete) {
+    private synchronized ConcreteClassStore makeStoreConcrete(SingleClassStore storeToMakeConcrete) {
+        if (storeToMakeConcrete.isConcrete()) {
+            return (ConcreteClassStore) storeToMakeConcrete;
+        }
         ConcreteClassStore store = storeToMakeConcrete.makeConcrete();
         Class<?> storedClass = storeToMakeConcrete.getStoredClass();
 
-        for (SingleClassStore classStore : storesMap.values()) {
-            if (classStore.getStoredClass().isAssignableFrom(storedClass)) {
-                classStore.addConcreteStore(store);
-            }
+        // only the stores of the supertypes of the new concrete class have to be linked to it
+        for (Class<?> superType = storedClass; superType != null; superType = superType.getSuperclass()) {
+            addConcreteStoreToClassStore(superType, store);
+        }
+        for (Class<?> superType : ClassUtils.getAllImplementedInterfaceNames(storedClass)) {
+            addConcreteStoreToClassStore(superType, store);
         }
         concreteStores.add(store);
         return store;
     }
 
+    private void addConcreteStoreToClassStore(Class<?> superType, ConcreteClassStore store) {
+        SingleClassStore classStore = storesMap.get(superType.getName());
+        if (classStore != null && classStore.getStoredClass().isAssignableFrom(store.getStoredClass())) {
+            classStore.addConcreteStore(store);
+        }
+    }
+
     private SingleClassStore createClassStoreAndAddConcreteSubStores(Class<?> clazz) {
         SingleClassStore newStore = isEqualityBehaviour ? new ConcreteEqualityClassStore(clazz, equalityMap) : new ConcreteIdentityClassStore(clazz);
-        for (SingleClassStore classStore : storesMap.values()) {
-            if (classStore.isConcrete() && clazz.isAssignableFrom(classStore.getStoredClass())) {
-                newStore.addConcreteStore(((ConcreteClassStore) classStore));
+        for (ConcreteClassStore classStore : concreteStores) {
+            if (clazz.isAssignableFrom(classStore.getStoredClass())) {
+                newStore.addConcreteStore(classStore);
             }
         }
         return newStore;
@@ -307,7 +330,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
     private abstract static class AbstractClassStore implements SingleClassStore {
         private Class<?> storedClass;
-        private List<ConcreteClassStore> concreteStores = new ArrayList<>();
+        private List<ConcreteClassStore> concreteStores = new CopyOnWriteArrayList<>();
 
         public AbstractClassStore() { }
 
@@ -341,7 +364,7 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         @Override
         public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
             storedClass = (Class<?>)in.readObject();
-            concreteStores = (List<ConcreteClassStore>)in.readObject();
+            concreteStores = new CopyOnWriteArrayList<>((List<ConcreteClassStore>)in.readObject());
         }
 
         @Override
@@ -361,9 +384,9 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
 
     private static class ConcreteIdentityClassStore extends AbstractClassStore implements ConcreteClassStore {
 
-        private FactHandleMap identityMap;
+        private volatile FactHandleMap identityMap;
 
-        private FactHandleMap negMap;
+        private volatile FactHandleMap negMap;
 
         public ConcreteIdentityClassStore() { }
 
@@ -602,9 +625,19 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
     }
 
     private static class FactHandleMap implements Externalizable {
+        // the number of facts copied holding the read lock, before giving the engine a chance to change the map
+        private static final int COPY_CHUNK_SIZE = 1024;
+        // the number of chunked copies restarted because the map changed between two chunks, before copying it at once
+        private static final int MAX_CHUNKED_COPIES = 3;
+
         private Map<Object, InternalFactHandle> facts;
         private Map<Long, InternalFactHandle> factsById;
 
+        // guards the changes to the maps, so they can be read while the engine is changing them
+        private final transient StampedLock stampedLock = new StampedLock();
+        // changed holding the write lock, tells the chunked copies whether the map changed between two chunks
+        private transient int modCount;
+
         public FactHandleMap() { }
 
         public FactHandleMap(boolean identity) {
@@ -622,50 +655,142 @@ public class ClassAwareObjectStore implements Externalizable, ObjectStore {
         }
 
         public InternalFactHandle get(Object obj) {
-            return facts.get(obj);
+            long stamp = stampedLock.tryOptimisticRead();
+            if (stamp != 0L) {
+                try {
+                    InternalFactHandle fh = facts.get(obj);
+                    if (stampedLock.validate(stamp)) {
+                        return fh;
+                    }
+                } catch (RuntimeException e) {
+                    // the map has been changed while reading it, read it again holding the lock
+                }
+            }
+            stamp = stampedLock.readLock();
+            try {
+                return facts.get(obj);
+            } finally {
+                stampedLock.unlockRead(stamp);
+            }
         }
 
         public InternalFactHandle put(Object obj, InternalFactHandle fh) {
-            InternalFactHandle existing = facts.put(obj, fh);
-            if (factsById != null) {
-                factsById.put(fh.getId(), fh);
+            long stamp = stampedLock.writeLock();
+            try {
+                InternalFactHandle existing = facts.put(obj, fh);
+                if (factsById != null) {
+                    factsById.put(fh.getId(), fh);
+                }
+                modCount++;
+                return existing;
+            } finally {
+                stampedLock.unlockWrite(stamp);
             }
-            return existing;
         }
 
         public InternalFactHandle get(InternalFactHandle fh) {
-            return fh.isDisconnected() ? factsIndexedById().get(fh.getId()) : facts.get(fh.getObject());
+            return fh.isDisconnected() ? getById(fh.getId()) : get(fh.getObject());
         }
 
         public InternalFactHandle remove(InternalFactHandle fh) {
-            InternalFactHandle retrieved = facts.remove(fh.getObject());
-            if (factsById != null) {
-                factsById.remove(fh.getId());
+            long stamp = stampedLock.writeLock();
+            try {
+                InternalFactHandle retrieved = facts.remove(fh.getObject());
+                if (factsById != null) {
+                    factsById.remove(fh.getId());
+                }
+                modCount++;
+                return retrieved;
+            } finally {
+                stampedLock.unlockWrite(stamp);
             }
-            return retrieved;
         }
 
-        private Map<Long, InternalFactHandle> factsIndexedById() {
-            if (factsById == null) {
-                factsById = new HashMap<>();
-                for (InternalFactHandle fh : facts.values()) {
-                    factsById.put(fh.getId(), fh);
+        private InternalFactHandle getById(long id) {
+            long stamp = stampedLock.readLock();
+            try {
+                if (factsById == null) {
+                    // the index is built by the first lookup by id, holding the write lock
+                    long writeStamp = stampedLock.tryConvertToWriteLock(stamp);
+                    if (writeStamp == 0L) {
+                        stampedLock.unlockRead(stamp);
+                        writeStamp = stampedLock.writeLock();
+                    }
+                    stamp = writeStamp;
+                    if (factsById == null) {
+                        factsById = new HashMap<>();
+                        for (InternalFactHandle fh : facts.values()) {
+                            factsById.put(fh.getId(), fh);
+                        }
+                    }
                 }
+                return factsById.get(id);
+            } finally {
+                stampedLock.unlock(stamp);
             }
-            return factsById;
         }
 
         public Collection<Object> getObjects() {
-            return facts.keySet();
+            return copy(() -> facts.keySet());
         }
 
         public Collection<InternalFactHandle> getFacts() {
-            return facts.values();
+            return copy(() -> facts.values());
+        }
+
+        private <T> List<T> copy(Supplier<Collection<T>> view) {
+            for (int i = 0; i < MAX_CHUNKED_COPIES; i++) {
+                List<T> copy = copyInChunks(view);
+                if (copy != null) {
+                    return copy;
+                }
+            }
+            // the engine keeps changing the map, copy it without letting it in
+            long stamp = stampedLock.readLock();
+            try {
+                return new ArrayList<>(view.get());
+            } finally {
+                stampedLock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Copies the map releasing the read lock after each chunk, so the engine is never blocked for more
+         * than a chunk, and returns null if the map has been changed in between.
+         */
+        private <T> List<T> copyInChunks(Supplier<Collection<T>> view) {
+            long stamp = stampedLock.readLock();
+            try {
+                int expectedModCount = modCount;
+                List<T> copy = new ArrayList<>(facts.size());
+                Iterator<T> iterator = view.get().iterator();
+                while (true) {
+                    for (int i = 0; i < COPY_CHUNK_SIZE && iterator.hasNext(); i++) {
+                        copy.add(iterator.next());
+                    }
+                    if (!iterator.hasNext()) {
+                        return copy;
+                    }
+                    stampedLock.unlockRead(stamp);
+                    stamp = stampedLock.readLock();
+                    if (modCount != expectedModCount) {
+                        return null;
+                    }
+                }
+            } finally {
+                stampedLock.unlockRead(stamp);
+            }
         }
 
         public void clear() {
-            facts.clear();
-            factsById = null;
+            long stamp = stampedLock.writeLock();
+            try {
+                facts.clear();
+                factsById = null;
+                modCount++;
+            } finally {
+                stampedLock.unlockWrite(stamp);
+            }
         }
     }
 }
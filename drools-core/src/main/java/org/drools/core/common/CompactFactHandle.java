@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.factmodel.traits.TraitTypeEnum;
+import org.drools.core.impl.RuleBase;
+import org.drools.core.reteoo.LeftTuple;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.rule.EntryPointId;
+import org.kie.internal.conf.CompactFactHandlesOption;
+import org.kie.internal.conf.MultithreadEvaluationOption;
+
+/**
+ * A fact handle for the facts that aren't events, taking less memory than the {@link DefaultFactHandle}.
+ * It is itself the list of the tuples of the fact, it keeps its valid, disconnected and negated flags in a
+ * single int and it has no equality key, parent handle nor cached object hash code and class name.
+ * It is created instead of a {@link DefaultFactHandle} when the compact fact handles are enabled in a
+ * kie base using the identity equality behavior and without multithread evaluation.
+ */
+public class CompactFactHandle extends DefaultFactHandle.SingleLinkedTuples implements InternalFactHandle {
+
+    private static final long serialVersionUID = 510l;
+
+    private static final int VALID        = 1;
+    private static final int DISCONNECTED = 1 << 1;
+    private static final int NEGATED      = 1 << 2;
+
+    private long id;
+    private long recency;
+    private Object object;
+    private int identityHashCode;
+    private int flags = VALID;
+
+    private transient WorkingMemoryEntryPoint wmEntryPoint;
+
+    public CompactFactHandle(final long id,
+                             final Object object,
+                             final long recency,
+                             final WorkingMemoryEntryPoint wmEntryPoint) {
+        this.id = id;
+        this.object = object;
+        this.recency = recency;
+        this.wmEntryPoint = wmEntryPoint;
+    }
+
+    public static boolean isEnabled(RuleBase kbase) {
+        return kbase != null &&
+               kbase.getConfiguration().isCompactFactHandles() &&
+               kbase.getConfiguration().getAssertBehaviour() == RuleBaseConfiguration.AssertBehaviour.IDENTITY &&
+               !kbase.getConfiguration().isMultithreadEvaluation();
+    }
+
+    public boolean equals( final Object object ) {
+        return this == object || ( object instanceof CompactFactHandle && this.id == ( (CompactFactHandle) object ).id );
+    }
+
+    public int hashCode() {
+        return Long.hashCode(this.id);
+    }
+
+    public long getId() {
+        return this.id;
+    }
+
+    public long getRecency() {
+        return this.recency;
+    }
+
+    public void setRecency( final long recency ) {
+        this.recency = recency;
+    }
+
+    public Object getObject() {
+        return this.object;
+    }
+
+    public void setObject( final Object object ) {
+        this.object = object;
+        this.identityHashCode = 0;
+    }
+
+    public String getObjectClassName() {
+        return object != null ? object.getClass().getName() : null;
+    }
+
+    public int getIdentityHashCode() {
+        if (this.identityHashCode == 0 && this.object != null) {
+            this.identityHashCode = DefaultFactHandle.determineIdentityHashCode( object );
+        }
+        return this.identityHashCode;
+    }
+
+    public int getObjectHashCode() {
+        return object != null ? object.hashCode() : 0;
+    }
+
+    public EqualityKey getEqualityKey() {
+        return null;
+    }
+
+    public void setEqualityKey( final EqualityKey key ) {
+        if ( key != null ) {
+            throw new UnsupportedOperationException( "Compact fact handles don't support truth maintenance, disable the " +
+                                                     CompactFactHandlesOption.PROPERTY_NAME + " option" );
+        }
+    }
+
+    public void invalidate() {
+        flags &= ~VALID;
+    }
+
+    public boolean isValid() {
+        return (flags & VALID) != 0;
+    }
+
+    public boolean isDisconnected() {
+        return (flags & DISCONNECTED) != 0;
+    }
+
+    public void disconnect() {
+        clearLeftTuples();
+        clearRightTuples();
+        this.wmEntryPoint = null;
+        flags |= DISCONNECTED;
+    }
+
+    public boolean isNegated() {
+        return (flags & NEGATED) != 0;
+    }
+
+    public void setNegated( boolean negated ) {
+        flags = negated ? flags | NEGATED : flags & ~NEGATED;
+    }
+
+    @Override
+    public <K> K as( Class<K> klass ) throws ClassCastException {
+        if ( klass.isAssignableFrom( object.getClass() ) ) {
+            return (K) object;
+        }
+        throw new ClassCastException( "The Handle's Object can't be cast to " + klass );
+    }
+
+    public boolean isEvent() {
+        return false;
+    }
+
+    public boolean isTraitOrTraitable() {
+        return false;
+    }
+
+    public boolean isTraitable() {
+        return false;
+    }
+
+    public boolean isTraiting() {
+        return false;
+    }
+
+    public TraitTypeEnum getTraitType() {
+        return TraitTypeEnum.NON_TRAIT;
+    }
+
+    public boolean isExpired() {
+        return false;
+    }
+
+    public boolean isPendingRemoveFromStore() {
+        return false;
+    }
+
+    public ReteEvaluator getReteEvaluator() {
+        return wmEntryPoint.getReteEvaluator();
+    }
+
+    public EntryPointId getEntryPointId() {
+        return wmEntryPoint != null ? wmEntryPoint.getEntryPoint() : null;
+    }
+
+    public WorkingMemoryEntryPoint getEntryPoint(ReteEvaluator reteEvaluator) {
+        return wmEntryPoint;
+    }
+
+    @Override
+    public LeftTuple getFirstLeftTuple() {
+        return super.getFirstLeftTuple();
+    }
+
+    @Override
+    public void setFirstLeftTuple( LeftTuple firstLeftTuple ) {
+        super.setFirstLeftTuple( firstLeftTuple );
+    }
+
+    @Override
+    public RightTuple getFirstRightTuple() {
+        return super.getFirstRightTuple();
+    }
+
+    public LinkedTuples getLinkedTuples() {
+        return this;
+    }
+
+    public LinkedTuples detachLinkedTuples() {
+        LinkedTuples detached = super.clone();
+        clearLeftTuples();
+        clearRightTuples();
+        return detached;
+    }
+
+    public LinkedTuples detachLinkedTuplesForPartition(int i) {
+        // isEnabled() never creates compact handles for a multithread kbase, so this can't be reached by the engine
+        throw new UnsupportedOperationException( "Compact fact handles don't keep their tuples by partition, so they are never used with the " +
+                                                 MultithreadEvaluationOption.PROPERTY_NAME + " option" );
+    }
+
+    public CompactFactHandle clone() {
+        CompactFactHandle clone = new CompactFactHandle( this.id, this.object, this.recency, this.wmEntryPoint );
+        clone.identityHashCode = this.identityHashCode;
+        clone.flags = this.flags;
+        copyTuplesTo( clone );
+        return clone;
+    }
+
+    /**
+     * format_version:id:identity:hashcode:recency
+     *
+     * @see org.kie.api.runtime.rule.FactHandle
+     */
+    public String toExternalForm() {
+        EntryPointId entryPointId = getEntryPointId();
+        return DefaultFactHandle.FACT_FORMAT_VERSION + ":" + this.id +
+               ":" +
+               getIdentityHashCode() +
+               ":" +
+               getObjectHashCode() +
+               ":" +
+               this.recency +
+               ":" +
+               ( entryPointId != null ? entryPointId.getEntryPointId() : "null" ) +
+               ":" +
+               getTraitType().name() +
+               ":" +
+               getObjectClassName();
+    }
+
+    public String toString() {
+        return "[fact " + toExternalForm() + ":" + this.object + "]";
+    }
+}
@@ -365,7 +365,7 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
 
     protected void setLinkedTuples( RuleBase kbase ) {
         linkedTuples = kbase != null && kbase.getConfiguration().isMultithreadEvaluation() ?
-                       new CompositeLinkedTuples() :
+                       new CompositeLinkedTuples( kbase.getConfiguration().getParallelEvaluationSlotsNumber() ) :
                        new SingleLinkedTuples();
     }
 
@@ -472,7 +472,10 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
         private LeftTuple  lastLeftTuple;
 
         public SingleLinkedTuples clone() {
-            SingleLinkedTuples clone = new SingleLinkedTuples();
+            return copyTuplesTo( new SingleLinkedTuples() );
+        }
+
+        SingleLinkedTuples copyTuplesTo( SingleLinkedTuples clone ) {
             clone.firstLeftTuple = this.firstLeftTuple;
             clone.lastLeftTuple = this.lastLeftTuple;
             clone.firstRightTuple = this.firstRightTuple;
@@ -736,9 +739,10 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
 
     public static class CompositeLinkedTuples implements LinkedTuples {
 
-        private final SingleLinkedTuples[] partitionedTuples = new SingleLinkedTuples[RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER];
+        private final SingleLinkedTuples[] partitionedTuples;
 
-        public CompositeLinkedTuples() {
+        public CompositeLinkedTuples( int parallelEvaluationSlotsNumber ) {
+            partitionedTuples = new SingleLinkedTuples[parallelEvaluationSlotsNumber];
             for (int i = 0; i < partitionedTuples.length; i++) {
                 partitionedTuples[i] = new SingleLinkedTuples();
             }
@@ -746,12 +750,12 @@ public class DefaultFactHandle extends AbstractBaseLinkedListNode<DefaultFactHan
 
         @Override
         public LinkedTuples newInstance() {
-            return new CompositeLinkedTuples();
+            return new CompositeLinkedTuples( partitionedTuples.length );
         }
 
         @Override
         public LinkedTuples clone() {
-            CompositeLinkedTuples clone = new CompositeLinkedTuples();
+            CompositeLinkedTuples clone = new CompositeLinkedTuples( partitionedTuples.length );
             for (int i = 0; i < partitionedTuples.length; i++) {
                 clone.partitionedTuples[i] = partitionedTuples[i].clone();
             }
@@ -22,6 +22,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 
 import org.drools.core.util.LinkedList;
+import org.kie.internal.conf.CompactFactHandlesOption;
 
 /**
  * Upon instantiation the EqualityKey caches the first Object's hashCode
@@ -44,17 +45,26 @@ public abstract class EqualityKey extends LinkedList<DefaultFactHandle> implemen
     }
 
     public EqualityKey(final InternalFactHandle handle) {
-        super( ( DefaultFactHandle ) handle );
+        super( asLinkedHandle( handle ) );
         this.hashCode = handle.getObjectHashCode();
     }
 
     public EqualityKey(final InternalFactHandle handle,
                        final int status) {
-        super( ( DefaultFactHandle ) handle );
+        super( asLinkedHandle( handle ) );
         this.hashCode = handle.getObjectHashCode();
         this.status = status;
     }
 
+    private static DefaultFactHandle asLinkedHandle(final InternalFactHandle handle) {
+        if ( handle instanceof CompactFactHandle ) {
+            // compact fact handles can't be linked in the list of the handles of a key
+            throw new UnsupportedOperationException( "Compact fact handles don't support truth maintenance, disable the " +
+                                                     CompactFactHandlesOption.PROPERTY_NAME + " option" );
+        }
+        return ( DefaultFactHandle ) handle;
+    }
+
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         super.readExternal(in);
         hashCode    = in.readInt();
@@ -76,11 +86,11 @@ public abstract class EqualityKey extends LinkedList<DefaultFactHandle> implemen
     }
 
     public void addFactHandle(final InternalFactHandle handle) {
-        add( ( DefaultFactHandle ) handle );
+        add( asLinkedHandle( handle ) );
     }
 
     public void removeFactHandle(final InternalFactHandle handle) {
-        remove( ( DefaultFactHandle ) handle );
+        remove( asLinkedHandle( handle ) );
     }
 
     /**
@@ -19,6 +19,7 @@ package org.drools.core.common;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.impl.ExpirationManager;
 import org.drools.core.rule.EntryPointId;
 import org.drools.core.time.JobHandle;
 import org.drools.core.time.TimerService;
@@ -73,7 +74,7 @@ public class EventFactHandle extends DefaultFactHandle implements Comparable<Eve
         this.duration = duration;
 
         if ( wmEntryPoint.getKnowledgeBase() != null && wmEntryPoint.getKnowledgeBase().getConfiguration().isMultithreadEvaluation() ) {
-            notExpiredPartitions = new AtomicInteger( RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER );
+            notExpiredPartitions = new AtomicInteger( wmEntryPoint.getKnowledgeBase().getConfiguration().getParallelEvaluationSlotsNumber() );
         }
     }
 
@@ -329,7 +330,12 @@ public class EventFactHandle extends DefaultFactHandle implements Comparable<Eve
                 TimerService clock = reteEvaluator.getTimerService();
                 while ( !jobs.isEmpty() ) {
                     JobHandle job = jobs.removeFirst();
-                    clock.removeJob(job);
+                    if (job instanceof ExpirationManager.ExpirationJobHandle) {
+                        // the job shared with the other events expiring at the same time is kept
+                        ((ExpirationManager.ExpirationJobHandle) job).cancel();
+                    } else {
+                        clock.removeJob(job);
+                    }
                 }
             }
         }
@@ -30,14 +30,18 @@ public final class RuleBasePartitionId implements Serializable {
 
     public static final int PARALLEL_PARTITIONS_NUMBER = KieExecutors.Pool.SIZE;
 
-    public static final RuleBasePartitionId MAIN_PARTITION = new RuleBasePartitionId( 0 );
+    // the main partition is always evaluated by the first slot, whatever the number of slots of the kbase
+    public static final RuleBasePartitionId MAIN_PARTITION = new RuleBasePartitionId( 0, 1 );
 
     private static final AtomicInteger PARTITION_COUNTER = new AtomicInteger( 1 );
 
     private final int id;
 
-    private RuleBasePartitionId( int id ) {
+    private final int parallelEvaluationSlotsNumber;
+
+    private RuleBasePartitionId( int id, int parallelEvaluationSlotsNumber ) {
         this.id = id;
+        this.parallelEvaluationSlotsNumber = parallelEvaluationSlotsNumber;
     }
 
     public int getId() {
@@ -45,7 +49,7 @@ public final class RuleBasePartitionId implements Serializable {
     }
 
     public int getParallelEvaluationSlot() {
-        return id % PARALLEL_PARTITIONS_NUMBER;
+        return id % parallelEvaluationSlotsNumber;
     }
 
     @Override
@@ -62,7 +66,15 @@ public final class RuleBasePartitionId implements Serializable {
         return "Partition(" + (id == 0 ? "MAIN" : id) + ")";
     }
 
-    public static RuleBasePartitionId createPartition() {
-        return new RuleBasePartitionId( PARTITION_COUNTER.getAndIncrement() );
+    public static RuleBasePartitionId createPartition( int parallelEvaluationSlotsNumber ) {
+        return new RuleBasePartitionId( PARTITION_COUNTER.getAndIncrement(), parallelEvaluationSlotsNumber );
+    }
+
+    private Object readResolve() {
+        if ( id == 0 ) {
+            return MAIN_PARTITION;
+        }
+        // partitions serialized before the number of slots was configurable were distributed among the processors
+        return parallelEvaluationSlotsNumber > 0 ? this : new RuleBasePartitionId( id, PARALLEL_PARTITIONS_NUMBER );
     }
 }
@@ -19,6 +19,7 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -28,6 +29,7 @@ import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import org.kie.api.concurrent.KieExecutors;
+import org.kie.internal.conf.ParallelExecutorOption;
 
 public class ExecutorProviderImpl implements KieExecutors {
 
@@ -98,6 +100,38 @@ public class ExecutorProviderImpl implements KieExecutors {
         return new ExecutorCompletionService<>(getExecutor());
     }
 
+    /**
+     * Creates the executor used by a KieBase to evaluate its partitions in parallel.
+     * The threads of the pools owned by a KieBase are allowed to time out when idle,
+     * so the pool doesn't need to be explicitly shut down when the KieBase is discarded.
+     */
+    public static ExecutorService newParallelEvaluationExecutor(ParallelExecutorOption executorType, int parallelism) {
+        switch (executorType) {
+            case FIXED:
+                ThreadPoolExecutor fixedPool = new ThreadPoolExecutor( parallelism, parallelism,
+                                                                       60L, TimeUnit.SECONDS,
+                                                                       new LinkedBlockingQueue<>(),
+                                                                       ExecutorHolder.threadFactory );
+                fixedPool.allowCoreThreadTimeOut( true );
+                return fixedPool;
+            case FORK_JOIN:
+                return new ForkJoinPool( parallelism );
+            case VIRTUAL:
+                return newVirtualThreadPerTaskExecutor();
+            default:
+                return ExecutorHolder.executor;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            // virtual threads are available only from Java 21
+            return (ExecutorService) Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" ).invoke( null );
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool( ExecutorHolder.threadFactory );
+        }
+    }
+
     public static class DaemonThreadFactory implements ThreadFactory {
         private static final AtomicInteger threadCount = new AtomicInteger();
 
@@ -38,6 +38,7 @@ import org.drools.core.concurrent.SequentialRuleEvaluator;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.AgendaEventSupport;
 import org.drools.core.phreak.ExecutableEntry;
+import org.drools.core.phreak.LockFreePropagationList;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.PropagationList;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -83,10 +84,14 @@ public class ActivationsManagerImpl implements ActivationsManager {
 
     private List<PropagationContext> expirationContexts;
 
+    private ExpirationManager expirationManager;
+
     public ActivationsManagerImpl(ReteEvaluator reteEvaluator) {
         this.reteEvaluator = reteEvaluator;
         this.agendaGroupsManager = new AgendaGroupsManager.SimpleAgendaGroupsManager(reteEvaluator);
-        this.propagationList = new SynchronizedPropagationList(reteEvaluator);
+        this.propagationList = reteEvaluator.getSessionConfiguration().isLockFreePropagationList() ?
+                new LockFreePropagationList(reteEvaluator) :
+                new SynchronizedPropagationList(reteEvaluator);
         this.ruleEvaluator = new SequentialRuleEvaluator( this );
         if (reteEvaluator.getKnowledgeBase().getConfiguration().getEventProcessingMode() == EventProcessingOption.STREAM) {
             expirationContexts = new ArrayList<>();
@@ -147,6 +152,32 @@ public class ActivationsManagerImpl implements ActivationsManager {
         expirationContexts.add(ectx);
     }
 
+    @Override
+    public ExpirationManager getExpirationManager() {
+        if (expirationManager == null) {
+            expirationManager = new ExpirationManager(reteEvaluator);
+        }
+        return expirationManager;
+    }
+
+    @Override
+    public void reset() {
+        agendaGroupsManager.reset(false);
+
+        // reset all activation groups.
+        for ( InternalActivationGroup group : this.activationGroups.values() ) {
+            group.setTriggeredForRecency( this.reteEvaluator.getFactHandleFactory().getRecency() );
+            group.reset();
+        }
+
+        eager.clear();
+        activationCounter = 0;
+        propagationList.reset();
+        if (expirationManager != null) {
+            expirationManager.reset();
+        }
+    }
+
     @Override
     public void clearAndCancelActivationGroup(final String name) {
         final InternalActivationGroup activationGroup = this.activationGroups.get( name );
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.impl.AbstractJobHandle;
+import org.drools.core.time.impl.PointInTimeTrigger;
+
+/**
+ * Groups the expirations of the events of a session by expiration time and entry point, so that all the events
+ * of a group are expired by a single timer job, propagating their expirations with a single propagation entry.
+ *
+ * Each event of a group holds an {@link ExpirationJobHandle} among its jobs, so that the retraction of the event
+ * removes it from its group, releasing the event before the group fires. The shared job is cancelled when all
+ * the events of its group have been retracted.
+ */
+public class ExpirationManager {
+
+    private static final BatchExpireJob job = new BatchExpireJob();
+
+    private final ReteEvaluator reteEvaluator;
+
+    private final Map<BatchKey, ExpireBatch> batches = new HashMap<>();
+
+    public ExpirationManager(ReteEvaluator reteEvaluator) {
+        this.reteEvaluator = reteEvaluator;
+    }
+
+    public static boolean isBatchedExpiration(ReteEvaluator reteEvaluator) {
+        RuleBaseConfiguration conf = reteEvaluator.getKnowledgeBase().getConfiguration();
+        // the expirations of multithread evaluation are split by partition
+        return conf.isBatchedExpiration() && !conf.isMultithreadEvaluation();
+    }
+
+    /**
+     * Schedules the given expiration at the given time, together with the other ones of the same entry point
+     * already scheduled at that time
+     */
+    public void scheduleExpiration(WorkingMemoryReteExpireAction action, long expirationTime) {
+        action.getFactHandle().addJob( addExpiration( action, expirationTime ) );
+    }
+
+    private synchronized ExpirationJobHandle addExpiration(WorkingMemoryReteExpireAction action, long expirationTime) {
+        BatchKey key = new BatchKey( expirationTime, action.getFactHandle().getEntryPointName() );
+        ExpireBatch batch = batches.get( key );
+        if ( batch == null ) {
+            batch = new ExpireBatch( key );
+            batches.put( key, batch );
+            BatchExpireJobContext jobctx = new BatchExpireJobContext( this, batch, reteEvaluator );
+            JobHandle jobHandle = reteEvaluator.getTimerService()
+                                               .scheduleJob( job,
+                                                             jobctx,
+                                                             PointInTimeTrigger.createPointInTimeTrigger( expirationTime, null ) );
+            jobctx.setJobHandle( jobHandle );
+            batch.jobHandle = jobHandle;
+        }
+        ExpirationJobHandle expirationJobHandle = new ExpirationJobHandle( this, batch, action );
+        batch.add( expirationJobHandle );
+        return expirationJobHandle;
+    }
+
+    /**
+     * Forgets all the scheduled groups, to be called when the timer service of the session is reset
+     */
+    public synchronized void reset() {
+        for ( ExpireBatch batch : batches.values() ) {
+            batch.detached = true;
+        }
+        batches.clear();
+    }
+
+    public synchronized int getScheduledExpirationsCount() {
+        int count = 0;
+        for ( ExpireBatch batch : batches.values() ) {
+            count += batch.size;
+        }
+        return count;
+    }
+
+    private synchronized List<ExpirationJobHandle> detach(ExpireBatch batch) {
+        batches.remove( batch.key, batch );
+        batch.detached = true;
+        return batch.expirations;
+    }
+
+    private void cancel(ExpirationJobHandle expirationJobHandle) {
+        if ( removeExpiration( expirationJobHandle ) ) {
+            reteEvaluator.getTimerService().removeJob( expirationJobHandle.batch.jobHandle );
+        }
+    }
+
+    /**
+     * Removes the given expiration from its group, returning true if the group became empty
+     */
+    private synchronized boolean removeExpiration(ExpirationJobHandle expirationJobHandle) {
+        ExpireBatch batch = expirationJobHandle.batch;
+        if ( batch.detached || batch.expirations.get( expirationJobHandle.index ) != expirationJobHandle ) {
+            return false;
+        }
+        batch.expirations.set( expirationJobHandle.index, null );
+        if ( --batch.size > 0 ) {
+            return false;
+        }
+        batches.remove( batch.key, batch );
+        batch.detached = true;
+        batch.expirations.clear();
+        return true;
+    }
+
+    private static class BatchKey {
+        private final long expirationTime;
+        private final String entryPointName;
+
+        private BatchKey(long expirationTime, String entryPointName) {
+            this.expirationTime = expirationTime;
+            this.entryPointName = entryPointName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+            BatchKey other = (BatchKey) o;
+            return expirationTime == other.expirationTime && Objects.equals( entryPointName, other.entryPointName );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Long.hashCode( expirationTime ) + Objects.hashCode( entryPointName );
+        }
+    }
+
+    public static class ExpireBatch {
+        private final BatchKey key;
+        // the slots of the retracted events are set to null, so that they can be removed in constant time
+        private final List<ExpirationJobHandle> expirations = new ArrayList<>();
+        private int size;
+        private boolean detached;
+        private JobHandle jobHandle;
+
+        private ExpireBatch(BatchKey key) {
+            this.key = key;
+        }
+
+        private void add(ExpirationJobHandle expirationJobHandle) {
+            expirationJobHandle.index = expirations.size();
+            expirations.add( expirationJobHandle );
+            size++;
+        }
+
+        public long getExpirationTime() {
+            return key.expirationTime;
+        }
+
+        public List<WorkingMemoryReteExpireAction> getExpireActions() {
+            List<WorkingMemoryReteExpireAction> actions = new ArrayList<>( size );
+            for ( ExpirationJobHandle expirationJobHandle : expirations ) {
+                if ( expirationJobHandle != null ) {
+                    actions.add( expirationJobHandle.action );
+                }
+            }
+            return actions;
+        }
+    }
+
+    /**
+     * The job of a single event inside a group, cancelled by the event when it's retracted instead of
+     * the job of the whole group
+     */
+    public static class ExpirationJobHandle extends AbstractJobHandle {
+        private final ExpirationManager expirationManager;
+        private final ExpireBatch batch;
+        private final WorkingMemoryReteExpireAction action;
+        private int index;
+        private boolean cancel;
+
+        private ExpirationJobHandle(ExpirationManager expirationManager, ExpireBatch batch, WorkingMemoryReteExpireAction action) {
+            this.expirationManager = expirationManager;
+            this.batch = batch;
+            this.action = action;
+        }
+
+        public void cancel() {
+            this.cancel = true;
+            expirationManager.cancel( this );
+        }
+
+        @Override
+        public long getId() {
+            return batch.jobHandle.getId();
+        }
+
+        @Override
+        public void setCancel(boolean cancel) {
+            this.cancel = cancel;
+        }
+
+        @Override
+        public boolean isCancel() {
+            return cancel;
+        }
+    }
+
+    public static class BatchExpireJob
+            implements
+            Job {
+
+        @Override
+        public void execute(JobContext ctx) {
+            BatchExpireJobContext context = (BatchExpireJobContext) ctx;
+            List<ExpirationJobHandle> expirations = context.expirationManager.detach( context.batch );
+            List<WorkingMemoryReteExpireAction> actions = new ArrayList<>( expirations.size() );
+            for ( ExpirationJobHandle expirationJobHandle : expirations ) {
+                // once detached the group isn't modified anymore, and the events can't be locked while holding the manager
+                if ( expirationJobHandle != null ) {
+                    actions.add( expirationJobHandle.action );
+                    expirationJobHandle.action.getFactHandle().removeJob( expirationJobHandle );
+                }
+            }
+            context.reteEvaluator.addPropagation( new BatchExpireAction( actions ), true );
+        }
+    }
+
+    public static class BatchExpireJobContext
+            implements
+            JobContext {
+        private final ExpirationManager expirationManager;
+        private final ExpireBatch batch;
+        private final ReteEvaluator reteEvaluator;
+        private JobHandle handle;
+
+        public BatchExpireJobContext(ExpirationManager expirationManager,
+                                     ExpireBatch batch,
+                                     ReteEvaluator reteEvaluator) {
+            this.expirationManager = expirationManager;
+            this.batch = batch;
+            this.reteEvaluator = reteEvaluator;
+        }
+
+        @Override
+        public JobHandle getJobHandle() {
+            return this.handle;
+        }
+
+        @Override
+        public void setJobHandle(JobHandle jobHandle) {
+            this.handle = jobHandle;
+        }
+
+        public ExpireBatch getBatch() {
+            return batch;
+        }
+
+        @Override
+        public ReteEvaluator getReteEvaluator() {
+            return reteEvaluator;
+        }
+    }
+
+    /**
+     * Expires all the events of a group, each one with its own expiration propagation context since the
+     * agenda retracts the expired fact handle of each context at the end of the propagation
+     */
+    public static class BatchExpireAction
+            extends PropagationEntry.AbstractPropagationEntry {
+
+        private final List<WorkingMemoryReteExpireAction> actions;
+
+        public BatchExpireAction(List<WorkingMemoryReteExpireAction> actions) {
+            this.actions = actions;
+        }
+
+        @Override
+        public void execute(ReteEvaluator reteEvaluator) {
+            for ( WorkingMemoryReteExpireAction action : actions ) {
+                action.execute( reteEvaluator );
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Expiration of " + actions.size() + " events";
+        }
+    }
+}
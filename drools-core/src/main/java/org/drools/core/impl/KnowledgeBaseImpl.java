@@ -30,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -41,6 +42,7 @@ import org.drools.core.base.ClassObjectType;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.ReteEvaluator;
 import org.drools.core.common.RuleBasePartitionId;
+import org.drools.core.concurrent.ExecutorProviderImpl;
 import org.drools.core.definitions.InternalKnowledgePackage;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.factmodel.ClassDefinition;
@@ -139,6 +141,8 @@ public class KnowledgeBaseImpl implements RuleBase {
 
     private boolean hasMultipleAgendaGroups = false;
 
+    private transient volatile ExecutorService parallelEvaluationExecutor;
+
     public KnowledgeBaseImpl() { }
 
     public KnowledgeBaseImpl(final String id,
@@ -1137,7 +1141,18 @@ public class KnowledgeBaseImpl implements RuleBase {
     }
 
     public RuleBasePartitionId createNewPartitionId() {
-        return RuleBasePartitionId.createPartition();
+        return RuleBasePartitionId.createPartition( config.getParallelEvaluationSlotsNumber() );
+    }
+
+    public ExecutorService getParallelEvaluationExecutor() {
+        if ( parallelEvaluationExecutor == null ) {
+            synchronized (this) {
+                if ( parallelEvaluationExecutor == null ) {
+                    parallelEvaluationExecutor = ExecutorProviderImpl.newParallelEvaluationExecutor( config.getParallelExecutor(), config.getParallelEvaluationSlotsNumber() );
+                }
+            }
+        }
+        return parallelEvaluationExecutor;
     }
 
     public FactType getFactType(String packageName, String typeName) {
@@ -21,6 +21,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import org.drools.core.RuleBaseConfiguration;
@@ -77,6 +78,8 @@ public interface RuleBase {
 
     RuleBasePartitionId createNewPartitionId();
 
+    ExecutorService getParallelEvaluationExecutor();
+
     RuleBaseConfiguration getConfiguration();
 
     void readLock();
@@ -21,6 +21,7 @@ import org.drools.core.base.DroolsQuery;
 import org.drools.core.common.EventFactHandle;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.ReteEvaluator;
+import org.drools.core.impl.ExpirationManager;
 import org.drools.core.impl.WorkingMemoryReteExpireAction;
 import org.drools.core.reteoo.ClassObjectTypeConf;
 import org.drools.core.reteoo.CompositePartitionAwareObjectSinkAdapter;
@@ -244,6 +245,8 @@ public interface PropagationEntry {
             WorkingMemoryReteExpireAction action = new WorkingMemoryReteExpireAction( (EventFactHandle) handle, otn );
             if (nextTimestamp <= reteEvaluator.getTimerService().getCurrentTime()) {
                 reteEvaluator.addPropagation( action );
+            } else if ( ExpirationManager.isBatchedExpiration( reteEvaluator ) ) {
+                reteEvaluator.getActivationsManager().getExpirationManager().scheduleExpiration( action, nextTimestamp );
             } else {
                 JobContext jobctx = new ObjectTypeNode.ExpireJobContext( action, reteEvaluator );
                 JobHandle jobHandle = reteEvaluator.getTimerService()
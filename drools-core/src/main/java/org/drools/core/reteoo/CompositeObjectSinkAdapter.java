@@ -52,6 +52,14 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
 
     private static final long serialVersionUID = 510L;
 
+    // non capturing, so propagating through a range index doesn't allocate anything
+    private static final AlphaRangeIndex.AlphaNodeConsumer RANGE_ASSERT = (sink, factHandle, modifyPreviousTuples, context, reteEvaluator) ->
+            sink.getObjectSinkPropagator().propagateAssertObject(factHandle, context, reteEvaluator);
+    private static final AlphaRangeIndex.AlphaNodeConsumer RANGE_MODIFY = (sink, factHandle, modifyPreviousTuples, context, reteEvaluator) ->
+            sink.getObjectSinkPropagator().propagateModifyObject(factHandle, modifyPreviousTuples, context, reteEvaluator);
+    private static final AlphaRangeIndex.AlphaNodeConsumer RANGE_BYPASS_MODIFY = (sink, factHandle, modifyPreviousTuples, context, reteEvaluator) ->
+            sink.getObjectSinkPropagator().byPassModifyToBetaNode(factHandle, modifyPreviousTuples, context, reteEvaluator);
+
     private List<ObjectSinkNode>        otherSinks;
     private List<AlphaNode>        hashableSinks;
     private List<AlphaNode>        rangeIndexableSinks = null;
@@ -561,10 +569,8 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if (!entry.getKey().isRangeIndexed()) {
                     continue;
                 }
-                for (AlphaNode sink : entry.getValue().getMatchingAlphaNodes(object)) {
-                    // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
-                    sink.getObjectSinkPropagator().propagateAssertObject(factHandle, context, reteEvaluator);
-                }
+                // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
+                entry.getValue().forEachMatchingAlphaNode(object, RANGE_ASSERT, factHandle, null, context, reteEvaluator);
             }
         }
 
@@ -630,10 +636,8 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if (!entry.getKey().isRangeIndexed()) {
                     continue;
                 }
-                for (AlphaNode sink : entry.getValue().getMatchingAlphaNodes(object)) {
-                    // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
-                    sink.getObjectSinkPropagator().propagateModifyObject(factHandle, modifyPreviousTuples, context, reteEvaluator);
-                }
+                // go straight to the AlphaNode's propagator, as we know it's true and no need to retest
+                entry.getValue().forEachMatchingAlphaNode(object, RANGE_MODIFY, factHandle, modifyPreviousTuples, context, reteEvaluator);
             }
         }
 
@@ -700,9 +704,7 @@ public class CompositeObjectSinkAdapter implements ObjectSinkPropagator {
                 if (!entry.getKey().isRangeIndexed()) {
                     continue;
                 }
-                for (AlphaNode sink : entry.getValue().getMatchingAlphaNodes(object)) {
-                    sink.getObjectSinkPropagator().byPassModifyToBetaNode(factHandle, modifyPreviousTuples, context, reteEvaluator);
-                }
+                entry.getValue().forEachMatchingAlphaNode(object, RANGE_BYPASS_MODIFY, factHandle, modifyPreviousTuples, context, reteEvaluator);
             }
         }
 
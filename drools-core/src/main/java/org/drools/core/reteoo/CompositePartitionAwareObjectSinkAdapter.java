@@ -37,7 +37,7 @@ import org.drools.core.common.PropagationContext;
 
 public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropagator {
 
-    private final ObjectSinkPropagator[] partitionedPropagators = new ObjectSinkPropagator[RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER];
+    private ObjectSinkPropagator[] partitionedPropagators;
 
     private boolean hashed = true;
     private CompositeObjectSinkAdapter.FieldIndex fieldIndex;
@@ -45,6 +45,11 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
     private Map<CompositeObjectSinkAdapter.HashKey, AlphaNode> hashedSinkMap;
 
     public CompositePartitionAwareObjectSinkAdapter() {
+        // used only for deserialization, the partitioned propagators are sized by readExternal
+    }
+
+    public CompositePartitionAwareObjectSinkAdapter( int parallelEvaluationSlotsNumber ) {
+        partitionedPropagators = new ObjectSinkPropagator[parallelEvaluationSlotsNumber];
         Arrays.fill(partitionedPropagators, EmptyObjectSinkAdapter.getInstance());
     }
 
@@ -232,6 +237,7 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
         out.writeBoolean( hashed );
         out.writeObject( fieldIndex );
         out.writeObject( hashedSinkMap );
+        out.writeInt( partitionedPropagators.length );
         for ( ObjectSinkPropagator partitionedPropagator : partitionedPropagators ) {
             out.writeObject( partitionedPropagator );
         }
@@ -242,6 +248,7 @@ public class CompositePartitionAwareObjectSinkAdapter implements ObjectSinkPropa
         hashed = in.readBoolean();
         fieldIndex = (FieldIndex) in.readObject();
         hashedSinkMap = (Map<CompositeObjectSinkAdapter.HashKey, AlphaNode>) in.readObject();
+        partitionedPropagators = new ObjectSinkPropagator[in.readInt()];
         for (int i = 0; i < partitionedPropagators.length; i++) {
             partitionedPropagators[i] = (ObjectSinkPropagator) in.readObject();
         }
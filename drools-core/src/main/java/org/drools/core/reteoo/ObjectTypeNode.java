@@ -127,7 +127,7 @@ public class ObjectTypeNode extends ObjectSource implements ObjectSink, MemoryFa
         hashcode = calculateHashCode();
 
         if (objectType != ClassObjectType.InitialFact_ObjectType && context.getRuleBase().getConfiguration().isMultithreadEvaluation()) {
-            this.sink = new CompositePartitionAwareObjectSinkAdapter();
+            this.sink = new CompositePartitionAwareObjectSinkAdapter( context.getRuleBase().getConfiguration().getParallelEvaluationSlotsNumber() );
         }
 
         initMemoryId( context );
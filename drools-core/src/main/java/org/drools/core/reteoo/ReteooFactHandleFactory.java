@@ -20,7 +20,9 @@ import java.io.Serializable;
 
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.common.AbstractFactHandleFactory;
+import org.drools.core.common.CompactFactHandle;
 import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.rule.accessor.FactHandleFactory;
 
 public class ReteooFactHandleFactory extends AbstractFactHandleFactory implements Serializable {
@@ -40,6 +42,14 @@ public class ReteooFactHandleFactory extends AbstractFactHandleFactory implement
         return new DefaultFactHandle(0, InitialFactImpl.getInstance(), 0, wmEntryPoint);
     }
 
+    @Override
+    protected InternalFactHandle createDefaultFactHandle(long id, Object object, long recency, WorkingMemoryEntryPoint entryPoint) {
+        if (entryPoint != null && CompactFactHandle.isEnabled(entryPoint.getKnowledgeBase())) {
+            return new CompactFactHandle(id, object, recency, entryPoint);
+        }
+        return super.createDefaultFactHandle(id, object, recency, entryPoint);
+    }
+
     public FactHandleFactory newInstance() {
         return new ReteooFactHandleFactory();
     }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.builder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.InitialFact;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.Memory;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.reteoo.BetaMemory;
+import org.drools.core.reteoo.LeftTupleNode;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.EntryPointId;
+import org.drools.core.rule.GroupElement;
+import org.drools.core.rule.IndexableConstraint;
+import org.drools.core.rule.Pattern;
+import org.drools.core.rule.RuleConditionElement;
+import org.drools.core.rule.constraint.Constraint;
+import org.drools.core.util.index.IndexUtil.ConstraintType;
+import org.kie.api.runtime.rule.Match;
+
+/**
+ * Reorders the independent patterns of the rules, so the most selective ones are joined first and the
+ * intermediate left memories are kept as small as possible.
+ *
+ * Only runs of adjacent plain patterns of an AND are reordered: any other element (not, exists, eval,
+ * accumulate, from, ...) stays where it is and delimits the runs. Inside a run a pattern is never moved
+ * before the patterns binding the declarations it requires. Since the patterns are joined in a different
+ * order, the order of the objects returned by {@link Match#getObjects()} can change accordingly.
+ */
+public class JoinOrderOptimizer {
+
+    /**
+     * The fraction of the facts of a pattern that is assumed to match a tuple, when the pattern has an
+     * equality constraint on the already joined patterns.
+     */
+    static final double EQUALITY_JOIN_SELECTIVITY = 0.1;
+
+    private JoinOrderOptimizer() { }
+
+    /**
+     * Reorders the patterns of the given subrule following the order of the given rule in the JoinPlan.
+     * Patterns not listed in the plan keep their relative position after the listed ones.
+     */
+    public static void applyPlan(JoinPlan plan, RuleImpl rule, GroupElement subrule) {
+        int[] patternOrder = plan.getPatternOrder( rule.getFullyQualifiedName() );
+        if ( patternOrder == null || rule.isQuery() || !subrule.isAnd() ) {
+            return;
+        }
+        Map<Integer, Integer> ranks = new HashMap<>();
+        for (int i = 0; i < patternOrder.length; i++) {
+            ranks.put( patternOrder[i], i );
+        }
+        reorder( subrule, (pattern, joined) -> ranks.getOrDefault( pattern.getPatternId(), Integer.MAX_VALUE ) );
+    }
+
+    /**
+     * Creates a JoinPlan out of the number of facts matching each pattern in the memories of the given session,
+     * which is supposed to have been used for a representative profiling run.
+     */
+    public static JoinPlan createPlan(InternalWorkingMemory session) {
+        JoinPlan plan = new JoinPlan();
+        for (TerminalNode[] terminalNodes : session.getKnowledgeBase().getReteooBuilder().getTerminalNodes().values()) {
+            RuleImpl rule = terminalNodes[0].getRule();
+            if ( rule.isQuery() ) {
+                continue;
+            }
+
+            // the patterns shared by more subrules have the same id, so their orders are merged
+            Set<Integer> patternIds = new LinkedHashSet<>();
+            for (TerminalNode terminalNode : terminalNodes) {
+                GroupElement subrule = terminalNode.getSubRule();
+                if ( subrule == null || !subrule.isAnd() ) {
+                    continue;
+                }
+                Map<Integer, Long> cardinalities = collectCardinalities( session, terminalNode );
+                List<RuleConditionElement> children = new ArrayList<>( subrule.getChildren() );
+                reorder( children, (pattern, joined) -> {
+                    Long cardinality = cardinalities.get( pattern.getTupleIndex() );
+                    return cardinality == null ? -1 : cardinality * ( hasEqualityJoin( pattern, joined ) ? EQUALITY_JOIN_SELECTIVITY : 1.0 );
+                } );
+                for (RuleConditionElement child : children) {
+                    if ( child instanceof Pattern ) {
+                        patternIds.add( ( (Pattern) child ).getPatternId() );
+                    }
+                }
+            }
+            if ( !patternIds.isEmpty() ) {
+                plan.setPatternOrder( rule.getFullyQualifiedName(), patternIds.stream().mapToInt( Integer::intValue ).toArray() );
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the number of facts matching the patterns joined by the nodes of the path of the given
+     * terminal node, indexed by their tuple index.
+     */
+    private static Map<Integer, Long> collectCardinalities(InternalWorkingMemory session, TerminalNode terminalNode) {
+        Map<Integer, Long> cardinalities = new HashMap<>();
+        LeftTupleNode child = null;
+        for (LeftTupleNode node = terminalNode.getLeftTupleSource(); node != null; node = node.getLeftTupleSource()) {
+            if ( node.getType() == NodeTypeEnums.JoinNode ) {
+                Memory memory = session.getNodeMemories().peekNodeMemory( node );
+                if ( memory instanceof BetaMemory ) {
+                    BetaMemory bm = (BetaMemory) memory;
+                    cardinalities.put( node.getPathIndex(), (long) bm.getRightTupleMemory().size() + bm.getStagedRightTuples().getInsertSize() );
+                }
+            } else if ( node.getType() == NodeTypeEnums.LeftInputAdapterNode && child != null && child.getType() == NodeTypeEnums.JoinNode ) {
+                // the first pattern has no right memory, but its facts are in the left memory of the following join
+                Memory memory = session.getNodeMemories().peekNodeMemory( child );
+                if ( memory instanceof BetaMemory && ( (BetaMemory) memory ).getLeftTupleMemory() != null ) {
+                    cardinalities.put( node.getPathIndex(), (long) ( (BetaMemory) memory ).getLeftTupleMemory().size() );
+                }
+            }
+            child = node;
+        }
+        return cardinalities;
+    }
+
+    private static boolean hasEqualityJoin(Pattern pattern, Set<Integer> joined) {
+        for (Constraint constraint : pattern.getConstraints()) {
+            if ( constraint instanceof IndexableConstraint && ( (IndexableConstraint) constraint ).getConstraintType() == ConstraintType.EQUAL ) {
+                Declaration[] declarations = constraint.getRequiredDeclarations();
+                if ( declarations.length > 0 && joined.contains( declarations[0].getPattern().getPatternId() ) ) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    interface JoinCost {
+        /**
+         * Returns the cost of joining the given pattern after the patterns with the given ids,
+         * or a negative number if it can't be estimated
+         */
+        double cost(Pattern pattern, Set<Integer> joined);
+    }
+
+    static void reorder(GroupElement and, JoinCost cost) {
+        reorder( and.getChildren(), cost );
+    }
+
+    private static void reorder(List<RuleConditionElement> children, JoinCost cost) {
+        Set<Integer> joined = new HashSet<>();
+        int start = 0;
+        while ( start < children.size() ) {
+            int end = start;
+            while ( end < children.size() && isReorderable( children.get( end ) ) ) {
+                end++;
+            }
+            if ( end - start > 1 ) {
+                reorderRun( children, start, end, joined, cost );
+            } else if ( end == start ) {
+                // an element that can't be moved
+                end++;
+            }
+            for (int i = start; i < end; i++) {
+                if ( children.get( i ) instanceof Pattern ) {
+                    joined.add( ( (Pattern) children.get( i ) ).getPatternId() );
+                }
+            }
+            start = end;
+        }
+    }
+
+    /**
+     * Greedily picks the cheapest pattern among the ones whose required declarations are already bound.
+     * The run is left untouched if the cost of any of its patterns can't be estimated.
+     */
+    private static void reorderRun(List<RuleConditionElement> children, int start, int end, Set<Integer> joined, JoinCost cost) {
+        List<Pattern> remaining = new ArrayList<>();
+        for (int i = start; i < end; i++) {
+            remaining.add( (Pattern) children.get( i ) );
+        }
+
+        Set<Integer> runJoined = new HashSet<>( joined );
+        List<Pattern> ordered = new ArrayList<>();
+        while ( !remaining.isEmpty() ) {
+            Pattern best = null;
+            double bestCost = 0;
+            for (Pattern pattern : remaining) {
+                if ( !isBound( pattern, remaining ) ) {
+                    continue;
+                }
+                double patternCost = cost.cost( pattern, runJoined );
+                if ( patternCost < 0 ) {
+                    return;
+                }
+                // on equal cost the first pattern wins, so the original order is kept as much as possible
+                if ( best == null || patternCost < bestCost ) {
+                    best = pattern;
+                    bestCost = patternCost;
+                }
+            }
+            remaining.remove( best );
+            ordered.add( best );
+            runJoined.add( best.getPatternId() );
+        }
+
+        for (int i = start; i < end; i++) {
+            children.set( i, ordered.get( i - start ) );
+        }
+    }
+
+    private static boolean isBound(Pattern pattern, List<Pattern> remaining) {
+        for (Declaration declaration : pattern.getRequiredDeclarations()) {
+            Pattern declaringPattern = declaration.getPattern();
+            if ( declaringPattern == null || declaringPattern.getPatternId() == pattern.getPatternId() ) {
+                continue;
+            }
+            for (Pattern other : remaining) {
+                if ( other != pattern && other.getPatternId() == declaringPattern.getPatternId() ) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isReorderable(RuleConditionElement element) {
+        if ( !(element instanceof Pattern) ) {
+            return false;
+        }
+        Pattern pattern = (Pattern) element;
+        return ( pattern.getSource() == null || pattern.getSource() instanceof EntryPointId ) &&
+               !pattern.isPassive() &&
+               !pattern.hasXPath() &&
+               !pattern.getObjectType().isAssignableTo( InitialFact.class );
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.builder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * The order in which the patterns of the rules of a KieBase have to be joined, as chosen by the
+ * JoinOrderOptimizer out of the selectivity statistics collected during a profiling run.
+ *
+ * For each rule, identified by its fully qualified name, the plan contains the ids of its patterns
+ * in the order they have to be joined. The plan is stored as a properties file, so it can be added
+ * to the resources of a KieModule under RESOURCE_NAME and reused by any later build of its KieBases
+ * having the drools.joinOrderOptimization option enabled.
+ */
+public class JoinPlan {
+
+    public static final String RESOURCE_NAME = "META-INF/drools-join-plan.properties";
+
+    private final Map<String, int[]> patternOrders = new TreeMap<>();
+
+    public int[] getPatternOrder(String ruleName) {
+        return patternOrders.get( ruleName );
+    }
+
+    public void setPatternOrder(String ruleName, int[] patternIds) {
+        patternOrders.put( ruleName, patternIds );
+    }
+
+    public Map<String, int[]> getPatternOrders() {
+        return patternOrders;
+    }
+
+    public boolean isEmpty() {
+        return patternOrders.isEmpty();
+    }
+
+    /**
+     * Loads the plan stored under RESOURCE_NAME in the given ClassLoader, returning an empty plan if there isn't any.
+     */
+    public static JoinPlan load(ClassLoader classLoader) {
+        try (InputStream in = classLoader.getResourceAsStream( RESOURCE_NAME )) {
+            return in != null ? load( in ) : new JoinPlan();
+        } catch (IOException e) {
+            throw new UncheckedIOException( "Unable to read the join plan " + RESOURCE_NAME, e );
+        }
+    }
+
+    public static JoinPlan load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load( in );
+
+        JoinPlan plan = new JoinPlan();
+        for (String ruleName : properties.stringPropertyNames()) {
+            String[] ids = properties.getProperty( ruleName ).split( "," );
+            int[] patternIds = new int[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                patternIds[i] = Integer.parseInt( ids[i].trim() );
+            }
+            plan.setPatternOrder( ruleName, patternIds );
+        }
+        return plan;
+    }
+
+    public void store(OutputStream out) throws IOException {
+        Properties properties = new Properties();
+        for (Map.Entry<String, int[]> entry : patternOrders.entrySet()) {
+            StringBuilder sb = new StringBuilder();
+            for (int id : entry.getValue()) {
+                if ( sb.length() > 0 ) {
+                    sb.append( ',' );
+                }
+                sb.append( id );
+            }
+            properties.setProperty( entry.getKey(), sb.toString() );
+        }
+        properties.store( out, "Drools join plan" );
+    }
+}
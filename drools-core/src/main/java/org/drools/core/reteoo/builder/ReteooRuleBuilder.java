@@ -59,6 +59,8 @@ public class ReteooRuleBuilder implements RuleBuilder {
 
     protected BuildUtils utils;
 
+    private JoinPlan joinPlan;
+
     public ReteooRuleBuilder() {
         this.utils = new BuildUtils();
 
@@ -116,7 +118,12 @@ public class ReteooRuleBuilder implements RuleBuilder {
         // transform rule and gets the array of subrules
         final GroupElement[] subrules = rule.getTransformedLhs( LogicTransformer.getInstance(), kBase.getGlobals() );
 
+        JoinPlan plan = kBase.getConfiguration().isJoinOrderOptimization() ? getJoinPlan( kBase ) : null;
+
         for (int i = 0; i < subrules.length; i++) {
+            if ( plan != null ) {
+                JoinOrderOptimizer.applyPlan( plan, rule, subrules[i] );
+            }
 
             // creates a clean build context for each subrule
             final BuildContext context = new BuildContext( kBase, workingMemories );
@@ -146,6 +153,13 @@ public class ReteooRuleBuilder implements RuleBuilder {
         return nodes;
     }
 
+    private JoinPlan getJoinPlan( RuleBase kBase ) {
+        if ( joinPlan == null ) {
+            joinPlan = JoinPlan.load( kBase.getRootClassLoader() );
+        }
+        return joinPlan;
+    }
+
     private TerminalNode addSubRule( final BuildContext context,
                                      final GroupElement subrule,
                                      final int subruleIndex,
@@ -119,15 +119,17 @@ public class SlidingLengthWindow
                             final PropagationContext pctx,
                             final ReteEvaluator reteEvaluator) {
         SlidingLengthWindowContext window = (SlidingLengthWindowContext) context;
-        final int last = (window.pos == 0) ? window.handles.length - 1 : window.pos - 1;
         // we start the loop on current pos because the most common scenario is to retract the
         // right tuple referenced by the current "pos" position, causing this loop to only execute
-        // the first iteration
-        for ( int i = window.pos; i != last; i = (i + 1) % window.handles.length ) {
+        // the first iteration, and then go backward since the most recent events are the most likely
+        // to be retracted early
+        int i = window.pos;
+        for ( int n = 0; n < window.handles.length; n++ ) {
             if ( window.handles[i] == handle ) {
                 window.handles[i] = null;
                 break;
             }
+            i = (i == 0) ? window.handles.length - 1 : i - 1;
         }
     }
 
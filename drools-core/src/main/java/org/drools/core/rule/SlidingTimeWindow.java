@@ -20,7 +20,10 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 
 import org.drools.core.common.EventFactHandle;
@@ -232,17 +235,34 @@ public class SlidingTimeWindow
         return "SlidingTimeWindow( size=" + size + " )";
     }
 
+    /**
+     * The events of a time window, ordered by their timestamp. Events usually arrive in order of timestamp, so they are
+     * appended to a ring buffer, where the oldest one is always at the head and the one of an early retraction can be
+     * found with a binary search. Only the events arriving out of order are kept in a priority queue.
+     */
     public static class SlidingTimeWindowContext
             implements
             Behavior.Context,
             Externalizable {
 
-        private PriorityQueue<EventFactHandle> queue;
+        private static final int INITIAL_CAPACITY = 16;
+
+        // the used slots of the ring go from head to head + length, the removed ones are left in place until they
+        // reach one of the ends, or until the ring is compacted
+        private EventFactHandle[]              ring;
+        private boolean[]                      removed;
+        private int                            head;
+        private int                            length;
+        private int                            ringSize;
+
+        private PriorityQueue<EventFactHandle> outOfOrder;
+
         private EventFactHandle                expiringHandle;
         private JobHandle                      jobHandle;
 
         public SlidingTimeWindowContext() {
-            this.queue = new PriorityQueue<>(16); // arbitrary size... can we improve it?
+            this.ring = new EventFactHandle[INITIAL_CAPACITY];
+            this.removed = new boolean[INITIAL_CAPACITY];
         }
 
         @Override
@@ -259,13 +279,17 @@ public class SlidingTimeWindow
         @SuppressWarnings("unchecked")
         public void readExternal(ObjectInput in) throws IOException,
                                                         ClassNotFoundException {
-            this.queue = (PriorityQueue<EventFactHandle>) in.readObject();
+            this.ring = new EventFactHandle[INITIAL_CAPACITY];
+            this.removed = new boolean[INITIAL_CAPACITY];
+            for ( EventFactHandle handle : (Collection<EventFactHandle>) in.readObject() ) {
+                add( handle );
+            }
             this.expiringHandle = (EventFactHandle) in.readObject();
         }
 
         @Override
         public void writeExternal(ObjectOutput out) throws IOException {
-            out.writeObject( this.queue );
+            out.writeObject( getFactHandles() );
             out.writeObject( this.expiringHandle );
         }
 
@@ -278,32 +302,141 @@ public class SlidingTimeWindow
         }
 
         public void add(EventFactHandle handle) {
-            queue.add( handle );
+            if ( length > 0 && slot( length - 1 ).getStartTimestamp() > handle.getStartTimestamp() ) {
+                if ( outOfOrder == null ) {
+                    outOfOrder = new PriorityQueue<>();
+                }
+                outOfOrder.add( handle );
+                return;
+            }
+            if ( length == ring.length ) {
+                resize( ringSize > length / 2 ? ring.length * 2 : ring.length );
+            }
+            int index = ( head + length ) & ( ring.length - 1 );
+            ring[index] = handle;
+            removed[index] = false;
+            length++;
+            ringSize++;
         }
 
         public void remove(EventFactHandle handle) {
-            queue.remove( handle );
+            int i = indexOf( handle );
+            if ( i < 0 ) {
+                if ( outOfOrder != null ) {
+                    outOfOrder.remove( handle );
+                }
+                return;
+            }
+            removed[( head + i ) & ( ring.length - 1 )] = true;
+            ringSize--;
+            trim();
+            if ( length > INITIAL_CAPACITY && ringSize < length / 4 ) {
+                // too many removed slots in the middle of the ring
+                resize( ring.length );
+            }
         }
 
         public boolean isEmpty() {
-            return queue.isEmpty();
+            return ringSize == 0 && ( outOfOrder == null || outOfOrder.isEmpty() );
         }
 
         public EventFactHandle peek() {
-            return queue.peek( );
+            EventFactHandle first = length > 0 ? ring[head] : null;
+            EventFactHandle firstOutOfOrder = outOfOrder != null ? outOfOrder.peek() : null;
+            if ( firstOutOfOrder != null && ( first == null || firstOutOfOrder.getStartTimestamp() < first.getStartTimestamp() ) ) {
+                return firstOutOfOrder;
+            }
+            return first;
         }
 
         public EventFactHandle poll() {
-            return queue.poll( );
+            EventFactHandle first = peek();
+            if ( first != null ) {
+                if ( length > 0 && first == ring[head] ) {
+                    removed[head] = true;
+                    ringSize--;
+                    trim();
+                } else {
+                    outOfOrder.poll();
+                }
+            }
+            return first;
         }
 
         public EventFactHandle remove() {
-            return queue.remove( );
+            EventFactHandle first = poll();
+            if ( first == null ) {
+                throw new NoSuchElementException();
+            }
+            return first;
         }
 
         @Override
         public Collection<EventFactHandle> getFactHandles() {
-            return queue;
+            List<EventFactHandle> handles = new ArrayList<>( ringSize + ( outOfOrder != null ? outOfOrder.size() : 0 ) );
+            for ( int i = 0; i < length; i++ ) {
+                if ( !removed[( head + i ) & ( ring.length - 1 )] ) {
+                    handles.add( slot( i ) );
+                }
+            }
+            if ( outOfOrder != null ) {
+                handles.addAll( outOfOrder );
+            }
+            return handles;
+        }
+
+        private EventFactHandle slot(int i) {
+            return ring[( head + i ) & ( ring.length - 1 )];
+        }
+
+        private int indexOf(EventFactHandle handle) {
+            long timestamp = handle.getStartTimestamp();
+            // the first slot with the timestamp of the handle
+            int low = 0;
+            int high = length;
+            while ( low < high ) {
+                int mid = ( low + high ) >>> 1;
+                if ( slot( mid ).getStartTimestamp() < timestamp ) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            for ( int i = low; i < length && slot( i ).getStartTimestamp() == timestamp; i++ ) {
+                if ( !removed[( head + i ) & ( ring.length - 1 )] && handle.equals( slot( i ) ) ) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private void trim() {
+            while ( length > 0 && removed[head] ) {
+                ring[head] = null;
+                head = ( head + 1 ) & ( ring.length - 1 );
+                length--;
+            }
+            while ( length > 0 && removed[( head + length - 1 ) & ( ring.length - 1 )] ) {
+                ring[( head + length - 1 ) & ( ring.length - 1 )] = null;
+                length--;
+            }
+            if ( length == 0 ) {
+                head = 0;
+            }
+        }
+
+        private void resize(int capacity) {
+            EventFactHandle[] newRing = new EventFactHandle[capacity];
+            int j = 0;
+            for ( int i = 0; i < length; i++ ) {
+                if ( !removed[( head + i ) & ( ring.length - 1 )] ) {
+                    newRing[j++] = slot( i );
+                }
+            }
+            this.ring = newRing;
+            this.removed = new boolean[capacity];
+            this.head = 0;
+            this.length = j;
         }
     }
 
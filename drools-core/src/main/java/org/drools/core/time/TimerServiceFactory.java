@@ -22,6 +22,12 @@ import org.drools.wiring.api.ComponentsFactory;
 
 public class TimerServiceFactory {
 
+    /**
+     * The property holding the class name of the TimerService used by the sessions with a pseudo clock,
+     * the PseudoClockScheduler when it isn't set
+     */
+    public static final String PSEUDO_TIMER_SERVICE_PROPERTY = "drools.pseudoTimerService";
+
     public static TimerService getTimerService(SessionConfiguration config) {
         TimerService service;
         switch (config.getClockType()) {
@@ -29,7 +35,7 @@ public class TimerServiceFactory {
                 service = newTimerService((SessionConfigurationImpl) config);
                 break;
             case PSEUDO_CLOCK:
-                service = (TimerService) config.getClockType().createInstance();
+                service = newPseudoTimerService((SessionConfigurationImpl) config);
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported clock type: " + config.getClockType());
@@ -45,4 +51,12 @@ public class TimerServiceFactory {
         }
         return (TimerService) ComponentsFactory.createTimerService(className);
     }
+
+    private static TimerService newPseudoTimerService(SessionConfigurationImpl config) {
+        String className = config.getPropertyValue(PSEUDO_TIMER_SERVICE_PROPERTY, null);
+        if (className == null) {
+            return (TimerService) config.getClockType().createInstance();
+        }
+        return (TimerService) ComponentsFactory.createTimerService(className);
+    }
 }
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel holding the jobs of a timer service, with constant time scheduling and cancellation.
+ *
+ * Time is divided in ticks of a fixed length. Each level of the wheel has 64 slots, a slot at level n spanning
+ * 64^n ticks, and a job is kept at the lowest level where its tick is in the same slot of the next level as the
+ * current tick. When the current tick reaches a slot of a higher level its jobs are cascaded down, until they
+ * end in a slot of the first level, which is fired as a whole when it's reached. Each level keeps a bitmap of
+ * its non empty slots, so the wheel can jump straight to the next relevant tick instead of visiting every tick.
+ *
+ * This class isn't thread safe, it's up to the owning timer service to guard it.
+ */
+public class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = ( Long.SIZE + SLOT_BITS - 1 ) / SLOT_BITS;
+
+    private final long tickMillis;
+
+    private final Entry[] heads = new Entry[LEVELS * SLOTS];
+    private final Entry[] tails = new Entry[LEVELS * SLOTS];
+    private final long[] occupied = new long[LEVELS];
+
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, long startTime) {
+        if ( tickMillis <= 0 ) {
+            throw new IllegalArgumentException( "The tick of a timing wheel must be positive: " + tickMillis );
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = Math.floorDiv( startTime, tickMillis );
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Returns the time of the current tick of the wheel
+     */
+    public long getCurrentTime() {
+        return currentTick * tickMillis;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds the given job, that will be fired at the tick of its next fire time, or at the current tick
+     * if its next fire time is already passed. A job can be in the wheel only once.
+     */
+    public void add(TimerJobInstance job) {
+        Date date = job.getTrigger().hasNextFireTime();
+        // jobs are never fired before their time, so the fire time is rounded up to the next tick
+        long tick = -Math.floorDiv( -date.getTime(), tickMillis );
+        TimingWheelJobHandle handle = (TimingWheelJobHandle) job.getJobHandle();
+        Entry entry = new Entry( job, Math.max( tick, currentTick ) );
+        handle.setWheelEntry( entry );
+        link( entry );
+        size++;
+    }
+
+    /**
+     * Removes the job of the given handle, returning false if it wasn't in the wheel.
+     */
+    public boolean remove(TimingWheelJobHandle handle) {
+        Entry entry = handle.getWheelEntry();
+        if ( entry == null || entry.slot < 0 ) {
+            return false;
+        }
+        handle.setWheelEntry( null );
+        unlink( entry );
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        for ( int i = 0; i < heads.length; i++ ) {
+            for ( Entry entry = heads[i]; entry != null; entry = entry.next ) {
+                entry.slot = -1;
+            }
+            heads[i] = null;
+            tails[i] = null;
+        }
+        for ( int i = 0; i < LEVELS; i++ ) {
+            occupied[i] = 0;
+        }
+        size = 0;
+    }
+
+    /**
+     * Returns the time of the tick of the next job to be fired, or -1 if the wheel is empty
+     */
+    public long nextFireTime() {
+        if ( size == 0 ) {
+            return -1;
+        }
+        long tick = nextEventTick();
+        int level = tick == currentTick ? 0 : ( Long.SIZE - 1 - Long.numberOfLeadingZeros( tick ^ currentTick ) ) / SLOT_BITS;
+        if ( level > 0 ) {
+            // the slot of a higher level spans many ticks, its first job has to be looked for
+            int index = level * SLOTS + (int) ( ( tick >>> ( level * SLOT_BITS ) ) & SLOT_MASK );
+            tick = Long.MAX_VALUE;
+            for ( Entry entry = heads[index]; entry != null; entry = entry.next ) {
+                tick = Math.min( tick, entry.tick );
+            }
+        }
+        return tick * tickMillis;
+    }
+
+    /**
+     * Advances the wheel up to the given time, returning the jobs due at the first tick that has any, in the
+     * order they have been added, or an empty list if there are none up to that time. When some jobs are
+     * returned the wheel stops at their tick, so this method must be called again until it returns an
+     * empty list, after having fired them: this way the jobs scheduled while firing are also honoured.
+     */
+    public List<TimerJobInstance> advanceTo(long time) {
+        long targetTick = Math.floorDiv( time, tickMillis );
+        while ( true ) {
+            long tick = nextEventTick();
+            if ( tick < 0 || tick > targetTick ) {
+                currentTick = Math.max( currentTick, targetTick );
+                return new ArrayList<>();
+            }
+            currentTick = tick;
+            List<TimerJobInstance> due = expire();
+            if ( !due.isEmpty() ) {
+                return due;
+            }
+        }
+    }
+
+    /**
+     * Returns all the jobs in the wheel, in no particular order
+     */
+    public List<TimerJobInstance> getTimerJobInstances() {
+        List<TimerJobInstance> jobs = new ArrayList<>( size );
+        for ( Entry head : heads ) {
+            for ( Entry entry = head; entry != null; entry = entry.next ) {
+                jobs.add( entry.job );
+            }
+        }
+        return jobs;
+    }
+
+    private long nextEventTick() {
+        if ( size == 0 ) {
+            return -1;
+        }
+        for ( int level = 0; level < LEVELS; level++ ) {
+            int shift = level * SLOT_BITS;
+            int current = (int) ( ( currentTick >>> shift ) & SLOT_MASK );
+            // at the first level the current slot is still to be fired, at higher levels it's already been cascaded
+            long candidates = level == 0 ? occupied[0] >>> current << current :
+                              current == SLOT_MASK ? 0 : occupied[level] >>> ( current + 1 ) << ( current + 1 );
+            if ( candidates != 0 ) {
+                int slot = Long.numberOfTrailingZeros( candidates );
+                long upper = shift + SLOT_BITS >= Long.SIZE ? 0 : currentTick >>> ( shift + SLOT_BITS ) << ( shift + SLOT_BITS );
+                return upper | ( (long) slot << shift );
+            }
+        }
+        return -1;
+    }
+
+    private List<TimerJobInstance> expire() {
+        // cascade the slots of the higher levels starting at the current tick, from the highest one
+        for ( int level = LEVELS - 1; level > 0; level-- ) {
+            int shift = level * SLOT_BITS;
+            if ( ( currentTick & ( ( 1L << shift ) - 1 ) ) != 0 ) {
+                continue;
+            }
+            int index = level * SLOTS + (int) ( ( currentTick >>> shift ) & SLOT_MASK );
+            Entry entry = detach( index );
+            while ( entry != null ) {
+                Entry next = entry.next;
+                entry.next = null;
+                entry.prev = null;
+                link( entry );
+                entry = next;
+            }
+        }
+
+        List<TimerJobInstance> due = new ArrayList<>();
+        Entry entry = detach( (int) ( currentTick & SLOT_MASK ) );
+        while ( entry != null ) {
+            Entry next = entry.next;
+            entry.slot = -1;
+            entry.next = null;
+            entry.prev = null;
+            ( (TimingWheelJobHandle) entry.job.getJobHandle() ).setWheelEntry( null );
+            size--;
+            due.add( entry.job );
+            entry = next;
+        }
+        return due;
+    }
+
+    private void link(Entry entry) {
+        long tick = entry.tick;
+        int level = tick == currentTick ? 0 : ( Long.SIZE - 1 - Long.numberOfLeadingZeros( tick ^ currentTick ) ) / SLOT_BITS;
+        int slot = (int) ( ( tick >>> ( level * SLOT_BITS ) ) & SLOT_MASK );
+        int index = level * SLOTS + slot;
+        entry.slot = index;
+        Entry tail = tails[index];
+        if ( tail == null ) {
+            heads[index] = entry;
+            occupied[level] |= 1L << slot;
+        } else {
+            tail.next = entry;
+            entry.prev = tail;
+        }
+        tails[index] = entry;
+    }
+
+    private void unlink(Entry entry) {
+        int index = entry.slot;
+        if ( entry.prev == null ) {
+            heads[index] = entry.next;
+        } else {
+            entry.prev.next = entry.next;
+        }
+        if ( entry.next == null ) {
+            tails[index] = entry.prev;
+        } else {
+            entry.next.prev = entry.prev;
+        }
+        if ( heads[index] == null ) {
+            occupied[index / SLOTS] &= ~( 1L << ( index & SLOT_MASK ) );
+        }
+        entry.slot = -1;
+        entry.next = null;
+        entry.prev = null;
+    }
+
+    private Entry detach(int index) {
+        Entry head = heads[index];
+        if ( head != null ) {
+            heads[index] = null;
+            tails[index] = null;
+            occupied[index / SLOTS] &= ~( 1L << ( index & SLOT_MASK ) );
+        }
+        return head;
+    }
+
+    static class Entry {
+        private final TimerJobInstance job;
+        private final long tick;
+        private int slot = -1;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(TimerJobInstance job, long tick) {
+            this.job = job;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+/**
+ * A job handle keeping track of the position of its job in a {@link TimingWheel}, so the job can be removed
+ * from the wheel in constant time.
+ */
+public class TimingWheelJobHandle extends DefaultJobHandle {
+
+    private static final long serialVersionUID = 510l;
+
+    private transient TimingWheel.Entry wheelEntry;
+
+    public TimingWheelJobHandle(long id) {
+        super( id );
+    }
+
+    TimingWheel.Entry getWheelEntry() {
+        return wheelEntry;
+    }
+
+    void setWheelEntry(TimingWheel.Entry wheelEntry) {
+        this.wheelEntry = wheelEntry;
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.drools.core.common.DroolsObjectInputStream;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.Trigger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link PseudoClockScheduler} keeping its jobs in a {@link TimingWheel} instead of a priority queue, so that
+ * scheduling and cancelling a job take constant time. The wheel ticks every millisecond, the resolution of the
+ * fire times, so when the clock is advanced each job is fired with the clock set to its exact fire time, as the
+ * PseudoClockScheduler does: since the wheel jumps straight to the next tick that has jobs, a finer tick
+ * costs nothing.
+ *
+ * It can be used in place of the PseudoClockScheduler setting the {@link TimerServiceFactory#PSEUDO_TIMER_SERVICE_PROPERTY}
+ * property to this class name.
+ */
+public class TimingWheelPseudoClockScheduler extends PseudoClockScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger( TimingWheelPseudoClockScheduler.class );
+
+    private static final long TICK_MILLIS = 1;
+
+    private final AtomicLong idCounter = new AtomicLong();
+
+    private TimingWheel wheel = new TimingWheel( TICK_MILLIS, 0 );
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public void readExternal(ObjectInput in) throws IOException,
+                                            ClassNotFoundException {
+        long time = in.readLong();
+        setStartupTime( time );
+        wheel = new TimingWheel( TICK_MILLIS, time );
+        List<TimerJobInstance> jobs = (List<TimerJobInstance>) in.readObject();
+        for ( TimerJobInstance job : jobs ) {
+            wheel.add( job );
+        }
+        setSession( ((DroolsObjectInputStream) in).getWorkingMemory() );
+    }
+
+    @Override
+    public synchronized void writeExternal(ObjectOutput out) throws IOException {
+        out.writeLong( getCurrentTime() );
+        out.writeObject( wheel.getTimerJobInstances() );
+    }
+
+    @Override
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        if ( trigger.hasNextFireTime() == null ) {
+            return null;
+        }
+        TimingWheelJobHandle jobHandle = new TimingWheelJobHandle( idCounter.getAndIncrement() );
+        TimerJobInstance jobInstance = getTimerJobFactoryManager().createTimerJobInstance( job,
+                                                                                         ctx,
+                                                                                         trigger,
+                                                                                         jobHandle,
+                                                                                         this );
+        jobHandle.setTimerJobInstance( jobInstance );
+        internalSchedule( jobInstance );
+        return jobHandle;
+    }
+
+    @Override
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        getTimerJobFactoryManager().addTimerJobInstance( timerJobInstance );
+        synchronized (this) {
+            wheel.add( timerJobInstance );
+        }
+    }
+
+    @Override
+    public synchronized boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        TimingWheelJobHandle wheelJobHandle = (TimingWheelJobHandle) jobHandle;
+        getTimerJobFactoryManager().removeTimerJobInstance( wheelJobHandle.getTimerJobInstance() );
+        return wheel.remove( wheelJobHandle );
+    }
+
+    @Override
+    public long advanceTime(long amount,
+                            TimeUnit unit) {
+        return runCallBacksAndIncreaseTimer( unit.toMillis( amount ) );
+    }
+
+    @Override
+    public synchronized void reset() {
+        super.reset();
+        idCounter.set( 0 );
+        wheel = new TimingWheel( TICK_MILLIS, 0 );
+    }
+
+    @Override
+    public synchronized long getTimeToNextJob() {
+        long nextFireTime = wheel.nextFireTime();
+        return nextFireTime < 0 ? -1 : nextFireTime - getCurrentTime();
+    }
+
+    private synchronized long runCallBacksAndIncreaseTimer( long increase ) {
+        long endTime = getCurrentTime() + increase;
+        for ( List<TimerJobInstance> due = wheel.advanceTo( endTime ); !due.isEmpty(); due = wheel.advanceTo( endTime ) ) {
+            for ( TimerJobInstance item : due ) {
+                if ( item.getJobHandle().isCancel() ) {
+                    // do not call it, do not reschedule it
+                    continue;
+                }
+                try {
+                    // set the clock back to the trigger's fire time
+                    setStartupTime( item.getTrigger().hasNextFireTime().getTime() );
+                    ( (Callable<?>) item ).call();
+                } catch ( Exception e ) {
+                    logger.error( "Exception running callbacks: ", e );
+                }
+            }
+        }
+        setStartupTime( endTime );
+        return getCurrentTime();
+    }
+}
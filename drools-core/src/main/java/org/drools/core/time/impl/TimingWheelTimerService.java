@@ -0,0 +1,215 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.time.InternalSchedulerService;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.Trigger;
+import org.kie.api.time.SessionClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A realtime Scheduler implementation keeping its jobs in a {@link TimingWheel}, so that scheduling and cancelling
+ * a job take constant time. The jobs are fired by a single daemon thread, started with the first scheduled job,
+ * all the jobs due at the same tick being fired together.
+ *
+ * It can be used in place of the {@link JDKTimerService} setting the drools.timerService property to this class name.
+ */
+public class TimingWheelTimerService
+        implements
+        TimerService,
+        SessionClock,
+        InternalSchedulerService {
+
+    private static final Logger logger = LoggerFactory.getLogger( TimingWheelTimerService.class );
+
+    public static final long DEFAULT_TICK_MILLIS = 1;
+
+    private final AtomicLong idCounter = new AtomicLong( 0L );
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wakeUp = lock.newCondition();
+
+    private final TimingWheel wheel;
+
+    private Thread worker;
+    private boolean shutdown;
+
+    protected TimerJobFactoryManager jobFactoryManager = DefaultTimerJobFactoryManager.instance;
+
+    public TimingWheelTimerService() {
+        this( DEFAULT_TICK_MILLIS );
+    }
+
+    public TimingWheelTimerService(long tickMillis) {
+        this.wheel = new TimingWheel( tickMillis, System.currentTimeMillis() );
+    }
+
+    public void setTimerJobFactoryManager(TimerJobFactoryManager timerJobFactoryManager) {
+        this.jobFactoryManager = timerJobFactoryManager;
+    }
+
+    public TimerJobFactoryManager getTimerJobFactoryManager() {
+        return this.jobFactoryManager;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    public long getCurrentTime() {
+        return System.currentTimeMillis();
+    }
+
+    public JobHandle scheduleJob(Job job,
+                                 JobContext ctx,
+                                 Trigger trigger) {
+        if ( trigger.hasNextFireTime() == null ) {
+            return null;
+        }
+        TimingWheelJobHandle jobHandle = new TimingWheelJobHandle( idCounter.getAndIncrement() );
+        TimerJobInstance jobInstance = jobFactoryManager.createTimerJobInstance( job,
+                                                                               ctx,
+                                                                               trigger,
+                                                                               jobHandle,
+                                                                               this );
+        jobHandle.setTimerJobInstance( jobInstance );
+        internalSchedule( jobInstance );
+        return jobHandle;
+    }
+
+    public void internalSchedule(TimerJobInstance timerJobInstance) {
+        jobFactoryManager.addTimerJobInstance( timerJobInstance );
+        lock.lock();
+        try {
+            if ( shutdown ) {
+                return;
+            }
+            long previousFireTime = wheel.nextFireTime();
+            wheel.add( timerJobInstance );
+            if ( worker == null ) {
+                worker = new Thread( this::fireJobs, "drools-timing-wheel" );
+                worker.setDaemon( true );
+                worker.start();
+            } else if ( previousFireTime < 0 || wheel.nextFireTime() < previousFireTime ) {
+                wakeUp.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean removeJob(JobHandle jobHandle) {
+        jobHandle.setCancel( true );
+        TimingWheelJobHandle wheelJobHandle = (TimingWheelJobHandle) jobHandle;
+        jobFactoryManager.removeTimerJobInstance( wheelJobHandle.getTimerJobInstance() );
+        lock.lock();
+        try {
+            return wheel.remove( wheelJobHandle );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void reset() {
+        lock.lock();
+        try {
+            wheel.clear();
+            idCounter.set( 0L );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            wheel.clear();
+            wakeUp.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTimeToNextJob() {
+        lock.lock();
+        try {
+            long nextFireTime = wheel.nextFireTime();
+            return nextFireTime < 0 ? -1 : Math.max( 0, nextFireTime - getCurrentTime() );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Collection<TimerJobInstance> getTimerJobInstances(long id) {
+        return jobFactoryManager.getTimerJobInstances();
+    }
+
+    private void fireJobs() {
+        while ( true ) {
+            List<TimerJobInstance> due;
+            lock.lock();
+            try {
+                while ( true ) {
+                    if ( shutdown ) {
+                        return;
+                    }
+                    due = wheel.advanceTo( getCurrentTime() );
+                    if ( !due.isEmpty() ) {
+                        break;
+                    }
+                    long nextFireTime = wheel.nextFireTime();
+                    if ( nextFireTime < 0 ) {
+                        wakeUp.await();
+                    } else {
+                        wakeUp.await( nextFireTime - getCurrentTime(), TimeUnit.MILLISECONDS );
+                    }
+                }
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // the jobs are fired without holding the lock, as they can schedule other jobs
+            for ( TimerJobInstance job : due ) {
+                if ( job.getJobHandle().isCancel() ) {
+                    continue;
+                }
+                try {
+                    ( (Callable<?>) job ).call();
+                } catch ( Exception e ) {
+                    logger.error( "Exception running timer job: ", e );
+                }
+            }
+        }
+    }
+}
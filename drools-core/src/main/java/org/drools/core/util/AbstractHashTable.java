@@ -344,6 +344,28 @@ public abstract class AbstractHashTable
                             leftExtractor.getValue( tuple ) ) :
                    rightExtractor.getValue( null, tuple.getFactHandle().getObject() );
         }
+
+        public int indexedIntValueOf(Tuple tuple, boolean left) {
+            if ( !left ) {
+                return rightExtractor.getIntValue( null, tuple.getFactHandle().getObject() );
+            }
+            if ( leftExtractor instanceof Declaration ) {
+                Declaration declaration = ( Declaration ) leftExtractor;
+                return declaration.getIntValue( null, tuple.get( declaration ).getObject() );
+            }
+            return (( Number ) leftExtractor.getValue( tuple )).intValue();
+        }
+
+        public long indexedLongValueOf(Tuple tuple, boolean left) {
+            if ( !left ) {
+                return rightExtractor.getLongValue( null, tuple.getFactHandle().getObject() );
+            }
+            if ( leftExtractor instanceof Declaration ) {
+                Declaration declaration = ( Declaration ) leftExtractor;
+                return declaration.getLongValue( null, tuple.get( declaration ).getObject() );
+            }
+            return (( Number ) leftExtractor.getValue( tuple )).longValue();
+        }
     }
 
     public interface Index extends Externalizable {
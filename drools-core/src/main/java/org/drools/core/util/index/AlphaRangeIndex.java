@@ -20,14 +20,21 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import org.drools.core.base.ValueType;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.PropagationContext;
+import org.drools.core.common.ReteEvaluator;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.CompositeObjectSinkAdapter;
+import org.drools.core.reteoo.ModifyPreviousTuples;
 import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.rule.accessor.FieldValue;
+import org.drools.core.rule.accessor.ReadAccessor;
 import org.drools.core.util.index.IndexUtil.ConstraintType;
 import org.drools.core.util.index.RangeIndex.IndexType;
 
@@ -35,6 +42,10 @@ import org.drools.core.util.index.RangeIndex.IndexType;
  * 
  * Alpha Node range indexing implementation backed by RangeIndex per fieldIndex
  *
+ * When the indexed field is numeric, the lookups go through a PrimitiveRangeIndex, a snapshot of the RangeIndex
+ * made of sorted primitive arrays of bounds that can be probed with a binary search without boxing the value
+ * of the field or allocating any iterator.
+ *
  */
 public class AlphaRangeIndex implements Externalizable {
 
@@ -44,6 +55,9 @@ public class AlphaRangeIndex implements Externalizable {
 
     private int size;
 
+    // lazily rebuilt after any change of the rangeIndex, it is immutable so it can be probed concurrently
+    private transient volatile PrimitiveRangeIndex primitiveIndex;
+
     public AlphaRangeIndex() {
         // constructor for serialisation
     }
@@ -77,6 +91,7 @@ public class AlphaRangeIndex implements Externalizable {
                     " You can workaround this issue by setting system property 'drools.alphaNodeRangeIndexThreshold' to '0'");
         }
         size++;
+        primitiveIndex = null;
     }
 
     public void remove(AlphaNode alphaNode) {
@@ -85,6 +100,7 @@ public class AlphaRangeIndex implements Externalizable {
         IndexType indexType = extractIndexType(constraint);
         rangeIndex.removeIndex(indexType, key);
         size--;
+        primitiveIndex = null;
     }
 
     private Comparable extractKey(IndexableConstraint constraint) {
@@ -149,6 +165,13 @@ public class AlphaRangeIndex implements Externalizable {
     }
 
     public Collection<AlphaNode> getMatchingAlphaNodes(Object object) {
+        PrimitiveRangeIndex primitive = getPrimitiveIndex();
+        if (primitive != null) {
+            List<AlphaNode> nodes = new ArrayList<>();
+            primitive.forEachMatching(fieldIndex.getFieldExtractor(), object, (node, handle, modifyPreviousTuples, context, reteEvaluator) -> nodes.add(node),
+                                      null, null, null, null);
+            return nodes;
+        }
         Object value = fieldIndex.getFieldExtractor().getValue(object);
         if (value == null) {
             return Collections.emptyList();
@@ -156,15 +179,290 @@ public class AlphaRangeIndex implements Externalizable {
         return rangeIndex.getValues((Comparable) value);
     }
 
+    /**
+     * Passes to the given consumer, together with the other arguments, all the AlphaNodes matching the given object.
+     * For numeric fields this doesn't allocate anything, as long as the consumer doesn't capture any variable.
+     */
+    public void forEachMatchingAlphaNode(Object object, AlphaNodeConsumer consumer,
+                                         InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples,
+                                         PropagationContext context, ReteEvaluator reteEvaluator) {
+        PrimitiveRangeIndex primitive = getPrimitiveIndex();
+        if (primitive != null) {
+            primitive.forEachMatching(fieldIndex.getFieldExtractor(), object, consumer, factHandle, modifyPreviousTuples, context, reteEvaluator);
+            return;
+        }
+        Object value = fieldIndex.getFieldExtractor().getValue(object);
+        if (value == null) {
+            return;
+        }
+        for (AlphaNode node : rangeIndex.getValues((Comparable) value)) {
+            consumer.accept(node, factHandle, modifyPreviousTuples, context, reteEvaluator);
+        }
+    }
+
+    private PrimitiveRangeIndex getPrimitiveIndex() {
+        PrimitiveRangeIndex primitive = primitiveIndex;
+        if (primitive == null) {
+            ValueType valueType = fieldIndex.getFieldExtractor().getValueType();
+            if (PrimitiveRangeIndex.isLongType(valueType)) {
+                primitive = new LongRangeIndex(valueType);
+            } else if (PrimitiveRangeIndex.isDoubleType(valueType)) {
+                primitive = new DoubleRangeIndex(valueType);
+            } else {
+                return null;
+            }
+            primitive.build(this);
+            primitiveIndex = primitive;
+        }
+        return primitive;
+    }
+
     public Collection<AlphaNode> getAllValues() {
         return rangeIndex.getAllValues();
     }
 
     public void clear() {
         rangeIndex = new RangeIndex<>();
+        primitiveIndex = null;
     }
 
     public CompositeObjectSinkAdapter.FieldIndex getFieldIndex() {
         return fieldIndex;
     }
+
+    @FunctionalInterface
+    public interface AlphaNodeConsumer {
+        void accept(AlphaNode alphaNode, InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples,
+                    PropagationContext context, ReteEvaluator reteEvaluator);
+    }
+
+    /**
+     * The bounds of the LT and LE nodes, sorted by bound and with the LT nodes before the LE ones for the same bound,
+     * are matched by a value if they are greater than it (or equal, for LE), so the matching ones are a suffix of them.
+     * Symmetrically the matching GE and GT nodes, sorted in the same way, are a prefix of them. This is the same order
+     * used by the RangeIndex, so the nodes are visited in the same order.
+     */
+    private abstract static class PrimitiveRangeIndex {
+
+        protected final boolean primitive;
+
+        protected AlphaNode[] lessNodes;
+        protected boolean[] lessInclusive;
+        protected AlphaNode[] greaterNodes;
+        protected boolean[] greaterInclusive;
+
+        protected PrimitiveRangeIndex(ValueType valueType) {
+            this.primitive = valueType.getClassType().isPrimitive();
+        }
+
+        static boolean isLongType(ValueType valueType) {
+            return valueType == ValueType.PINTEGER_TYPE || valueType == ValueType.INTEGER_TYPE ||
+                   valueType == ValueType.PLONG_TYPE || valueType == ValueType.LONG_TYPE ||
+                   valueType == ValueType.PSHORT_TYPE || valueType == ValueType.SHORT_TYPE ||
+                   valueType == ValueType.PBYTE_TYPE || valueType == ValueType.BYTE_TYPE ||
+                   valueType == ValueType.PCHAR_TYPE || valueType == ValueType.CHAR_TYPE;
+        }
+
+        static boolean isDoubleType(ValueType valueType) {
+            return valueType == ValueType.PDOUBLE_TYPE || valueType == ValueType.DOUBLE_TYPE ||
+                   valueType == ValueType.PFLOAT_TYPE || valueType == ValueType.FLOAT_TYPE;
+        }
+
+        void build(AlphaRangeIndex index) {
+            Collection<AlphaNode> nodes = index.getAllValues();
+            int lessSize = 0;
+            for (AlphaNode node : nodes) {
+                IndexType indexType = index.extractIndexType((IndexableConstraint) node.getConstraint());
+                if (indexType == IndexType.LT || indexType == IndexType.LE) {
+                    lessSize++;
+                }
+            }
+            lessNodes = new AlphaNode[lessSize];
+            lessInclusive = new boolean[lessSize];
+            greaterNodes = new AlphaNode[nodes.size() - lessSize];
+            greaterInclusive = new boolean[nodes.size() - lessSize];
+            initBounds(lessSize, nodes.size() - lessSize);
+
+            int lessPos = 0;
+            int greaterPos = 0;
+            for (AlphaNode node : nodes) {
+                IndexableConstraint constraint = (IndexableConstraint) node.getConstraint();
+                IndexType indexType = index.extractIndexType(constraint);
+                Comparable key = index.extractKey(constraint);
+                if (indexType == IndexType.LT || indexType == IndexType.LE) {
+                    lessNodes[lessPos] = node;
+                    lessInclusive[lessPos] = indexType == IndexType.LE;
+                    setLessBound(lessPos++, key);
+                } else {
+                    greaterNodes[greaterPos] = node;
+                    greaterInclusive[greaterPos] = indexType == IndexType.GE;
+                    setGreaterBound(greaterPos++, key);
+                }
+            }
+        }
+
+        protected abstract void initBounds(int lessSize, int greaterSize);
+
+        protected abstract void setLessBound(int pos, Comparable key);
+
+        protected abstract void setGreaterBound(int pos, Comparable key);
+
+        abstract void forEachMatching(ReadAccessor extractor, Object object, AlphaNodeConsumer consumer,
+                                      InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples,
+                                      PropagationContext context, ReteEvaluator reteEvaluator);
+
+        protected void visit(int lessFrom, int greaterTo, AlphaNodeConsumer consumer,
+                             InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples,
+                             PropagationContext context, ReteEvaluator reteEvaluator) {
+            for (int i = lessFrom; i < lessNodes.length; i++) {
+                consumer.accept(lessNodes[i], factHandle, modifyPreviousTuples, context, reteEvaluator);
+            }
+            for (int i = 0; i < greaterTo; i++) {
+                consumer.accept(greaterNodes[i], factHandle, modifyPreviousTuples, context, reteEvaluator);
+            }
+        }
+    }
+
+    private static class LongRangeIndex extends PrimitiveRangeIndex {
+
+        private long[] lessBounds;
+        private long[] greaterBounds;
+
+        private LongRangeIndex(ValueType valueType) {
+            super(valueType);
+        }
+
+        @Override
+        protected void initBounds(int lessSize, int greaterSize) {
+            lessBounds = new long[lessSize];
+            greaterBounds = new long[greaterSize];
+        }
+
+        @Override
+        protected void setLessBound(int pos, Comparable key) {
+            lessBounds[pos] = toLong(key);
+        }
+
+        @Override
+        protected void setGreaterBound(int pos, Comparable key) {
+            greaterBounds[pos] = toLong(key);
+        }
+
+        private static long toLong(Object key) {
+            return key instanceof Character ? (Character) key : ((Number) key).longValue();
+        }
+
+        @Override
+        void forEachMatching(ReadAccessor extractor, Object object, AlphaNodeConsumer consumer,
+                             InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples,
+                             PropagationContext context, ReteEvaluator reteEvaluator) {
+            long value;
+            if (primitive) {
+                value = extractor.getLongValue(reteEvaluator, object);
+            } else {
+                Object boxed = extractor.getValue(object);
+                if (boxed == null) {
+                    return;
+                }
+                value = toLong(boxed);
+            }
+
+            // first less bound matched by the value
+            int low = 0;
+            int high = lessBounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (lessBounds[mid] > value || (lessBounds[mid] == value && lessInclusive[mid])) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            int lessFrom = low;
+
+            // first greater bound not matched by the value
+            low = 0;
+            high = greaterBounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (greaterBounds[mid] < value || (greaterBounds[mid] == value && greaterInclusive[mid])) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            visit(lessFrom, low, consumer, factHandle, modifyPreviousTuples, context, reteEvaluator);
+        }
+    }
+
+    private static class DoubleRangeIndex extends PrimitiveRangeIndex {
+
+        private double[] lessBounds;
+        private double[] greaterBounds;
+
+        private DoubleRangeIndex(ValueType valueType) {
+            super(valueType);
+        }
+
+        @Override
+        protected void initBounds(int lessSize, int greaterSize) {
+            lessBounds = new double[lessSize];
+            greaterBounds = new double[greaterSize];
+        }
+
+        @Override
+        protected void setLessBound(int pos, Comparable key) {
+            lessBounds[pos] = ((Number) key).doubleValue();
+        }
+
+        @Override
+        protected void setGreaterBound(int pos, Comparable key) {
+            greaterBounds[pos] = ((Number) key).doubleValue();
+        }
+
+        @Override
+        void forEachMatching(ReadAccessor extractor, Object object, AlphaNodeConsumer consumer,
+                             InternalFactHandle factHandle, ModifyPreviousTuples modifyPreviousTuples,
+                             PropagationContext context, ReteEvaluator reteEvaluator) {
+            double value;
+            if (primitive) {
+                value = extractor.getDoubleValue(reteEvaluator, object);
+            } else {
+                Object boxed = extractor.getValue(object);
+                if (boxed == null) {
+                    return;
+                }
+                value = ((Number) boxed).doubleValue();
+            }
+
+            // Double.compare is used, as the RangeIndex does, to order NaN and signed zeros consistently
+            int low = 0;
+            int high = lessBounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(lessBounds[mid], value);
+                if (cmp > 0 || (cmp == 0 && lessInclusive[mid])) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            int lessFrom = low;
+
+            low = 0;
+            high = greaterBounds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(greaterBounds[mid], value);
+                if (cmp < 0 || (cmp == 0 && greaterInclusive[mid])) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            visit(lessFrom, low, consumer, factHandle, modifyPreviousTuples, context, reteEvaluator);
+        }
+    }
 }
@@ -346,7 +346,7 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.EQUAL) {
-                return new TupleIndexHashTable( indexSpec.indexes, false );
+                return createEqualityMemory( config, indexSpec, false );
             }
 
             if (indexSpec.constraintType.isComparison()) {
@@ -365,7 +365,7 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.EQUAL) {
-                return new TupleIndexHashTable( indexSpec.indexes, true );
+                return createEqualityMemory( config, indexSpec, true );
             }
 
             if (indexSpec.constraintType.isComparison()) {
@@ -375,6 +375,14 @@ public class IndexUtil {
             return new TupleList();
         }
 
+        private static TupleMemory createEqualityMemory(RuleBaseConfiguration config, IndexSpec indexSpec, boolean left) {
+            // unification joins iterate the whole memory, so they keep using the generic hash table
+            TupleMemory typedMemory = config.isTypedBetaMemoryIndex() && !indexSpec.unification ?
+                    TypedTupleIndexHashTable.create( indexSpec.indexes, left ) :
+                    null;
+            return typedMemory != null ? typedMemory : new TupleIndexHashTable( indexSpec.indexes, left );
+        }
+
         public static ContextEntry[] createContext(BetaNodeFieldConstraint... constraints) {
             ContextEntry[] entries = new ContextEntry[constraints.length];
             for (int i = 0; i < constraints.length; i++) {
@@ -386,6 +394,7 @@ public class IndexUtil {
         private static class IndexSpec {
             private ConstraintType constraintType = ConstraintType.UNKNOWN;
             private FieldIndex[] indexes;
+            private boolean unification;
 
             private IndexSpec(short nodeType, BetaNodeFieldConstraint[] constraints, RuleBaseConfiguration config) {
                 init(nodeType, constraints, config);
@@ -401,6 +410,7 @@ public class IndexUtil {
                 if (constraintType == ConstraintType.EQUAL) {
                     List<FieldIndex> indexList = new ArrayList<>();
                     indexList.add(((IndexableConstraint)constraints[firstIndexableConstraint]).getFieldIndex());
+                    unification = ((IndexableConstraint)constraints[firstIndexableConstraint]).isUnification();
 
                     // look for other EQUAL constraint to eventually add them to the index
                     for (int i = firstIndexableConstraint+1; i < constraints.length && indexList.size() < keyDepth; i++) {
@@ -0,0 +1,615 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.drools.core.util.index;
+
+import org.drools.core.base.ValueType;
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.util.AbstractHashTable;
+import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.Entry;
+import org.drools.core.util.FastIterator;
+import org.drools.core.util.Iterator;
+import org.drools.core.util.LinkedList;
+
+/**
+ * An equality indexed TupleMemory specialized for a single int, long or String key.
+ *
+ * Differently from the TupleIndexHashTable it never boxes the key or allocates a HashEntry to look up a bucket:
+ * the extracted keys are kept in a flat array, probed with open addressing, while the array of buckets at the same
+ * positions holds the TupleLists of the tuples sharing that key. A removed bucket leaves a tombstone, so removing
+ * tuples while iterating the whole memory never moves the buckets that still have to be visited.
+ *
+ * Only the keys are flat: the tuples of a bucket stay linked to each other and to their TupleList, because the
+ * phreak nodes walk a bucket through Tuple.getNext() and find the bucket of a tuple through Tuple.getMemory().
+ */
+public abstract class TypedTupleIndexHashTable implements TupleMemory {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private static final KeyedTupleList TOMBSTONE = new KeyedTupleList( 0 );
+
+    protected final FieldIndex index;
+
+    protected final boolean left;
+
+    protected KeyedTupleList[] buckets;
+
+    private int mask;
+
+    private int threshold;
+
+    private int bucketsNr;
+
+    private int tombstonesNr;
+
+    private int factSize;
+
+    private transient TypedFullIterator fullIterator;
+
+    private transient TypedFullFastIterator fullFastIterator;
+
+    protected TypedTupleIndexHashTable( FieldIndex index, boolean left ) {
+        this.index = index;
+        this.left = left;
+        init( 16 );
+    }
+
+    /**
+     * Returns a TypedTupleIndexHashTable for the given indexes if they consist of a single int, long or String
+     * field that doesn't require any coercion, null otherwise.
+     */
+    public static TupleMemory create( FieldIndex[] indexes, boolean left ) {
+        if ( indexes.length != 1 || indexes[0].requiresCoercion() ) {
+            return null;
+        }
+        ValueType valueType = indexes[0].getRightExtractor().getValueType();
+        if ( valueType == ValueType.PINTEGER_TYPE ) {
+            return new IntTupleIndexHashTable( indexes[0], left );
+        }
+        if ( valueType == ValueType.PLONG_TYPE ) {
+            return new LongTupleIndexHashTable( indexes[0], left );
+        }
+        if ( valueType == ValueType.STRING_TYPE ) {
+            return new StringTupleIndexHashTable( indexes[0], left );
+        }
+        return null;
+    }
+
+    private void init( int capacity ) {
+        this.buckets = new KeyedTupleList[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) ( capacity * LOAD_FACTOR );
+        this.bucketsNr = 0;
+        this.tombstonesNr = 0;
+        initKeys( capacity );
+    }
+
+    protected abstract void initKeys( int capacity );
+
+    /**
+     * Returns the bucket holding the key of the given tuple, or null if there isn't any
+     */
+    protected abstract KeyedTupleList get( Tuple tuple, boolean isLeftTuple );
+
+    /**
+     * Returns the bucket holding the key of the given tuple, creating it if missing
+     */
+    protected abstract KeyedTupleList getOrCreate( Tuple tuple );
+
+    /**
+     * Returns true if the current key of the given tuple is the one of the given bucket
+     */
+    protected abstract boolean hasKey( KeyedTupleList bucket, Tuple tuple );
+
+    /**
+     * Copies the key of the given bucket in the flat array of keys at the given position
+     */
+    protected abstract void storeKey( int slot, KeyedTupleList bucket );
+
+    protected abstract void clearKey( int slot );
+
+    protected final int firstSlot( int hash ) {
+        return hash & mask;
+    }
+
+    protected final int nextSlot( int slot ) {
+        return ( slot + 1 ) & mask;
+    }
+
+    protected final boolean isTombstone( int slot ) {
+        return buckets[slot] == TOMBSTONE;
+    }
+
+    /**
+     * Stores a newly created bucket in the given free slot, possibly reusing the first tombstone met while probing for it
+     */
+    protected final KeyedTupleList insert( int freeSlot, int firstTombstone, KeyedTupleList bucket ) {
+        int slot = freeSlot;
+        if ( firstTombstone >= 0 ) {
+            slot = firstTombstone;
+            tombstonesNr--;
+        }
+        buckets[slot] = bucket;
+        storeKey( slot, bucket );
+        if ( ++bucketsNr + tombstonesNr > threshold ) {
+            // when the table is mostly made of tombstones there's no need to grow it, just purge them
+            resize( bucketsNr > threshold / 2 ? buckets.length * 2 : buckets.length );
+        }
+        return bucket;
+    }
+
+    private void resize( int capacity ) {
+        KeyedTupleList[] oldBuckets = this.buckets;
+        init( capacity );
+        for ( KeyedTupleList bucket : oldBuckets ) {
+            if ( bucket != null && bucket != TOMBSTONE ) {
+                int slot = firstSlot( bucket.hash );
+                while ( buckets[slot] != null ) {
+                    slot = nextSlot( slot );
+                }
+                buckets[slot] = bucket;
+                storeKey( slot, bucket );
+                bucketsNr++;
+            }
+        }
+    }
+
+    private int slotOf( TupleList bucket ) {
+        int slot = firstSlot( ( (KeyedTupleList) bucket ).hash );
+        while ( buckets[slot] != bucket ) {
+            if ( buckets[slot] == null ) {
+                throw new IllegalStateException( "The bucket of the tuple is not part of this memory" );
+            }
+            slot = nextSlot( slot );
+        }
+        return slot;
+    }
+
+    private void removeBucket( TupleList bucket ) {
+        int slot = slotOf( bucket );
+        buckets[slot] = TOMBSTONE;
+        clearKey( slot );
+        bucketsNr--;
+        tombstonesNr++;
+    }
+
+    @Override
+    public Tuple getFirst( Tuple tuple ) {
+        TupleList bucket = get( tuple, !left );
+        return bucket != null ? bucket.getFirst() : null;
+    }
+
+    @Override
+    public void add( Tuple tuple ) {
+        getOrCreate( tuple ).add( tuple );
+        factSize++;
+    }
+
+    @Override
+    public void remove( Tuple tuple ) {
+        TupleList memory = tuple.getMemory();
+        memory.remove( tuple );
+        factSize--;
+        if ( memory.getFirst() == null ) {
+            removeBucket( memory );
+        }
+    }
+
+    @Override
+    public void removeAdd( Tuple tuple ) {
+        KeyedTupleList memory = (KeyedTupleList) tuple.getMemory();
+        memory.remove( tuple );
+        if ( hasKey( memory, tuple ) ) {
+            // it's the same bucket, so re-use and return
+            memory.add( tuple );
+            return;
+        }
+
+        factSize--;
+        if ( memory.getFirst() == null ) {
+            removeBucket( memory );
+        }
+        add( tuple );
+    }
+
+    @Override
+    public boolean contains( Tuple tuple ) {
+        return get( tuple, left ) != null;
+    }
+
+    @Override
+    public boolean isIndexed() {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return factSize;
+    }
+
+    @Override
+    public Iterator<Tuple> iterator() {
+        if ( fullIterator == null ) {
+            fullIterator = new TypedFullIterator();
+        }
+        fullIterator.reset( buckets );
+        return fullIterator;
+    }
+
+    @Override
+    public FastIterator fastIterator() {
+        return LinkedList.fastIterator;
+    }
+
+    @Override
+    public FastIterator fullFastIterator() {
+        if ( fullFastIterator == null ) {
+            fullFastIterator = new TypedFullFastIterator();
+        }
+        fullFastIterator.reset( buckets, 0 );
+        return fullFastIterator;
+    }
+
+    @Override
+    public FastIterator fullFastIterator( Tuple tuple ) {
+        if ( fullFastIterator == null ) {
+            fullFastIterator = new TypedFullFastIterator();
+        }
+        // row always points to the slot after the one of the current bucket
+        fullFastIterator.reset( buckets, slotOf( tuple.getMemory() ) + 1 );
+        return fullFastIterator;
+    }
+
+    @Override
+    public Tuple[] toArray() {
+        Tuple[] result = new Tuple[factSize];
+        int i = 0;
+        for ( KeyedTupleList bucket : buckets ) {
+            if ( bucket != null ) {
+                for ( Tuple tuple = bucket.getFirst(); tuple != null; tuple = tuple.getNext() ) {
+                    result[i++] = tuple;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public IndexType getIndexType() {
+        return IndexType.EQUAL;
+    }
+
+    @Override
+    public void clear() {
+        init( 16 );
+        factSize = 0;
+        fullIterator = null;
+        fullFastIterator = null;
+    }
+
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        Iterator<Tuple> it = iterator();
+        for ( Tuple tuple = it.next(); tuple != null; tuple = it.next() ) {
+            builder.append( tuple ).append( "\n" );
+        }
+        return builder.toString();
+    }
+
+    private static Tuple firstTupleFrom( KeyedTupleList[] buckets, int[] row ) {
+        while ( row[0] < buckets.length ) {
+            KeyedTupleList bucket = buckets[row[0]++];
+            // tombstones are empty lists, so they are skipped like the free slots
+            if ( bucket != null && bucket.getFirst() != null ) {
+                return bucket.getFirst();
+            }
+        }
+        return null;
+    }
+
+    public static class TypedFullFastIterator implements FastIterator {
+        private KeyedTupleList[] buckets;
+        private final int[] row = new int[1];
+
+        private void reset( KeyedTupleList[] buckets, int row ) {
+            this.buckets = buckets;
+            this.row[0] = row;
+        }
+
+        @Override
+        public Entry next( Entry object ) {
+            if ( object != null ) {
+                Tuple next = ( (Tuple) object ).getNext();
+                if ( next != null ) {
+                    return next;
+                }
+            }
+            return firstTupleFrom( buckets, row );
+        }
+
+        @Override
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
+
+    public static class TypedFullIterator implements Iterator<Tuple> {
+        private KeyedTupleList[] buckets;
+        private final int[] row = new int[1];
+        private Tuple tuple;
+
+        private void reset( KeyedTupleList[] buckets ) {
+            this.buckets = buckets;
+            this.row[0] = 0;
+            this.tuple = null;
+        }
+
+        @Override
+        public Tuple next() {
+            Tuple next = tuple != null ? tuple.getNext() : null;
+            tuple = next != null ? next : firstTupleFrom( buckets, row );
+            return tuple;
+        }
+    }
+
+    protected static class KeyedTupleList extends TupleList {
+        private final int hash;
+
+        protected KeyedTupleList( int hash ) {
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals( Object obj ) {
+            return this == obj;
+        }
+    }
+
+    public static class IntTupleIndexHashTable extends TypedTupleIndexHashTable {
+
+        private int[] keys;
+
+        public IntTupleIndexHashTable( FieldIndex index, boolean left ) {
+            super( index, left );
+        }
+
+        @Override
+        protected void initKeys( int capacity ) {
+            keys = new int[capacity];
+        }
+
+        @Override
+        protected KeyedTupleList get( Tuple tuple, boolean isLeftTuple ) {
+            int key = index.indexedIntValueOf( tuple, isLeftTuple );
+            for ( int slot = firstSlot( hashOf( key ) ); buckets[slot] != null; slot = nextSlot( slot ) ) {
+                if ( keys[slot] == key && !isTombstone( slot ) ) {
+                    return buckets[slot];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected KeyedTupleList getOrCreate( Tuple tuple ) {
+            int key = index.indexedIntValueOf( tuple, left );
+            int hash = hashOf( key );
+            int firstTombstone = -1;
+            int slot = firstSlot( hash );
+            for ( ; buckets[slot] != null; slot = nextSlot( slot ) ) {
+                if ( isTombstone( slot ) ) {
+                    if ( firstTombstone < 0 ) {
+                        firstTombstone = slot;
+                    }
+                } else if ( keys[slot] == key ) {
+                    return buckets[slot];
+                }
+            }
+            return insert( slot, firstTombstone, new IntKeyedTupleList( hash, key ) );
+        }
+
+        @Override
+        protected boolean hasKey( KeyedTupleList bucket, Tuple tuple ) {
+            return ( (IntKeyedTupleList) bucket ).key == index.indexedIntValueOf( tuple, left );
+        }
+
+        @Override
+        protected void storeKey( int slot, KeyedTupleList bucket ) {
+            keys[slot] = ( (IntKeyedTupleList) bucket ).key;
+        }
+
+        @Override
+        protected void clearKey( int slot ) {
+            keys[slot] = 0;
+        }
+
+        private static int hashOf( int key ) {
+            return AbstractHashTable.rehash( key );
+        }
+
+        private static class IntKeyedTupleList extends KeyedTupleList {
+            private final int key;
+
+            private IntKeyedTupleList( int hash, int key ) {
+                super( hash );
+                this.key = key;
+            }
+        }
+    }
+
+    public static class LongTupleIndexHashTable extends TypedTupleIndexHashTable {
+
+        private long[] keys;
+
+        public LongTupleIndexHashTable( FieldIndex index, boolean left ) {
+            super( index, left );
+        }
+
+        @Override
+        protected void initKeys( int capacity ) {
+            keys = new long[capacity];
+        }
+
+        @Override
+        protected KeyedTupleList get( Tuple tuple, boolean isLeftTuple ) {
+            long key = index.indexedLongValueOf( tuple, isLeftTuple );
+            for ( int slot = firstSlot( hashOf( key ) ); buckets[slot] != null; slot = nextSlot( slot ) ) {
+                if ( keys[slot] == key && !isTombstone( slot ) ) {
+                    return buckets[slot];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected KeyedTupleList getOrCreate( Tuple tuple ) {
+            long key = index.indexedLongValueOf( tuple, left );
+            int hash = hashOf( key );
+            int firstTombstone = -1;
+            int slot = firstSlot( hash );
+            for ( ; buckets[slot] != null; slot = nextSlot( slot ) ) {
+                if ( isTombstone( slot ) ) {
+                    if ( firstTombstone < 0 ) {
+                        firstTombstone = slot;
+                    }
+                } else if ( keys[slot] == key ) {
+                    return buckets[slot];
+                }
+            }
+            return insert( slot, firstTombstone, new LongKeyedTupleList( hash, key ) );
+        }
+
+        @Override
+        protected boolean hasKey( KeyedTupleList bucket, Tuple tuple ) {
+            return ( (LongKeyedTupleList) bucket ).key == index.indexedLongValueOf( tuple, left );
+        }
+
+        @Override
+        protected void storeKey( int slot, KeyedTupleList bucket ) {
+            keys[slot] = ( (LongKeyedTupleList) bucket ).key;
+        }
+
+        @Override
+        protected void clearKey( int slot ) {
+            keys[slot] = 0L;
+        }
+
+        private static int hashOf( long key ) {
+            return AbstractHashTable.rehash( Long.hashCode( key ) );
+        }
+
+        private static class LongKeyedTupleList extends KeyedTupleList {
+            private final long key;
+
+            private LongKeyedTupleList( int hash, long key ) {
+                super( hash );
+                this.key = key;
+            }
+        }
+    }
+
+    public static class StringTupleIndexHashTable extends TypedTupleIndexHashTable {
+
+        private String[] keys;
+
+        // the hashes are kept next to the keys, so most of the mismatching slots are discarded without calling equals()
+        private int[] hashes;
+
+        public StringTupleIndexHashTable( FieldIndex index, boolean left ) {
+            super( index, left );
+        }
+
+        @Override
+        protected void initKeys( int capacity ) {
+            keys = new String[capacity];
+            hashes = new int[capacity];
+        }
+
+        private String keyOf( Tuple tuple, boolean isLeftTuple ) {
+            return (String) index.indexedValueOf( tuple, isLeftTuple );
+        }
+
+        @Override
+        protected KeyedTupleList get( Tuple tuple, boolean isLeftTuple ) {
+            String key = keyOf( tuple, isLeftTuple );
+            int hash = hashOf( key );
+            for ( int slot = firstSlot( hash ); buckets[slot] != null; slot = nextSlot( slot ) ) {
+                if ( hashes[slot] == hash && !isTombstone( slot ) && equalKeys( keys[slot], key ) ) {
+                    return buckets[slot];
+                }
+            }
+            return null;
+        }
+
+        @Override
+        protected KeyedTupleList getOrCreate( Tuple tuple ) {
+            String key = keyOf( tuple, left );
+            int hash = hashOf( key );
+            int firstTombstone = -1;
+            int slot = firstSlot( hash );
+            for ( ; buckets[slot] != null; slot = nextSlot( slot ) ) {
+                if ( isTombstone( slot ) ) {
+                    if ( firstTombstone < 0 ) {
+                        firstTombstone = slot;
+                    }
+                } else if ( hashes[slot] == hash && equalKeys( keys[slot], key ) ) {
+                    return buckets[slot];
+                }
+            }
+            return insert( slot, firstTombstone, new StringKeyedTupleList( hash, key ) );
+        }
+
+        @Override
+        protected boolean hasKey( KeyedTupleList bucket, Tuple tuple ) {
+            return equalKeys( ( (StringKeyedTupleList) bucket ).key, keyOf( tuple, left ) );
+        }
+
+        @Override
+        protected void storeKey( int slot, KeyedTupleList bucket ) {
+            keys[slot] = ( (StringKeyedTupleList) bucket ).key;
+            hashes[slot] = bucket.hashCode();
+        }
+
+        @Override
+        protected void clearKey( int slot ) {
+            keys[slot] = null;
+            hashes[slot] = 0;
+        }
+
+        private static boolean equalKeys( String key1, String key2 ) {
+            return key1 == null ? key2 == null : key1.equals( key2 );
+        }
+
+        private static int hashOf( String key ) {
+            return AbstractHashTable.rehash( key != null ? key.hashCode() : 0 );
+        }
+
+        private static class StringKeyedTupleList extends KeyedTupleList {
+            private final String key;
+
+            private StringKeyedTupleList( int hash, String key ) {
+                super( hash );
+                this.key = key;
+            }
+        }
+    }
+}
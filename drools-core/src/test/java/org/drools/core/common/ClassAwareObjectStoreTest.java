@@ -151,6 +151,60 @@ public class ClassAwareObjectStoreTest {
         assertThat(collect(underTest.iterateFactHandles(SuperClass.class))).hasSize(2);
     }
 
+    @Test
+    public void queryByInterfaceFindsImplementations() throws Exception {
+        assertThat(collect(underTest.iterateObjects(Marker.class))).isEmpty();
+
+        insertObjectWithFactHandle(new MarkedClass());
+        insertObjectWithFactHandle(new SubClass());
+
+        assertThat(collect(underTest.iterateObjects(Marker.class))).hasSize(1);
+        assertThat(collect(underTest.iterateObjects(SuperClass.class))).hasSize(2);
+        assertThat(collect(underTest.iterateObjects(Object.class))).hasSize(2);
+    }
+
+    @Test
+    public void canIterateWhileInsertingFromAnotherThread() throws Exception {
+        int facts = 20000;
+        Thread inserter = new Thread(() -> {
+            for (int i = 0; i < facts; i++) {
+                insertObjectWithFactHandle(i % 2 == 0 ? new SubClass() : new SuperClass());
+            }
+        });
+        inserter.start();
+        while (inserter.isAlive()) {
+            collect(underTest.iterateFactHandles(SuperClass.class));
+            collect(underTest.iterateObjects());
+        }
+        inserter.join();
+
+        assertThat(collect(underTest.iterateFactHandles(SuperClass.class))).hasSize(facts);
+        assertThat(underTest.size()).isEqualTo(facts);
+    }
+
+    @Test
+    public void canReconnectHandlesWhileInsertingFromAnotherThread() throws Exception {
+        List<InternalFactHandle> handles = new ArrayList<InternalFactHandle>();
+        for (int i = 0; i < 100; i++) {
+            InternalFactHandle handle = handleFor(new SuperClass());
+            underTest.addHandle(handle, handle.getObject());
+            handles.add(handle);
+        }
+
+        Thread inserter = new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                insertObjectWithFactHandle(new SuperClass());
+            }
+        });
+        inserter.start();
+        do {
+            for (InternalFactHandle handle : handles) {
+                assertThat(underTest.reconnect(DefaultFactHandle.createFromExternalFormat(handle.toExternalForm()))).isSameAs(handle);
+            }
+        } while (inserter.isAlive());
+        inserter.join();
+    }
+
 
     private void insertObjectWithFactHandle(Object objectToInsert) {
         underTest.addHandle(handleFor(objectToInsert), objectToInsert);
@@ -194,4 +248,10 @@ public class ClassAwareObjectStoreTest {
 
     private static class SubClass extends SuperClass {
     }
+
+    private interface Marker {
+    }
+
+    private static class MarkedClass extends SubClass implements Marker {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.reflect.Field;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RuleBasePartitionIdTest {
+
+    @Test
+    public void testPartitionKeepsItsSlotsWhenDeserialized() throws Exception {
+        RuleBasePartitionId partition = RuleBasePartitionId.createPartition( 3 );
+
+        RuleBasePartitionId deserialized = roundTrip( partition );
+        assertThat( deserialized ).isEqualTo( partition );
+        assertThat( deserialized.getParallelEvaluationSlot() ).isEqualTo( partition.getId() % 3 );
+    }
+
+    @Test
+    public void testPartitionWithoutSlotsFallsBackToTheProcessors() throws Exception {
+        RuleBasePartitionId partition = RuleBasePartitionId.createPartition( 3 );
+        // a partition serialized before the number of slots was part of its state is read without it
+        Field slots = RuleBasePartitionId.class.getDeclaredField( "parallelEvaluationSlotsNumber" );
+        slots.setAccessible( true );
+        slots.setInt( partition, 0 );
+
+        RuleBasePartitionId deserialized = roundTrip( partition );
+        assertThat( deserialized ).isEqualTo( partition );
+        assertThat( deserialized.getParallelEvaluationSlot() ).isEqualTo( partition.getId() % RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER );
+    }
+
+    @Test
+    public void testMainPartitionIsUnique() throws Exception {
+        assertThat( roundTrip( RuleBasePartitionId.MAIN_PARTITION ) ).isSameAs( RuleBasePartitionId.MAIN_PARTITION );
+        assertThat( RuleBasePartitionId.MAIN_PARTITION.getParallelEvaluationSlot() ).isZero();
+    }
+
+    private static RuleBasePartitionId roundTrip( RuleBasePartitionId partition ) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream( bytes )) {
+            out.writeObject( partition );
+        }
+        try (ObjectInputStream in = new ObjectInputStream( new ByteArrayInputStream( bytes.toByteArray() ) )) {
+            return (RuleBasePartitionId) in.readObject();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.impl.ExpirationManager.BatchExpireAction;
+import org.drools.core.phreak.PropagationEntry;
+import org.drools.core.time.impl.PseudoClockScheduler;
+import org.drools.core.time.impl.TrackableTimeJobFactoryManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ExpirationManagerTest {
+
+    private final PseudoClockScheduler timerService = new PseudoClockScheduler();
+    private final ReteEvaluator reteEvaluator = mock(ReteEvaluator.class);
+    private final List<PropagationEntry> propagations = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        timerService.setTimerJobFactoryManager(new TrackableTimeJobFactoryManager());
+        when(reteEvaluator.getTimerService()).thenReturn(timerService);
+        doAnswer(invocation -> propagations.add(invocation.getArgument(0)))
+                .when(reteEvaluator).addPropagation(any(PropagationEntry.class), anyBoolean());
+    }
+
+    @Test
+    public void testEventsExpiringTogetherShareOneJob() {
+        ExpirationManager expirationManager = new ExpirationManager(reteEvaluator);
+        WorkingMemoryReteExpireAction a1 = expireAction("DEFAULT");
+        WorkingMemoryReteExpireAction a2 = expireAction("DEFAULT");
+        WorkingMemoryReteExpireAction a3 = expireAction("other");
+        WorkingMemoryReteExpireAction a4 = expireAction("DEFAULT");
+        expirationManager.scheduleExpiration(a1, 100);
+        expirationManager.scheduleExpiration(a2, 100);
+        expirationManager.scheduleExpiration(a3, 100);
+        expirationManager.scheduleExpiration(a4, 200);
+
+        // one job per expiration time and entry point
+        assertThat(timerService.getTimerJobInstances(0)).hasSize(3);
+
+        timerService.advanceTime(100, TimeUnit.MILLISECONDS);
+        assertThat(propagations).hasSize(2);
+        assertThat(propagations).allMatch(BatchExpireAction.class::isInstance);
+
+        propagations.forEach(p -> p.execute(reteEvaluator));
+        verify(a1).execute(reteEvaluator);
+        verify(a2).execute(reteEvaluator);
+        verify(a3).execute(reteEvaluator);
+        verify(a4, never()).execute(reteEvaluator);
+
+        // an expiration scheduled later joins the pending batch of its time
+        WorkingMemoryReteExpireAction a5 = expireAction("DEFAULT");
+        expirationManager.scheduleExpiration(a5, 200);
+        propagations.clear();
+        timerService.advanceTime(100, TimeUnit.MILLISECONDS);
+        assertThat(propagations).hasSize(1);
+        propagations.get(0).execute(reteEvaluator);
+        verify(a4).execute(reteEvaluator);
+        verify(a5).execute(reteEvaluator);
+    }
+
+    private static WorkingMemoryReteExpireAction expireAction(String entryPointName) {
+        EventFactHandle factHandle = mock(EventFactHandle.class);
+        when(factHandle.getEntryPointName()).thenReturn(entryPointName);
+        when(factHandle.isValid()).thenReturn(true);
+        WorkingMemoryReteExpireAction action = mock(WorkingMemoryReteExpireAction.class);
+        when(action.getFactHandle()).thenReturn(factHandle);
+        return action;
+    }
+}
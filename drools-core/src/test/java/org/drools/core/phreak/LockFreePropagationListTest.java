@@ -0,0 +1,160 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.drools.core.common.ReteEvaluator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LockFreePropagationListTest {
+
+    @Test
+    public void testFlushInInsertionOrder() {
+        List<Integer> executed = new ArrayList<>();
+        LockFreePropagationList propagationList = new LockFreePropagationList(null);
+        for (int i = 0; i < 10; i++) {
+            propagationList.addEntry(new TestEntry(executed, 0, i));
+        }
+
+        Iterator<PropagationEntry> iterator = propagationList.iterator();
+        for (int i = 0; i < 10; i++) {
+            assertThat(((TestEntry) iterator.next()).j).isEqualTo(i);
+        }
+        assertThat(iterator.hasNext()).isFalse();
+
+        assertThat(propagationList.isEmpty()).isFalse();
+        propagationList.flush();
+        assertThat(propagationList.isEmpty()).isTrue();
+        assertThat(executed).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test(timeout = 20000)
+    public void testConcurrentProducers() throws Exception {
+        final int threadNr = 8;
+        final int entryNr = 100000;
+
+        LockFreePropagationList propagationList = new LockFreePropagationList(null);
+        int[] counters = new int[threadNr];
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadNr);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int i = 0; i < threadNr; i++) {
+                final int producer = i;
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < entryNr; j++) {
+                        propagationList.addEntry(new CheckingEntry(counters, producer, j));
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            while (!producers.stream().allMatch(Future::isDone)) {
+                propagationList.flush();
+            }
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+            propagationList.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (int counter : counters) {
+            assertThat(counter).isEqualTo(entryNr);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testWakeUpOnRest() throws Exception {
+        LockFreePropagationList propagationList = new LockFreePropagationList(null);
+        propagationList.setFiringUntilHalt(true);
+
+        List<Integer> executed = new ArrayList<>();
+        CountDownLatch waiting = new CountDownLatch(1);
+        Thread consumer = new Thread(() -> {
+            PropagationEntry head;
+            synchronized (propagationList) {
+                waiting.countDown();
+                head = propagationList.takeAll();
+                while (head == null) {
+                    propagationList.waitOnRest();
+                    head = propagationList.takeAll();
+                }
+            }
+            propagationList.flush(head);
+        });
+        consumer.start();
+
+        waiting.await();
+        propagationList.addEntry(new TestEntry(executed, 0, 1));
+        consumer.join();
+
+        assertThat(executed).containsExactly(1);
+    }
+
+    private static class TestEntry extends PropagationEntry.AbstractPropagationEntry {
+
+        private final List<Integer> executed;
+        final int i;
+        final int j;
+
+        private TestEntry(List<Integer> executed, int i, int j) {
+            this.executed = executed;
+            this.i = i;
+            this.j = j;
+        }
+
+        @Override
+        public void execute(ReteEvaluator reteEvaluator) {
+            executed.add(j);
+        }
+    }
+
+    private static class CheckingEntry extends PropagationEntry.AbstractPropagationEntry {
+
+        private final int[] counters;
+        private final int i;
+        private final int j;
+
+        private CheckingEntry(int[] counters, int i, int j) {
+            this.counters = counters;
+            this.i = i;
+            this.j = j;
+        }
+
+        @Override
+        public void execute(ReteEvaluator reteEvaluator) {
+            if (counters[i] != j) {
+                throw new IllegalStateException("Entry " + j + " of producer " + i + " executed out of order, expected " + counters[i]);
+            }
+            counters[i]++;
+        }
+    }
+}
@@ -16,10 +16,21 @@
 
 package org.drools.core.reteoo;
 
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.CompactFactHandle;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.EqualityKey;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.impl.RuleBase;
+import org.drools.core.rule.EntryPointId;
 import org.junit.Test;
+import org.kie.internal.conf.MultithreadEvaluationOption;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import org.drools.core.common.DefaultFactHandle;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class DefaultFactHandleFactoryTest {
 
@@ -72,4 +83,63 @@ public class DefaultFactHandleFactoryTest {
 
     }
 
+    @Test
+    public void testNewCompactFactHandle() {
+        RuleBaseConfiguration conf = new RuleBaseConfiguration();
+        WorkingMemoryEntryPoint entryPoint = mockEntryPoint( conf );
+        final ReteooFactHandleFactory factory = new ReteooFactHandleFactory();
+        assertThat(factory.newFactHandle( "cheese", null, null, entryPoint )).isInstanceOf(DefaultFactHandle.class);
+
+        conf.setCompactFactHandles( true );
+        InternalFactHandle handle = factory.newFactHandle( "cheese", null, null, entryPoint );
+        assertThat(handle).isInstanceOf(CompactFactHandle.class);
+        assertThat(handle.getId()).isEqualTo(2);
+        assertThat(handle.getRecency()).isEqualTo(2);
+        assertThat(handle.getEntryPointId()).isEqualTo(EntryPointId.DEFAULT);
+        assertThat(handle.getObjectClassName()).isEqualTo(String.class.getName());
+
+        RightTuple rightTuple = new RightTupleImpl( handle );
+        handle.addLastRightTuple( rightTuple );
+        assertThat(handle.getFirstRightTuple()).isSameAs(rightTuple);
+        InternalFactHandle.LinkedTuples detached = handle.detachLinkedTuples();
+        assertThat(detached.getFirstRightTuple(0)).isSameAs(rightTuple);
+        assertThat(handle.getFirstRightTuple()).isNull();
+
+        handle.setNegated( true );
+        InternalFactHandle disconnected = handle.clone();
+        disconnected.disconnect();
+        assertThat(disconnected.isNegated()).isTrue();
+        assertThat(disconnected.isDisconnected()).isTrue();
+        assertThat(handle.isDisconnected()).isFalse();
+        assertThat(DefaultFactHandle.createFromExternalFormat( handle.toExternalForm() ).getId()).isEqualTo(2);
+
+        handle.invalidate();
+        assertThat(handle.isValid()).isFalse();
+        assertThat(handle.isNegated()).isTrue();
+
+        assertThatThrownBy(() -> handle.setEqualityKey( mock( EqualityKey.class ) ))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> handle.detachLinkedTuplesForPartition( 0 ))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining(MultithreadEvaluationOption.PROPERTY_NAME);
+
+        // nor with multithread evaluation, whose partitions need the tuples of the default ones
+        conf.setMultithreadEvaluation( true );
+        assertThat(factory.newFactHandle( "cheese", null, null, entryPoint )).isInstanceOf(DefaultFactHandle.class);
+        conf.setMultithreadEvaluation( false );
+
+        // the compact fact handles aren't used with the equality behavior
+        conf.setAssertBehaviour( RuleBaseConfiguration.AssertBehaviour.EQUALITY );
+        assertThat(factory.newFactHandle( "cheese", null, null, entryPoint )).isInstanceOf(DefaultFactHandle.class);
+    }
+
+    private static WorkingMemoryEntryPoint mockEntryPoint(RuleBaseConfiguration conf) {
+        RuleBase kbase = mock( RuleBase.class );
+        when( kbase.getConfiguration() ).thenReturn( conf );
+        WorkingMemoryEntryPoint entryPoint = mock( WorkingMemoryEntryPoint.class );
+        when( entryPoint.getKnowledgeBase() ).thenReturn( kbase );
+        when( entryPoint.getEntryPoint() ).thenReturn( EntryPointId.DEFAULT );
+        return entryPoint;
+    }
+
 }
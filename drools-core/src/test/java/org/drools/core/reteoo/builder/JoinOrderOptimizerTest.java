@@ -0,0 +1,144 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.builder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.rule.Declaration;
+import org.drools.core.rule.GroupElement;
+import org.drools.core.rule.GroupElementFactory;
+import org.drools.core.rule.Pattern;
+import org.drools.core.rule.RuleConditionElement;
+import org.drools.core.rule.accessor.ReadAccessor;
+import org.drools.core.rule.constraint.Constraint;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JoinOrderOptimizerTest {
+
+    @Test
+    public void testApplyPlan() {
+        RuleImpl rule = new RuleImpl( "R1" );
+        GroupElement and = and( pattern( 0 ), pattern( 1 ), pattern( 2 ) );
+
+        JoinPlan plan = new JoinPlan();
+        plan.setPatternOrder( rule.getFullyQualifiedName(), new int[] { 2, 0 } );
+        JoinOrderOptimizer.applyPlan( plan, rule, and );
+
+        // the pattern not listed in the plan goes last
+        assertThat( patternIds( and ) ).containsExactly( 2, 0, 1 );
+    }
+
+    @Test
+    public void testApplyPlanOfOtherRule() {
+        RuleImpl rule = new RuleImpl( "R1" );
+        GroupElement and = and( pattern( 0 ), pattern( 1 ) );
+
+        JoinPlan plan = new JoinPlan();
+        plan.setPatternOrder( "org.test.R2", new int[] { 1, 0 } );
+        JoinOrderOptimizer.applyPlan( plan, rule, and );
+
+        assertThat( patternIds( and ) ).containsExactly( 0, 1 );
+    }
+
+    @Test
+    public void testReorderRespectsRequiredDeclarations() {
+        Pattern p0 = pattern( 0 );
+        Pattern p1 = pattern( 1 );
+        Pattern p2 = pattern( 2 );
+        // p2 requires a declaration of p1
+        requires( p2, p1 );
+
+        GroupElement and = and( p0, p1, p2 );
+        // p2 would be the cheapest, but it can't be joined before p1
+        double[] costs = { 5, 10, 1 };
+        JoinOrderOptimizer.reorder( and, (pattern, joined) -> costs[pattern.getPatternId()] );
+
+        assertThat( patternIds( and ) ).containsExactly( 0, 1, 2 );
+    }
+
+    @Test
+    public void testReorderOnlyRunsOfPlainPatterns() {
+        GroupElement not = GroupElementFactory.newNotInstance();
+        not.addChild( pattern( 2 ) );
+        GroupElement and = and( pattern( 0 ), pattern( 1 ), not, pattern( 3 ), pattern( 4 ) );
+
+        double[] costs = { 10, 1, 0, 10, 1 };
+        JoinOrderOptimizer.reorder( and, (pattern, joined) -> costs[pattern.getPatternId()] );
+
+        assertThat( and.getChildren().get( 2 ) ).isSameAs( not );
+        assertThat( ( (Pattern) and.getChildren().get( 0 ) ).getPatternId() ).isEqualTo( 1 );
+        assertThat( ( (Pattern) and.getChildren().get( 1 ) ).getPatternId() ).isEqualTo( 0 );
+        assertThat( ( (Pattern) and.getChildren().get( 3 ) ).getPatternId() ).isEqualTo( 4 );
+        assertThat( ( (Pattern) and.getChildren().get( 4 ) ).getPatternId() ).isEqualTo( 3 );
+    }
+
+    @Test
+    public void testUnknownCostKeepsTheOriginalOrder() {
+        GroupElement and = and( pattern( 0 ), pattern( 1 ) );
+        JoinOrderOptimizer.reorder( and, (pattern, joined) -> pattern.getPatternId() == 0 ? -1 : 0 );
+
+        assertThat( patternIds( and ) ).containsExactly( 0, 1 );
+    }
+
+    @Test
+    public void testStoreAndLoadPlan() throws Exception {
+        JoinPlan plan = new JoinPlan();
+        plan.setPatternOrder( "org.test.R1", new int[] { 2, 0, 1 } );
+        plan.setPatternOrder( "org.test.R2", new int[] { 1 } );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        plan.store( out );
+        JoinPlan loaded = JoinPlan.load( new ByteArrayInputStream( out.toByteArray() ) );
+
+        assertThat( loaded.getPatternOrders() ).containsOnlyKeys( "org.test.R1", "org.test.R2" );
+        assertThat( loaded.getPatternOrder( "org.test.R1" ) ).containsExactly( 2, 0, 1 );
+        assertThat( loaded.getPatternOrder( "org.test.R2" ) ).containsExactly( 1 );
+    }
+
+    private static Pattern pattern( int id ) {
+        return new Pattern( id, new ClassObjectType( String.class ) );
+    }
+
+    private static void requires( Pattern pattern, Pattern declaringPattern ) {
+        Declaration declaration = new Declaration( "$p" + declaringPattern.getPatternId(), mock( ReadAccessor.class ), declaringPattern );
+        Constraint constraint = mock( Constraint.class );
+        when( constraint.getType() ).thenReturn( Constraint.ConstraintType.BETA );
+        when( constraint.getRequiredDeclarations() ).thenReturn( new Declaration[] { declaration } );
+        pattern.addConstraint( constraint );
+    }
+
+    private static GroupElement and( RuleConditionElement... children ) {
+        GroupElement and = GroupElementFactory.newAndInstance();
+        for (RuleConditionElement child : children) {
+            and.addChild( child );
+        }
+        return and;
+    }
+
+    private static List<Integer> patternIds( GroupElement and ) {
+        return and.getChildren().stream().map( p -> ( (Pattern) p ).getPatternId() ).collect( Collectors.toList() );
+    }
+}
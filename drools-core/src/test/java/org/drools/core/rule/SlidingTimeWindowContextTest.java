@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.rule;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.drools.core.WorkingMemoryEntryPoint;
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.rule.SlidingTimeWindow.SlidingTimeWindowContext;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SlidingTimeWindowContextTest {
+
+    private static final WorkingMemoryEntryPoint ENTRY_POINT = mock(WorkingMemoryEntryPoint.class);
+
+    @Test
+    public void testEventsInOrder() {
+        SlidingTimeWindowContext context = new SlidingTimeWindowContext();
+        EventFactHandle e1 = event(1, 10);
+        EventFactHandle e2 = event(2, 20);
+        EventFactHandle e3 = event(3, 20);
+        EventFactHandle e4 = event(4, 30);
+        context.add(e1);
+        context.add(e2);
+        context.add(e3);
+        context.add(e4);
+
+        // early retraction of an event in the middle
+        context.remove(e3);
+        assertThat(context.getFactHandles()).containsExactly(e1, e2, e4);
+
+        assertThat(context.poll()).isSameAs(e1);
+        assertThat(context.peek()).isSameAs(e2);
+        assertThat(context.remove()).isSameAs(e2);
+        assertThat(context.poll()).isSameAs(e4);
+        assertThat(context.isEmpty()).isTrue();
+        assertThat(context.peek()).isNull();
+    }
+
+    @Test
+    public void testEventsOutOfOrder() {
+        SlidingTimeWindowContext context = new SlidingTimeWindowContext();
+        EventFactHandle e1 = event(1, 10);
+        EventFactHandle e2 = event(2, 30);
+        EventFactHandle e3 = event(3, 20);
+        EventFactHandle e4 = event(4, 5);
+        context.add(e1);
+        context.add(e2);
+        context.add(e3);
+        context.add(e4);
+
+        assertThat(context.peek()).isSameAs(e4);
+        context.remove(e4);
+        assertThat(context.poll()).isSameAs(e1);
+        assertThat(context.poll()).isSameAs(e3);
+        assertThat(context.poll()).isSameAs(e2);
+        assertThat(context.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testSameOrderAsPriorityQueue() {
+        Random random = new Random(0);
+        SlidingTimeWindowContext context = new SlidingTimeWindowContext();
+        List<EventFactHandle> expected = new ArrayList<>();
+        long timestamp = 0;
+        for (int i = 0; i < 5000; i++) {
+            // mostly in order, with some late arrivals
+            timestamp += random.nextInt(3);
+            EventFactHandle event = event(i, random.nextInt(20) == 0 ? timestamp - random.nextInt(100) : timestamp);
+            context.add(event);
+            expected.add(event);
+
+            int action = random.nextInt(10);
+            if (action == 0) {
+                EventFactHandle retracted = expected.remove(random.nextInt(expected.size()));
+                context.remove(retracted);
+            } else if (action < 4) {
+                EventFactHandle first = expected.stream().min(Comparator.comparingLong(EventFactHandle::getStartTimestamp)).get();
+                EventFactHandle polled = context.poll();
+                assertThat(polled.getStartTimestamp()).isEqualTo(first.getStartTimestamp());
+                expected.remove(polled);
+            }
+            assertThat(context.getFactHandles()).containsExactlyInAnyOrderElementsOf(expected);
+        }
+
+        long last = Long.MIN_VALUE;
+        while (!context.isEmpty()) {
+            EventFactHandle polled = context.poll();
+            assertThat(polled.getStartTimestamp()).isGreaterThanOrEqualTo(last);
+            last = polled.getStartTimestamp();
+            expected.remove(polled);
+        }
+        assertThat(expected).isEmpty();
+    }
+
+    private static EventFactHandle event(long id, long timestamp) {
+        return new EventFactHandle(id, "e" + id, id, timestamp, 0, ENTRY_POINT);
+    }
+}
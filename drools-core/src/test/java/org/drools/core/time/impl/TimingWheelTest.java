@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.time.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class TimingWheelTest {
+
+    private final JobContext ctx = mock(JobContext.class);
+
+    @Test
+    public void testPseudoClockFiresJobsAtTheirTimeInOrder() {
+        TimingWheelPseudoClockScheduler scheduler = new TimingWheelPseudoClockScheduler();
+        Random random = new Random(0);
+
+        List<Long> expected = new ArrayList<>();
+        List<long[]> fired = new ArrayList<>();
+        List<JobHandle> cancelled = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // spanning several levels of the wheel
+            long time = 1 + random.nextInt(random.nextBoolean() ? 5000 : 50_000_000);
+            JobHandle handle = scheduler.scheduleJob(c -> fired.add(new long[]{time, scheduler.getCurrentTime()}), ctx, new PointInTimeTrigger(time));
+            if (random.nextInt(10) == 0) {
+                cancelled.add(handle);
+            } else {
+                expected.add(time);
+            }
+        }
+        for (JobHandle handle : cancelled) {
+            assertThat(scheduler.removeJob(handle)).isTrue();
+            assertThat(scheduler.removeJob(handle)).isFalse();
+        }
+
+        while (scheduler.getCurrentTime() < 50_000_001) {
+            scheduler.advanceTime(random.nextInt(200_000), TimeUnit.MILLISECONDS);
+        }
+
+        expected.sort(null);
+        assertThat(fired).hasSize(expected.size());
+        for (int i = 0; i < fired.size(); i++) {
+            assertThat(fired.get(i)[0]).isEqualTo(expected.get(i));
+            // the clock is set to the fire time of the job when it runs
+            assertThat(fired.get(i)[1]).isEqualTo(expected.get(i));
+        }
+        assertThat(scheduler.getTimeToNextJob()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testPseudoClockJobsScheduledWhileFiring() {
+        TimingWheelPseudoClockScheduler scheduler = new TimingWheelPseudoClockScheduler();
+        List<Long> fired = new ArrayList<>();
+        scheduler.scheduleJob(c -> {
+            fired.add(scheduler.getCurrentTime());
+            // one due now, one due later
+            scheduler.scheduleJob(c2 -> fired.add(scheduler.getCurrentTime()), ctx, new PointInTimeTrigger(100));
+            scheduler.scheduleJob(c2 -> fired.add(scheduler.getCurrentTime()), ctx, new PointInTimeTrigger(5000));
+        }, ctx, new PointInTimeTrigger(100));
+
+        assertThat(scheduler.getTimeToNextJob()).isEqualTo(100);
+        scheduler.advanceTime(1000, TimeUnit.MILLISECONDS);
+        assertThat(fired).containsExactly(100L, 100L);
+        assertThat(scheduler.getTimeToNextJob()).isEqualTo(4000);
+
+        scheduler.advanceTime(4000, TimeUnit.MILLISECONDS);
+        assertThat(fired).containsExactly(100L, 100L, 5000L);
+    }
+
+    @Test
+    public void testPseudoClockFiresOverdueJobsAsThePseudoClockScheduler() {
+        assertThat(fireOverdueJobs(new TimingWheelPseudoClockScheduler())).containsExactly(100L, 50L, 150L)
+                .isEqualTo(fireOverdueJobs(new PseudoClockScheduler()));
+    }
+
+    private List<Long> fireOverdueJobs(PseudoClockScheduler scheduler) {
+        List<Long> fired = new ArrayList<>();
+        scheduler.scheduleJob(c -> {
+            fired.add(scheduler.getCurrentTime());
+            // already passed, the clock is set back to its fire time
+            scheduler.scheduleJob(c2 -> fired.add(scheduler.getCurrentTime()), ctx, new PointInTimeTrigger(50));
+        }, ctx, new PointInTimeTrigger(100));
+        scheduler.scheduleJob(c -> fired.add(scheduler.getCurrentTime()), ctx, new PointInTimeTrigger(150));
+
+        scheduler.advanceTime(170, TimeUnit.MILLISECONDS);
+        assertThat(scheduler.getCurrentTime()).isEqualTo(170);
+        return fired;
+    }
+
+    @Test
+    public void testJobsOfTheSameTickAreFiredTogether() {
+        TimingWheel wheel = new TimingWheel(10, 0);
+        List<TimerJobInstance> jobs = new ArrayList<>();
+        // 21 to 30 are all in the tick ending at 30
+        for (int time = 21; time <= 30; time++) {
+            TimerJobInstance job = jobInstance(time, jobs.size());
+            jobs.add(job);
+            wheel.add(job);
+        }
+        assertThat(wheel.nextFireTime()).isEqualTo(30);
+        assertThat(wheel.advanceTo(29)).isEmpty();
+        assertThat(wheel.advanceTo(35)).containsExactlyElementsOf(jobs);
+        assertThat(wheel.getCurrentTime()).isEqualTo(30);
+        assertThat(wheel.isEmpty()).isTrue();
+    }
+
+    @Test(timeout = 10000)
+    public void testRealtimeTimerService() throws Exception {
+        TimingWheelTimerService timerService = new TimingWheelTimerService();
+        try {
+            CountDownLatch latch = new CountDownLatch(2);
+            List<String> fired = new ArrayList<>();
+            long now = timerService.getCurrentTime();
+            timerService.scheduleJob(c -> { fired.add("b"); latch.countDown(); }, ctx, new PointInTimeTrigger(now + 100));
+            timerService.scheduleJob(c -> { fired.add("a"); latch.countDown(); }, ctx, new PointInTimeTrigger(now + 50));
+            JobHandle handle = timerService.scheduleJob(c -> fired.add("c"), ctx, new PointInTimeTrigger(now + 60));
+            assertThat(timerService.removeJob(handle)).isTrue();
+
+            latch.await();
+            assertThat(fired).containsExactly("a", "b");
+            assertThat(timerService.getTimeToNextJob()).isEqualTo(-1);
+        } finally {
+            timerService.shutdown();
+        }
+    }
+
+    private TimerJobInstance jobInstance(long time, long id) {
+        TimingWheelJobHandle handle = new TimingWheelJobHandle(id);
+        TimerJobInstance job = new DefaultTimerJobInstance(c -> { }, ctx, new PointInTimeTrigger(time), handle, null);
+        handle.setTimerJobInstance(job);
+        return job;
+    }
+}
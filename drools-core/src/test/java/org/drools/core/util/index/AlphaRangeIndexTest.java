@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.drools.core.base.ValueType;
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.CompositeObjectSinkAdapter.FieldIndex;
+import org.drools.core.rule.IndexableConstraint;
+import org.drools.core.rule.accessor.FieldValue;
+import org.drools.core.rule.accessor.ReadAccessor;
+import org.drools.core.rule.constraint.AlphaNodeFieldConstraint;
+import org.drools.core.util.index.IndexUtil.ConstraintType;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+public class AlphaRangeIndexTest {
+
+    private static final ConstraintType[] RANGE_TYPES = { ConstraintType.LESS_THAN, ConstraintType.LESS_OR_EQUAL,
+                                                          ConstraintType.GREATER_THAN, ConstraintType.GREATER_OR_EQUAL };
+
+    @Test
+    public void testIntBoundaries() {
+        AlphaRangeIndex index = new AlphaRangeIndex(new FieldIndex(0, selfAccessor(ValueType.PINTEGER_TYPE)));
+        AlphaNode a = alphaNode(ConstraintType.GREATER_OR_EQUAL, 18);
+        AlphaNode b = alphaNode(ConstraintType.LESS_THAN, 25);
+        AlphaNode c = alphaNode(ConstraintType.GREATER_THAN, 8);
+        AlphaNode d = alphaNode(ConstraintType.LESS_OR_EQUAL, 4);
+        index.add(a);
+        index.add(b);
+        index.add(c);
+        index.add(d);
+
+        assertThat(index.getMatchingAlphaNodes(18)).containsExactly(b, c, a);
+        assertThat(index.getMatchingAlphaNodes(25)).containsExactly(c, a);
+        assertThat(index.getMatchingAlphaNodes(4)).containsExactly(d, b);
+        assertThat(index.getMatchingAlphaNodes(8)).containsExactly(b);
+
+        index.remove(c);
+        assertThat(index.getMatchingAlphaNodes(18)).containsExactly(b, a);
+        assertThat(index.getMatchingAlphaNodes(9)).containsExactly(b);
+    }
+
+    @Test
+    public void testNullBoxedValue() {
+        AlphaRangeIndex index = new AlphaRangeIndex(new FieldIndex(0, selfAccessor(ValueType.INTEGER_TYPE)));
+        index.add(alphaNode(ConstraintType.LESS_THAN, 25));
+        index.add(alphaNode(ConstraintType.GREATER_THAN, 8));
+
+        assertThat(index.getMatchingAlphaNodes(null)).isEmpty();
+        assertThat(index.getMatchingAlphaNodes(10)).hasSize(2);
+    }
+
+    @Test
+    public void testLongSameResultsAsRangeIndex() {
+        Random random = new Random(0);
+        List<Object> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add((long) random.nextInt(100));
+            values.add((long) random.nextInt(110) - 5);
+        }
+        checkSameResultsAsRangeIndex(ValueType.PLONG_TYPE, keys, values, random);
+    }
+
+    @Test
+    public void testDoubleSameResultsAsRangeIndex() {
+        Random random = new Random(0);
+        List<Object> keys = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            keys.add(random.nextInt(100) / 2.0);
+            values.add(random.nextInt(110) / 2.0 - 2.5);
+        }
+        values.add(-0.0);
+        values.add(Double.NaN);
+        checkSameResultsAsRangeIndex(ValueType.PDOUBLE_TYPE, keys, values, random);
+    }
+
+    private void checkSameResultsAsRangeIndex(ValueType valueType, List<Object> keys, List<Object> values, Random random) {
+        AlphaRangeIndex index = new AlphaRangeIndex(new FieldIndex(0, selfAccessor(valueType)));
+        RangeIndex<Comparable, AlphaNode> expected = new RangeIndex<>();
+        for (Object key : keys) {
+            ConstraintType constraintType = RANGE_TYPES[random.nextInt(RANGE_TYPES.length)];
+            RangeIndex.IndexType indexType = toIndexType(constraintType);
+            if (expected.getAllValues().stream().anyMatch(n -> sameKey(n, constraintType, key))) {
+                // the range index doesn't allow duplicated constraints
+                continue;
+            }
+            AlphaNode node = alphaNode(constraintType, key);
+            index.add(node);
+            expected.addIndex(indexType, (Comparable) key, node);
+        }
+
+        for (Object value : values) {
+            assertThat(index.getMatchingAlphaNodes(value)).as("value " + value)
+                    .containsExactlyElementsOf(expected.getValues((Comparable) value));
+        }
+    }
+
+    private static boolean sameKey(AlphaNode node, ConstraintType constraintType, Object key) {
+        IndexableConstraint constraint = (IndexableConstraint) node.getConstraint();
+        return constraint.getConstraintType() == constraintType && constraint.getField().getValue().equals(key);
+    }
+
+    private static RangeIndex.IndexType toIndexType(ConstraintType constraintType) {
+        switch (constraintType) {
+            case LESS_THAN:
+                return RangeIndex.IndexType.LT;
+            case LESS_OR_EQUAL:
+                return RangeIndex.IndexType.LE;
+            case GREATER_THAN:
+                return RangeIndex.IndexType.GT;
+            default:
+                return RangeIndex.IndexType.GE;
+        }
+    }
+
+    private static AlphaNode alphaNode(ConstraintType constraintType, Object key) {
+        FieldValue field = mock(FieldValue.class);
+        when(field.getValue()).thenReturn(key);
+        if (key instanceof Number) {
+            when(field.getIntValue()).thenReturn(((Number) key).intValue());
+            when(field.getLongValue()).thenReturn(((Number) key).longValue());
+            when(field.getDoubleValue()).thenReturn(((Number) key).doubleValue());
+        }
+
+        IndexableConstraint constraint = mock(IndexableConstraint.class, withSettings().extraInterfaces(AlphaNodeFieldConstraint.class));
+        when(constraint.getField()).thenReturn(field);
+        when(constraint.getConstraintType()).thenReturn(constraintType);
+
+        AlphaNode alphaNode = mock(AlphaNode.class);
+        when(alphaNode.getConstraint()).thenReturn((AlphaNodeFieldConstraint) constraint);
+        return alphaNode;
+    }
+
+    // the indexed facts are the values themselves
+    private static ReadAccessor selfAccessor(ValueType valueType) {
+        ReadAccessor accessor = mock(ReadAccessor.class);
+        when(accessor.getValueType()).thenReturn(valueType);
+        when(accessor.getValue(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(accessor.getLongValue(any(), any())).thenAnswer(inv -> ((Number) inv.getArgument(1)).longValue());
+        when(accessor.getDoubleValue(any(), any())).thenAnswer(inv -> ((Number) inv.getArgument(1)).doubleValue());
+        return accessor;
+    }
+}
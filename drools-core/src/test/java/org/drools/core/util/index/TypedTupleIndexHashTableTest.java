@@ -0,0 +1,165 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.util.index;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.base.ValueType;
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.reteoo.LeftTupleImpl;
+import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleImpl;
+import org.drools.core.reteoo.Tuple;
+import org.drools.core.reteoo.TupleMemory;
+import org.drools.core.rule.accessor.ReadAccessor;
+import org.drools.core.rule.accessor.TupleValueExtractor;
+import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.FastIterator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TypedTupleIndexHashTableTest {
+
+    @Test
+    public void testSelectTypedMemoryByValueType() {
+        assertThat(TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.PINTEGER_TYPE) }, false))
+                .isInstanceOf(TypedTupleIndexHashTable.IntTupleIndexHashTable.class);
+        assertThat(TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.PLONG_TYPE) }, false))
+                .isInstanceOf(TypedTupleIndexHashTable.LongTupleIndexHashTable.class);
+        assertThat(TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.STRING_TYPE) }, true))
+                .isInstanceOf(TypedTupleIndexHashTable.StringTupleIndexHashTable.class);
+        assertThat(TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.OBJECT_TYPE) }, false)).isNull();
+        assertThat(TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.PLONG_TYPE), fieldIndex(ValueType.PLONG_TYPE) }, false)).isNull();
+    }
+
+    @Test
+    public void testLongKeys() {
+        TupleMemory memory = TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.PLONG_TYPE) }, false);
+
+        List<RightTuple> tuples = new ArrayList<>();
+        for (long i = 0; i < 1000; i++) {
+            RightTuple rightTuple = new RightTupleImpl(new DefaultFactHandle(i, i % 100));
+            tuples.add(rightTuple);
+            memory.add(rightTuple);
+        }
+        assertThat(memory.size()).isEqualTo(1000);
+        assertThat(memory.toArray()).hasSize(1000);
+
+        assertThat(bucketOf(memory, leftTuple(42L))).hasSize(10).allMatch(t -> t.getFactHandle().getObject().equals(42L));
+        assertThat(bucketOf(memory, leftTuple(142L))).isEmpty();
+
+        for (RightTuple rightTuple : tuples) {
+            if (rightTuple.getFactHandle().getObject().equals(42L)) {
+                memory.remove(rightTuple);
+            }
+        }
+        assertThat(memory.size()).isEqualTo(990);
+        assertThat(bucketOf(memory, leftTuple(42L))).isEmpty();
+        assertThat(bucketOf(memory, leftTuple(43L))).hasSize(10);
+    }
+
+    @Test
+    public void testStringKeysWithNull() {
+        TupleMemory memory = TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.STRING_TYPE) }, false);
+
+        memory.add(new RightTupleImpl(new DefaultFactHandle(1, "a")));
+        memory.add(new RightTupleImpl(new DefaultFactHandle(2, "b")));
+        memory.add(new RightTupleImpl(new DefaultFactHandle(3, null)));
+        memory.add(new RightTupleImpl(new DefaultFactHandle(4, "a")));
+
+        assertThat(bucketOf(memory, leftTuple("a"))).hasSize(2);
+        assertThat(bucketOf(memory, leftTuple("b"))).hasSize(1);
+        assertThat(bucketOf(memory, leftTuple(null))).hasSize(1);
+        assertThat(bucketOf(memory, leftTuple("c"))).isEmpty();
+    }
+
+    @Test
+    public void testRemoveAddMovesToTheNewKey() {
+        TupleMemory memory = TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.PINTEGER_TYPE) }, false);
+
+        DefaultFactHandle handle = new DefaultFactHandle(1, 1);
+        RightTuple rightTuple = new RightTupleImpl(handle);
+        memory.add(rightTuple);
+        memory.add(new RightTupleImpl(new DefaultFactHandle(2, 1)));
+
+        handle.setObject(2);
+        memory.removeAdd(rightTuple);
+
+        assertThat(memory.size()).isEqualTo(2);
+        assertThat(bucketOf(memory, leftTuple(1))).hasSize(1);
+        assertThat(bucketOf(memory, leftTuple(2))).containsExactly(rightTuple);
+    }
+
+    @Test
+    public void testRemoveWhileIteratingTheWholeMemory() {
+        TupleMemory memory = TypedTupleIndexHashTable.create(new FieldIndex[] { fieldIndex(ValueType.PINTEGER_TYPE) }, false);
+        for (int i = 0; i < 500; i++) {
+            memory.add(new RightTupleImpl(new DefaultFactHandle(i, i % 50)));
+        }
+
+        int count = 0;
+        FastIterator it = memory.fullFastIterator();
+        for (Tuple rightTuple = (Tuple) it.next(null); rightTuple != null; ) {
+            Tuple next = (Tuple) it.next(rightTuple);
+            memory.remove(rightTuple);
+            rightTuple = next;
+            count++;
+        }
+
+        assertThat(count).isEqualTo(500);
+        assertThat(memory.size()).isEqualTo(0);
+        assertThat(memory.fullFastIterator().next(null)).isNull();
+
+        // the tombstones left by the removals are reused
+        for (int i = 0; i < 500; i++) {
+            memory.add(new RightTupleImpl(new DefaultFactHandle(i, i % 50)));
+        }
+        assertThat(bucketOf(memory, leftTuple(7))).hasSize(10);
+    }
+
+    private static List<Tuple> bucketOf(TupleMemory memory, Tuple leftTuple) {
+        List<Tuple> tuples = new ArrayList<>();
+        FastIterator it = memory.fastIterator();
+        for (Tuple tuple = memory.getFirst(leftTuple); tuple != null; tuple = (Tuple) it.next(tuple)) {
+            tuples.add(tuple);
+        }
+        return tuples;
+    }
+
+    private static Tuple leftTuple(Object value) {
+        return new LeftTupleImpl(new DefaultFactHandle(0, value), null, true);
+    }
+
+    // both sides index the fact itself, so the left tuple is matched by a fact with the same value
+    private static FieldIndex fieldIndex(ValueType valueType) {
+        ReadAccessor rightExtractor = mock(ReadAccessor.class);
+        when(rightExtractor.getValueType()).thenReturn(valueType);
+        when(rightExtractor.getValue(any(), any())).thenAnswer(inv -> inv.getArgument(1));
+        when(rightExtractor.getIntValue(any(), any())).thenAnswer(inv -> inv.getArgument(1));
+        when(rightExtractor.getLongValue(any(), any())).thenAnswer(inv -> inv.getArgument(1));
+
+        TupleValueExtractor leftExtractor = mock(TupleValueExtractor.class);
+        when(leftExtractor.getValueType()).thenReturn(valueType);
+        when(leftExtractor.getValue(any(Tuple.class))).thenAnswer(inv -> ((Tuple) inv.getArgument(0)).getFactHandle().getObject());
+
+        return new FieldIndex(rightExtractor, leftExtractor);
+    }
+}
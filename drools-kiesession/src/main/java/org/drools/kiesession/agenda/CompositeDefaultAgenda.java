@@ -20,11 +20,16 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 import org.drools.core.common.ActivationsFilter;
@@ -35,8 +40,8 @@ import org.drools.core.common.InternalAgendaGroup;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.NetworkNode;
 import org.drools.core.common.ReteEvaluator;
-import org.drools.core.common.RuleBasePartitionId;
 import org.drools.core.event.AgendaEventSupport;
+import org.drools.core.impl.ExpirationManager;
 import org.drools.core.impl.RuleBase;
 import org.drools.core.phreak.ExecutableEntry;
 import org.drools.core.phreak.PropagationEntry;
@@ -53,11 +58,11 @@ import org.drools.core.common.RuleFlowGroup;
 import org.drools.core.util.CompositeIterator;
 import org.kie.api.runtime.rule.AgendaFilter;
 import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.kie.internal.conf.ParallelExecutorOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static java.util.concurrent.CompletableFuture.runAsync;
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
 
@@ -67,12 +72,19 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
 
     private static final AtomicBoolean FIRING_UNTIL_HALT_USING_EXECUTOR = new AtomicBoolean( false );
 
-    private final DefaultAgenda[] agendas = new DefaultAgenda[RuleBasePartitionId.PARALLEL_PARTITIONS_NUMBER];
+    private DefaultAgenda[] agendas;
+
+    private ExecutorService executor;
 
     private final DefaultAgenda.ExecutionStateMachine executionStateMachine = new DefaultAgenda.ConcurrentExecutionStateMachine();
 
     private PropagationList propagationList;
 
+    // the pending work of each slot when the last parallel evaluation started, and the deepest one ever observed
+    private volatile int[] queueDepths;
+    private AtomicIntegerArray maxQueueDepths;
+    private final AtomicLong stolenSlots = new AtomicLong();
+
     public CompositeDefaultAgenda() { }
 
     public CompositeDefaultAgenda(RuleBase kBase) {
@@ -80,13 +92,22 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
     }
 
     public CompositeDefaultAgenda(RuleBase kBase, boolean initMain) {
+        this.agendas = new DefaultAgenda[kBase.getConfiguration().getParallelEvaluationSlotsNumber()];
+        this.executor = kBase.getParallelEvaluationExecutor();
         for ( int i = 0; i < agendas.length; i++ ) {
             agendas[i] = new PartitionedDefaultAgenda(kBase, initMain, executionStateMachine, i);
         }
+        initQueueDepths();
+    }
+
+    private void initQueueDepths() {
+        this.queueDepths = new int[agendas.length];
+        this.maxQueueDepths = new AtomicIntegerArray( agendas.length );
     }
 
     @Override
     public void writeExternal( ObjectOutput out ) throws IOException {
+        out.writeInt( agendas.length );
         for ( DefaultAgenda agenda : agendas ) {
             out.writeObject( agenda );
         }
@@ -94,9 +115,11 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
 
     @Override
     public void readExternal( ObjectInput in ) throws IOException, ClassNotFoundException {
+        agendas = new DefaultAgenda[in.readInt()];
         for ( int i = 0; i < agendas.length; i++ ) {
             agendas[i] = (DefaultAgenda) in.readObject();
         }
+        initQueueDepths();
     }
 
     @Override
@@ -137,6 +160,7 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
     @Override
     public void setWorkingMemory( InternalWorkingMemory workingMemory ) {
         Stream.of( agendas ).forEach( a -> a.setWorkingMemory( workingMemory ) );
+        this.executor = workingMemory.getKnowledgeBase().getParallelEvaluationExecutor();
         // this composite agenda and the first partitioned one share the same propagation list
         this.propagationList = agendas[0].getPropagationList();
     }
@@ -175,17 +199,57 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
     }
 
     private int parallelFire( AgendaFilter agendaFilter, int fireLimit ) {
-        CompletableFuture<Integer>[] results = new CompletableFuture[agendas.length-1];
-        for (int i = 0; i < results.length; i++) {
-            final int j = i;
-            results[j] = supplyAsync( () -> agendas[j].internalFireAllRules( agendaFilter, fireLimit, false ), EXECUTOR );
+        // the partitioned agendas are not pinned to a thread: each evaluator takes the next one still pending
+        WorkStealingEvaluation<DefaultAgenda> evaluation = new WorkStealingEvaluation<>( sortByQueueDepth(),
+                agenda -> agenda.internalFireAllRules( agendaFilter, fireLimit, false ) );
+        int result = evaluation.evaluate( executor, agendas.length - 1 );
+        stolenSlots.addAndGet( evaluation.getStolenSlotsCount() );
+        return result;
+    }
+
+    private List<DefaultAgenda> sortByQueueDepth() {
+        int[] depths = new int[agendas.length];
+        Integer[] slots = new Integer[agendas.length];
+        for ( int i = 0; i < agendas.length; i++ ) {
+            depths[i] = agendas[i].getQueueDepth();
+            maxQueueDepths.accumulateAndGet( i, depths[i], Math::max );
+            slots[i] = i;
         }
+        queueDepths = depths;
 
-        int result = agendas[agendas.length-1].internalFireAllRules( agendaFilter, fireLimit, false );
-        for (int i = 0; i < results.length; i++) {
-            result += results[i].join();
+        // the deepest agendas are taken first, so the lighter ones can fill the evaluators that finish earlier
+        Arrays.sort( slots, (s1, s2) -> Integer.compare( depths[s2], depths[s1] ) );
+        List<DefaultAgenda> sortedAgendas = new ArrayList<>( agendas.length );
+        for ( Integer slot : slots ) {
+            sortedAgendas.add( agendas[slot] );
         }
-        return result;
+        return sortedAgendas;
+    }
+
+    /**
+     * Returns the pending work, queued propagations plus rules to be evaluated, of each parallel evaluation slot
+     * when the last parallel evaluation started. Uneven depths show that the partitions are not balanced among the slots.
+     */
+    public int[] getQueueDepths() {
+        return queueDepths.clone();
+    }
+
+    /**
+     * Returns the deepest pending work observed for each parallel evaluation slot.
+     */
+    public int[] getMaxQueueDepths() {
+        int[] depths = new int[maxQueueDepths.length()];
+        for ( int i = 0; i < depths.length; i++ ) {
+            depths[i] = maxQueueDepths.get( i );
+        }
+        return depths;
+    }
+
+    /**
+     * Returns how many times an evaluator went on with the agenda of another slot after evaluating its own one.
+     */
+    public long getStolenSlotsCount() {
+        return stolenSlots.get();
     }
 
     @Override
@@ -205,10 +269,15 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
 
     @Override
     public void fireUntilHalt( AgendaFilter agendaFilter ) {
-        ExecutorService fireUntilHaltExecutor = EXECUTOR;
+        ExecutorService fireUntilHaltExecutor;
 
-        if ( FIRING_UNTIL_HALT_USING_EXECUTOR.getAndSet( true )) {
-            fireUntilHaltExecutor = ExecutorProviderFactory.getExecutorProvider().newFixedThreadPool();
+        // fire until halt keeps busy a thread per partition, so it can use the executor of the kbase only if it is unbounded
+        if ( getReteEvaluator().getKnowledgeBase().getConfiguration().getParallelExecutor() == ParallelExecutorOption.VIRTUAL ) {
+            fireUntilHaltExecutor = executor;
+        } else if ( executor == EXECUTOR && !FIRING_UNTIL_HALT_USING_EXECUTOR.getAndSet( true ) ) {
+            fireUntilHaltExecutor = EXECUTOR;
+        } else {
+            fireUntilHaltExecutor = ExecutorProviderFactory.getExecutorProvider().newFixedThreadPool( agendas.length );
         }
 
         if ( log.isTraceEnabled() ) {
@@ -233,7 +302,7 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
                 executionStateMachine.immediateHalt( propagationList );
                 if ( fireUntilHaltExecutor == EXECUTOR ) {
                     FIRING_UNTIL_HALT_USING_EXECUTOR.set( false );
-                } else {
+                } else if ( fireUntilHaltExecutor != executor ) {
                     fireUntilHaltExecutor.shutdown();
                 }
             }
@@ -529,6 +598,11 @@ public class CompositeDefaultAgenda implements Externalizable, InternalAgenda {
         throw new UnsupportedOperationException( "This method has to be called on the single partitioned agendas" );
     }
 
+    @Override
+    public ExpirationManager getExpirationManager() {
+        throw new UnsupportedOperationException( "Batched expiration is not supported with multithread evaluation" );
+    }
+
     @Override
     public KnowledgeHelper getKnowledgeHelper() {
         throw new UnsupportedOperationException( "This method has to be called on the single partitioned agendas" );
@@ -44,8 +44,10 @@ import org.drools.core.concurrent.RuleEvaluator;
 import org.drools.core.concurrent.SequentialRuleEvaluator;
 import org.drools.core.definitions.rule.impl.RuleImpl;
 import org.drools.core.event.AgendaEventSupport;
+import org.drools.core.impl.ExpirationManager;
 import org.drools.core.impl.RuleBase;
 import org.drools.core.phreak.ExecutableEntry;
+import org.drools.core.phreak.LockFreePropagationList;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.PropagationList;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -125,6 +127,8 @@ public class DefaultAgenda implements Externalizable, InternalAgenda {
 
     private volatile List<PropagationContext> expirationContexts;
 
+    private ExpirationManager expirationManager;
+
     private RuleEvaluator ruleEvaluator;
 
     private PropagationList propagationList;
@@ -227,8 +231,12 @@ public class DefaultAgenda implements Externalizable, InternalAgenda {
             return new ThreadUnsafePropagationList( workingMemory );
         }
 
-        return workingMemory.getSessionConfiguration().hasForceEagerActivationFilter() ?
-               new SynchronizedBypassPropagationList( workingMemory ) :
+        if (workingMemory.getSessionConfiguration().hasForceEagerActivationFilter()) {
+            return new SynchronizedBypassPropagationList( workingMemory );
+        }
+
+        return workingMemory.getSessionConfiguration().isLockFreePropagationList() ?
+               new LockFreePropagationList( workingMemory ) :
                new SynchronizedPropagationList( workingMemory );
     }
 
@@ -454,6 +462,9 @@ public class DefaultAgenda implements Externalizable, InternalAgenda {
         activationCounter = 0;
         executionStateMachine.reset();
         propagationList.reset();
+        if (expirationManager != null) {
+            expirationManager.reset();
+        }
     }
 
     @Override
@@ -968,6 +979,17 @@ public class DefaultAgenda implements Externalizable, InternalAgenda {
         return !propagationList.isEmpty();
     }
 
+    /**
+     * Returns the pending work of this agenda: the queued propagations plus the rules waiting to be evaluated.
+     */
+    int getQueueDepth() {
+        int depth = getAgendaGroupsManager().agendaSize();
+        for ( Iterator<PropagationEntry> i = propagationList.iterator(); i.hasNext(); i.next() ) {
+            depth++;
+        }
+        return depth;
+    }
+
     interface ExecutionStateMachine {
         enum ExecutionState {         // fireAllRule | fireUntilHalt | executeTask <-- required action
             INACTIVE( false, true ),         // fire        | fire          | exec
@@ -1329,6 +1351,14 @@ public class DefaultAgenda implements Externalizable, InternalAgenda {
         expirationContexts.add(ectx);
     }
 
+    @Override
+    public ExpirationManager getExpirationManager() {
+        if (expirationManager == null) {
+            expirationManager = new ExpirationManager(workingMemory);
+        }
+        return expirationManager;
+    }
+
     private boolean flushExpirations() {
         if (expirationContexts == null || expirationContexts.isEmpty() || propagationList.hasEntriesDeferringExpiration()) {
             return false;
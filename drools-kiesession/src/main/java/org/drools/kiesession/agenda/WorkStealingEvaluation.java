@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.kiesession.agenda;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+/**
+ * Evaluates a set of slots, typically the partitioned agendas of a parallel fire, with a pool of evaluators
+ * taking them from a shared queue. Each evaluator, including the thread starting the evaluation, keeps taking
+ * the next queued slot until none is left, so an evaluator done with a light slot goes on with the ones not
+ * yet taken instead of staying idle, and the starting thread never waits for an evaluator that is still queued
+ * in a busy executor. A slot is taken by exactly one evaluator, so the segments of its partitions are still
+ * evaluated by a single thread.
+ */
+class WorkStealingEvaluation<T> {
+
+    private final Queue<T> slots;
+    private final ToIntFunction<T> evaluator;
+
+    private final CountDownLatch evaluatedSlots;
+    private final AtomicInteger result = new AtomicInteger();
+    private final AtomicInteger stolenSlots = new AtomicInteger();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    /**
+     * @param slots the slots to be evaluated, in the order they are taken
+     * @param evaluator evaluates a slot, returning the number of rules it fired
+     */
+    WorkStealingEvaluation( List<T> slots, ToIntFunction<T> evaluator ) {
+        this.slots = new ConcurrentLinkedQueue<>( slots );
+        this.evaluator = evaluator;
+        this.evaluatedSlots = new CountDownLatch( slots.size() );
+    }
+
+    /**
+     * Evaluates all the slots using the current thread and up to the given number of evaluators of the executor,
+     * and returns the sum of the results of the slots once all of them have been evaluated.
+     */
+    int evaluate( Executor executor, int evaluators ) {
+        for ( int i = 0; i < evaluators; i++ ) {
+            try {
+                executor.execute( this::evaluateSlots );
+            } catch (RejectedExecutionException e) {
+                // the slots left over are evaluated by the current thread
+                break;
+            }
+        }
+        evaluateSlots();
+        awaitEvaluatedSlots();
+
+        Throwable t = error.get();
+        if ( t instanceof RuntimeException ) {
+            throw (RuntimeException) t;
+        }
+        if ( t instanceof Error ) {
+            throw (Error) t;
+        }
+        if ( t != null ) {
+            throw new RuntimeException( t );
+        }
+        return result.get();
+    }
+
+    /**
+     * Returns how many slots have been taken by an evaluator that had already evaluated another one.
+     */
+    int getStolenSlotsCount() {
+        return stolenSlots.get();
+    }
+
+    private void evaluateSlots() {
+        int evaluated = 0;
+        for ( T slot = slots.poll(); slot != null; slot = slots.poll() ) {
+            if ( evaluated++ > 0 ) {
+                stolenSlots.incrementAndGet();
+            }
+            try {
+                // after a failure the remaining slots are only drained, as the whole evaluation is going to fail
+                if ( error.get() == null ) {
+                    result.addAndGet( evaluator.applyAsInt( slot ) );
+                }
+            } catch (Throwable t) {
+                error.compareAndSet( null, t );
+            } finally {
+                evaluatedSlots.countDown();
+            }
+        }
+    }
+
+    private void awaitEvaluatedSlots() {
+        boolean interrupted = false;
+        while ( true ) {
+            try {
+                evaluatedSlots.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if ( interrupted ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
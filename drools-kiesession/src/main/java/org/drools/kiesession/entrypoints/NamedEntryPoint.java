@@ -174,64 +174,108 @@ public class NamedEntryPoint implements InternalWorkingMemoryEntryPoint, Propert
             this.reteEvaluator.startOperation();
 
             ObjectTypeConf typeConf = getObjectTypeConfigurationRegistry().getOrCreateObjectTypeConf( this.entryPoint, object );
+            return insertObject( object, dynamic, rule, terminalNode, typeConf );
+        } finally {
+            this.reteEvaluator.endOperation();
+        }
+    }
 
-            final PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.reteEvaluator.getNextPropagationIdCounter(),
-                    PropagationContext.Type.INSERTION,
-                    rule,
-                    terminalNode,
-                    null,
-                    entryPoint);
-            if ( this.reteEvaluator.isSequential() ) {
-                InternalFactHandle handle = createHandle( object, typeConf );
-                propagationContext.setFactHandle(handle);
-                insert( handle, object, rule, typeConf, propagationContext );
-                return handle;
+    /**
+     * Inserts the given facts one by one, as with {@link #insert(Object)}, within a single operation of the session.
+     * Each fact still gets its own propagation and takes the lock on its own, so that other threads are not kept
+     * waiting for the whole batch. The ObjectTypeConf is looked up again only when the class of the fact differs
+     * from the one of the former fact.
+     */
+    @Override
+    public List<FactHandle> insertAll(Collection<?> objects) {
+        List<FactHandle> handles = new ArrayList<>( objects.size() );
+        if ( objects.isEmpty() ) {
+            return handles;
+        }
+
+        try {
+            this.reteEvaluator.startOperation();
+
+            ObjectTypeConfigurationRegistry registry = getObjectTypeConfigurationRegistry();
+            Class<?> lastClass = null;
+            ObjectTypeConf typeConf = null;
+            for (Object object : objects) {
+                if ( object == null ) {
+                    // you cannot assert a null object
+                    handles.add( null );
+                    continue;
+                }
+                if ( object.getClass() != lastClass || object instanceof Fact ) {
+                    // the ObjectTypeConf of a Fact depends on its template, not on its class
+                    typeConf = registry.getOrCreateObjectTypeConf( this.entryPoint, object );
+                    lastClass = object.getClass();
+                }
+                handles.add( insertObject( object, false, null, null, typeConf ) );
             }
+            return handles;
+        } finally {
+            this.reteEvaluator.endOperation();
+        }
+    }
 
-            InternalFactHandle handle;
-            try {
-                lock();
+    private InternalFactHandle insertObject(final Object object,
+                                            final boolean dynamic,
+                                            final RuleImpl rule,
+                                            final TerminalNode terminalNode,
+                                            final ObjectTypeConf typeConf) {
+        final PropagationContext propagationContext = this.pctxFactory.createPropagationContext(this.reteEvaluator.getNextPropagationIdCounter(),
+                PropagationContext.Type.INSERTION,
+                rule,
+                terminalNode,
+                null,
+                entryPoint);
+        if ( this.reteEvaluator.isSequential() ) {
+            InternalFactHandle handle = createHandle( object, typeConf );
+            propagationContext.setFactHandle(handle);
+            insert( handle, object, rule, typeConf, propagationContext );
+            return handle;
+        }
 
-                // check if the object already exists in the WM
-                handle = this.objectStore.getHandleForObject( object );
+        InternalFactHandle handle;
+        try {
+            lock();
 
-                if ( typeConf.isTMSEnabled() ) {
-                    if ( handle != null && handle.getEqualityKey().getStatus() == EqualityKey.STATED ) {
-                        // it's already stated, so just return the handle
-                        return handle;
-                    }
+            // check if the object already exists in the WM
+            handle = this.objectStore.getHandleForObject( object );
 
-                    handle = TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem(this).insertOnTms(object, typeConf, propagationContext, handle, this::createHandle);
-                } else {
-                    // TMS not enabled for this object type
-                    if ( handle != null ) {
-                        return handle;
-                    }
-                    handle = createHandle( object, typeConf );
+            if ( typeConf.isTMSEnabled() ) {
+                if ( handle != null && handle.getEqualityKey().getStatus() == EqualityKey.STATED ) {
+                    // it's already stated, so just return the handle
+                    return handle;
                 }
 
-                propagationContext.setFactHandle(handle);
-
-                // if the dynamic parameter is true or if the user declared the fact type with the meta tag:
-                // @propertyChangeSupport
-                if ( dynamic || typeConf.isDynamic() ) {
-                    addPropertyChangeListener( handle, dynamic );
+                handle = TruthMaintenanceSystemFactory.get().getOrCreateTruthMaintenanceSystem(this).insertOnTms(object, typeConf, propagationContext, handle, this::createHandle);
+            } else {
+                // TMS not enabled for this object type
+                if ( handle != null ) {
+                    return handle;
                 }
+                handle = createHandle( object, typeConf );
+            }
 
-                insert( handle,
-                        object,
-                        rule,
-                        typeConf,
-                        propagationContext );
+            propagationContext.setFactHandle(handle);
 
-            } finally {
-                unlock();
+            // if the dynamic parameter is true or if the user declared the fact type with the meta tag:
+            // @propertyChangeSupport
+            if ( dynamic || typeConf.isDynamic() ) {
+                addPropertyChangeListener( handle, dynamic );
             }
-            return handle;
+
+            insert( handle,
+                    object,
+                    rule,
+                    typeConf,
+                    propagationContext );
+
         } finally {
-            this.reteEvaluator.endOperation();
+            unlock();
         }
-
+        return handle;
     }
 
     public void insert(InternalFactHandle handle,
@@ -27,6 +27,7 @@ import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -741,6 +742,11 @@ public class SessionsAwareKnowledgeBase implements InternalKnowledgeBase {
         return delegate.createNewPartitionId();
     }
 
+    @Override
+    public ExecutorService getParallelEvaluationExecutor() {
+        return delegate.getParallelEvaluationExecutor();
+    }
+
     @Override
     public FactType getFactType(String packageName, String typeName) {
         return delegate.getFactType(packageName, typeName);
@@ -1211,6 +1211,12 @@ public class StatefulKnowledgeSessionImpl extends AbstractRuntime
                        false );
     }
 
+    @Override
+    public List<FactHandle> insertAll(Collection<?> objects) {
+        checkAlive();
+        return this.entryPointsManager.getDefaultEntryPoint().insertAll(objects);
+    }
+
     public FactHandle insert(final Object object,
                              final boolean dynamic) {
         return insert( object,
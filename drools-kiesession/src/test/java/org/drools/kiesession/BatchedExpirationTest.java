@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.kiesession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.ExpirationManager;
+import org.drools.core.impl.ExpirationManager.BatchExpireJobContext;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.SelfRemovalJobContext;
+import org.drools.core.time.impl.TimerJobInstance;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.definition.type.Expires;
+import org.kie.api.definition.type.Role;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.conf.TimerJobFactoryOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+import org.kie.internal.conf.BatchedExpirationOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchedExpirationTest {
+
+    private KieSession ksession;
+    private SessionPseudoClock clock;
+
+    @Before
+    public void setUp() {
+        KieBaseConfiguration kbconf = RuleBaseFactory.newKnowledgeBaseConfiguration();
+        kbconf.setOption(EventProcessingOption.STREAM);
+        kbconf.setOption(BatchedExpirationOption.YES);
+
+        KieSessionConfiguration ksconf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption(ClockTypeOption.PSEUDO);
+        ksconf.setOption(TimerJobFactoryOption.get("trackable"));
+
+        ksession = KnowledgeBaseFactory.newKnowledgeBase(kbconf).newKieSession(ksconf, null);
+        clock = ksession.getSessionClock();
+    }
+
+    @After
+    public void tearDown() {
+        ksession.dispose();
+    }
+
+    @Test
+    public void testEventsExpiringTogetherAreExpiredAtTheirExpirationTime() {
+        for (int i = 0; i < 10; i++) {
+            ksession.insert(new Event(i));
+        }
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        for (int i = 10; i < 15; i++) {
+            ksession.insert(new Event(i));
+        }
+
+        // one job for each expiration time
+        assertThat(getTimerJobs()).hasSize(2);
+        assertThat(getExpirationManager().getScheduledExpirationsCount()).isEqualTo(15);
+
+        clock.advanceTime(TimeUnit.MINUTES.toMillis(10) - 1001, TimeUnit.MILLISECONDS);
+        ksession.fireAllRules();
+        assertThat(ksession.getObjects()).hasSize(15);
+
+        clock.advanceTime(1, TimeUnit.MILLISECONDS);
+        ksession.fireAllRules();
+        assertThat(ksession.getObjects()).hasSize(5);
+        assertThat(getTimerJobs()).hasSize(1);
+
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        ksession.fireAllRules();
+        assertThat(ksession.getObjects()).isEmpty();
+        assertThat(getTimerJobs()).isEmpty();
+        assertThat(getExpirationManager().getScheduledExpirationsCount()).isZero();
+    }
+
+    @Test
+    public void testRetractedEventsAreReleasedBeforeExpiring() {
+        Event retracted = new Event(0);
+        Event kept = new Event(1);
+        FactHandle retractedHandle = ksession.insert(retracted);
+        ksession.insert(kept);
+        FactHandle otherHandle = ksession.insert(new Event(2));
+
+        ksession.delete(retractedHandle);
+        ksession.fireAllRules();
+        assertThat(getExpirationManager().getScheduledExpirationsCount()).isEqualTo(2);
+        List<Object> pending = new ArrayList<>();
+        for (TimerJobInstance timerJob : getTimerJobs()) {
+            JobContext jobContext = ((SelfRemovalJobContext) timerJob.getJobContext()).getJobContext();
+            ((BatchExpireJobContext) jobContext).getBatch().getExpireActions()
+                    .forEach(action -> pending.add(action.getFactHandle().getObject()));
+        }
+        assertThat(pending).containsExactlyInAnyOrder(kept, new Event(2));
+
+        // the shared job is cancelled once all its events have been retracted
+        ksession.delete(ksession.getFactHandle(kept));
+        ksession.delete(otherHandle);
+        ksession.fireAllRules();
+        assertThat(getExpirationManager().getScheduledExpirationsCount()).isZero();
+        assertThat(getTimerJobs()).isEmpty();
+
+        ksession.insert(new Event(3));
+        clock.advanceTime(10, TimeUnit.MINUTES);
+        ksession.fireAllRules();
+        assertThat(ksession.getObjects()).isEmpty();
+    }
+
+    private ExpirationManager getExpirationManager() {
+        return ((InternalWorkingMemory) ksession).getAgenda().getExpirationManager();
+    }
+
+    private List<TimerJobInstance> getTimerJobs() {
+        InternalWorkingMemory workingMemory = (InternalWorkingMemory) ksession;
+        return new ArrayList<>(workingMemory.getTimerService().getTimerJobInstances(workingMemory.getIdentifier()));
+    }
+
+    @Role(Role.Type.EVENT)
+    @Expires("10m")
+    public static class Event {
+
+        private final int value;
+
+        public Event(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Event && ((Event) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Event(" + value + ")";
+        }
+    }
+}
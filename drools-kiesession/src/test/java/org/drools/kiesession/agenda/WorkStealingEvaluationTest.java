@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.kiesession.agenda;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class WorkStealingEvaluationTest {
+
+    private static final List<Integer> SLOTS = Arrays.asList( 1, 2, 3, 4 );
+
+    @Test
+    public void testSlotsAreStolenFromQueuedEvaluators() {
+        // the evaluators submitted to the executor never run, as it happens when it is busy with other work
+        WorkStealingEvaluation<Integer> evaluation = new WorkStealingEvaluation<>( SLOTS, slot -> slot );
+
+        assertThat( evaluation.evaluate( task -> { }, SLOTS.size() - 1 ) ).isEqualTo( 10 );
+        assertThat( evaluation.getStolenSlotsCount() ).isEqualTo( 3 );
+    }
+
+    @Test
+    public void testSlotsAreEvaluatedWhenTheExecutorRejectsTheEvaluators() {
+        WorkStealingEvaluation<Integer> evaluation = new WorkStealingEvaluation<>( SLOTS, slot -> slot );
+
+        assertThat( evaluation.evaluate( task -> { throw new RejectedExecutionException(); }, SLOTS.size() - 1 ) ).isEqualTo( 10 );
+        assertThat( evaluation.getStolenSlotsCount() ).isEqualTo( 3 );
+    }
+
+    @Test(timeout = 20000)
+    public void testIdleEvaluatorsTakeThePendingSlots() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool( 3 );
+        try {
+            CountDownLatch otherSlotsEvaluated = new CountDownLatch( SLOTS.size() - 1 );
+            Map<Integer, String> evaluatingThreads = new ConcurrentHashMap<>();
+            WorkStealingEvaluation<Integer> evaluation = new WorkStealingEvaluation<>( SLOTS, slot -> {
+                evaluatingThreads.put( slot, Thread.currentThread().getName() );
+                if ( slot == 1 ) {
+                    // the busiest slot keeps its evaluator until all the other ones have been evaluated
+                    await( otherSlotsEvaluated );
+                } else {
+                    otherSlotsEvaluated.countDown();
+                }
+                return slot;
+            } );
+
+            assertThat( evaluation.evaluate( executor, SLOTS.size() - 1 ) ).isEqualTo( 10 );
+            assertThat( evaluatingThreads ).containsOnlyKeys( SLOTS );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testEachSlotIsEvaluatedOnce() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try {
+            for ( int i = 0; i < 100; i++ ) {
+                AtomicInteger[] evaluations = new AtomicInteger[SLOTS.size()];
+                Arrays.setAll( evaluations, slot -> new AtomicInteger() );
+                WorkStealingEvaluation<Integer> evaluation = new WorkStealingEvaluation<>( SLOTS, slot -> {
+                    evaluations[slot - 1].incrementAndGet();
+                    return slot;
+                } );
+
+                assertThat( evaluation.evaluate( executor, SLOTS.size() - 1 ) ).isEqualTo( 10 );
+                assertThat( evaluations ).allMatch( count -> count.get() == 1 );
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testFailureOfASlotIsRethrown() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool( 3 );
+        try {
+            WorkStealingEvaluation<Integer> evaluation = new WorkStealingEvaluation<>( SLOTS, slot -> {
+                if ( slot == 2 ) {
+                    throw new IllegalStateException( "failing slot" );
+                }
+                return slot;
+            } );
+
+            assertThatThrownBy( () -> evaluation.evaluate( executor, SLOTS.size() - 1 ) )
+                    .isInstanceOf( IllegalStateException.class )
+                    .hasMessage( "failing slot" );
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await( CountDownLatch latch ) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
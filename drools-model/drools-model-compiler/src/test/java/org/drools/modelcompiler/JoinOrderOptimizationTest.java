@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.reteoo.builder.JoinOrderOptimizer;
+import org.drools.core.reteoo.builder.JoinPlan;
+import org.drools.core.rule.Pattern;
+import org.drools.core.rule.RuleConditionElement;
+import org.drools.model.Index;
+import org.drools.model.Model;
+import org.drools.model.Variable;
+import org.drools.model.impl.ModelImpl;
+import org.drools.modelcompiler.domain.Person;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.KieServices;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.conf.JoinOrderOptimizationOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.drools.model.DSL.declarationOf;
+import static org.drools.model.DSL.on;
+import static org.drools.model.PatternDSL.betaIndexedBy;
+import static org.drools.model.PatternDSL.pattern;
+import static org.drools.model.PatternDSL.rule;
+
+public class JoinOrderOptimizationTest {
+
+    private static final int PERSONS = 30;
+
+    // values not cached by Integer.valueOf, so that each insertion is a different fact
+    private static final int FIRST_AGE = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRulesFireWithTheRecordedJoinPlan() throws Exception {
+        // profiling run, joining the patterns in the order they are written
+        List<String> profiled = new ArrayList<>();
+        KieBase profilingKieBase = KieBaseBuilder.createKieBaseFromModel( newModel( profiled ), JoinOrderOptimizationOption.YES );
+        KieSession profilingSession = profilingKieBase.newKieSession();
+        List<List<Class<?>>> profiledObjects = recordMatchedObjects( profilingSession );
+        insertFacts( profilingSession );
+        assertThat( profilingSession.fireAllRules() ).isEqualTo( PERSONS * 2 );
+        assertThat( profiledObjects ).allMatch( objects -> objects.equals( Arrays.asList( Person.class, Integer.class, String.class ) ) );
+
+        JoinPlan plan = JoinOrderOptimizer.createPlan( (InternalWorkingMemory) profilingSession );
+        profilingSession.dispose();
+
+        // the String pattern has the fewest facts, while the Integer one can't be joined before the Person it refers to
+        RuleImpl rule = (RuleImpl) profilingKieBase.getRule( "org.drools.joinorder", "R1" );
+        assertThat( plan.getPatternOrder( rule.getFullyQualifiedName() ) )
+                .containsExactly( patternId( rule, String.class ), patternId( rule, Person.class ), patternId( rule, Integer.class ) );
+
+        File metaInf = new File( folder.getRoot(), "META-INF" );
+        assertThat( metaInf.mkdirs() ).isTrue();
+        try (OutputStream out = new FileOutputStream( new File( folder.getRoot(), JoinPlan.RESOURCE_NAME ) )) {
+            plan.store( out );
+        }
+
+        // a new KieBase whose resources contain the plan
+        List<String> optimized = new ArrayList<>();
+        try (URLClassLoader classLoader = new URLClassLoader( new URL[] { folder.getRoot().toURI().toURL() }, getClass().getClassLoader() )) {
+            KieBaseConfiguration conf = KieServices.get().newKieBaseConfiguration( null, classLoader );
+            conf.setOption( JoinOrderOptimizationOption.YES );
+            KieSession ksession = KieBaseBuilder.createKieBaseFromModel( newModel( optimized ), conf ).newKieSession();
+            List<List<Class<?>>> optimizedObjects = recordMatchedObjects( ksession );
+            insertFacts( ksession );
+            assertThat( ksession.fireAllRules() ).isEqualTo( PERSONS * 2 );
+
+            // the objects of the matches follow the new join order
+            assertThat( optimizedObjects ).allMatch( objects -> objects.equals( Arrays.asList( String.class, Person.class, Integer.class ) ) );
+            ksession.dispose();
+        }
+
+        // the consequences get the same, correctly bound, declarations
+        assertThat( optimized ).hasSize( PERSONS * 2 ).containsExactlyInAnyOrderElementsOf( profiled );
+    }
+
+    @Test
+    public void testPatternsAreNotReorderedWithoutAPlan() {
+        List<String> fired = new ArrayList<>();
+        KieSession ksession = KieBaseBuilder.createKieBaseFromModel( newModel( fired ), JoinOrderOptimizationOption.YES ).newKieSession();
+        List<List<Class<?>>> matchedObjects = recordMatchedObjects( ksession );
+        insertFacts( ksession );
+
+        assertThat( ksession.fireAllRules() ).isEqualTo( PERSONS * 2 );
+        assertThat( matchedObjects ).allMatch( objects -> objects.equals( Arrays.asList( Person.class, Integer.class, String.class ) ) );
+        ksession.dispose();
+    }
+
+    private static Model newModel( List<String> fired ) {
+        Variable<Person> personV = declarationOf( Person.class );
+        Variable<Integer> ageV = declarationOf( Integer.class );
+        Variable<String> tagV = declarationOf( String.class );
+
+        return new ModelImpl().addRule( rule( "org.drools.joinorder", "R1" )
+                .build( pattern( personV ),
+                        pattern( ageV ).expr( "exprAge", personV, (age, p) -> age == p.getAge(),
+                                              betaIndexedBy( int.class, Index.ConstraintType.EQUAL, 0, age -> age, Person::getAge ) ),
+                        pattern( tagV ),
+                        on( personV, ageV, tagV ).execute( (p, age, tag) -> {
+                            // the age has to be the one of the person, whatever order the patterns are joined in
+                            assertThat( age ).isEqualTo( p.getAge() );
+                            fired.add( p.getName() + ":" + age + ":" + tag );
+                        } ) ) );
+    }
+
+    private static void insertFacts( KieSession ksession ) {
+        for ( int i = 0; i < PERSONS; i++ ) {
+            ksession.insert( new Person( "P" + i, FIRST_AGE + i ) );
+            ksession.insert( FIRST_AGE + i );
+        }
+        ksession.insert( "a" );
+        ksession.insert( "b" );
+    }
+
+    private static List<List<Class<?>>> recordMatchedObjects( KieSession ksession ) {
+        List<List<Class<?>>> matchedObjects = new ArrayList<>();
+        ksession.addEventListener( new DefaultAgendaEventListener() {
+            @Override
+            public void afterMatchFired( AfterMatchFiredEvent event ) {
+                matchedObjects.add( event.getMatch().getObjects().stream().map( Object::getClass ).collect( Collectors.toList() ) );
+            }
+        } );
+        return matchedObjects;
+    }
+
+    private static int patternId( RuleImpl rule, Class<?> type ) {
+        for ( RuleConditionElement element : rule.getLhs().getChildren() ) {
+            if ( element instanceof Pattern && ( (Pattern) element ).getObjectType().getClassName().equals( type.getName() ) ) {
+                return ( (Pattern) element ).getPatternId();
+            }
+        }
+        throw new IllegalArgumentException( "No pattern of type " + type );
+    }
+}
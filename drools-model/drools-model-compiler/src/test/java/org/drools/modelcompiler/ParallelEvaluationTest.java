@@ -0,0 +1,119 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.modelcompiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.RuleBasePartitionId;
+import org.drools.core.impl.RuleBase;
+import org.drools.core.reteoo.TerminalNode;
+import org.drools.kiesession.agenda.CompositeDefaultAgenda;
+import org.drools.model.Index;
+import org.drools.model.Variable;
+import org.drools.model.impl.ModelImpl;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.conf.KieBaseOption;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.conf.MultithreadEvaluationOption;
+import org.kie.internal.conf.ParallelEvaluationSlotsOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.drools.model.DSL.declarationOf;
+import static org.drools.model.DSL.on;
+import static org.drools.model.PatternDSL.alphaIndexedBy;
+import static org.drools.model.PatternDSL.pattern;
+import static org.drools.model.PatternDSL.rule;
+
+public class ParallelEvaluationTest {
+
+    private static final int RULES = 8;
+
+    // values not cached by Integer.valueOf, so that each insertion is a different fact
+    private static final int FIRST_VALUE = 1000;
+
+    @Test(timeout = 40000L)
+    public void testQueueDepthsShowUnbalancedPartitions() {
+        List<Integer> fired = Collections.synchronizedList( new ArrayList<>() );
+        KieSession ksession = newKieBase( fired, MultithreadEvaluationOption.YES, ParallelEvaluationSlotsOption.get( 4 ) ).newKieSession();
+        CompositeDefaultAgenda agenda = (CompositeDefaultAgenda) ((InternalWorkingMemory) ksession).getAgenda();
+
+        // all the facts but one are evaluated by the partition of the first rule
+        for ( int i = 0; i < 20; i++ ) {
+            ksession.insert( FIRST_VALUE );
+        }
+        ksession.insert( FIRST_VALUE + 1 );
+
+        assertThat( ksession.fireAllRules() ).isEqualTo( 21 );
+        assertThat( fired ).hasSize( 21 );
+
+        assertThat( agenda.getQueueDepths() ).hasSize( 4 ).containsOnly( 0, 1, 20 ).contains( 1, 20 );
+        assertThat( agenda.getMaxQueueDepths() ).isEqualTo( agenda.getQueueDepths() );
+        assertThat( agenda.getStolenSlotsCount() ).isBetween( 0L, 3L );
+
+        // the max depths are kept while the ones of the last evaluation are replaced
+        ksession.insert( FIRST_VALUE + 1 );
+        assertThat( ksession.fireAllRules() ).isEqualTo( 1 );
+        assertThat( agenda.getQueueDepths() ).containsOnly( 0, 1 );
+        assertThat( agenda.getMaxQueueDepths() ).contains( 20 );
+
+        ksession.dispose();
+    }
+
+    @Test(timeout = 40000L)
+    public void testRulesAreDistributedAmongTheConfiguredSlots() {
+        List<Integer> fired = Collections.synchronizedList( new ArrayList<>() );
+        KieBase kbase = newKieBase( fired, MultithreadEvaluationOption.YES, ParallelEvaluationSlotsOption.get( 3 ) );
+        KieSession ksession = kbase.newKieSession();
+        CompositeDefaultAgenda agenda = (CompositeDefaultAgenda) ((InternalWorkingMemory) ksession).getAgenda();
+
+        assertThat( ((RuleBase) kbase).getReteooBuilder().getTerminalNodes() ).hasSize( RULES );
+        int[] rulesPerSlot = new int[3];
+        for ( TerminalNode[] nodes : ((RuleBase) kbase).getReteooBuilder().getTerminalNodes().values() ) {
+            RuleBasePartitionId partition = nodes[0].getPartitionId();
+            assertThat( partition.getParallelEvaluationSlot() ).isEqualTo( partition.getId() % 3 );
+            rulesPerSlot[partition.getParallelEvaluationSlot()]++;
+        }
+
+        for ( int i = 0; i < RULES; i++ ) {
+            ksession.insert( FIRST_VALUE + i );
+        }
+        assertThat( ksession.fireAllRules() ).isEqualTo( RULES );
+        assertThat( fired ).hasSize( RULES );
+
+        // one agenda for each slot, each one evaluating the rules of its partitions
+        assertThat( agenda.getQueueDepths() ).isEqualTo( rulesPerSlot );
+
+        ksession.dispose();
+    }
+
+    static KieBase newKieBase( List<Integer> fired, KieBaseOption... options ) {
+        ModelImpl model = new ModelImpl();
+        for ( int i = 0; i < RULES; i++ ) {
+            int value = FIRST_VALUE + i;
+            Variable<Integer> var = declarationOf( Integer.class );
+            model.addRule( rule( "R" + i )
+                    .build( pattern( var ).expr( "exprR" + i, n -> n == value,
+                                                 alphaIndexedBy( int.class, Index.ConstraintType.EQUAL, 1, n -> n, value ) ),
+                            on( var ).execute( (Integer n) -> fired.add( n ) ) ) );
+        }
+        return KieBaseBuilder.createKieBaseFromModel( model, options );
+    }
+}
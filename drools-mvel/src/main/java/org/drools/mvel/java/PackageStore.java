@@ -14,6 +14,8 @@
 
 package org.drools.mvel.java;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.drools.core.rule.JavaDialectRuntimeData;
@@ -79,4 +81,17 @@ public class PackageStore
         }
     }
 
+    /**
+     * Lists the classes already compiled into the package, so that a CachingJavaCompiler can make them part of the
+     * key of the compilation, since they can be resolved by it
+     */
+    @Override
+    public Collection<PortablePath> getFilePaths() {
+        Collection<PortablePath> paths = new ArrayList<>();
+        for (String resourceName : this.javaDialectRuntimeData.getStore().keySet()) {
+            paths.add( PortablePath.of( resourceName ) );
+        }
+        return paths;
+    }
+
 }
@@ -16,12 +16,20 @@
 package org.drools.persistence;
 
 import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.drools.commands.ChainableRunner;
 import org.drools.commands.EntryPointCreator;
+import org.drools.commands.InternalLocalRunner;
+import org.drools.commands.InternalLocalRunner.SingleCommandExecutable;
 import org.drools.commands.SingleSessionCommandService;
 import org.drools.commands.fluent.InternalExecutable;
 import org.drools.commands.fluent.PseudoClockRunner;
@@ -50,6 +58,7 @@ import org.drools.persistence.jpa.processinstance.JPAWorkItemManager;
 import org.drools.serialization.protobuf.marshalling.KieSessionInitializer;
 import org.drools.serialization.protobuf.marshalling.MarshallingConfigurationImpl;
 import org.kie.api.KieBase;
+import org.kie.api.command.Command;
 import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.EnvironmentName;
@@ -59,6 +68,7 @@ import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.RequestContext;
 import org.kie.api.runtime.rule.EntryPoint;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -80,6 +90,15 @@ public class PersistableRunner implements SingleSessionCommandService {
 
     private LinkedList<ChainableRunner> interceptors = new LinkedList<>();
 
+    private final Deque<PendingCommand> pendingCommands = new ArrayDeque<>();
+    // the pending commands that can't be part of a group, flushing the commands submitted before them
+    private int                         pendingUngroupedCommands;
+    private boolean                     groupCommitScheduled;
+    private long                        groupCommitWindowNanos;
+    private int                         maxGroupSize;
+    // set while the commands of a group are executed in the transaction of the group
+    private boolean                     inGroupTransaction;
+
     public void checkEnvironment(Environment env) {
         if ( env.get( EnvironmentName.ENTITY_MANAGER_FACTORY ) == null &&
              env.get( EnvironmentName.PERSISTENCE_CONTEXT_MANAGER ) == null ) {
@@ -398,6 +417,198 @@ public class PersistableRunner implements SingleSessionCommandService {
         return ctx;
     }
 
+    /**
+     * Enables the group commit of the commands submitted through {@link #submit(Executable)}: the commands submitted
+     * within the given window after the first one, up to the given number, are executed in sequence and committed in
+     * a single transaction, marshalling the session once. A window of zero disables the group commit.
+     */
+    public void setGroupCommit( long window, TimeUnit unit, int maxGroupSize ) {
+        if ( maxGroupSize <= 0 ) {
+            throw new IllegalArgumentException( "The maximum number of commands of a group must be positive: " + maxGroupSize );
+        }
+        synchronized ( pendingCommands ) {
+            this.groupCommitWindowNanos = unit.toNanos( window );
+            this.maxGroupSize = maxGroupSize;
+        }
+    }
+
+    public boolean isGroupCommit() {
+        synchronized ( pendingCommands ) {
+            return groupCommitWindowNanos > 0;
+        }
+    }
+
+    /**
+     * Executes the given executable, together with the ones submitted by other callers when the group commit is
+     * enabled, returning a future completed when it has been committed. When the group commit is disabled, or the
+     * caller is already in a transaction, the executable is executed and committed immediately.
+     *
+     * An executable that can't run in a transaction, like the disposal of the session, is never grouped: the group
+     * of the commands submitted before it is committed right away, and then it's executed alone.
+     */
+    public CompletableFuture<RequestContext> submit( Executable executable ) {
+        PendingCommand pending = new PendingCommand( executable );
+        synchronized ( pendingCommands ) {
+            if ( groupCommitWindowNanos > 0 && txm.getStatus() != TransactionManager.STATUS_ACTIVE &&
+                 ( pending.groupable || groupCommitScheduled ) ) {
+                pendingCommands.add( pending );
+                if ( !pending.groupable ) {
+                    pendingUngroupedCommands++;
+                }
+                if ( !groupCommitScheduled ) {
+                    groupCommitScheduled = true;
+                    ExecutorProviderFactory.getExecutorProvider().getExecutor().execute( this::commitGroups );
+                } else if ( pendingCommands.size() >= maxGroupSize || !pending.groupable ) {
+                    pendingCommands.notifyAll();
+                }
+                return pending.future;
+            }
+        }
+        executeAndComplete( pending );
+        return pending.future;
+    }
+
+    public <T> CompletableFuture<T> submit( Command<T> command ) {
+        return submit( new SingleCommandExecutable( command ) )
+                .thenApply( ctx -> InternalLocalRunner.getResult( command, ctx ) );
+    }
+
+    private void commitGroups() {
+        boolean first = true;
+        while ( true ) {
+            List<PendingCommand> group = new ArrayList<>();
+            synchronized ( pendingCommands ) {
+                if ( first || !pendingCommands.isEmpty() ) {
+                    waitGroup();
+                }
+                while ( group.size() < maxGroupSize && !pendingCommands.isEmpty() ) {
+                    if ( !pendingCommands.peek().groupable ) {
+                        // an ungrouped command ends the group, or is executed alone
+                        if ( group.isEmpty() ) {
+                            group.add( pendingCommands.poll() );
+                            pendingUngroupedCommands--;
+                        }
+                        break;
+                    }
+                    group.add( pendingCommands.poll() );
+                }
+                if ( group.isEmpty() ) {
+                    groupCommitScheduled = false;
+                    return;
+                }
+            }
+            first = false;
+            commitGroup( group );
+        }
+    }
+
+    private void waitGroup() {
+        long deadline = System.nanoTime() + groupCommitWindowNanos;
+        long remaining;
+        while ( pendingCommands.size() < maxGroupSize && pendingUngroupedCommands == 0 &&
+                ( remaining = deadline - System.nanoTime() ) > 0 ) {
+            try {
+                TimeUnit.NANOSECONDS.timedWait( pendingCommands, remaining );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Executes the given commands and commits them in a single transaction. When one of them fails the whole
+     * transaction is rolled back and the session is reloaded from its last committed state: the failing command and
+     * the ones preceding it are completed exceptionally, since executing the preceding ones again could repeat their
+     * side effects, while the ones following it, which haven't been executed yet, are committed as a new group.
+     */
+    private synchronized void commitGroup( List<PendingCommand> group ) {
+        if ( group.size() == 1 ) {
+            executeAndComplete( group.get( 0 ) );
+            return;
+        }
+
+        PersistenceContext persistenceContext = jpm.getApplicationScopedPersistenceContext();
+        boolean transactionOwner = false;
+        int executed = 0;
+        try {
+            transactionOwner = txm.begin();
+            persistenceContext.joinTransaction();
+
+            initExistingKnowledgeSession( sessionInfo.getId(),
+                                          marshallingHelper.getKbase(),
+                                          marshallingHelper.getConf(),
+                                          persistenceContext );
+
+            jpm.beginCommandScopedEntityManager();
+
+            registerRollbackSync();
+
+            inGroupTransaction = true;
+            try {
+                for ( PendingCommand pending : group ) {
+                    runner.execute( pending.executable, pending.context );
+                    executed++;
+                }
+            } finally {
+                inGroupTransaction = false;
+            }
+
+            registerUpdateSync();
+            txm.commit( transactionOwner );
+        } catch ( Exception e ) {
+            RuntimeException failure = e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException( "Wrapped exception see cause", e );
+            try {
+                rollbackTransaction( e, transactionOwner );
+            } catch ( RuntimeException rollbackError ) {
+                // the state of the session is unknown, so none of the commands can be executed again
+                group.forEach( pending -> pending.future.completeExceptionally( rollbackError ) );
+                return;
+            }
+            // not every transaction manager notifies the rollback, e.g. the map based one doesn't, so the session
+            // is explicitly reloaded from its last committed state, discarding the commands preceding the failing one
+            rollback();
+            if ( executed == group.size() ) {
+                // all the commands have been executed, the failure comes from the commit
+                group.forEach( pending -> pending.future.completeExceptionally( failure ) );
+                return;
+            }
+            for ( PendingCommand pending : group.subList( 0, executed ) ) {
+                pending.future.completeExceptionally( new RuntimeException( "Command rolled back together with a failing command of its group", failure ) );
+            }
+            group.get( executed ).future.completeExceptionally( failure );
+            List<PendingCommand> notExecuted = group.subList( executed + 1, group.size() );
+            if ( !notExecuted.isEmpty() ) {
+                commitGroup( new ArrayList<>( notExecuted ) );
+            }
+            return;
+        }
+
+        group.forEach( pending -> pending.future.complete( pending.context ) );
+    }
+
+    private void executeAndComplete( PendingCommand pending ) {
+        try {
+            pending.future.complete( execute( pending.executable, pending.context ) );
+        } catch ( RuntimeException e ) {
+            pending.future.completeExceptionally( e );
+        }
+    }
+
+    private class PendingCommand {
+        private final Executable executable;
+        private final boolean groupable;
+        private final CompletableFuture<RequestContext> future = new CompletableFuture<>();
+        private RequestContext context;
+
+        private PendingCommand( Executable executable ) {
+            this.executable = executable;
+            this.groupable = ( (InternalExecutable) executable ).canRunInTransaction() &&
+                             !( (InternalExecutable) executable ).requiresDispose();
+            this.context = createContext();
+        }
+    }
+
     private void rollbackTransaction( Exception t1, boolean transactionOwner ) {
         rollbackTransaction(t1, transactionOwner, true);
     }
@@ -580,6 +791,12 @@ public class PersistableRunner implements SingleSessionCommandService {
                 return context;
             }
 
+            if ( inGroupTransaction ) {
+                // the transaction of the group is committed after all its commands
+                executeNext(executable, context);
+                return context;
+            }
+
             // Open the entity manager before the transaction begins.
             PersistenceContext persistenceContext = jpm.getApplicationScopedPersistenceContext();
             // We flag the current persistence runner
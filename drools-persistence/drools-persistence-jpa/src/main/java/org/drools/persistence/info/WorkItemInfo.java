@@ -77,6 +77,23 @@ public class WorkItemInfo implements PersistentWorkItem {
     protected WorkItemInfo() {
     }
 
+    /**
+     * Restores a work item stored outside of a JPA persistence context
+     */
+    public WorkItemInfo(Long workItemId,
+                        String name,
+                        Date creationDate,
+                        String processInstanceId,
+                        long state,
+                        byte[] workItemByteArray) {
+        this.workItemId = workItemId;
+        this.name = name;
+        this.creationDate = creationDate;
+        this.processInstanceId = processInstanceId;
+        this.state = state;
+        this.workItemByteArray = workItemByteArray;
+    }
+
     public WorkItemInfo(WorkItem workItem, Environment env) {
         this.workItem = workItem;
         this.name = workItem.getName();
@@ -109,14 +109,14 @@ public class MapBasedPersistenceContext
     }
 
     public void remove(PersistentWorkItem workItem) {
-        if( !(workItems.remove( workItem.getId() ) == null) ){
-            storage.remove( workItem );
-        }
+        workItems.remove( workItem.getId() );
+        // the work item could have been stored by a previous transaction
+        storage.remove( workItem );
     }
 
     public PersistentWorkItem merge(PersistentWorkItem workItem) {
-        storage.saveOrUpdate(workItem);
-        return workItem;
+        // stored, as the persisted ones, when the transaction commits, after having been transformed
+        return persist( workItem );
     }
 
     public void lock(PersistentSession session) {
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.persistence.map;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.drools.persistence.api.PersistentSession;
+import org.drools.persistence.api.PersistentWorkItem;
+import org.drools.persistence.info.SessionInfo;
+import org.drools.persistence.info.WorkItemInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link KnowledgeSessionStorage} keeping the marshalled sessions and work items in local memory-mapped files,
+ * for single node deployments that don't want a database in the commit path. It can be plugged into the
+ * persistent sessions through a {@link KnowledgeSessionStorageEnvironmentBuilder}.
+ *
+ * Every saved session or work item is appended as a checksummed record to a change log. When the log grows
+ * beyond the configured size, the current state is written to a new snapshot file, atomically replacing the
+ * previous one, and a new log is started. When the storage is opened, the snapshot is read and the records of
+ * the log are replayed on top of it, discarding a record partially written by a crash and anything after it.
+ *
+ * Only the tail of the change log being appended is memory-mapped, a region at a time, while the snapshot and
+ * the replayed log are streamed, so that the size of the files isn't limited by the size of a mapped region.
+ */
+public class MappedFileKnowledgeSessionStorage
+    implements
+    KnowledgeSessionStorage,
+    Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger( MappedFileKnowledgeSessionStorage.class );
+
+    public static final long DEFAULT_MAX_LOG_SIZE = 64L * 1024 * 1024;
+
+    private static final String SNAPSHOT_FILE = "snapshot.dat";
+    private static final String LOG_FILE_PREFIX = "changes-";
+    private static final String LOG_FILE_SUFFIX = ".log";
+
+    private static final int SNAPSHOT_MAGIC = 0x4B534E50;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final int LOG_REGION_SIZE = 4 * 1024 * 1024;
+
+    private static final int IO_BUFFER_SIZE = 64 * 1024;
+
+    // length, checksum, type and id preceding the payload of each record, the length including all of them
+    private static final int RECORD_HEADER_SIZE = 4 + 8 + 1 + 8;
+
+    private static final byte SESSION_RECORD = 1;
+    private static final byte WORK_ITEM_RECORD = 2;
+    private static final byte WORK_ITEM_REMOVED_RECORD = 3;
+
+    private final Path directory;
+    private final long maxLogSize;
+    private final boolean forceOnWrite;
+
+    private final Map<Long, byte[]> ksessions = new HashMap<>();
+    private final Map<Long, byte[]> workItems = new HashMap<>();
+    private long lastSessionId;
+    private long lastWorkItemId;
+
+    private long generation;
+    private FileChannel logChannel;
+    private MappedByteBuffer logRegion;
+    private long logRegionStart;
+    private long logPosition;
+
+    public MappedFileKnowledgeSessionStorage(Path directory) {
+        this( directory, DEFAULT_MAX_LOG_SIZE, true );
+    }
+
+    /**
+     * @param directory the directory of the files of the storage, created if it doesn't exist
+     * @param maxLogSize the size of the change log beyond which a new snapshot is written
+     * @param forceOnWrite whether each record is forced to the storage device before returning, otherwise
+     *                     the records of a crashed process are still recovered, but not the ones of a crashed node
+     */
+    public MappedFileKnowledgeSessionStorage(Path directory,
+                                             long maxLogSize,
+                                             boolean forceOnWrite) {
+        this.directory = directory;
+        this.maxLogSize = maxLogSize;
+        this.forceOnWrite = forceOnWrite;
+        try {
+            Files.createDirectories( directory );
+            readSnapshot();
+            openLog();
+            deleteOldLogs();
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Unable to open the session storage in " + directory, e );
+        }
+    }
+
+    public synchronized PersistentSession findSessionInfo(Long sessionId) {
+        byte[] data = ksessions.get( sessionId );
+        if ( data == null ) {
+            return null;
+        }
+        SessionInfo sessionInfo = new SessionInfo();
+        sessionInfo.setId( sessionId );
+        sessionInfo.setData( data );
+        return sessionInfo;
+    }
+
+    public synchronized void saveOrUpdate(PersistentSession storedObject) {
+        byte[] data = storedObject.getData();
+        append( SESSION_RECORD, storedObject.getId(), data );
+        ksessions.put( storedObject.getId(), data );
+        compactIfNeeded();
+    }
+
+    public void lock(PersistentSession session) {
+        throw new UnsupportedOperationException("Map based persistence does not support locking.");
+    }
+
+    public synchronized void saveOrUpdate(PersistentWorkItem workItem) {
+        if ( ( (WorkItemInfo) workItem ).getWorkItemByteArray() == null ) {
+            // not yet serialized, as when stored without going through the commit of a transaction
+            workItem.transform();
+        }
+        byte[] data = writeWorkItem( (WorkItemInfo) workItem );
+        append( WORK_ITEM_RECORD, workItem.getId(), data );
+        workItems.put( workItem.getId(), data );
+        compactIfNeeded();
+    }
+
+    public synchronized Long getNextWorkItemId() {
+        return ++lastWorkItemId;
+    }
+
+    public synchronized PersistentWorkItem findWorkItemInfo(Long id) {
+        byte[] data = workItems.get( id );
+        return data == null ? null : readWorkItem( id, data );
+    }
+
+    public synchronized void remove(PersistentWorkItem workItem) {
+        if ( workItems.remove( workItem.getId() ) != null ) {
+            append( WORK_ITEM_REMOVED_RECORD, workItem.getId(), new byte[0] );
+            compactIfNeeded();
+        }
+    }
+
+    public void lock(PersistentWorkItem workItem) {
+        throw new UnsupportedOperationException("Map based persistence does not support locking.");
+    }
+
+    public synchronized Long getNextStatefulKnowledgeSessionId() {
+        return ++lastSessionId;
+    }
+
+    /**
+     * Writes the current state to a new snapshot and starts a new change log
+     */
+    public synchronized void compact() {
+        try {
+            writeSnapshot( generation + 1 );
+            Path oldLog = getLogFile( generation );
+            logChannel.close();
+            generation++;
+            openLog();
+            Files.deleteIfExists( oldLog );
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Unable to compact the session storage in " + directory, e );
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if ( logChannel.isOpen() ) {
+            logRegion.force();
+            logChannel.close();
+        }
+    }
+
+    private void append(byte type, long id, byte[] payload) {
+        if ( payload.length > Integer.MAX_VALUE - RECORD_HEADER_SIZE ) {
+            throw new IllegalArgumentException( "Unable to store a record of " + payload.length + " bytes in the session storage in " + directory );
+        }
+        int length = RECORD_HEADER_SIZE + payload.length;
+        try {
+            if ( logRegion.remaining() < length ) {
+                mapLogRegion( logPosition, Math.max( LOG_REGION_SIZE, length ) );
+            }
+            int start = logRegion.position();
+            logRegion.position( start + 4 );
+            logRegion.putLong( checksum( type, id, payload ) );
+            logRegion.put( type );
+            logRegion.putLong( id );
+            logRegion.put( payload );
+            // the length is written last, so that a record isn't visible until it is complete
+            logRegion.putInt( start, length );
+            if ( forceOnWrite ) {
+                logRegion.force();
+            }
+            logPosition += length;
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Unable to write to the session storage in " + directory, e );
+        }
+    }
+
+    private void compactIfNeeded() {
+        if ( logPosition > maxLogSize ) {
+            compact();
+        }
+    }
+
+    private void openLog() throws IOException {
+        Path logFile = getLogFile( generation );
+        logChannel = FileChannel.open( logFile,
+                                       StandardOpenOption.CREATE,
+                                       StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE );
+        long size = logChannel.size();
+        logPosition = size > 0 ? readRecords( logChannel ) : 0;
+
+        // drop what follows the last complete record, so that it isn't mistaken for a record when replayed
+        if ( size > logPosition ) {
+            if ( hasContent( logChannel, logPosition, size ) ) {
+                logger.warn( "Discarded a record not completely written at the end of the change log {}", logFile );
+            }
+            logChannel.truncate( logPosition );
+            logChannel.force( true );
+        }
+        mapLogRegion( logPosition, LOG_REGION_SIZE );
+    }
+
+    private void mapLogRegion(long start, long size) throws IOException {
+        logRegion = logChannel.map( FileChannel.MapMode.READ_WRITE, start, size );
+        logRegionStart = start;
+    }
+
+    private void readSnapshot() throws IOException {
+        Path snapshotFile = directory.resolve( SNAPSHOT_FILE );
+        if ( !Files.exists( snapshotFile ) ) {
+            return;
+        }
+        try (DataInputStream snapshot = new DataInputStream( new BufferedInputStream( Files.newInputStream( snapshotFile ), IO_BUFFER_SIZE ) )) {
+            if ( snapshot.readInt() != SNAPSHOT_MAGIC ) {
+                throw new IOException( snapshotFile + " is not a snapshot of a session storage" );
+            }
+            int version = snapshot.readInt();
+            if ( version != SNAPSHOT_VERSION ) {
+                throw new IOException( "Unsupported version " + version + " of session storage snapshot " + snapshotFile );
+            }
+            generation = snapshot.readLong();
+            int records = snapshot.readInt();
+            for ( int i = 0; i < records; i++ ) {
+                if ( !readRecord( snapshot ) ) {
+                    throw new IOException( "Corrupted session storage snapshot " + snapshotFile );
+                }
+            }
+        }
+    }
+
+    private void writeSnapshot(long snapshotGeneration) throws IOException {
+        Path tmpFile = directory.resolve( SNAPSHOT_FILE + ".tmp" );
+        try (FileChannel channel = FileChannel.open( tmpFile,
+                                                     StandardOpenOption.CREATE,
+                                                     StandardOpenOption.TRUNCATE_EXISTING,
+                                                     StandardOpenOption.WRITE )) {
+            DataOutputStream snapshot = new DataOutputStream( new BufferedOutputStream( Channels.newOutputStream( channel ), IO_BUFFER_SIZE ) );
+            snapshot.writeInt( SNAPSHOT_MAGIC );
+            snapshot.writeInt( SNAPSHOT_VERSION );
+            snapshot.writeLong( snapshotGeneration );
+            snapshot.writeInt( ksessions.size() + workItems.size() );
+            for ( Map.Entry<Long, byte[]> entry : ksessions.entrySet() ) {
+                writeRecord( snapshot, SESSION_RECORD, entry.getKey(), entry.getValue() );
+            }
+            for ( Map.Entry<Long, byte[]> entry : workItems.entrySet() ) {
+                writeRecord( snapshot, WORK_ITEM_RECORD, entry.getKey(), entry.getValue() );
+            }
+            snapshot.flush();
+            channel.force( true );
+        }
+        // the records of the previous log are already in the snapshot, so replaying them after a crash is harmless
+        Files.move( tmpFile, directory.resolve( SNAPSHOT_FILE ),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+    }
+
+    private static void writeRecord(DataOutputStream out, byte type, long id, byte[] payload) throws IOException {
+        out.writeInt( RECORD_HEADER_SIZE + payload.length );
+        out.writeLong( checksum( type, id, payload ) );
+        out.writeByte( type );
+        out.writeLong( id );
+        out.write( payload );
+    }
+
+    /**
+     * Applies the complete records of the given log, returning the position following the last one
+     */
+    private long readRecords(FileChannel channel) throws IOException {
+        long remaining = channel.size();
+        DataInputStream log = new DataInputStream( new BufferedInputStream( Channels.newInputStream( channel.position( 0 ) ), IO_BUFFER_SIZE ) );
+        long position = 0;
+        for ( int length = readRecord( log, remaining ); length > 0; length = readRecord( log, remaining ) ) {
+            position += length;
+            remaining -= length;
+        }
+        return position;
+    }
+
+    private boolean readRecord(DataInputStream in) throws IOException {
+        return readRecord( in, Long.MAX_VALUE ) > 0;
+    }
+
+    /**
+     * Applies the next record, returning its length or -1 if it is missing, incomplete or corrupted
+     */
+    private int readRecord(DataInputStream in, long available) throws IOException {
+        if ( available < RECORD_HEADER_SIZE ) {
+            return -1;
+        }
+        long checksum;
+        byte type;
+        long id;
+        byte[] payload;
+        int length;
+        try {
+            length = in.readInt();
+            if ( length < RECORD_HEADER_SIZE || length > available ) {
+                return -1;
+            }
+            checksum = in.readLong();
+            type = in.readByte();
+            id = in.readLong();
+            payload = new byte[length - RECORD_HEADER_SIZE];
+            in.readFully( payload );
+        } catch ( EOFException e ) {
+            return -1;
+        }
+        if ( checksum != checksum( type, id, payload ) ) {
+            return -1;
+        }
+
+        switch ( type ) {
+            case SESSION_RECORD:
+                ksessions.put( id, payload );
+                lastSessionId = Math.max( lastSessionId, id );
+                break;
+            case WORK_ITEM_RECORD:
+                workItems.put( id, payload );
+                lastWorkItemId = Math.max( lastWorkItemId, id );
+                break;
+            case WORK_ITEM_REMOVED_RECORD:
+                workItems.remove( id );
+                lastWorkItemId = Math.max( lastWorkItemId, id );
+                break;
+            default:
+                return -1;
+        }
+        return length;
+    }
+
+    private static boolean hasContent(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate( IO_BUFFER_SIZE );
+        for ( long position = from; position < to; ) {
+            buffer.clear();
+            int read = channel.read( buffer, position );
+            if ( read <= 0 ) {
+                return false;
+            }
+            for ( int i = 0; i < read && position + i < to; i++ ) {
+                if ( buffer.get( i ) != 0 ) {
+                    return true;
+                }
+            }
+            position += read;
+        }
+        return false;
+    }
+
+    private static long checksum(byte type, long id, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update( type );
+        for ( int i = 0; i < 8; i++ ) {
+            crc.update( (int) ( id >>> ( 8 * i ) ) );
+        }
+        crc.update( payload );
+        return crc.getValue();
+    }
+
+    private static byte[] writeWorkItem(WorkItemInfo workItem) {
+        byte[] name = workItem.getName() == null ? new byte[0] : workItem.getName().getBytes( StandardCharsets.UTF_8 );
+        byte[] processInstanceId = workItem.getProcessInstanceId() == null ? null : workItem.getProcessInstanceId().getBytes( StandardCharsets.UTF_8 );
+        byte[] data = workItem.getWorkItemByteArray();
+        ByteBuffer buffer = ByteBuffer.allocate( 4 + name.length +
+                                                 4 + ( processInstanceId == null ? 0 : processInstanceId.length ) +
+                                                 8 + 8 + data.length );
+        buffer.putInt( name.length ).put( name );
+        if ( processInstanceId == null ) {
+            buffer.putInt( -1 );
+        } else {
+            buffer.putInt( processInstanceId.length ).put( processInstanceId );
+        }
+        buffer.putLong( workItem.getCreationDate() == null ? -1 : workItem.getCreationDate().getTime() );
+        buffer.putLong( workItem.getState() );
+        buffer.put( data );
+        return buffer.array();
+    }
+
+    private static WorkItemInfo readWorkItem(Long id, byte[] record) {
+        ByteBuffer buffer = ByteBuffer.wrap( record );
+        String name = new String( readBytes( buffer, buffer.getInt() ), StandardCharsets.UTF_8 );
+        int processInstanceIdLength = buffer.getInt();
+        String processInstanceId = processInstanceIdLength < 0 ?
+                null :
+                new String( readBytes( buffer, processInstanceIdLength ), StandardCharsets.UTF_8 );
+        long creationTime = buffer.getLong();
+        long state = buffer.getLong();
+        byte[] data = readBytes( buffer, buffer.remaining() );
+        return new WorkItemInfo( id, name, creationTime < 0 ? null : new Date( creationTime ), processInstanceId, state, data );
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get( bytes );
+        return bytes;
+    }
+
+    private Path getLogFile(long logGeneration) {
+        return directory.resolve( LOG_FILE_PREFIX + logGeneration + LOG_FILE_SUFFIX );
+    }
+
+    private void deleteOldLogs() throws IOException {
+        // the previous log is left behind by a crash during a compaction, after its records were written to the snapshot
+        if ( generation > 0 ) {
+            Files.deleteIfExists( getLogFile( generation - 1 ) );
+        }
+    }
+}
@@ -15,21 +15,37 @@
  */
 package org.drools.persistence.map.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.drools.commands.impl.CommandBasedStatefulKnowledgeSessionImpl;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.drools.persistence.PersistableRunner;
 import org.drools.persistence.api.PersistentSession;
 import org.drools.persistence.api.PersistentWorkItem;
 import org.drools.persistence.map.EnvironmentBuilder;
 import org.drools.persistence.map.KnowledgeSessionStorage;
 import org.drools.persistence.map.KnowledgeSessionStorageEnvironmentBuilder;
 import org.junit.Before;
+import org.junit.Test;
 import org.kie.api.KieBase;
 import org.kie.api.KieServices;
+import org.kie.api.command.ExecutableCommand;
 import org.kie.internal.persistence.jpa.JPAKnowledgeService;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.EnvironmentName;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.command.CommandFactory;
+import org.kie.internal.command.RegistryContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 public class MapBasedPersistenceTest extends MapPersistenceTest{
     
@@ -59,16 +75,103 @@ public class MapBasedPersistenceTest extends MapPersistenceTest{
     protected KieSession disposeAndReloadSession(KieSession ksession, KieBase kbase) {
         long sessionId = ksession.getIdentifier();
         ksession.dispose();
+        return loadSession( sessionId, kbase );
+    }
+    
+    @Test
+    public void testGroupCommit() throws Exception {
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        KieSession ksession = createSession( kbase );
+        PersistableRunner runner = (PersistableRunner) ((CommandBasedStatefulKnowledgeSessionImpl) ksession).getRunner();
+        runner.setGroupCommit( 10, TimeUnit.SECONDS, 10 );
+
+        int savedSessions = storage.savedSessions;
+        List<CompletableFuture<FactHandle>> futures = new ArrayList<>();
+        for ( int i = 0; i < 10; i++ ) {
+            futures.add( runner.submit( CommandFactory.newInsert( new Buddy( "buddy" + i ) ) ) );
+        }
+        for ( CompletableFuture<FactHandle> future : futures ) {
+            assertThat( future.get( 10, TimeUnit.SECONDS ) ).isNotNull();
+        }
+        // the whole group has been committed with a single snapshot of the session
+        assertThat( storage.savedSessions - savedSessions ).isEqualTo( 1 );
+
+        ksession = disposeAndReloadSession( ksession, kbase );
+        assertThat( ksession.getObjects() ).hasSize( 10 );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testGroupCommitWithFailingCommand() throws Exception {
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        KieSession ksession = createSession( kbase );
+        long sessionId = ksession.getIdentifier();
+        PersistableRunner runner = (PersistableRunner) ((CommandBasedStatefulKnowledgeSessionImpl) ksession).getRunner();
+        runner.setGroupCommit( 10, TimeUnit.SECONDS, 4 );
+
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<Object> preceding = runner.submit( (ExecutableCommand<Object>) context -> {
+            executions.incrementAndGet();
+            return ( (RegistryContext) context ).lookup( KieSession.class ).insert( new Buddy( "preceding" ) );
+        } );
+        CompletableFuture<Object> failing = runner.submit( (ExecutableCommand<Object>) context -> {
+            throw new IllegalStateException( "failing command" );
+        } );
+        CompletableFuture<FactHandle> following1 = runner.submit( CommandFactory.newInsert( new Buddy( "following1" ) ) );
+        CompletableFuture<FactHandle> following2 = runner.submit( CommandFactory.newInsert( new Buddy( "following2" ) ) );
+
+        assertThatThrownBy( () -> failing.get( 10, TimeUnit.SECONDS ) ).hasRootCauseInstanceOf( IllegalStateException.class );
+        // the preceding command has been rolled back with the failing one, but not executed again
+        assertThatThrownBy( () -> preceding.get( 10, TimeUnit.SECONDS ) ).hasRootCauseInstanceOf( IllegalStateException.class );
+        assertThat( executions.get() ).isEqualTo( 1 );
+        // the following commands have been committed by themselves
+        assertThat( following1.get( 10, TimeUnit.SECONDS ) ).isNotNull();
+        assertThat( following2.get( 10, TimeUnit.SECONDS ) ).isNotNull();
+        assertThat( new ArrayList<Object>( runner.getKieSession().getObjects() ) ).containsExactlyInAnyOrder( new Buddy( "following1" ), new Buddy( "following2" ) );
+
+        ksession.dispose();
+        ksession = loadSession( sessionId, kbase );
+        // the fact inserted by the preceding command has been discarded by the rollback
+        assertThat( new ArrayList<Object>( ksession.getObjects() ) ).containsExactlyInAnyOrder( new Buddy( "following1" ), new Buddy( "following2" ) );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testDisposeFlushesGroupCommit() throws Exception {
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        KieSession ksession = createSession( kbase );
+        long sessionId = ksession.getIdentifier();
+        PersistableRunner runner = (PersistableRunner) ((CommandBasedStatefulKnowledgeSessionImpl) ksession).getRunner();
+        runner.setGroupCommit( 1, TimeUnit.MINUTES, 10 );
+
+        int savedSessions = storage.savedSessions;
+        List<CompletableFuture<FactHandle>> futures = new ArrayList<>();
+        for ( int i = 0; i < 3; i++ ) {
+            futures.add( runner.submit( CommandFactory.newInsert( new Buddy( "buddy" + i ) ) ) );
+        }
+        // the disposal doesn't wait for the window of the group, which is committed before it
+        runner.submit( CommandFactory.newDispose() ).get( 10, TimeUnit.SECONDS );
+        for ( CompletableFuture<FactHandle> future : futures ) {
+            assertThat( future ).isDone();
+            assertThat( future.get() ).isNotNull();
+        }
+        assertThat( storage.savedSessions - savedSessions ).isEqualTo( 1 );
+
+        ksession = loadSession( sessionId, kbase );
+        assertThat( ksession.getObjects() ).hasSize( 3 );
+        ksession.dispose();
+    }
+
+    private KieSession loadSession(long sessionId, KieBase kbase) {
         EnvironmentBuilder envBuilder = new KnowledgeSessionStorageEnvironmentBuilder( storage );
         Environment env = KieServices.Factory.get().newEnvironment();
         env.set( EnvironmentName.TRANSACTION_MANAGER,
                  envBuilder.getTransactionManager() );
         env.set( EnvironmentName.PERSISTENCE_CONTEXT_MANAGER,
                  envBuilder.getPersistenceContextManager() );
-        
         return JPAKnowledgeService.loadStatefulKnowledgeSession( sessionId, kbase, null, env );
     }
-    
+
     @Override
     protected long getSavedSessionsCount() {
         return storage.ksessions.size();
@@ -80,6 +183,7 @@ public class MapBasedPersistenceTest extends MapPersistenceTest{
 
         public Map<Long, PersistentSession>  ksessions = new HashMap<Long, PersistentSession>();
         public Map<Long, PersistentWorkItem> workItems = new HashMap<Long, PersistentWorkItem>();
+        public int savedSessions;
 
         public PersistentSession findSessionInfo(Long id) {
             return ksessions.get( id );
@@ -88,6 +192,7 @@ public class MapBasedPersistenceTest extends MapPersistenceTest{
         public void saveOrUpdate(PersistentSession storedObject) {
             ksessions.put( storedObject.getId(),
                            storedObject );
+            savedSessions++;
         }
 
         public void saveOrUpdate(PersistentWorkItem workItem) {
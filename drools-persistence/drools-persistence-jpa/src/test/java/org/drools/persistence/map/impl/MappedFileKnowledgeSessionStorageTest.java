@@ -0,0 +1,259 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.persistence.map.impl;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.process.WorkItemManager;
+import org.drools.core.process.impl.WorkItemImpl;
+import org.drools.core.runtime.process.ProcessRuntimeFactoryService;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.drools.kiesession.session.ProcessRuntimeFactory;
+import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
+import org.drools.persistence.info.SessionInfo;
+import org.drools.persistence.info.WorkItemInfo;
+import org.drools.persistence.map.EnvironmentBuilder;
+import org.drools.persistence.map.KnowledgeSessionStorageEnvironmentBuilder;
+import org.drools.persistence.map.MappedFileKnowledgeSessionStorage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.KieBase;
+import org.kie.api.command.ExecutableCommand;
+import org.kie.api.runtime.Context;
+import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.process.ProcessInstance;
+import org.kie.api.runtime.process.WorkItem;
+import org.kie.api.runtime.process.WorkItemHandler;
+import org.kie.internal.command.RegistryContext;
+import org.kie.internal.persistence.jpa.JPAKnowledgeService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedFileKnowledgeSessionStorageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ProcessRuntimeFactoryService processRuntimeFactoryService;
+
+    @Before
+    public void setUpProcessRuntime() {
+        // the work items don't belong to any process instance, as there is no process runtime in this module
+        processRuntimeFactoryService = ProcessRuntimeFactory.getProcessRuntimeFactoryService();
+        ProcessRuntimeFactory.setProcessRuntimeFactoryService(workingMemory -> new StatefulKnowledgeSessionImpl.DummyInternalProcessRuntime() {
+            @Override
+            public ProcessInstance getProcessInstance(String processInstanceId) {
+                return null;
+            }
+        });
+    }
+
+    @After
+    public void tearDownProcessRuntime() {
+        ProcessRuntimeFactory.setProcessRuntimeFactoryService(processRuntimeFactoryService);
+    }
+
+    @Test
+    public void testRecoverSessionsAndWorkItems() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            long id = storage.getNextStatefulKnowledgeSessionId();
+            storage.saveOrUpdate(session(id, "v1"));
+            storage.saveOrUpdate(session(id, "v2"));
+            storage.saveOrUpdate(session(storage.getNextStatefulKnowledgeSessionId(), "other"));
+
+            storage.saveOrUpdate(workItem(storage.getNextWorkItemId(), "kept"));
+            WorkItemInfo removed = workItem(storage.getNextWorkItemId(), "removed");
+            storage.saveOrUpdate(removed);
+            storage.remove(removed);
+        }
+
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            assertThat(storage.findSessionInfo(1L).getData()).isEqualTo("v2".getBytes());
+            assertThat(storage.findSessionInfo(2L).getData()).isEqualTo("other".getBytes());
+            assertThat(storage.getNextStatefulKnowledgeSessionId()).isEqualTo(3L);
+
+            WorkItemInfo workItem = (WorkItemInfo) storage.findWorkItemInfo(1L);
+            assertThat(workItem.getName()).isEqualTo("kept");
+            assertThat(workItem.getProcessInstanceId()).isEqualTo("process");
+            assertThat(workItem.getCreationDate()).isEqualTo(new Date(1000));
+            assertThat(workItem.getState()).isEqualTo(1);
+            assertThat(workItem.getWorkItemByteArray()).isEqualTo("kept".getBytes());
+            assertThat(storage.findWorkItemInfo(2L)).isNull();
+            assertThat(storage.getNextWorkItemId()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    public void testDiscardIncompleteRecord() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            storage.saveOrUpdate(session(1, "complete"));
+            storage.saveOrUpdate(session(1, "torn"));
+        }
+
+        // corrupt the payload of the last record, as if the process crashed while writing it
+        long tornRecord = (4 + 8 + 1 + 8) + "complete".length();
+        try (RandomAccessFile log = new RandomAccessFile(directory.resolve("changes-0.log").toFile(), "rw")) {
+            log.seek(tornRecord + 4 + 8 + 1 + 8);
+            log.write('X');
+        }
+
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            assertThat(storage.findSessionInfo(1L).getData()).isEqualTo("complete".getBytes());
+            storage.saveOrUpdate(session(1, "new"));
+        }
+
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            assertThat(storage.findSessionInfo(1L).getData()).isEqualTo("new".getBytes());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory, 256, false)) {
+            for (int i = 0; i < 100; i++) {
+                storage.saveOrUpdate(session(1 + i % 3, "version" + i));
+            }
+        }
+
+        assertThat(directory.resolve("snapshot.dat")).exists();
+        assertThat(directory.resolve("changes-0.log")).doesNotExist();
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            assertThat(storage.findSessionInfo(1L).getData()).isEqualTo("version99".getBytes());
+            assertThat(storage.findSessionInfo(2L).getData()).isEqualTo("version97".getBytes());
+            assertThat(storage.findSessionInfo(3L).getData()).isEqualTo("version98".getBytes());
+        }
+    }
+
+    @Test
+    public void testCompleteWorkItemSynchronously() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        List<Long> completed = new ArrayList<>();
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            KieSession ksession = JPAKnowledgeService.newStatefulKnowledgeSession(kbase, null, createEnvironment(storage));
+            ksession.getWorkItemManager().registerWorkItemHandler("sync", new WorkItemHandler() {
+                public void executeWorkItem(WorkItem workItem, org.kie.api.runtime.process.WorkItemManager manager) {
+                    completed.add(workItem.getId());
+                    manager.completeWorkItem(workItem.getId(), Collections.emptyMap());
+                }
+
+                public void abortWorkItem(WorkItem workItem, org.kie.api.runtime.process.WorkItemManager manager) {
+                }
+            });
+
+            ksession.execute(new ExecuteWorkItemCommand("sync"));
+            assertThat(completed).hasSize(1);
+            assertThat(storage.findWorkItemInfo(completed.get(0))).isNull();
+            ksession.dispose();
+        }
+
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            assertThat(storage.findWorkItemInfo(completed.get(0))).isNull();
+        }
+    }
+
+    @Test
+    public void testCompletePendingWorkItemAfterReopening() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        List<Long> pending = new ArrayList<>();
+        long sessionId;
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            KieSession ksession = JPAKnowledgeService.newStatefulKnowledgeSession(kbase, null, createEnvironment(storage));
+            sessionId = ksession.getIdentifier();
+            ksession.getWorkItemManager().registerWorkItemHandler("async", new WorkItemHandler() {
+                public void executeWorkItem(WorkItem workItem, org.kie.api.runtime.process.WorkItemManager manager) {
+                    pending.add(workItem.getId());
+                }
+
+                public void abortWorkItem(WorkItem workItem, org.kie.api.runtime.process.WorkItemManager manager) {
+                }
+            });
+
+            ksession.execute(new ExecuteWorkItemCommand("async"));
+            assertThat(pending).hasSize(1);
+            ksession.dispose();
+        }
+
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            WorkItemInfo workItemInfo = (WorkItemInfo) storage.findWorkItemInfo(pending.get(0));
+            assertThat(workItemInfo.getName()).isEqualTo("async");
+            assertThat(workItemInfo.getState()).isEqualTo(WorkItem.PENDING);
+
+            KieSession ksession = JPAKnowledgeService.loadStatefulKnowledgeSession(sessionId, kbase, null, createEnvironment(storage));
+            assertThat(((WorkItemManager) ksession.getWorkItemManager()).getWorkItem(pending.get(0)).getName()).isEqualTo("async");
+            ksession.getWorkItemManager().completeWorkItem(pending.get(0), Collections.emptyMap());
+            assertThat(storage.findWorkItemInfo(pending.get(0))).isNull();
+            ksession.dispose();
+        }
+
+        try (MappedFileKnowledgeSessionStorage storage = new MappedFileKnowledgeSessionStorage(directory)) {
+            assertThat(storage.findWorkItemInfo(pending.get(0))).isNull();
+        }
+    }
+
+    private static Environment createEnvironment(MappedFileKnowledgeSessionStorage storage) {
+        EnvironmentBuilder envBuilder = new KnowledgeSessionStorageEnvironmentBuilder(storage);
+        Environment env = EnvironmentFactory.newEnvironment();
+        env.set(EnvironmentName.TRANSACTION_MANAGER, envBuilder.getTransactionManager());
+        env.set(EnvironmentName.PERSISTENCE_CONTEXT_MANAGER, envBuilder.getPersistenceContextManager());
+        return env;
+    }
+
+    private static class ExecuteWorkItemCommand implements ExecutableCommand<Void> {
+
+        private final String name;
+
+        private ExecuteWorkItemCommand(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Void execute(Context context) {
+            KieSession ksession = ((RegistryContext) context).lookup(KieSession.class);
+            WorkItemImpl workItem = new WorkItemImpl();
+            workItem.setName(name);
+            ((WorkItemManager) ksession.getWorkItemManager()).internalExecuteWorkItem(workItem);
+            return null;
+        }
+    }
+
+    private static SessionInfo session(long id, String data) {
+        SessionInfo sessionInfo = new SessionInfo();
+        sessionInfo.setId(id);
+        sessionInfo.setData(data.getBytes());
+        return sessionInfo;
+    }
+
+    private static WorkItemInfo workItem(long id, String name) {
+        return new WorkItemInfo(id, name, new Date(1000), "process", 1, name.getBytes());
+    }
+}
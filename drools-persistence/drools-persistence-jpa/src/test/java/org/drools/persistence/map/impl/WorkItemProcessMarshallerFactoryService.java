@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.persistence.map.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.drools.core.marshalling.MarshallerReaderContext;
+import org.drools.core.marshalling.MarshallerWriteContext;
+import org.drools.core.process.WorkItem;
+import org.drools.core.process.impl.WorkItemImpl;
+import org.drools.serialization.protobuf.marshalling.ProcessMarshaller;
+import org.drools.serialization.protobuf.marshalling.ProcessMarshallerFactoryService;
+import org.kie.api.runtime.process.ProcessInstance;
+
+/**
+ * Stands for the process marshaller of jBPM, which isn't available in this module, marshalling only
+ * the work items stored in isolation by the persistence, without their parameters and results.
+ */
+public class WorkItemProcessMarshallerFactoryService implements ProcessMarshallerFactoryService {
+
+    @Override
+    public ProcessMarshaller newProcessMarshaller() {
+        return new WorkItemProcessMarshaller();
+    }
+
+    private static class WorkItemProcessMarshaller implements ProcessMarshaller {
+
+        @Override
+        public void writeProcessInstances(MarshallerWriteContext context) {
+        }
+
+        @Override
+        public void writeProcessTimers(MarshallerWriteContext context) {
+        }
+
+        @Override
+        public void writeWorkItems(MarshallerWriteContext context) {
+        }
+
+        @Override
+        public List<ProcessInstance> readProcessInstances(MarshallerReaderContext context) {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public void readProcessTimers(MarshallerReaderContext context) {
+        }
+
+        @Override
+        public void readWorkItems(MarshallerReaderContext context) {
+        }
+
+        @Override
+        public void init(MarshallerReaderContext context) {
+        }
+
+        @Override
+        public void writeWorkItem(MarshallerWriteContext context, WorkItem workItem) {
+            try {
+                context.writeLong(workItem.getId());
+                context.writeUTF(workItem.getName());
+                context.writeInt(workItem.getState());
+                context.writeBoolean(workItem.getProcessInstanceId() != null);
+                if (workItem.getProcessInstanceId() != null) {
+                    context.writeUTF(workItem.getProcessInstanceId());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public WorkItem readWorkItem(MarshallerReaderContext context) {
+            try {
+                WorkItemImpl workItem = new WorkItemImpl();
+                workItem.setId(context.readLong());
+                workItem.setName(context.readUTF());
+                workItem.setState(context.readInt());
+                if (context.readBoolean()) {
+                    workItem.setProcessInstanceId(context.readUTF());
+                }
+                return workItem;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
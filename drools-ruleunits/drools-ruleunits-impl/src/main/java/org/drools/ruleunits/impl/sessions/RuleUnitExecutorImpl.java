@@ -248,6 +248,7 @@ public class RuleUnitExecutorImpl implements ReteEvaluator {
         this.ruleEventListenerSupport.clear();
 
         this.timerService.shutdown();
+        this.activationsManager.reset();
     }
 
     @Override
@@ -32,6 +32,7 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.ByteString.Output;
 import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
+import com.google.protobuf.UnsafeByteOperations;
 import org.drools.tms.beliefsystem.simple.BeliefSystemLogicalCallback;
 import org.drools.core.common.DroolsObjectInputStream;
 import org.drools.core.common.DroolsObjectOutputStream;
@@ -62,6 +63,10 @@ import org.kie.api.marshalling.ObjectMarshallingStrategy.Context;
 
 public class PersisterHelper extends MarshallingHelper {
 
+    // identifies the sessions written in chunks, see ProtobufOutputMarshaller.writeSessionInChunks()
+    public static final int CHUNKED_SESSION_MAGIC = 0x44534348;
+    public static final short CHUNKED_SESSION_VERSION = 1;
+
     public static WorkingMemoryAction readWorkingMemoryAction( MarshallerReaderContext context) throws IOException {
         int type = context.readShort();
         switch ( type ) {
@@ -149,6 +154,20 @@ public class PersisterHelper extends MarshallingHelper {
     
     public static void writeToStreamWithHeader( MarshallerWriteContext context,
                                                 Message payload ) throws IOException {
+        ProtobufMessages.Header.Builder _header = newHeaderBuilder( context );
+
+        byte[] buff = payload.toByteArray();
+        sign( _header, buff );
+        // the payload is a new array, so it can be wrapped without copying it
+        _header.setPayload( UnsafeByteOperations.unsafeWrap( buff ) );
+
+        context.write( _header.build().toByteArray() );
+    }
+
+    /**
+     * Creates the header of a marshalled session, without its payload, recording the strategies used so far
+     */
+    public static ProtobufMessages.Header.Builder newHeaderBuilder( MarshallerWriteContext context ) throws IOException {
         ProtobufMessages.Header.Builder _header = ProtobufMessages.Header.newBuilder();
         _header.setVersion( ProtobufMessages.Version.newBuilder()
                                             .setVersionMajor( Drools.getMajorVersion() )
@@ -166,11 +185,7 @@ public class PersisterHelper extends MarshallingHelper {
             }
         }
 
-        byte[] buff = payload.toByteArray();
-        sign( _header, buff );
-        _header.setPayload( ByteString.copyFrom( buff ) );
-
-        context.write( _header.build().toByteArray() );
+        return _header;
     }
 
     private static void writeRuntimeDefinedClasses( TraitFactory traitFactory, MarshallerWriteContext context, ProtobufMessages.Header.Builder _header) {
@@ -267,13 +282,7 @@ public class PersisterHelper extends MarshallingHelper {
 
 	private static void loadStrategiesIndex( MarshallerReaderContext context, ProtobufMessages.Header _header) throws IOException, ClassNotFoundException {
         for ( ProtobufMessages.Header.StrategyIndex _entry : _header.getStrategyList() ) {
-            ObjectMarshallingStrategy strategyObject = context.getResolverStrategyFactory().getStrategyObject( _entry.getName() );
-            if ( strategyObject == null ) {
-                throw new IllegalStateException( "No strategy of type " + _entry.getName() + " available." );
-            }
-            context.getUsedStrategies().put( _entry.getId(), strategyObject );
-            Context ctx = strategyObject.createContext();
-            context.getStrategyContexts().put( strategyObject, ctx );
+            Context ctx = loadStrategy( context, _entry.getId(), _entry.getName() );
             if( _entry.hasData() && ctx != null ) {
 		        ClassLoader classLoader = null;
                 if (context.getClassLoader() != null ){
@@ -289,6 +298,20 @@ public class PersisterHelper extends MarshallingHelper {
         }
     }
 
+    /**
+     * Registers the strategy with the given index and name as used by the read data, returning its new context
+     */
+    static Context loadStrategy( MarshallerReaderContext context, int id, String name ) {
+        ObjectMarshallingStrategy strategyObject = context.getResolverStrategyFactory().getStrategyObject( name );
+        if ( strategyObject == null ) {
+            throw new IllegalStateException( "No strategy of type " + name + " available." );
+        }
+        context.getUsedStrategies().put( id, strategyObject );
+        Context ctx = strategyObject.createContext();
+        context.getStrategyContexts().put( strategyObject, ctx );
+        return ctx;
+    }
+
     public static void readRuntimeDefinedClasses( Header _header,
                                                   ProjectClassLoader pcl ) throws IOException, ClassNotFoundException {
         if ( _header.getRuntimeClassDefinitionsCount() > 0 ) {
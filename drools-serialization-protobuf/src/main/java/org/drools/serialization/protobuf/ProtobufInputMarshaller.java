@@ -16,9 +16,11 @@
 
 package org.drools.serialization.protobuf;
 
+import java.io.DataInput;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -28,6 +30,9 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import com.google.protobuf.ExtensionRegistry;
@@ -36,6 +41,7 @@ import org.drools.core.SessionConfigurationImpl;
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.common.ActivationsFilter;
 import org.drools.core.common.AgendaGroupQueueImpl;
+import org.drools.core.common.CompactFactHandle;
 import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.EqualityKey;
 import org.drools.core.common.EventFactHandle;
@@ -71,6 +77,7 @@ import org.drools.core.time.impl.CronTrigger;
 import org.drools.core.time.impl.IntervalTrigger;
 import org.drools.core.time.impl.PointInTimeTrigger;
 import org.drools.core.time.impl.PseudoClockScheduler;
+import org.drools.core.util.KeyStoreHelper;
 import org.drools.kiesession.entrypoints.NamedEntryPoint;
 import org.drools.kiesession.factory.PhreakWorkingMemoryFactory;
 import org.drools.kiesession.session.StatefulKnowledgeSessionImpl;
@@ -82,8 +89,10 @@ import org.drools.serialization.protobuf.marshalling.ActivationKey;
 import org.drools.serialization.protobuf.marshalling.KieSessionInitializer;
 import org.drools.serialization.protobuf.marshalling.ProcessMarshaller;
 import org.drools.serialization.protobuf.marshalling.ProcessMarshallerFactory;
+import org.drools.serialization.protobuf.marshalling.ThreadSafeUnmarshallingStrategy;
 import org.drools.tms.TruthMaintenanceSystemEqualityKey;
 import org.drools.tms.TruthMaintenanceSystemImpl;
+import org.drools.wiring.api.classloader.ProjectClassLoader;
 import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.EnvironmentName;
@@ -100,6 +109,11 @@ public class ProtobufInputMarshaller {
 
     private static ProcessMarshaller processMarshaller = createProcessMarshaller();
 
+    // below this number of fact handles in an entry point, their objects aren't worth unmarshalling in parallel
+    private static final int MIN_PARALLEL_UNMARSHALLED_HANDLES = 1000;
+
+    static final Object NOT_UNMARSHALLED = new Object();
+
     private static ProcessMarshaller createProcessMarshaller() {
         try {
             return ProcessMarshallerFactory.newProcessMarshaller();
@@ -156,8 +170,58 @@ public class ProtobufInputMarshaller {
                                                   SessionConfiguration config,
                                                   KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
 
-        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
+        return readNewSession( context,
+                               id,
+                               environment,
+                               config,
+                               initializer,
+                               loadAndParseSession( context ),
+                               false );
+    }
+
+    /**
+     * Create a new session reading the data written by {@link ProtobufOutputMarshaller#writeSessionInChunks},
+     * adding the fact handles of each entry point to the session while reading their chunks
+     */
+    public static ReadSessionResult readSessionInChunks( ProtobufMarshallerReaderContext context,
+                                                         int id,
+                                                         Environment environment,
+                                                         SessionConfiguration config,
+                                                         KieSessionInitializer initializer) throws IOException, ClassNotFoundException {
+        if ( context.readInt() != PersisterHelper.CHUNKED_SESSION_MAGIC ) {
+            throw new IllegalArgumentException( "The given data is not a session written in chunks" );
+        }
+        short version = context.readShort();
+        if ( version != PersisterHelper.CHUNKED_SESSION_VERSION ) {
+            throw new IllegalArgumentException( "Unsupported version " + version + " of session written in chunks" );
+        }
+        if ( KeyStoreHelper.get().isSigned() ) {
+            throw new IllegalStateException( "This environment is configured to work with signed serialized objects, but sessions written in chunks are unsigned. Deserialization aborted." );
+        }
+
+        ProtobufMessages.Header _header = ProtobufMessages.Header.parseFrom( readMessage( context ) );
+        ClassLoader classLoader = context.getClassLoader() != null ? context.getClassLoader() : context.getKnowledgeBase().getRootClassLoader();
+        if ( classLoader instanceof ProjectClassLoader ) {
+            PersisterHelper.readRuntimeDefinedClasses( _header, (ProjectClassLoader) classLoader );
+        }
 
+        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, processMarshaller );
+        return readNewSession( context,
+                               id,
+                               environment,
+                               config,
+                               initializer,
+                               ProtobufMessages.KnowledgeSession.parseFrom( readChunk( context ), registry ),
+                               true );
+    }
+
+    private static ReadSessionResult readNewSession( ProtobufMarshallerReaderContext context,
+                                                     int id,
+                                                     Environment environment,
+                                                     SessionConfiguration config,
+                                                     KieSessionInitializer initializer,
+                                                     ProtobufMessages.KnowledgeSession _session,
+                                                     boolean chunkedFactHandles) throws IOException, ClassNotFoundException {
         StatefulKnowledgeSessionImpl session = createAndInitializeSession( context,
                                                                            id,
                                                                            environment,
@@ -171,10 +235,27 @@ public class ProtobufInputMarshaller {
         return new ReadSessionResult(readSession(_session,
                                                  session,
                                                  session.getAgenda(),
-                                                 context),
+                                                 context,
+                                                 chunkedFactHandles),
                                      _session);
     }
 
+    /**
+     * Reads the data of the strategies written before a chunk, replacing the strategy contexts
+     * of the previous chunk, and returns the chunk itself
+     */
+    private static byte[] readChunk( ProtobufMarshallerReaderContext context ) throws IOException, ClassNotFoundException {
+        int strategies = context.readInt();
+        for ( int i = 0; i < strategies; i++ ) {
+            int strategyId = context.readInt();
+            ObjectMarshallingStrategy.Context strategyContext = PersisterHelper.loadStrategy( context, strategyId, context.readUTF() );
+            if ( context.readBoolean() ) {
+                strategyContext.read( context );
+            }
+        }
+        return readMessage( context );
+    }
+
     private static InternalAgenda resetSession(StatefulKnowledgeSessionImpl session,
                                               ProtobufMarshallerReaderContext context,
                                               ProtobufMessages.KnowledgeSession _session) {
@@ -219,11 +300,26 @@ public class ProtobufInputMarshaller {
         return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
     }
 
+    private static byte[] readMessage( DataInput in ) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return bytes;
+    }
+
     public static StatefulKnowledgeSessionImpl readSession( ProtobufMessages.KnowledgeSession _session,
                                                             StatefulKnowledgeSessionImpl session,
                                                             InternalAgenda agenda,
                                                             ProtobufMarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
+        return readSession( _session, session, agenda, context, false );
+    }
+
+    private static StatefulKnowledgeSessionImpl readSession( ProtobufMessages.KnowledgeSession _session,
+                                                             StatefulKnowledgeSessionImpl session,
+                                                             InternalAgenda agenda,
+                                                             ProtobufMarshallerReaderContext context,
+                                                             boolean chunkedFactHandles) throws IOException,
+                                                                                    ClassNotFoundException {
         GlobalResolver globalResolver = (GlobalResolver) context.env.get( EnvironmentName.GLOBALS );
         if ( globalResolver != null ) {
             session.setGlobalResolver( globalResolver );
@@ -251,10 +347,16 @@ public class ProtobufInputMarshaller {
 
         for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
             EntryPoint wmep = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
-            readFactHandles( context,
-                             _ep,
-                             ((WorkingMemoryEntryPoint) wmep).getObjectStore(),
-                             pctxs );
+            if ( chunkedFactHandles ) {
+                readFactHandleChunks( context,
+                                      ((WorkingMemoryEntryPoint) wmep).getObjectStore(),
+                                      pctxs );
+            } else {
+                readFactHandles( context,
+                                 _ep,
+                                 ((WorkingMemoryEntryPoint) wmep).getObjectStore(),
+                                 pctxs );
+            }
 
             context.getWorkingMemory().getFactHandleFactory().doRecycleIds( context.getHandles().keySet() );
 
@@ -467,12 +569,15 @@ public class ProtobufInputMarshaller {
         InternalWorkingMemory wm = context.getWorkingMemory();
 
         EntryPoint entryPoint = context.getWorkingMemory().getEntryPoint(_ep.getEntryPointId());
-        
+
+        Object[] objects = unmarshalObjectsInParallel( context, _ep.getHandleList() );
+
         // load the handles
-        for ( ProtobufMessages.FactHandle _handle : _ep.getHandleList() ) {
-            InternalFactHandle handle = readFactHandle( context,
-                                                        entryPoint,
-                                                        _handle );
+        for ( int i = 0; i < _ep.getHandleCount(); i++ ) {
+            ProtobufMessages.FactHandle _handle = _ep.getHandle( i );
+            InternalFactHandle handle = objects != null && objects[i] != NOT_UNMARSHALLED ?
+                    createFactHandle( entryPoint, _handle, objects[i] ) :
+                    readFactHandle( context, entryPoint, _handle );
 
             context.getHandles().put( handle.getId(),
                                  handle );
@@ -494,6 +599,93 @@ public class ProtobufInputMarshaller {
 
     }
 
+    /**
+     * Unmarshals the objects of the given fact handles marshalled by a {@link ThreadSafeUnmarshallingStrategy},
+     * splitting them among the threads of the unmarshalling executor of the context, if any, so that the
+     * fact handles are then only created and inserted into the session by the current thread.
+     *
+     * @return the unmarshalled objects, in the same order of the fact handles, with {@link #NOT_UNMARSHALLED}
+     *         for the ones to be unmarshalled sequentially, or null if none of them has been unmarshalled
+     */
+    static Object[] unmarshalObjectsInParallel( ProtobufMarshallerReaderContext context,
+                                                List<ProtobufMessages.FactHandle> _handles ) throws IOException,
+                                                                                              ClassNotFoundException {
+        ExecutorService executor = context.getUnmarshallingExecutor();
+        if ( executor == null || _handles.size() < MIN_PARALLEL_UNMARSHALLED_HANDLES ) {
+            return null;
+        }
+
+        ClassLoader classLoader = (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader();
+        Object[] objects = new Object[_handles.size()];
+        Arrays.fill( objects, NOT_UNMARSHALLED );
+
+        int batches = Runtime.getRuntime().availableProcessors() * 4;
+        int batchSize = ( _handles.size() + batches - 1 ) / batches;
+        List<Future<?>> futures = new ArrayList<>();
+        for ( int start = 0; start < _handles.size(); start += batchSize ) {
+            int from = start;
+            int to = Math.min( start + batchSize, _handles.size() );
+            futures.add( executor.submit( () -> {
+                for ( int i = from; i < to; i++ ) {
+                    ProtobufMessages.FactHandle _handle = _handles.get( i );
+                    if ( !_handle.hasStrategyIndex() ) {
+                        objects[i] = null;
+                        continue;
+                    }
+                    ObjectMarshallingStrategy strategy = context.getUsedStrategies().get( _handle.getStrategyIndex() );
+                    if ( strategy instanceof ThreadSafeUnmarshallingStrategy ) {
+                        objects[i] = strategy.unmarshal( context.getStrategyContexts().get( strategy ),
+                                                         null,
+                                                         _handle.getObject().toByteArray(),
+                                                         classLoader );
+                    }
+                }
+                return null;
+            } ) );
+        }
+
+        try {
+            for ( Future<?> future : futures ) {
+                future.get();
+            }
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IOException( "Interrupted while unmarshalling the fact handles", e );
+        } catch ( ExecutionException e ) {
+            Throwable cause = e.getCause();
+            if ( cause instanceof IOException ) {
+                throw (IOException) cause;
+            }
+            if ( cause instanceof ClassNotFoundException ) {
+                throw (ClassNotFoundException) cause;
+            }
+            if ( cause instanceof RuntimeException ) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException( cause );
+        }
+        return objects;
+    }
+
+    private static void readFactHandleChunks( ProtobufMarshallerReaderContext context,
+                                              ObjectStore objectStore,
+                                              List<PropagationContext> pctxs) throws IOException,
+                                                                                ClassNotFoundException {
+        // the rest of the session refers to the objects of the strategy contexts read with it
+        Map<Integer, ObjectMarshallingStrategy> usedStrategies = new HashMap<>( context.getUsedStrategies() );
+        Map<ObjectMarshallingStrategy, ObjectMarshallingStrategy.Context> strategyContexts = new HashMap<>( context.getStrategyContexts() );
+
+        while ( context.readBoolean() ) {
+            readFactHandles( context,
+                             ProtobufMessages.EntryPoint.parseFrom( readChunk( context ) ),
+                             objectStore,
+                             pctxs );
+        }
+
+        context.getUsedStrategies().putAll( usedStrategies );
+        context.getStrategyContexts().putAll( strategyContexts );
+    }
+
     private static void assertHandleIntoOTN( ProtobufMarshallerReaderContext context,
                                              InternalWorkingMemory wm,
                                              InternalFactHandle handle,
@@ -536,14 +728,25 @@ public class ProtobufInputMarshaller {
                                          (context.getKnowledgeBase() == null) ? null : context.getKnowledgeBase().getRootClassLoader() );
         }
 
+        return createFactHandle( entryPoint, _handle, object );
+    }
 
+    private static InternalFactHandle createFactHandle( EntryPoint entryPoint,
+                                                        FactHandle _handle,
+                                                        Object object ) {
         InternalFactHandle handle;
         switch ( _handle.getType() ) {
             case FACT : {
-                handle = new DefaultFactHandle( _handle.getId(),
+                WorkingMemoryEntryPoint wmEntryPoint = (WorkingMemoryEntryPoint) entryPoint;
+                handle = wmEntryPoint != null && CompactFactHandle.isEnabled( wmEntryPoint.getKnowledgeBase() ) ?
+                         new CompactFactHandle( _handle.getId(),
+                                                object,
+                                                _handle.getRecency(),
+                                                wmEntryPoint ) :
+                         new DefaultFactHandle( _handle.getId(),
                                                 object,
                                                 _handle.getRecency(),
-                                                (WorkingMemoryEntryPoint) entryPoint );
+                                                wmEntryPoint );
                 break;
             }
             case QUERY : {
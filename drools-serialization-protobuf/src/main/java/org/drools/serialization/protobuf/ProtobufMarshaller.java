@@ -41,6 +41,7 @@ import org.kie.api.marshalling.ObjectMarshallingStrategyStore;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.KieSession;
 import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 
 /**
@@ -63,6 +64,26 @@ public class ProtobufMarshaller
         this.initializer = initializer;
     }
 
+    protected boolean parallelRestore;
+
+    public boolean isParallelRestore() {
+        return parallelRestore;
+    }
+
+    /**
+     * When enabled, the objects of the fact handles marshalled by a
+     * {@link org.drools.serialization.protobuf.marshalling.ThreadSafeUnmarshallingStrategy} are unmarshalled
+     * in parallel before the fact handles are inserted into the restored session.
+     *
+     * Only the JavaSerializableResolverStrategy is thread safe among the strategies of Drools, so a session
+     * marshalled with the default SerializablePlaceholderResolverStrategy gets no benefit from it: that strategy
+     * reads all its objects at once from its own data block, preserving the references among them, and then
+     * just looks them up by index for each fact handle.
+     */
+    public void setParallelRestore( boolean parallelRestore ) {
+        this.parallelRestore = parallelRestore;
+    }
+
     public static final Map<Integer, TimersInputMarshaller> TIMER_READERS = new HashMap<>();
     static {
         TIMER_READERS.put( ProtobufMessages.Timers.TimerType.BEHAVIOR_VALUE, new BehaviorJobContextTimerInputMarshaller() );
@@ -109,6 +130,59 @@ public class ProtobufMarshaller
     public void marshall(final OutputStream stream,
                          final KieSession ksession,
                          final long clockTime) throws IOException {
+        ProtobufMarshallerWriteContext context = getMarshallerWriteContext( stream, ksession, clockTime );
+        ProtobufOutputMarshaller.writeSession( context );
+        context.close();
+    }
+
+    /**
+     * Writes the given session streaming its fact handles in chunks of the given size, instead of buffering
+     * the whole session in memory. To write to a channel, wrap it with {@link java.nio.channels.Channels#newOutputStream}.
+     */
+    public void marshallInChunks(final OutputStream stream,
+                                 final KieSession ksession,
+                                 final int chunkSize) throws IOException {
+        if ( chunkSize <= 0 ) {
+            throw new IllegalArgumentException( "The size of the chunks must be positive: " + chunkSize );
+        }
+        ProtobufMarshallerWriteContext context = getMarshallerWriteContext( stream,
+                                                                            ksession,
+                                                                            ksession.getSessionClock().getCurrentTime() );
+        ProtobufOutputMarshaller.writeSessionInChunks( context, chunkSize );
+        context.close();
+    }
+
+    /**
+     * Reads a session written by {@link #marshallInChunks}, one chunk of fact handles at a time
+     */
+    public StatefulKnowledgeSession unmarshallInChunks(final InputStream stream,
+                                                       KieSessionConfiguration config,
+                                                       Environment environment) throws IOException, ClassNotFoundException {
+        if ( config == null ) {
+            config = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        }
+
+        if ( environment == null ) {
+            environment = KieServices.get().newEnvironment();
+        }
+
+        ProtobufMarshallerReaderContext context = getMarshallerReaderContext(stream, environment);
+        int id = ((InternalKnowledgeBase) this.kbase).nextWorkingMemoryCounter();
+        ReadSessionResult readSessionResult = ProtobufInputMarshaller.readSessionInChunks(context,
+                                                                                          id,
+                                                                                          environment,
+                                                                                          (SessionConfiguration) config,
+                                                                                          initializer);
+        context.close();
+        if ( ((SessionConfiguration) config).isKeepReference() ) {
+            ((InternalKnowledgeBase) this.kbase).addStatefulSession(readSessionResult.getSession());
+        }
+        return readSessionResult.getSession();
+    }
+
+    private ProtobufMarshallerWriteContext getMarshallerWriteContext(final OutputStream stream,
+                                                                     final KieSession ksession,
+                                                                     final long clockTime) throws IOException {
         ((InternalWorkingMemory) ksession).flushPropagations();
         ProtobufMarshallerWriteContext context = new ProtobufMarshallerWriteContext( stream,
                                                                      (InternalKnowledgeBase) kbase,
@@ -119,8 +193,7 @@ public class ProtobufMarshaller
                                                                      this.marshallingConfig.isMarshallWorkItems(),
                                                                      ksession.getEnvironment() );
         context.setClockTime( clockTime );
-        ProtobufOutputMarshaller.writeSession( context );
-        context.close();
+        return context;
     }
 
     public MarshallingConfiguration getMarshallingConfiguration() {
@@ -153,7 +226,7 @@ public class ProtobufMarshaller
     }
 
     private ProtobufMarshallerReaderContext getMarshallerReaderContext( final InputStream inputStream, final Environment environment) throws IOException {
-        return new ProtobufMarshallerReaderContext(inputStream,
+        ProtobufMarshallerReaderContext context = new ProtobufMarshallerReaderContext(inputStream,
                                            (InternalKnowledgeBase) kbase,
                                            RuleBaseNodes.getNodeMap((InternalKnowledgeBase) kbase),
                                            this.strategyStore,
@@ -161,6 +234,10 @@ public class ProtobufMarshaller
                                            this.marshallingConfig.isMarshallProcessInstances(),
                                            this.marshallingConfig.isMarshallWorkItems(),
                                            environment);
+        if ( parallelRestore ) {
+            context.setUnmarshallingExecutor( ExecutorProviderFactory.getExecutorProvider().getExecutor() );
+        }
+        return context;
     }
 
 }
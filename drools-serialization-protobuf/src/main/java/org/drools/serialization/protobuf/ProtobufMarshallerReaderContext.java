@@ -23,6 +23,7 @@ import java.io.ObjectStreamClass;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import org.drools.core.common.BaseNode;
 import org.drools.core.common.InternalFactHandle;
@@ -42,6 +43,7 @@ import org.drools.kiesession.rulebase.InternalKnowledgeBase;
 import org.drools.serialization.protobuf.ProtobufInputMarshaller.PBActivationsFilter;
 import org.drools.serialization.protobuf.marshalling.ObjectMarshallingStrategyStoreImpl;
 import org.drools.serialization.protobuf.marshalling.RightTupleKey;
+import org.drools.serialization.protobuf.marshalling.ThreadSafeUnmarshallingStrategy;
 import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.marshalling.ObjectMarshallingStrategyStore;
 import org.kie.api.runtime.Environment;
@@ -86,6 +88,7 @@ public class ProtobufMarshallerReaderContext extends ObjectInputStream implement
 
     private Object                                                                 parameterObject;
     private ClassLoader                                                            classLoader;
+    private ExecutorService                                                        unmarshallingExecutor;
     public Map<Integer, Map<TupleKey, Scheduler>>                                  timerNodeSchedulers;
 
     public ProtobufMarshallerReaderContext( InputStream stream,
@@ -243,6 +246,18 @@ public class ProtobufMarshallerReaderContext extends ObjectInputStream implement
         this.classLoader = classLoader;
     }
 
+    public ExecutorService getUnmarshallingExecutor() {
+        return unmarshallingExecutor;
+    }
+
+    /**
+     * Sets the executor used to unmarshal in parallel the objects of the fact handles, when they are marshalled
+     * by a {@link ThreadSafeUnmarshallingStrategy}
+     */
+    public void setUnmarshallingExecutor( ExecutorService unmarshallingExecutor ) {
+        this.unmarshallingExecutor = unmarshallingExecutor;
+    }
+
     @Override
     public Map<Integer, ObjectMarshallingStrategy> getUsedStrategies() {
         return usedStrategies;
@@ -16,6 +16,7 @@
 
 package org.drools.serialization.protobuf;
 
+import java.io.DataOutput;
 import java.io.IOException;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
@@ -29,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 
 import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
 import org.drools.core.InitialFact;
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.common.AgendaGroupQueueImpl;
@@ -49,6 +51,7 @@ import org.drools.core.common.QueryElementFactHandle;
 import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.core.common.TruthMaintenanceSystemFactory;
 import org.drools.core.definitions.rule.impl.RuleImpl;
+import org.drools.core.impl.ExpirationManager.BatchExpireJobContext;
 import org.drools.core.marshalling.MarshallerWriteContext;
 import org.drools.core.phreak.PropagationEntry;
 import org.drools.core.phreak.RuleAgendaItem;
@@ -75,6 +78,7 @@ import org.drools.core.time.impl.PointInTimeTrigger;
 import org.drools.core.time.impl.PseudoClockScheduler;
 import org.drools.core.time.impl.TimerJobInstance;
 import org.drools.core.util.FastIterator;
+import org.drools.core.util.KeyStoreHelper;
 import org.drools.core.util.LinkedListEntry;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.kiesession.entrypoints.NamedEntryPoint;
@@ -89,6 +93,7 @@ import org.drools.serialization.protobuf.iterators.ActivationIterator;
 import org.drools.serialization.protobuf.iterators.LeftTupleIterator;
 import org.drools.serialization.protobuf.marshalling.ProcessMarshaller;
 import org.drools.serialization.protobuf.marshalling.ProcessMarshallerFactory;
+import org.drools.serialization.protobuf.timers.ExpireJobContextTimerOutputMarshaller;
 import org.drools.tms.LogicalDependency;
 import org.drools.tms.TruthMaintenanceSystemEqualityKey;
 import org.drools.tms.agenda.TruthMaintenanceSystemAgendaItem;
@@ -126,104 +131,190 @@ public class ProtobufOutputMarshaller {
                                                  _session );
     }
 
-    private static ProtobufMessages.KnowledgeSession serializeSession( MarshallerWriteContext context) throws IOException {
-        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
+    private static void writeMessage( DataOutput out, Message message ) throws IOException {
+        byte[] bytes = message.toByteArray();
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
 
+    /**
+     * Writes the session in chunks, so that neither the whole session nor all its fact handles have to be
+     * buffered in memory. The rest of the session state is written first, followed by the fact handles of each
+     * entry point, in chunks of the given size. Each chunk is preceded by the data of the strategies used to
+     * marshall its objects, written through the same object stream, so that the references between objects of
+     * different chunks are preserved. A session written in this way has to be read with
+     * {@link ProtobufInputMarshaller#readSessionInChunks}.
+     */
+    public static void writeSessionInChunks( ProtobufMarshallerWriteContext context,
+                                             int chunkSize ) throws IOException {
+        if ( KeyStoreHelper.get().isSigned() ) {
+            throw new IllegalStateException( "Signed sessions cannot be written in chunks" );
+        }
+
+        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
+        lockSession( wm );
         try {
-            wm.getLock().lock();
-            for (EntryPoint ep : wm.getEntryPoints()) {
-                if (ep instanceof NamedEntryPoint) {
-                    ((NamedEntryPoint)ep).lock();
+            context.writeInt( PersisterHelper.CHUNKED_SESSION_MAGIC );
+            context.writeShort( PersisterHelper.CHUNKED_SESSION_VERSION );
+            writeMessage( context, PersisterHelper.newHeaderBuilder( context ).build() );
+
+            ProtobufMessages.KnowledgeSession _session = buildSession( context, false );
+            writeChunk( context, _session );
+
+            ObjectMarshallingStrategyStore objectMarshallingStrategyStore = context.getObjectMarshallingStrategyStore();
+            for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+                ProtobufMessages.EntryPoint.Builder _chunk = ProtobufMessages.EntryPoint.newBuilder()
+                        .setEntryPointId( _ep.getEntryPointId() );
+                NamedEntryPoint wmep = (NamedEntryPoint) wm.getEntryPoint( _ep.getEntryPointId() );
+                for ( InternalFactHandle handle : orderFacts( wmep.getObjectStore() ) ) {
+                    _chunk.addHandle( writeFactHandle( context, objectMarshallingStrategyStore, handle ) );
+                    if ( _chunk.getHandleCount() == chunkSize ) {
+                        context.writeBoolean( true );
+                        writeChunk( context, _chunk.build() );
+                        _chunk.clearHandle();
+                    }
                 }
+                if ( _chunk.getHandleCount() > 0 ) {
+                    context.writeBoolean( true );
+                    writeChunk( context, _chunk.build() );
+                }
+                // end of the fact handles of the entry point
+                context.writeBoolean( false );
             }
+        } finally {
+            unlockSession( wm );
+        }
+    }
 
-            evaluateRuleActivations( wm );
+    private static void writeChunk( ProtobufMarshallerWriteContext context, Message message ) throws IOException {
+        context.writeInt( context.getUsedStrategies().size() );
+        for ( Map.Entry<ObjectMarshallingStrategy, Integer> entry : context.getUsedStrategies().entrySet() ) {
+            ObjectMarshallingStrategy.Context strategyContext = context.getStrategyContext().get( entry.getKey() );
+            context.writeInt( entry.getValue() );
+            context.writeUTF( entry.getKey().getName() );
+            context.writeBoolean( strategyContext != null );
+            if ( strategyContext != null ) {
+                strategyContext.write( context );
+            }
+        }
+        writeMessage( context, message );
 
-            ProtobufMessages.RuleData.Builder _ruleData = ProtobufMessages.RuleData.newBuilder();
+        // the objects of the next chunk are marshalled with new strategy contexts, that are written with it
+        context.getStrategyContext().replaceAll( (strategy, strategyContext) -> strategy.createContext() );
+    }
 
-            long time = 0;
-            if ( context.getWorkingMemory().getTimerService() instanceof PseudoClockScheduler ) {
-                time = context.getClockTime();
+    private static void lockSession( StatefulKnowledgeSessionImpl wm ) {
+        wm.getLock().lock();
+        for (EntryPoint ep : wm.getEntryPoints()) {
+            if (ep instanceof NamedEntryPoint) {
+                ((NamedEntryPoint)ep).lock();
             }
-            _ruleData.setLastId( wm.getFactHandleFactory().getId() );
-            _ruleData.setLastRecency( wm.getFactHandleFactory().getRecency() );
+        }
+    }
 
-            InternalFactHandle handle = context.getWorkingMemory().getInitialFactHandle();
-            if ( handle != null ) {
-                // can be null for RETE, if fireAllRules has not yet been called
-                ProtobufMessages.FactHandle _ifh = ProtobufMessages.FactHandle.newBuilder()
-                        .setType( ProtobufMessages.FactHandle.HandleType.INITIAL_FACT )
-                        .setId( handle.getId() )
-                        .setRecency( handle.getRecency() )
-                        .build();
-                _ruleData.setInitialFact( _ifh );
+    private static void unlockSession( StatefulKnowledgeSessionImpl wm ) {
+        for (EntryPoint ep : wm.getEntryPoints()) {
+            if (ep instanceof NamedEntryPoint) {
+                ((NamedEntryPoint)ep).unlock();
             }
+        }
+        wm.getLock().unlock();
+    }
+
+    private static ProtobufMessages.KnowledgeSession serializeSession( MarshallerWriteContext context) throws IOException {
+        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
+        lockSession( wm );
+        try {
+            return buildSession( context, true );
+        } finally {
+            unlockSession( wm );
+        }
+    }
 
-            writeAgenda( context, _ruleData );
+    private static ProtobufMessages.KnowledgeSession buildSession( MarshallerWriteContext context,
+                                                                   boolean writeFactHandles ) throws IOException {
+        StatefulKnowledgeSessionImpl wm = (StatefulKnowledgeSessionImpl) context.getWorkingMemory();
+        evaluateRuleActivations( wm );
+
+        ProtobufMessages.RuleData.Builder _ruleData = ProtobufMessages.RuleData.newBuilder();
 
-            writeNodeMemories( context, _ruleData );
+        long time = 0;
+        if ( context.getWorkingMemory().getTimerService() instanceof PseudoClockScheduler ) {
+            time = context.getClockTime();
+        }
+        _ruleData.setLastId( wm.getFactHandleFactory().getId() );
+        _ruleData.setLastRecency( wm.getFactHandleFactory().getRecency() );
 
-            for ( EntryPoint wmep : wm.getEntryPoints() ) {
-                ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
-                _epb.setEntryPointId( wmep.getEntryPointId() );
+        InternalFactHandle handle = context.getWorkingMemory().getInitialFactHandle();
+        if ( handle != null ) {
+            // can be null for RETE, if fireAllRules has not yet been called
+            ProtobufMessages.FactHandle _ifh = ProtobufMessages.FactHandle.newBuilder()
+                    .setType( ProtobufMessages.FactHandle.HandleType.INITIAL_FACT )
+                    .setId( handle.getId() )
+                    .setRecency( handle.getRecency() )
+                    .build();
+            _ruleData.setInitialFact( _ifh );
+        }
 
-                writeObjectTypeConfiguration( context,
-                                              ((WorkingMemoryEntryPoint)wmep).getObjectTypeConfigurationRegistry(),
-                                              _epb );
+        writeAgenda( context, _ruleData );
 
+        writeNodeMemories( context, _ruleData );
+
+        for ( EntryPoint wmep : wm.getEntryPoints() ) {
+            ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
+            _epb.setEntryPointId( wmep.getEntryPointId() );
+
+            writeObjectTypeConfiguration( context,
+                                          ((WorkingMemoryEntryPoint)wmep).getObjectTypeConfigurationRegistry(),
+                                          _epb );
+
+            if ( writeFactHandles ) {
                 writeFactHandles( context,
                                   _epb,
                                   ((NamedEntryPoint) wmep).getObjectStore() );
-
-                writeTruthMaintenanceSystem( context,
-                                             wmep,
-                                             _epb );
-
-                _ruleData.addEntryPoint( _epb.build() );
             }
 
-            writeActionQueue( context,
-                              _ruleData );
+            writeTruthMaintenanceSystem( context,
+                                         wmep,
+                                         _epb );
 
-            ProtobufMessages.KnowledgeSession.Builder _session = ProtobufMessages.KnowledgeSession.newBuilder()
-                    .setMultithread( false )
-                    .setTime( time )
-                    .setRuleData( _ruleData.build() );
+            _ruleData.addEntryPoint( _epb.build() );
+        }
 
-            if ( processMarshaller != null ) {
-                Builder _pdata = ProtobufMessages.ProcessData.newBuilder();
-                if ( context.isMarshalProcessInstances() ) {
-                    context.setParameterObject( _pdata );
-                    processMarshaller.writeProcessInstances( context );
-                }
+        writeActionQueue( context,
+                          _ruleData );
 
-                if ( context.isMarshalWorkItems() ) {
-                    context.setParameterObject( _pdata );
-                    processMarshaller.writeWorkItems( context );
-                }
+        ProtobufMessages.KnowledgeSession.Builder _session = ProtobufMessages.KnowledgeSession.newBuilder()
+                .setMultithread( false )
+                .setTime( time )
+                .setRuleData( _ruleData.build() );
 
-                // this now just assigns the writer, it will not write out any timer information
+        if ( processMarshaller != null ) {
+            Builder _pdata = ProtobufMessages.ProcessData.newBuilder();
+            if ( context.isMarshalProcessInstances() ) {
                 context.setParameterObject( _pdata );
-                processMarshaller.writeProcessTimers( context );
-
-                _session.setProcessData( _pdata.build() );
+                processMarshaller.writeProcessInstances( context );
             }
 
-            Timers _timers = writeTimers( context.getWorkingMemory().getTimerJobInstances( context.getWorkingMemory().getIdentifier() ),
-                                          context );
-            if ( _timers != null ) {
-                _session.setTimers( _timers );
+            if ( context.isMarshalWorkItems() ) {
+                context.setParameterObject( _pdata );
+                processMarshaller.writeWorkItems( context );
             }
 
-            return _session.build();
-        } finally {
-            for (EntryPoint ep : wm.getEntryPoints()) {
-                if (ep instanceof NamedEntryPoint) {
-                    ((NamedEntryPoint)ep).unlock();
-                }
-            }
-            wm.getLock().unlock();
+            // this now just assigns the writer, it will not write out any timer information
+            context.setParameterObject( _pdata );
+            processMarshaller.writeProcessTimers( context );
+
+            _session.setProcessData( _pdata.build() );
+        }
+
+        Timers _timers = writeTimers( context.getWorkingMemory().getTimerJobInstances( context.getWorkingMemory().getIdentifier() ),
+                                      context );
+        if ( _timers != null ) {
+            _session.setTimers( _timers );
         }
+
+        return _session.build();
     }
 
     private static void writeObjectTypeConfiguration( MarshallerWriteContext context,
@@ -781,6 +872,10 @@ public class ProtobufOutputMarshaller {
                     !((ObjectTypeNode.ExpireJobContext) jctx).getExpireAction().getFactHandle().isValid()) {                    
                     continue;
                 }
+                if (jctx instanceof BatchExpireJobContext) {
+                    _timers.addAllTimer( ExpireJobContextTimerOutputMarshaller.serializeBatch( (BatchExpireJobContext) jctx ) );
+                    continue;
+                }
                 TimersOutputMarshaller writer = ( TimersOutputMarshaller ) outCtx.getWriterForClass( jctx.getClass() );
                 Timer _timer = writer.serialize( jctx, outCtx );
                 if ( _timer != null ) {
@@ -23,12 +23,11 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.ObjectStreamClass;
 
-import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.marshalling.ObjectMarshallingStrategyAcceptor;
 
 public class JavaSerializableResolverStrategy
         implements
-        ObjectMarshallingStrategy {
+        ThreadSafeUnmarshallingStrategy {
 
     private ObjectMarshallingStrategyAcceptor acceptor;
 
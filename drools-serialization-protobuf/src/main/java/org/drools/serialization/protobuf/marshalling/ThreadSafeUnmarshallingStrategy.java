@@ -0,0 +1,27 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.serialization.protobuf.marshalling;
+
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+
+/**
+ * Marks the strategies that can unmarshal the objects of different fact handles concurrently, when a session
+ * is restored in parallel. Their unmarshal() method must not read from the given object input stream, which is
+ * passed as null, and must only read from their context.
+ */
+public interface ThreadSafeUnmarshallingStrategy extends ObjectMarshallingStrategy {
+}
@@ -15,8 +15,11 @@
 package org.drools.serialization.protobuf.timers;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
+import org.drools.core.impl.ExpirationManager.BatchExpireJobContext;
 import org.drools.core.impl.WorkingMemoryReteExpireAction;
 import org.drools.core.marshalling.MarshallerWriteContext;
 import org.drools.serialization.protobuf.marshalling.PersisterEnums;
@@ -66,4 +69,25 @@ public class ExpireJobContextTimerOutputMarshaller
             return null;
         }
     }
+
+    /**
+     * Serializes the job of a batch of expirations as one expiration timer per event still to be expired,
+     * so that it can be restored regardless of the configuration of the session reading it.
+     */
+    public static List<ProtobufMessages.Timers.Timer> serializeBatch( BatchExpireJobContext jobCtx ) {
+        List<ProtobufMessages.Timers.Timer> timers = new ArrayList<>();
+        long nextFireTime = jobCtx.getBatch().getExpirationTime();
+        for (WorkingMemoryReteExpireAction expireAction : jobCtx.getBatch().getExpireActions()) {
+            if (expireAction.getFactHandle().isValid()) {
+                timers.add(ProtobufMessages.Timers.Timer.newBuilder()
+                        .setType(ProtobufMessages.Timers.TimerType.EXPIRE)
+                        .setExpire(ProtobufMessages.Timers.ExpireTimer.newBuilder()
+                                .setHandleId(expireAction.getFactHandle().getId())
+                                .setNextFireTimestamp(nextFireTime)
+                                .build())
+                        .build());
+            }
+        }
+        return timers;
+    }
 }
\ No newline at end of file
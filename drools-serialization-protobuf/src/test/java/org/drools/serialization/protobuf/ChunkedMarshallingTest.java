@@ -0,0 +1,268 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.drools.serialization.protobuf.marshalling.MarshallingConfigurationImpl;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.definition.type.Expires;
+import org.kie.api.definition.type.Role;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.conf.TimerJobFactoryOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.api.time.SessionPseudoClock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ChunkedMarshallingTest {
+
+    @Test
+    public void testMultipleChunksWithEventsAndTimers() throws Exception {
+        KieBase kbase = newStreamKieBase();
+        KieSession ksession = kbase.newKieSession(newPseudoClockConfiguration(), null);
+        SessionPseudoClock clock = ksession.getSessionClock();
+
+        Shared shared = new Shared("shared");
+        for (int i = 0; i < 25; i++) {
+            ksession.insert(new Fact(i, shared));
+            clock.advanceTime(1, TimeUnit.SECONDS);
+            ksession.insert(new Event(i));
+        }
+        FactHandle deleted = ksession.insert(new Fact(100, shared));
+        ksession.delete(deleted);
+
+        ProtobufMarshaller marshaller = newMarshaller(kbase);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshallInChunks(baos, ksession, 7);
+        KieSession restored = marshaller.unmarshallInChunks(new ByteArrayInputStream(baos.toByteArray()),
+                                                            newPseudoClockConfiguration(),
+                                                            EnvironmentFactory.newEnvironment());
+
+        assertSameHandles(restored, ksession);
+        // the objects of different chunks still refer to the same instances
+        List<Shared> restoredShared = restored.getObjects(Fact.class::isInstance).stream()
+                .map(fact -> ((Fact) fact).shared)
+                .distinct()
+                .collect(Collectors.toList());
+        assertThat(restoredShared).hasSize(1);
+        assertThat(restoredShared.get(0)).isNotSameAs(shared).isEqualTo(shared);
+
+        // the expiration timers of the events have been restored
+        assertThat(timeToNextJob(restored)).isEqualTo(timeToNextJob(ksession)).isPositive();
+        restored.<SessionPseudoClock>getSessionClock().advanceTime(10, TimeUnit.MINUTES);
+        restored.fireAllRules();
+        assertThat(restored.getObjects(Event.class::isInstance)).isEmpty();
+        assertThat(restored.getObjects()).hasSize(25);
+
+        ksession.dispose();
+        restored.dispose();
+    }
+
+    @Test
+    public void testSameSessionAsNotChunked() throws Exception {
+        KieBase kbase = newStreamKieBase();
+        KieSession ksession = kbase.newKieSession(newPseudoClockConfiguration(), null);
+        Shared shared = new Shared("shared");
+        List<FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            handles.add(ksession.insert(new Fact(i, shared)));
+            ksession.insert(new Event(i));
+        }
+        ksession.delete(handles.get(3));
+        ksession.update(handles.get(5), new Fact(-5, shared));
+
+        ProtobufMarshaller marshaller = newMarshaller(kbase);
+        ByteArrayOutputStream chunked = new ByteArrayOutputStream();
+        marshaller.marshallInChunks(chunked, ksession, 4);
+        ByteArrayOutputStream notChunked = new ByteArrayOutputStream();
+        marshaller.marshall(notChunked, ksession);
+
+        KieSession fromChunks = marshaller.unmarshallInChunks(new ByteArrayInputStream(chunked.toByteArray()),
+                                                              newPseudoClockConfiguration(),
+                                                              EnvironmentFactory.newEnvironment());
+        KieSession fromSnapshot = marshaller.unmarshall(new ByteArrayInputStream(notChunked.toByteArray()),
+                                                        newPseudoClockConfiguration(),
+                                                        EnvironmentFactory.newEnvironment());
+
+        assertSameHandles(fromChunks, fromSnapshot);
+        assertThat(timeToNextJob(fromChunks)).isEqualTo(timeToNextJob(fromSnapshot));
+        assertThat(fromChunks.getSessionClock().getCurrentTime()).isEqualTo(fromSnapshot.getSessionClock().getCurrentTime());
+        assertThat(fromChunks.getFactHandle(new Fact(-5, shared)))
+                .isEqualTo(fromSnapshot.getFactHandle(new Fact(-5, shared)));
+
+        // the new fact handles of both sessions get the same ids
+        assertThat(((InternalFactHandle) fromChunks.insert(new Fact(30, shared))).getId())
+                .isEqualTo(((InternalFactHandle) fromSnapshot.insert(new Fact(30, shared))).getId());
+
+        ksession.dispose();
+        fromChunks.dispose();
+        fromSnapshot.dispose();
+    }
+
+    @Test
+    public void testNotChunkedDataIsRejected() throws Exception {
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        KieSession ksession = kbase.newKieSession();
+        ksession.insert(new Fact(1, new Shared("shared")));
+
+        ProtobufMarshaller marshaller = newMarshaller(kbase);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshall(baos, ksession);
+
+        assertThatThrownBy(() -> marshaller.unmarshallInChunks(new ByteArrayInputStream(baos.toByteArray()),
+                                                               null,
+                                                               EnvironmentFactory.newEnvironment()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> marshaller.marshallInChunks(new ByteArrayOutputStream(), ksession, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        ksession.dispose();
+    }
+
+    private static void assertSameHandles(KieSession actual, KieSession expected) {
+        assertThat(describeHandles(actual)).isEqualTo(describeHandles(expected));
+    }
+
+    private static List<String> describeHandles(KieSession ksession) {
+        List<String> handles = new ArrayList<>();
+        for (FactHandle fh : ksession.getFactHandles()) {
+            InternalFactHandle handle = (InternalFactHandle) fh;
+            String description = handle.getId() + ":" + handle.getRecency() + ":" + handle.getObject();
+            if (handle instanceof EventFactHandle) {
+                description += "@" + ((EventFactHandle) handle).getStartTimestamp();
+            }
+            handles.add(description);
+        }
+        handles.sort(null);
+        return handles;
+    }
+
+    private static long timeToNextJob(KieSession ksession) {
+        return ((InternalWorkingMemory) ksession).getTimerService().getTimeToNextJob();
+    }
+
+    private static KieBase newStreamKieBase() {
+        KieBaseConfiguration config = RuleBaseFactory.newKnowledgeBaseConfiguration();
+        config.setOption(EventProcessingOption.STREAM);
+        return KnowledgeBaseFactory.newKnowledgeBase(config);
+    }
+
+    private static KieSessionConfiguration newPseudoClockConfiguration() {
+        KieSessionConfiguration ksconf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption(ClockTypeOption.PSEUDO);
+        ksconf.setOption(TimerJobFactoryOption.get("trackable"));
+        return ksconf;
+    }
+
+    private static ProtobufMarshaller newMarshaller(KieBase kbase) {
+        ObjectMarshallingStrategy strategy = new SerializablePlaceholderResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT);
+        return new ProtobufMarshaller(kbase, new MarshallingConfigurationImpl(new ObjectMarshallingStrategy[]{strategy}, false, false));
+    }
+
+    public static class Shared implements Serializable {
+
+        private final String name;
+
+        public Shared(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Shared && ((Shared) o).name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+    }
+
+    public static class Fact implements Serializable {
+
+        private final int value;
+        private final Shared shared;
+
+        public Fact(int value, Shared shared) {
+            this.value = value;
+            this.shared = shared;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fact && ((Fact) o).value == value && ((Fact) o).shared.equals(shared);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(value, shared);
+        }
+
+        @Override
+        public String toString() {
+            return "Fact(" + value + ")";
+        }
+    }
+
+    @Role(Role.Type.EVENT)
+    @Expires("10m")
+    public static class Event implements Serializable {
+
+        private final int value;
+
+        public Event(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Event && ((Event) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Event(" + value + ")";
+        }
+    }
+}
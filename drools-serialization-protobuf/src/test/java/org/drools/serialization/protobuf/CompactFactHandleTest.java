@@ -0,0 +1,202 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.common.CompactFactHandle;
+import org.drools.core.common.EventFactHandle;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.ReteEvaluator;
+import org.drools.core.common.TruthMaintenanceSystemFactory;
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.impl.RuleBaseFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.drools.serialization.protobuf.marshalling.MarshallingConfigurationImpl;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.KieBaseConfiguration;
+import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.definition.type.Role;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.conf.CompactFactHandlesOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompactFactHandleTest {
+
+    @Test
+    public void testFactsLifecycleWithCompactHandles() throws Exception {
+        KieBase kbase = newCompactKieBase();
+        KieSession ksession = kbase.newKieSession(newPseudoClockConfiguration(), null);
+
+        List<FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            handles.add(ksession.insert(new Fact(i)));
+        }
+        FactHandle eventHandle = ksession.insert(new Event(0));
+        assertThat(handles).allMatch(CompactFactHandle.class::isInstance);
+        // events keep their own handles
+        assertThat(eventHandle).isInstanceOf(EventFactHandle.class);
+
+        ksession.update(handles.get(1), new Fact(10));
+        ksession.delete(handles.get(2));
+        ksession.fireAllRules();
+
+        assertThat(ksession.getObject(handles.get(1))).isEqualTo(new Fact(10));
+        assertThat(ksession.getFactHandle(ksession.getObject(handles.get(1)))).isSameAs(handles.get(1));
+        assertThat(ksession.getObject(handles.get(2))).isNull();
+        assertThat(new ArrayList<Object>(ksession.getObjects(Fact.class::isInstance)))
+                .containsExactlyInAnyOrder(new Fact(0), new Fact(10), new Fact(3), new Fact(4));
+
+        // the handles restored from a snapshot are compact as well
+        ProtobufMarshaller marshaller = newMarshaller(kbase);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshall(baos, ksession);
+        KieSession restored = marshaller.unmarshall(new ByteArrayInputStream(baos.toByteArray()),
+                                                    newPseudoClockConfiguration(),
+                                                    EnvironmentFactory.newEnvironment());
+
+        assertThat(describeHandles(restored)).isEqualTo(describeHandles(ksession));
+        List<FactHandle> restoredHandles = new ArrayList<>(restored.getFactHandles(Fact.class::isInstance));
+        assertThat(restoredHandles).hasSize(4).allMatch(CompactFactHandle.class::isInstance);
+        assertThat(restored.getFactHandles(Event.class::isInstance)).allMatch(EventFactHandle.class::isInstance);
+
+        FactHandle restoredHandle = findHandle(restored, new Fact(10));
+        assertThat(restored.getFactHandle(restored.getObject(restoredHandle))).isSameAs(restoredHandle);
+        restored.update(restoredHandle, new Fact(11));
+        restored.delete(findHandle(restored, new Fact(0)));
+        FactHandle inserted = restored.insert(new Fact(20));
+        restored.fireAllRules();
+
+        assertThat(inserted).isInstanceOf(CompactFactHandle.class);
+        assertThat(((InternalFactHandle) inserted).getId())
+                .isEqualTo(((InternalFactHandle) ksession.insert(new Fact(20))).getId());
+        assertThat(restored.getObject(restoredHandle)).isEqualTo(new Fact(11));
+        assertThat(new ArrayList<Object>(restored.getObjects(Fact.class::isInstance)))
+                .containsExactlyInAnyOrder(new Fact(11), new Fact(3), new Fact(4), new Fact(20));
+
+        ksession.dispose();
+        restored.dispose();
+    }
+
+    @Test
+    public void testLogicalInsertionIsRejected() {
+        KieSession ksession = newCompactKieBase().newKieSession(newPseudoClockConfiguration(), null);
+
+        assertThatThrownBy(() -> TruthMaintenanceSystemFactory.get()
+                .getOrCreateTruthMaintenanceSystem((ReteEvaluator) ksession)
+                .insert(new Fact(1), null, null))
+                .isInstanceOf(UnsupportedOperationException.class)
+                .hasMessageContaining(CompactFactHandlesOption.PROPERTY_NAME);
+
+        ksession.dispose();
+    }
+
+    private static FactHandle findHandle(KieSession ksession, Object fact) {
+        // facts are asserted by identity, so the handle can't be looked up through an equal instance
+        return ksession.getFactHandles(fact::equals).iterator().next();
+    }
+
+    private static List<String> describeHandles(KieSession ksession) {
+        List<String> handles = new ArrayList<>();
+        for (FactHandle fh : ksession.getFactHandles()) {
+            InternalFactHandle handle = (InternalFactHandle) fh;
+            handles.add(handle.getClass().getSimpleName() + ":" + handle.getId() + ":" + handle.getRecency() + ":" + handle.getObject());
+        }
+        handles.sort(null);
+        return handles;
+    }
+
+    private static KieBase newCompactKieBase() {
+        KieBaseConfiguration config = RuleBaseFactory.newKnowledgeBaseConfiguration();
+        config.setOption(EventProcessingOption.STREAM);
+        config.setOption(CompactFactHandlesOption.YES);
+        return KnowledgeBaseFactory.newKnowledgeBase(config);
+    }
+
+    private static KieSessionConfiguration newPseudoClockConfiguration() {
+        KieSessionConfiguration ksconf = RuleBaseFactory.newKnowledgeSessionConfiguration();
+        ksconf.setOption(ClockTypeOption.PSEUDO);
+        return ksconf;
+    }
+
+    private static ProtobufMarshaller newMarshaller(KieBase kbase) {
+        ObjectMarshallingStrategy strategy = new SerializablePlaceholderResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT);
+        return new ProtobufMarshaller(kbase, new MarshallingConfigurationImpl(new ObjectMarshallingStrategy[]{strategy}, false, false));
+    }
+
+    public static class Fact implements Serializable {
+
+        private final int value;
+
+        public Fact(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Fact && ((Fact) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Fact(" + value + ")";
+        }
+    }
+
+    @Role(Role.Type.EVENT)
+    public static class Event implements Serializable {
+
+        private final int value;
+
+        public Event(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Event && ((Event) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return value;
+        }
+
+        @Override
+        public String toString() {
+            return "Event(" + value + ")";
+        }
+    }
+}
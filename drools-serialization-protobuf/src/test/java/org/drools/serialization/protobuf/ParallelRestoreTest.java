@@ -0,0 +1,201 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.serialization.protobuf;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.protobuf.ByteString;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.impl.EnvironmentFactory;
+import org.drools.core.marshalling.ClassObjectMarshallingStrategyAcceptor;
+import org.drools.core.marshalling.SerializablePlaceholderResolverStrategy;
+import org.drools.kiesession.rulebase.KnowledgeBaseFactory;
+import org.drools.serialization.protobuf.marshalling.JavaSerializableResolverStrategy;
+import org.drools.serialization.protobuf.marshalling.MarshallingConfigurationImpl;
+import org.junit.After;
+import org.junit.Test;
+import org.kie.api.KieBase;
+import org.kie.api.marshalling.ObjectMarshallingStrategy;
+import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ParallelRestoreTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testUnmarshalObjectsInParallel() throws Exception {
+        JavaSerializableResolverStrategy threadSafe = new JavaSerializableResolverStrategy(object -> true);
+        ObjectMarshallingStrategy other = mock(ObjectMarshallingStrategy.class);
+        Map<Integer, ObjectMarshallingStrategy> usedStrategies = new HashMap<>();
+        usedStrategies.put(0, threadSafe);
+        usedStrategies.put(1, other);
+
+        ProtobufMarshallerReaderContext context = mock(ProtobufMarshallerReaderContext.class);
+        when(context.getUnmarshallingExecutor()).thenReturn(executor);
+        when(context.getUsedStrategies()).thenReturn(usedStrategies);
+        when(context.getStrategyContexts()).thenReturn(new HashMap<>());
+
+        List<ProtobufMessages.FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            ProtobufMessages.FactHandle.Builder _handle = ProtobufMessages.FactHandle.newBuilder()
+                    .setType(ProtobufMessages.FactHandle.HandleType.FACT)
+                    .setId(i)
+                    .setRecency(i);
+            if (i % 3 == 0) {
+                _handle.setStrategyIndex(0)
+                        .setObject(ByteString.copyFrom(threadSafe.marshal(null, null, "fact" + i)));
+            } else if (i % 3 == 1) {
+                _handle.setStrategyIndex(1)
+                        .setObject(ByteString.copyFromUtf8("fact" + i));
+            }
+            handles.add(_handle.build());
+        }
+
+        Object[] objects = ProtobufInputMarshaller.unmarshalObjectsInParallel(context, handles);
+        assertThat(objects).hasSize(handles.size());
+        for (int i = 0; i < objects.length; i++) {
+            if (i % 3 == 0) {
+                assertThat(objects[i]).isEqualTo("fact" + i);
+            } else if (i % 3 == 1) {
+                // left to be unmarshalled sequentially by a strategy that isn't thread safe
+                assertThat(objects[i]).isSameAs(ProtobufInputMarshaller.NOT_UNMARSHALLED);
+            } else {
+                assertThat(objects[i]).isNull();
+            }
+        }
+    }
+
+    @Test(timeout = 40000)
+    public void testParallelRestoreEqualsSerialRestore() throws Exception {
+        KieBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        KieSession ksession = kbase.newKieSession();
+        List<FactHandle> handles = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            handles.add(ksession.insert(i % 2 == 0 ? new ThreadSafeFact(i) : new DefaultFact(i)));
+        }
+        ksession.delete(handles.get(10));
+        ksession.update(handles.get(20), new ThreadSafeFact(-20));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        newMarshaller(kbase, false).marshall(baos, ksession);
+
+        ThreadSafeFact.READING_THREADS.clear();
+        KieSession serial = newMarshaller(kbase, false).unmarshall(new ByteArrayInputStream(baos.toByteArray()),
+                                                                   null,
+                                                                   EnvironmentFactory.newEnvironment());
+        assertThat(ThreadSafeFact.READING_THREADS).containsOnly(Thread.currentThread().getName());
+
+        ThreadSafeFact.READING_THREADS.clear();
+        KieSession parallel = newMarshaller(kbase, true).unmarshall(new ByteArrayInputStream(baos.toByteArray()),
+                                                                    null,
+                                                                    EnvironmentFactory.newEnvironment());
+        // the objects of the thread safe strategy have been unmarshalled by the executor
+        assertThat(ThreadSafeFact.READING_THREADS).isNotEmpty().doesNotContain(Thread.currentThread().getName());
+
+        assertThat(describeHandles(parallel)).hasSize(2999).isEqualTo(describeHandles(serial));
+        assertThat(describeHandles(parallel)).isEqualTo(describeHandles(ksession));
+
+        ksession.dispose();
+        serial.dispose();
+        parallel.dispose();
+    }
+
+    @Test
+    public void testFewHandlesAreUnmarshalledSequentially() throws Exception {
+        ProtobufMarshallerReaderContext context = mock(ProtobufMarshallerReaderContext.class);
+        when(context.getUnmarshallingExecutor()).thenReturn(executor);
+
+        List<ProtobufMessages.FactHandle> handles = new ArrayList<>();
+        handles.add(ProtobufMessages.FactHandle.newBuilder().setId(1).build());
+        assertThat(ProtobufInputMarshaller.unmarshalObjectsInParallel(context, handles)).isNull();
+    }
+
+    private static List<String> describeHandles(KieSession ksession) {
+        List<String> handles = new ArrayList<>();
+        for (FactHandle fh : ksession.getFactHandles()) {
+            InternalFactHandle handle = (InternalFactHandle) fh;
+            handles.add(handle.getId() + ":" + handle.getRecency() + ":" + handle.getObject());
+        }
+        handles.sort(null);
+        return handles;
+    }
+
+    private static ProtobufMarshaller newMarshaller(KieBase kbase, boolean parallelRestore) {
+        ObjectMarshallingStrategy threadSafe = new JavaSerializableResolverStrategy(ThreadSafeFact.class::isInstance);
+        ObjectMarshallingStrategy placeholder = new SerializablePlaceholderResolverStrategy(ClassObjectMarshallingStrategyAcceptor.DEFAULT);
+        ProtobufMarshaller marshaller = new ProtobufMarshaller(kbase, new MarshallingConfigurationImpl(new ObjectMarshallingStrategy[]{threadSafe, placeholder}, false, false));
+        marshaller.setParallelRestore(parallelRestore);
+        return marshaller;
+    }
+
+    public static class ThreadSafeFact implements Serializable {
+
+        static final Set<String> READING_THREADS = ConcurrentHashMap.newKeySet();
+
+        private final int value;
+
+        public ThreadSafeFact(int value) {
+            this.value = value;
+        }
+
+        private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            READING_THREADS.add(Thread.currentThread().getName());
+        }
+
+        @Override
+        public String toString() {
+            return "ThreadSafeFact(" + value + ")";
+        }
+    }
+
+    public static class DefaultFact implements Serializable {
+
+        private final int value;
+
+        public DefaultFact(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public String toString() {
+            return "DefaultFact(" + value + ")";
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.compiler.integrationtests;
+
+import org.drools.compiler.kie.builder.impl.KieModuleKieProject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.Results;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedCompiledClassesTest {
+
+    private static final String PACKAGE = "org.drools.shared";
+
+    private static final String PERSON = PACKAGE + ".Person";
+    private static final String ADDRESS = PACKAGE + ".Address";
+
+    private static final String PERSON_SOURCE =
+            "package " + PACKAGE + ";\n" +
+            "public class Person {\n" +
+            "    private final String name;\n" +
+            "    public Person(String name) { this.name = name; }\n" +
+            "    public String getName() { return name; }\n" +
+            "}\n";
+
+    private static final String PERSON_SOURCE_V2 =
+            "package " + PACKAGE + ";\n" +
+            "public class Person {\n" +
+            "    private final String name;\n" +
+            "    public Person(String name) { this.name = name; }\n" +
+            "    public String getName() { return name; }\n" +
+            "    public int getAge() { return 0; }\n" +
+            "}\n";
+
+    private static final String ADDRESS_SOURCE =
+            "package " + PACKAGE + ";\n" +
+            "public class Address {\n" +
+            "    private String city;\n" +
+            "    public String getCity() { return city; }\n" +
+            "    public void setCity(String city) { this.city = city; }\n" +
+            "}\n";
+
+    private static final String RULES =
+            "package " + PACKAGE + "\n" +
+            "declare Greeting\n" +
+            "    text : String\n" +
+            "end\n" +
+            "rule Greet when\n" +
+            "    Person( $name : name )\n" +
+            "then\n" +
+            "    insert( new Greeting( \"Hello \" + $name ) );\n" +
+            "end\n";
+
+    private KieServices ks;
+
+    @Before
+    public void setUp() {
+        ks = KieServices.Factory.get();
+        System.setProperty(KieModuleKieProject.SHARE_COMPILED_CLASSES_PROPERTY, "true");
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(KieModuleKieProject.SHARE_COMPILED_CLASSES_PROPERTY);
+    }
+
+    @Test
+    public void testContainersOfTheSameKieModuleShareItsClasses() throws Exception {
+        ReleaseId releaseId = buildKieModule("1.0.0", PERSON_SOURCE);
+        KieContainer first = ks.newKieContainer(releaseId);
+        KieContainer second = ks.newKieContainer(releaseId);
+
+        Class<?> personClass = first.getClassLoader().loadClass(PERSON);
+        assertThat(second.getClassLoader().loadClass(PERSON)).isSameAs(personClass);
+        assertThat(second.getClassLoader().loadClass(ADDRESS)).isSameAs(first.getClassLoader().loadClass(ADDRESS));
+
+        // the declared types are defined by each container
+        Class<?> firstGreeting = first.getKieBase().getFactType(PACKAGE, "Greeting").getFactClass();
+        Class<?> secondGreeting = second.getKieBase().getFactType(PACKAGE, "Greeting").getFactClass();
+        assertThat(firstGreeting).isNotSameAs(secondGreeting);
+        assertThat(firstGreeting.getClassLoader()).isNotSameAs(secondGreeting.getClassLoader());
+
+        assertGreets(first, personClass, firstGreeting);
+        assertGreets(second, personClass, secondGreeting);
+
+        first.dispose();
+        second.dispose();
+    }
+
+    @Test
+    public void testUpdatedContainerStopsSharingItsClasses() throws Exception {
+        ReleaseId releaseId1 = buildKieModule("1.0.0", PERSON_SOURCE);
+        KieContainer updated = ks.newKieContainer(releaseId1);
+        KieContainer other = ks.newKieContainer(releaseId1);
+
+        Class<?> personClass = other.getClassLoader().loadClass(PERSON);
+        Class<?> addressClass = other.getClassLoader().loadClass(ADDRESS);
+        assertThat(updated.getClassLoader().loadClass(PERSON)).isSameAs(personClass);
+        assertThat(updated.getClassLoader().loadClass(ADDRESS)).isSameAs(addressClass);
+
+        ReleaseId releaseId2 = buildKieModule("1.0.1", PERSON_SOURCE_V2);
+        Results results = updated.updateToVersion(releaseId2);
+        assertThat(results.getMessages(Message.Level.ERROR)).isEmpty();
+
+        // the updated container defines all its classes, including the unchanged ones
+        Class<?> updatedPersonClass = updated.getClassLoader().loadClass(PERSON);
+        assertThat(updatedPersonClass).isNotSameAs(personClass);
+        assertThat(updatedPersonClass.getMethod("getAge")).isNotNull();
+        assertThat(updated.getClassLoader().loadClass(ADDRESS)).isNotSameAs(addressClass);
+        assertGreets(updated, updatedPersonClass, updated.getKieBase().getFactType(PACKAGE, "Greeting").getFactClass());
+
+        // while the other containers of the previous release keep sharing theirs
+        assertThat(other.getClassLoader().loadClass(PERSON)).isSameAs(personClass);
+        KieContainer created = ks.newKieContainer(releaseId1);
+        assertThat(created.getClassLoader().loadClass(PERSON)).isSameAs(personClass);
+        assertThat(created.getClassLoader().loadClass(ADDRESS)).isSameAs(addressClass);
+        assertGreets(other, personClass, other.getKieBase().getFactType(PACKAGE, "Greeting").getFactClass());
+
+        updated.dispose();
+        other.dispose();
+        created.dispose();
+    }
+
+    @Test
+    public void testClassesAreNotSharedByDefault() throws Exception {
+        System.clearProperty(KieModuleKieProject.SHARE_COMPILED_CLASSES_PROPERTY);
+
+        ReleaseId releaseId = buildKieModule("1.0.0", PERSON_SOURCE);
+        KieContainer first = ks.newKieContainer(releaseId);
+        KieContainer second = ks.newKieContainer(releaseId);
+
+        assertThat(second.getClassLoader().loadClass(PERSON)).isNotSameAs(first.getClassLoader().loadClass(PERSON));
+
+        first.dispose();
+        second.dispose();
+    }
+
+    private static void assertGreets(KieContainer kieContainer, Class<?> personClass, Class<?> greetingClass) throws Exception {
+        KieSession ksession = kieContainer.newKieSession();
+        try {
+            ksession.insert(personClass.getConstructor(String.class).newInstance("Mario"));
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(ksession.getObjects(greetingClass::isInstance)).hasSize(1);
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private ReleaseId buildKieModule(String version, String personSource) {
+        KieFileSystem kfs = ks.newKieFileSystem();
+
+        ReleaseId releaseId = ks.newReleaseId(PACKAGE, "shared-classes", version);
+        kfs.generateAndWritePomXML(releaseId);
+
+        KieModuleModel kModuleModel = ks.newKieModuleModel();
+        kModuleModel.newKieBaseModel("shared")
+                .setDefault(true)
+                .addPackage(PACKAGE)
+                .newKieSessionModel("shared-session")
+                .setDefault(true);
+        kfs.writeKModuleXML(kModuleModel.toXML());
+
+        kfs.write("src/main/java/org/drools/shared/Person.java", personSource);
+        kfs.write("src/main/java/org/drools/shared/Address.java", ADDRESS_SOURCE);
+        kfs.write("src/main/resources/org/drools/shared/rules.drl", RULES);
+
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        assertThat(kieBuilder.getResults().getMessages(Message.Level.ERROR)).isEmpty();
+        return releaseId;
+    }
+}
@@ -5057,4 +5057,70 @@ public class IncrementalCompilationTest {
         ksession.insert("test");
         assertThat(ksession.fireAllRules()).isEqualTo(1);
     }
+
+    @Test
+    public void testJavaClassRedefinitionOnlyRebuildsDependentRules() {
+        final String JAVA1 = "package org.test;" +
+                "    public class MyBean {\n" +
+                "        private String firstName;\n" +
+                "        public String getFirstName() { return firstName; }\n" +
+                "        public void setFirstName(String firstName) { this.firstName = firstName; }\n" +
+                "    }";
+
+        final String JAVA2 = "package org.test;" +
+                "    public class MyBean {\n" +
+                "        private String firstName;\n" +
+                "        private String lastName;\n" +
+                "        public String getFirstName() { return firstName; }\n" +
+                "        public void setFirstName(String firstName) { this.firstName = firstName; }\n" +
+                "        public String getLastName() { return lastName; }\n" +
+                "        public void setLastName(String lastName) { this.lastName = lastName; }\n" +
+                "    }";
+
+        final String BEAN_DRL = "package org.test;\n" +
+                "rule R1 when\n" +
+                "    MyBean()\n" +
+                "then\n" +
+                "end\n";
+
+        final String STRING_DRL = "package org.test.other;\n" +
+                "rule R2 when\n" +
+                "    String()\n" +
+                "then\n" +
+                "end\n";
+
+        final KieServices ks = KieServices.Factory.get();
+
+        final ReleaseId id1 = ks.newReleaseId("org.test", "myTest", "1.0.0");
+        final KieFileSystem kfs = ks.newKieFileSystem();
+        kfs.generateAndWritePomXML(id1);
+        kfs.write("src/main/java/org/test/MyBean.java", JAVA1);
+        kfs.write("src/main/resources/org/test/bean.drl", BEAN_DRL);
+        kfs.write("src/main/resources/org/test/other/string.drl", STRING_DRL);
+        ks.newKieBuilder(kfs).buildAll(DrlProject.class);
+
+        final KieContainer kc = ks.newKieContainer(id1);
+        final KieSession ksession = kc.newKieSession();
+        ksession.insert("test");
+        assertThat(ksession.fireAllRules()).isEqualTo(1);
+
+        final Rule r1 = kc.getKieBase().getRule("org.test", "R1");
+        final Rule r2 = kc.getKieBase().getRule("org.test.other", "R2");
+
+        final ReleaseId id2 = ks.newReleaseId("org.test", "myTest", "2.0.0");
+        kfs.generateAndWritePomXML(id2);
+        kfs.write("src/main/java/org/test/MyBean.java", JAVA2);
+        ks.newKieBuilder(kfs).buildAll(DrlProject.class);
+
+        final Results updateResults = kc.updateToVersion(id2);
+        assertThat(updateResults.hasMessages(Level.ERROR)).isFalse();
+        assertThat(((IncrementalResults) updateResults).getKieBaseUpdateTimes()).hasSize(1);
+
+        // only the rule using the redefined class has been rebuilt
+        assertThat(kc.getKieBase().getRule("org.test", "R1")).isNotSameAs(r1);
+        assertThat(kc.getKieBase().getRule("org.test.other", "R2")).isSameAs(r2);
+
+        ksession.insert("test2");
+        assertThat(ksession.fireAllRules()).isEqualTo(1);
+    }
 }
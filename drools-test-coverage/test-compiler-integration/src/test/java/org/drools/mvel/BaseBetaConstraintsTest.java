@@ -111,6 +111,8 @@ public abstract class BaseBetaConstraintsTest {
                                         Class cls,
                                         short betaNodeType) {
         RuleBaseConfiguration config = new RuleBaseConfiguration();
+        // these tests inspect the generic TupleIndexHashTable
+        config.setTypedBetaMemoryIndex(false);
         int depth = config.getCompositeKeyDepth();
 
         BetaConstraints betaConstraints;
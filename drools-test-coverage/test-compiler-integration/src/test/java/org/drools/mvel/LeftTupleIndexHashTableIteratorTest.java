@@ -53,6 +53,8 @@ public class LeftTupleIndexHashTableIteratorTest extends BaseTupleIndexHashTable
         BetaNodeFieldConstraint[] constraints = new BetaNodeFieldConstraint[]{constraint0};
 
         RuleBaseConfiguration config = new RuleBaseConfiguration();
+        // this test inspects the generic TupleIndexHashTable
+        config.setTypedBetaMemoryIndex(false);
 
         BetaConstraints betaConstraints = null;
 
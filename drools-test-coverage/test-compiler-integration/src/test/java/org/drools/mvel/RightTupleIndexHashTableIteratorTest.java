@@ -55,6 +55,8 @@ public class RightTupleIndexHashTableIteratorTest extends BaseTupleIndexHashTabl
         BetaNodeFieldConstraint[] constraints = new BetaNodeFieldConstraint[]{constraint0};
 
         RuleBaseConfiguration config = new RuleBaseConfiguration();
+        // this test inspects the generic TupleIndexHashTable
+        config.setTypedBetaMemoryIndex(false);
 
         BetaConstraints betaConstraints = null;
 
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.integrationtests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.api.KieBase;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSession;
+import org.kie.internal.utils.KieHelper;
+import org.kie.memorycompiler.CachingJavaCompiler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JavaCompilationCacheTest {
+
+    private static final String DRL =
+            "package org.drools.cache\n" +
+            "global java.util.List list\n" +
+            "function String greet(String name) {\n" +
+            "    return \"Hello \" + name;\n" +
+            "}\n" +
+            "rule R1 dialect \"java\" when\n" +
+            "    $s : String( length > 3 )\n" +
+            "then\n" +
+            "    list.add( greet( $s ) );\n" +
+            "end\n";
+
+    private static final FileTime CACHED_TIME = FileTime.fromMillis(0);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        System.clearProperty(CachingJavaCompiler.CACHE_DIR_PROPERTY);
+    }
+
+    @Test
+    public void testSecondBuildOfTheSameRulesHitsTheCache() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+        System.setProperty(CachingJavaCompiler.CACHE_DIR_PROPERTY, cacheDir.toString());
+
+        assertFires(new KieHelper().addContent(DRL, ResourceType.DRL).build());
+        List<Path> entries = cacheEntries(cacheDir);
+        assertThat(entries).isNotEmpty();
+        for (Path entry : entries) {
+            Files.setLastModifiedTime(entry, CACHED_TIME);
+        }
+
+        // a miss would compile the classes again and replace its entry with a new file
+        assertFires(new KieHelper().addContent(DRL, ResourceType.DRL).build());
+        assertThat(cacheEntries(cacheDir)).containsExactlyInAnyOrderElementsOf(entries);
+        for (Path entry : entries) {
+            assertThat(Files.getLastModifiedTime(entry)).isEqualTo(CACHED_TIME);
+        }
+    }
+
+    @Test
+    public void testChangedConsequenceIsCompiledAgain() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+        System.setProperty(CachingJavaCompiler.CACHE_DIR_PROPERTY, cacheDir.toString());
+
+        assertFires(new KieHelper().addContent(DRL, ResourceType.DRL).build());
+        int entries = cacheEntries(cacheDir).size();
+
+        KieBase kbase = new KieHelper().addContent(DRL.replace("greet( $s )", "greet( $s ).trim()"), ResourceType.DRL).build();
+        assertFires(kbase);
+        assertThat(cacheEntries(cacheDir)).hasSizeGreaterThan(entries);
+    }
+
+    private static void assertFires(KieBase kbase) {
+        KieSession ksession = kbase.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            ksession.insert("Mario");
+            ksession.insert("Bo");
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("Hello Mario");
+        } finally {
+            ksession.dispose();
+        }
+    }
+
+    private static List<Path> cacheEntries(Path cacheDir) throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+}
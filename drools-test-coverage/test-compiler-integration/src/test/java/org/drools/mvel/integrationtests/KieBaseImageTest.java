@@ -0,0 +1,123 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.mvel.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.compiler.io.memory.MemoryFileSystem;
+import org.drools.compiler.kie.builder.impl.InternalKieModule;
+import org.drools.compiler.kie.builder.impl.KieBaseImage;
+import org.junit.After;
+import org.junit.Test;
+import org.kie.api.KieServices;
+import org.kie.api.builder.KieBuilder;
+import org.kie.api.builder.KieFileSystem;
+import org.kie.api.builder.KieModule;
+import org.kie.api.builder.Message;
+import org.kie.api.builder.ReleaseId;
+import org.kie.api.builder.model.KieModuleModel;
+import org.kie.api.runtime.KieContainer;
+import org.kie.api.runtime.KieSession;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KieBaseImageTest {
+
+    private static final String DRL_PATH = "org/drools/image/rules.drl";
+
+    private static final String DRL =
+            "package org.drools.image\n" +
+            "global java.util.List list\n" +
+            "rule R1 when\n" +
+            "    $s : String( this == \"Hello\" )\n" +
+            "then\n" +
+            "    list.add( $s );\n" +
+            "end\n";
+
+    @After
+    public void tearDown() {
+        System.clearProperty(KieBaseImage.KIE_BASE_IMAGE_PROPERTY);
+    }
+
+    @Test
+    public void testKieBaseIsCreatedFromItsImage() {
+        System.setProperty(KieBaseImage.KIE_BASE_IMAGE_PROPERTY, "true");
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "kbase-image", "1.0");
+        MemoryFileSystem mfs = MemoryFileSystem.readFromJar(buildKJar(ks, releaseId));
+        assertThat(mfs.getFile(KieBaseImage.getKieBaseImagePath(releaseId, "KBase1"))).isNotNull();
+
+        // without its rules the KieBase can only be created from the image
+        mfs.remove(DRL_PATH);
+        assertFires(deploy(ks, mfs));
+    }
+
+    @Test
+    public void testNoImageIsWrittenByDefault() {
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "kbase-no-image", "1.0");
+        MemoryFileSystem mfs = MemoryFileSystem.readFromJar(buildKJar(ks, releaseId));
+        assertThat(mfs.getFile(KieBaseImage.getKieBaseImagePath(releaseId, "KBase1"))).isNull();
+    }
+
+    @Test
+    public void testUnreadableImageFallsBackToTheResources() {
+        System.setProperty(KieBaseImage.KIE_BASE_IMAGE_PROPERTY, "true");
+        KieServices ks = KieServices.Factory.get();
+        ReleaseId releaseId = ks.newReleaseId("org.kie", "kbase-broken-image", "1.0");
+        MemoryFileSystem mfs = MemoryFileSystem.readFromJar(buildKJar(ks, releaseId));
+
+        mfs.write(KieBaseImage.getKieBaseImagePath(releaseId, "KBase1"), new byte[] {1, 2, 3}, true);
+        assertFires(deploy(ks, mfs));
+    }
+
+    private static byte[] buildKJar(KieServices ks, ReleaseId releaseId) {
+        KieModuleModel kproj = ks.newKieModuleModel();
+        kproj.newKieBaseModel("KBase1")
+                .setDefault(true)
+                .newKieSessionModel("KSession1")
+                .setDefault(true);
+
+        KieFileSystem kfs = ks.newKieFileSystem()
+                .generateAndWritePomXML(releaseId)
+                .writeKModuleXML(kproj.toXML())
+                .write("src/main/resources/" + DRL_PATH, DRL);
+        KieBuilder kieBuilder = ks.newKieBuilder(kfs).buildAll();
+        assertThat(kieBuilder.getResults().getMessages(Message.Level.ERROR)).isEmpty();
+        return ((InternalKieModule) kieBuilder.getKieModule()).getBytes();
+    }
+
+    private static KieContainer deploy(KieServices ks, MemoryFileSystem mfs) {
+        KieModule km = ks.getRepository().addKieModule(ks.getResources().newByteArrayResource(mfs.writeAsBytes()));
+        return ks.newKieContainer(km.getReleaseId());
+    }
+
+    private static void assertFires(KieContainer kieContainer) {
+        KieSession ksession = kieContainer.newKieSession();
+        try {
+            List<String> list = new ArrayList<>();
+            ksession.setGlobal("list", list);
+            ksession.insert("Hello");
+            ksession.insert("Bye");
+            assertThat(ksession.fireAllRules()).isEqualTo(1);
+            assertThat(list).containsExactly("Hello");
+        } finally {
+            ksession.dispose();
+        }
+    }
+}
@@ -36,6 +36,7 @@ import org.kie.api.definition.type.FactType;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.KieSession;
+import org.kie.internal.builder.CompositeKnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilder;
 import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.internal.io.ResourceFactory;
@@ -454,4 +455,59 @@ public class KnowledgeBuilderTest {
 
         }
     }
+
+    @Test
+    public void testParallelParsingOfManyResources() throws Exception {
+        // more resources than the parallel build threshold, so that they are parsed concurrently
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        CompositeKnowledgeBuilder batch = kbuilder.batch().type( ResourceType.DRL );
+        for ( int i = 0; i < 40; i++ ) {
+            String drl = "package org.drools.mvel.compiler.test" + ( i % 2 ) + "\n" +
+                         "global java.util.List list\n" +
+                         "rule R" + i + " when\n" +
+                         "   String( this == \"" + i + "\" )\n" +
+                         "then\n" +
+                         "   list.add(" + i + ");\n" +
+                         "end\n";
+            batch.add( ResourceFactory.newByteArrayResource( drl.getBytes() ) );
+        }
+        batch.build();
+
+        if ( kbuilder.hasErrors() ) {
+            fail( kbuilder.getErrors().toString() );
+        }
+        assertThat(kbuilder.getKnowledgePackages()).hasSize(2);
+        for ( KiePackage kpkg : kbuilder.getKnowledgePackages() ) {
+            assertThat(kpkg.getRules()).hasSize(20);
+        }
+
+        InternalKnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        kbase.addPackages( kbuilder.getKnowledgePackages() );
+        KieSession ksession = kbase.newKieSession();
+        List<Integer> list = new ArrayList<>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( "7" );
+        ksession.insert( "24" );
+        ksession.fireAllRules();
+        assertThat(list).containsExactlyInAnyOrder(7, 24);
+    }
+
+    @Test
+    public void testParallelParsingReportsErrorsOfEachResource() throws Exception {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        CompositeKnowledgeBuilder batch = kbuilder.batch().type( ResourceType.DRL );
+        for ( int i = 0; i < 20; i++ ) {
+            String drl = "package org.drools.mvel.compiler.test\n" +
+                         "rule R" + i + " when\n" +
+                         ( i % 10 == 5 ? "   String( \n" : "   String()\n" ) +
+                         "then\n" +
+                         "end\n";
+            batch.add( ResourceFactory.newByteArrayResource( drl.getBytes() ).setSourcePath( "r" + i + ".drl" ) );
+        }
+        batch.build();
+
+        assertThat(kbuilder.hasErrors()).isTrue();
+        assertThat(kbuilder.getErrors()).extracting( error -> error.getResource().getSourcePath() )
+                .containsOnly( "r5.drl", "r15.drl" );
+    }
 }
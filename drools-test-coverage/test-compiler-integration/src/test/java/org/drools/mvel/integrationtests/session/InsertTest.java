@@ -33,6 +33,7 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.kie.api.KieBase;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.rule.FactHandle;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -133,4 +134,43 @@ public class InsertTest {
         ksession.fireAllRules();
         assertThat(list.size()).isEqualTo(1);
     }
+
+    @Test
+    public void testInsertAll() {
+        String drl = "";
+        drl += "package test\n";
+        drl += "import org.drools.mvel.compiler.Person\n";
+        drl += "import org.drools.mvel.compiler.Pet\n";
+        drl += "global java.util.List list\n";
+        drl += "rule test\n";
+        drl += "when\n";
+        drl += "  $person : Person()\n";
+        drl += "  Pet( ownerName == $person.name )\n";
+        drl += "then\n";
+        drl += "  list.add( $person.getName() );\n";
+        drl += "end\n";
+
+        KieBase kbase = KieBaseUtil.getKieBaseFromKieModuleFromDrl("test", kieBaseTestConfiguration, drl);
+        KieSession ksession = kbase.newKieSession();
+        final List<String> list = new ArrayList<>();
+        ksession.setGlobal("list", list);
+
+        final List<Object> facts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            facts.add(new Person("P" + i));
+            facts.add(new Pet("P" + (i * 2)));
+        }
+        facts.add(null);
+
+        final List<FactHandle> handles = ksession.insertAll(facts);
+        assertThat(handles).hasSize(facts.size());
+        assertThat(handles.get(facts.size() - 1)).isNull();
+        for (int i = 0; i < facts.size() - 1; i++) {
+            assertThat(ksession.getObject(handles.get(i))).isSameAs(facts.get(i));
+        }
+        assertThat(ksession.getFactCount()).isEqualTo(200);
+
+        assertThat(ksession.fireAllRules()).isEqualTo(50);
+        assertThat(list).hasSize(50).allMatch(name -> Integer.parseInt(name.substring(1)) % 2 == 0);
+    }
 }
@@ -67,6 +67,10 @@ public abstract class ProjectClassLoader extends ClassLoader implements KieTypeR
 
     private ResourceProvider resourceProvider;
 
+    private volatile ProjectClassLoader sharedClassLoader;
+
+    private final Set<String> sharedClassNames = ConcurrentHashMap.newKeySet();
+
     protected ProjectClassLoader( ClassLoader parent, ResourceProvider resourceProvider) {
         super(parent);
         this.resourceProvider = resourceProvider;
@@ -114,6 +118,13 @@ public abstract class ProjectClassLoader extends ClassLoader implements KieTypeR
             return cls;
         }
 
+        // the compiled classes shared with other class loaders are defined only once by the shared one
+        cls = loadSharedClass(name);
+        if (cls != null) {
+            loadedClasses.put(name, cls);
+            return cls;
+        }
+
         if (isStoreFirst(name)) {
             Class<?> clazz = findLoadedClass(name); // skip parent classloader
             if (clazz != null) {
@@ -182,6 +193,10 @@ public abstract class ProjectClassLoader extends ClassLoader implements KieTypeR
     }
 
     public Class<?> tryDefineType(String name, ClassNotFoundException cnfe) throws ClassNotFoundException {
+        Class<?> sharedClass = loadSharedClass(name);
+        if (sharedClass != null) {
+            return sharedClass;
+        }
         byte[] bytecode = getBytecode( ClassUtils.convertClassToResourcePath(name));
         if (bytecode == null) {
             if (CACHE_NON_EXISTING_CLASSES) {
@@ -259,6 +274,46 @@ public abstract class ProjectClassLoader extends ClassLoader implements KieTypeR
         }
     }
 
+    /**
+     * Delegates the definition of the classes stored in this class loader to the given one, as long as it stores
+     * them with the same bytecode. This allows the class loaders of many KieContainers created from the same kjar
+     * to define the classes compiled in it only once, instead of each one defining its own copy.
+     */
+    public void setSharedClassLoader(ProjectClassLoader sharedClassLoader) {
+        this.sharedClassLoader = sharedClassLoader;
+    }
+
+    public boolean hasSharedClassLoader() {
+        return sharedClassLoader != null;
+    }
+
+    /**
+     * Stops delegating to the shared class loader, so that from now on all the stored classes are defined by this
+     * class loader. Returns the names of the classes already loaded from the shared class loader: they have to be
+     * reloaded, as it happens when they are modified, to avoid mixing them with the ones defined by this class loader.
+     */
+    public synchronized List<String> detachSharedClassLoader() {
+        this.sharedClassLoader = null;
+        List<String> detachedClassNames = new ArrayList<>(sharedClassNames);
+        sharedClassNames.clear();
+        return detachedClassNames;
+    }
+
+    private Class<?> loadSharedClass(String name) throws ClassNotFoundException {
+        ProjectClassLoader shared = sharedClassLoader;
+        if (shared == null) {
+            return null;
+        }
+        String resourceName = ClassUtils.convertClassToResourcePath(name);
+        byte[] sharedBytecode = shared.getBytecode(resourceName);
+        if (sharedBytecode == null || !Arrays.equals(sharedBytecode, getBytecode(resourceName))) {
+            return null;
+        }
+        Class<?> cls = shared.loadClass(name);
+        sharedClassNames.add(name);
+        return cls;
+    }
+
     public boolean isClassInUse(String className, Class<? extends Annotation> annotationClazz) {
         Class<?> clazz = loadedClasses.get(className);
 
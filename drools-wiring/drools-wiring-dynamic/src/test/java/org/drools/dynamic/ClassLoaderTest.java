@@ -16,16 +16,22 @@
 
 package org.drools.dynamic;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.drools.util.IoUtils;
 import org.drools.wiring.api.classloader.ProjectClassLoader;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class ClassLoaderTest {
 
     @Test(timeout = 20000)
@@ -74,4 +80,41 @@ public class ClassLoaderTest {
         }
     }
 
+    @Test
+    public void testSharedClassLoader() throws Exception {
+        // a parent not able to load the test classes, so that they are defined by the project class loaders
+        ClassLoader parent = new ClassLoader(null) { };
+        String className = SharedBean.class.getName();
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put(className.replace('.', '/') + ".class", readBytecode(SharedBean.class));
+
+        ProjectClassLoader sharedClassLoader = ProjectClassLoader.createProjectClassLoader(parent, classes);
+        ProjectClassLoader first = createSharingClassLoader(parent, classes, sharedClassLoader);
+        ProjectClassLoader second = createSharingClassLoader(parent, classes, sharedClassLoader);
+
+        Class<?> sharedClass = first.loadClass(className);
+        assertThat(sharedClass).isNotSameAs(SharedBean.class);
+        assertThat(second.loadClass(className)).isSameAs(sharedClass);
+        assertThat(sharedClassLoader.loadClass(className)).isSameAs(sharedClass);
+        assertThat(first.isClassInUse(className)).isTrue();
+
+        assertThat(first.detachSharedClassLoader()).containsExactly(className);
+        assertThat(first.hasSharedClassLoader()).isFalse();
+
+        first.reinitTypes();
+        assertThat(first.loadClass(className)).isNotSameAs(sharedClass);
+        assertThat(second.loadClass(className)).isSameAs(sharedClass);
+    }
+
+    private static ProjectClassLoader createSharingClassLoader(ClassLoader parent, Map<String, byte[]> classes, ProjectClassLoader sharedClassLoader) {
+        ProjectClassLoader projectClassLoader = ProjectClassLoader.createProjectClassLoader(parent, new HashMap<>(classes));
+        projectClassLoader.setSharedClassLoader(sharedClassLoader);
+        return projectClassLoader;
+    }
+
+    private static byte[] readBytecode(Class<?> clazz) throws IOException {
+        return IoUtils.readBytesFromInputStream(clazz.getClassLoader().getResourceAsStream(clazz.getName().replace('.', '/') + ".class"));
+    }
+
+    public static class SharedBean { }
 }
@@ -21,6 +21,8 @@ package org.kie.dmn.feel.codegen.feel11;
 import java.time.Duration;
 import java.time.chrono.ChronoPeriod;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -90,6 +92,7 @@ import org.kie.dmn.feel.lang.ast.Visitor;
 import org.kie.dmn.feel.lang.impl.MapBackedType;
 import org.kie.dmn.feel.lang.types.BuiltInType;
 import org.kie.dmn.feel.parser.feel11.ScopeHelper;
+import org.kie.dmn.feel.runtime.functions.RegexPatternCache;
 import org.kie.dmn.feel.util.EvalHelper;
 import org.kie.dmn.feel.util.Msg;
 
@@ -99,6 +102,9 @@ public class ASTCompilerVisitor implements Visitor<DirectCompilerResult> {
 
     ScopeHelper<Type> scopeHelper = new ScopeHelper<>();
 
+    // the pattern and the flags of a regular expression can contain any character, so its constant is just numbered
+    private final Map<List<String>, String> regexConstantNames = new HashMap<>();
+
     @Override
     public DirectCompilerResult visit(ASTNode n) {
         throw new UnsupportedOperationException("Not yet implemented");
@@ -476,11 +482,75 @@ public class ASTCompilerVisitor implements Visitor<DirectCompilerResult> {
         }
         DirectCompilerResult functionName = n.getName().accept(this);
         DirectCompilerResult params = n.getParams().accept(this);
-        return DirectCompilerResult.of(
+        DirectCompilerResult result = DirectCompilerResult.of(
                 Expressions.invoke(functionName.getExpression(), params.getExpression()),
                 functionName.resultType)
                 .withFD(functionName)
                 .withFD(params);
+        FieldDeclaration regexConstant = precompileRegex(n);
+        return regexConstant != null ? result.withFD(Collections.singleton(regexConstant)) : result;
+    }
+
+    /**
+     * When the pattern and the flags of a matches() or replace() invocation are literals, compiles the pattern and
+     * returns a constant whose initialization puts it in the RegexPatternCache, so the invocation never compiles it.
+     * Nothing is returned for an invalid pattern, so that the error is still reported by the invocation.
+     */
+    private FieldDeclaration precompileRegex(FunctionInvocationNode n) {
+        if (!(n.getName() instanceof NameRefNode)) {
+            return null;
+        }
+        String fnName = n.getName().getText();
+        int flagsPosition;
+        if (fnName.equals("matches")) {
+            flagsPosition = 2;
+        } else if (fnName.equals("replace")) {
+            flagsPosition = 3;
+        } else {
+            return null;
+        }
+
+        BaseNode patternNode = null;
+        BaseNode flagsNode = null;
+        List<BaseNode> params = n.getParams().getElements();
+        for (int i = 0; i < params.size(); i++) {
+            BaseNode param = params.get(i);
+            if (param instanceof NamedParameterNode) {
+                String paramName = ((NamedParameterNode) param).getName().getText();
+                if (paramName.equals("pattern")) {
+                    patternNode = ((NamedParameterNode) param).getExpression();
+                } else if (paramName.equals("flags")) {
+                    flagsNode = ((NamedParameterNode) param).getExpression();
+                }
+            } else if (i == 1) {
+                patternNode = param;
+            } else if (i == flagsPosition) {
+                flagsNode = param;
+            }
+        }
+        if (!(patternNode instanceof StringNode) || (flagsNode != null && !(flagsNode instanceof StringNode))) {
+            return null;
+        }
+
+        String pattern = Expressions.stringLiteral(patternNode.getText()).asString();
+        String flags = flagsNode != null ? Expressions.stringLiteral(flagsNode.getText()).asString() : null;
+        try {
+            if (fnName.equals("matches")) {
+                RegexPatternCache.INSTANCE.matchesPattern(pattern, flags);
+            } else {
+                RegexPatternCache.INSTANCE.replacePattern(pattern, flags);
+            }
+        } catch (RuntimeException e) {
+            return null;
+        }
+
+        MethodCallExpr precompile = new MethodCallExpr(new FieldAccessExpr(new NameExpr(RegexPatternCache.class.getCanonicalName()), "INSTANCE"),
+                                                       fnName + "Pattern");
+        precompile.addArgument(new StringLiteralExpr().setString(pattern));
+        precompile.addArgument(flags != null ? new StringLiteralExpr().setString(flags) : new NullLiteralExpr());
+        String constantName = regexConstantNames.computeIfAbsent(Arrays.asList(fnName, pattern, flags),
+                                                                 k -> Constants.regexConstantName(fnName, regexConstantNames.size()));
+        return Constants.dtConstant(constantName, precompile);
     }
 
     public DirectCompilerResult replaceWithTemporalConstant(FunctionInvocationNode n, TemporalConstantNode tcFolded) {
@@ -100,6 +100,10 @@ public class Constants {
         return "K_DT_" + CodegenStringUtil.escapeIdentifier(originalText);
     }
 
+    public static String regexConstantName(String fnName, int index) {
+        return "K_RE_" + fnName + "_" + index;
+    }
+
     public static FieldAccessExpr rangeBoundary(RangeNode.IntervalBoundary boundary) {
         return new FieldAccessExpr(
                 new NameExpr(RangeBoundary),
@@ -17,7 +17,12 @@
 package org.kie.dmn.feel.runtime.functions;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
@@ -25,6 +30,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -89,7 +96,7 @@ public abstract class BaseFEELFunction
                 CandidateMethod cm = getCandidateMethod( ctx, params, isNamedParams, available );
 
                 if ( cm != null ) {
-                    Object result = cm.apply.invoke( this, cm.actualParams );
+                    Object result = cm.invoke( this );
 
                     if ( result instanceof Either ) {
                         @SuppressWarnings("unchecked")
@@ -189,49 +196,29 @@ public abstract class BaseFEELFunction
 
     @GwtIncompatible
     private CandidateMethod getCandidateMethod(EvaluationContext ctx, Object[] params, boolean isNamedParams, List<String> available) {
+        FunctionDispatcher dispatcher = DISPATCHERS.get( getClass() );
+        Signature signature = isNamedParams ? null : Signature.of( params );
+        if ( signature != null ) {
+            InvokeMethod cached = dispatcher.getCachedMethod( signature );
+            if ( cached != null ) {
+                // the same method is chosen for the same positional argument types, so only the actual params are computed
+                CandidateMethod cm = toCandidateMethod( ctx, cached, params, false, null );
+                cm.setApply( cached );
+                return cm;
+            }
+        }
+
         CandidateMethod candidate = null;
         // first, look for exact matches
-        for ( Method m : getClass().getDeclaredMethods() ) {
-            if ( !Modifier.isPublic(m.getModifiers()) || !m.getName().equals( "invoke" ) ) {
+        for ( InvokeMethod im : dispatcher.getMethods() ) {
+            CandidateMethod cm = toCandidateMethod( ctx, im, params, isNamedParams, available );
+            if ( cm == null ) {
+                // incompatible method
                 continue;
             }
+            Object[] actualParams = cm.getActualParams();
 
-            Object[] actualParams = null;
-            boolean injectCtx = Arrays.stream( m.getParameterTypes() ).anyMatch( p -> EvaluationContext.class.isAssignableFrom( p ) );
-            if( injectCtx ) {
-                actualParams = new Object[ params.length + 1 ];
-                int j = 0;
-                for (int i = 0; i < m.getParameterCount(); i++) {
-                    if( EvaluationContext.class.isAssignableFrom( m.getParameterTypes()[i] ) ) {
-                        if( isNamedParams ) {
-                            actualParams[i] = new NamedParameter( "ctx", ctx );
-                        } else {
-                            actualParams[i] = ctx;
-                        }
-                    } else if (j < params.length) {
-                        actualParams[i] = params[j];
-                        j++;
-                    }
-                }
-            } else {
-                actualParams = params;
-            }
-            if( isNamedParams ) {
-                actualParams = calculateActualParams( ctx, m, actualParams, available );
-                if( actualParams == null ) {
-                    // incompatible method
-                    continue;
-                }
-            }
-            CandidateMethod cm = new CandidateMethod( actualParams );
-
-            Class<?>[] parameterTypes = m.getParameterTypes();
-            if (!isNamedParams && actualParams.length > 0) {
-                // if named parameters, then it has been adjusted already in the calculateActualParams method,
-                // otherwise adjust here
-                adjustForVariableParameters( cm, parameterTypes );
-            }
-
+            Class<?>[] parameterTypes = im.parameterTypes;
             if ( parameterTypes.length != cm.getActualParams().length ) {
                 continue;
             }
@@ -261,7 +248,7 @@ public abstract class BaseFEELFunction
                 }
             }
             if ( found ) {
-                cm.setApply( m );
+                cm.setApply( im );
                 if (candidate == null) {
                     candidate = cm;
                 } else {
@@ -282,9 +269,54 @@ public abstract class BaseFEELFunction
                 }
             }
         }
+        if ( candidate != null && signature != null ) {
+            dispatcher.cacheMethod( signature, candidate.invokeMethod );
+        }
         return candidate;
     }
-    
+
+    /**
+     * Returns the actual params to pass to the given method, injecting the EvaluationContext and packing the
+     * variable parameters if needed, or null if the named parameters are incompatible with the method.
+     */
+    @GwtIncompatible
+    private CandidateMethod toCandidateMethod(EvaluationContext ctx, InvokeMethod im, Object[] params, boolean isNamedParams, List<String> available) {
+        Method m = im.method;
+        Object[] actualParams = null;
+        if( im.injectCtx ) {
+            actualParams = new Object[ params.length + 1 ];
+            int j = 0;
+            for (int i = 0; i < m.getParameterCount(); i++) {
+                if( EvaluationContext.class.isAssignableFrom( im.parameterTypes[i] ) ) {
+                    if( isNamedParams ) {
+                        actualParams[i] = new NamedParameter( "ctx", ctx );
+                    } else {
+                        actualParams[i] = ctx;
+                    }
+                } else if (j < params.length) {
+                    actualParams[i] = params[j];
+                    j++;
+                }
+            }
+        } else {
+            actualParams = params;
+        }
+        if( isNamedParams ) {
+            actualParams = calculateActualParams( ctx, m, actualParams, available );
+            if( actualParams == null ) {
+                return null;
+            }
+        }
+        CandidateMethod cm = new CandidateMethod( actualParams );
+
+        if (!isNamedParams && actualParams.length > 0) {
+            // if named parameters, then it has been adjusted already in the calculateActualParams method,
+            // otherwise adjust here
+            adjustForVariableParameters( cm, im.parameterTypes );
+        }
+        return cm;
+    }
+
     private static long nullCount(Object[] params) {
         return Stream.of(params).filter(x -> x == null).count();
     }
@@ -386,6 +418,7 @@ public abstract class BaseFEELFunction
 
     @GwtIncompatible
     private static class CandidateMethod {
+        private InvokeMethod invokeMethod = null;
         private Method   apply         = null;
         private Object[] actualParams  = null;
         private Class[]  actualClasses = null;
@@ -408,11 +441,16 @@ public abstract class BaseFEELFunction
             return apply;
         }
 
-        public void setApply(Method apply) {
-            this.apply = apply;
+        public void setApply(InvokeMethod invokeMethod) {
+            this.invokeMethod = invokeMethod;
+            this.apply = invokeMethod.method;
             calculateScore();
         }
 
+        public Object invoke(BaseFEELFunction function) throws Exception {
+            return invokeMethod.invoke( function, actualParams );
+        }
+
         public Object[] getActualParams() {
             return actualParams;
         }
@@ -436,4 +474,179 @@ public abstract class BaseFEELFunction
 
     }
 
+    @GwtIncompatible
+    private static final ClassValue<FunctionDispatcher> DISPATCHERS = new ClassValue<FunctionDispatcher>() {
+        @Override
+        protected FunctionDispatcher computeValue(Class<?> type) {
+            return new FunctionDispatcher( type );
+        }
+    };
+
+    /**
+     * The public invoke methods of a function class, scanned only once per class, together with the method chosen
+     * for each signature of positional arguments already seen.
+     */
+    @GwtIncompatible
+    private static class FunctionDispatcher {
+
+        private static final int MAX_CACHED_SIGNATURES = 256;
+
+        private final InvokeMethod[] methods;
+        private final Map<Signature, InvokeMethod> methodsBySignature = new ConcurrentHashMap<>();
+
+        private FunctionDispatcher(Class<?> type) {
+            List<InvokeMethod> invokeMethods = new ArrayList<>();
+            for ( Method m : type.getDeclaredMethods() ) {
+                if ( Modifier.isPublic( m.getModifiers() ) && m.getName().equals( "invoke" ) ) {
+                    invokeMethods.add( new InvokeMethod( m ) );
+                }
+            }
+            this.methods = invokeMethods.toArray( new InvokeMethod[invokeMethods.size()] );
+        }
+
+        InvokeMethod[] getMethods() {
+            return methods;
+        }
+
+        InvokeMethod getCachedMethod(Signature signature) {
+            return methodsBySignature.get( signature );
+        }
+
+        void cacheMethod(Signature signature, InvokeMethod method) {
+            // the signatures used with a function are usually very few, this just prevents unbounded growth
+            if ( methodsBySignature.size() >= MAX_CACHED_SIGNATURES ) {
+                methodsBySignature.keySet().removeIf( Signature::isStale );
+            }
+            if ( methodsBySignature.size() < MAX_CACHED_SIGNATURES ) {
+                methodsBySignature.put( signature.weak(), method );
+            }
+        }
+    }
+
+    @GwtIncompatible
+    private static class InvokeMethod {
+        private static final MethodType INVOKER_TYPE = MethodType.methodType( Object.class, Object.class, Object[].class );
+
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+        private final boolean injectCtx;
+        private final MethodHandle invoker;
+
+        private InvokeMethod(Method method) {
+            this.method = method;
+            this.parameterTypes = method.getParameterTypes();
+            this.injectCtx = Arrays.stream( parameterTypes ).anyMatch( EvaluationContext.class::isAssignableFrom );
+            this.invoker = createInvoker( method );
+        }
+
+        private static MethodHandle createInvoker(Method method) {
+            try {
+                return MethodHandles.lookup().unreflect( method )
+                        .asFixedArity()
+                        .asSpreader( Object[].class, method.getParameterCount() )
+                        .asType( INVOKER_TYPE );
+            } catch (IllegalAccessException e) {
+                // not accessible through a MethodHandle, it will be invoked reflectively
+                return null;
+            }
+        }
+
+        Object invoke(BaseFEELFunction function, Object[] actualParams) throws Exception {
+            if ( invoker == null ) {
+                return method.invoke( function, actualParams );
+            }
+            try {
+                return (Object) invoker.invokeExact( (Object) function, actualParams );
+            } catch (Throwable t) {
+                // same as a reflective invocation
+                throw new InvocationTargetException( t );
+            }
+        }
+    }
+
+    /**
+     * The classes of positional arguments. An argument that is a singleton collection can be unwrapped
+     * depending on the class of its element, so such arguments have no signature.
+     * The dispatcher of a function class lives as long as the class itself, so the signatures it caches only
+     * reference the classes of the arguments weakly: otherwise it would keep alive the ClassLoaders of the
+     * types of any DMN model ever evaluated. A cached signature whose classes have been collected is stale,
+     * it doesn't match any other signature and is purged once the cache is full.
+     */
+    @GwtIncompatible
+    private static class Signature {
+        // each element is null for a null argument, its Class, or a WeakReference to its Class once cached
+        private final Object[] classes;
+        private final int hashCode;
+
+        private Signature(Object[] classes, int hashCode) {
+            this.classes = classes;
+            this.hashCode = hashCode;
+        }
+
+        static Signature of(Object[] params) {
+            Class<?>[] classes = new Class<?>[params.length];
+            for ( int i = 0; i < params.length; i++ ) {
+                Object param = params[i];
+                if ( param instanceof Collection && ((Collection<?>) param).size() == 1 ) {
+                    return null;
+                }
+                classes[i] = param != null ? param.getClass() : null;
+            }
+            return new Signature( classes, Arrays.hashCode( classes ) );
+        }
+
+        Signature weak() {
+            Object[] weakClasses = new Object[classes.length];
+            for ( int i = 0; i < classes.length; i++ ) {
+                weakClasses[i] = classes[i] instanceof Class ? new WeakReference<>( (Class<?>) classes[i] ) : classes[i];
+            }
+            return new Signature( weakClasses, hashCode );
+        }
+
+        boolean isStale() {
+            for ( Object c : classes ) {
+                if ( c instanceof WeakReference && ((WeakReference<?>) c).get() == null ) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Object classOf(Object c) {
+            return c instanceof WeakReference ? ((WeakReference<?>) c).get() : c;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( !( o instanceof Signature ) ) {
+                return false;
+            }
+            Signature other = (Signature) o;
+            if ( hashCode != other.hashCode || classes.length != other.classes.length ) {
+                return false;
+            }
+            for ( int i = 0; i < classes.length; i++ ) {
+                if ( classes[i] == null || other.classes[i] == null ) {
+                    if ( classes[i] != other.classes[i] ) {
+                        return false;
+                    }
+                    continue;
+                }
+                Object c = classOf( classes[i] );
+                // a collected class doesn't match anything
+                if ( c == null || c != classOf( other.classes[i] ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
@@ -42,8 +42,7 @@ public class MatchesFunction
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "pattern", "cannot be null" ) );
         }
         try {
-            int f = processFlags( flags );
-            Pattern p = Pattern.compile( pattern, f );
+            Pattern p = RegexPatternCache.INSTANCE.matchesPattern( pattern, flags );
             Matcher m = p.matcher( input );
             return FEELFnResult.ofResult( m.find() );
         } catch ( PatternSyntaxException e ) {
@@ -55,20 +54,4 @@ public class MatchesFunction
         }
     }
 
-    private int processFlags(String flags) {
-        int f = 0;
-        if( flags != null ) {
-            if( flags.contains( "s" ) ) {
-                f |= Pattern.DOTALL;
-            }
-            if( flags.contains( "m" ) ) {
-                f |= Pattern.MULTILINE;
-            }
-            if( flags.contains( "i" ) ) {
-                f |= Pattern.CASE_INSENSITIVE;
-            }
-        }
-        return f;
-    }
-
 }
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * A bounded and thread-safe cache of the regular expressions compiled by the FEEL matches() and replace() functions,
+ * shared by the whole FEEL runtime. When the cache is full an arbitrary entry is evicted to make room for the new one.
+ *
+ * The maximum number of cached patterns can be configured with the org.kie.dmn.feel.regexCacheSize system property,
+ * where 0 disables the cache.
+ */
+public class RegexPatternCache {
+
+    public static final String MAX_SIZE_PROPERTY = "org.kie.dmn.feel.regexCacheSize";
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    public static final RegexPatternCache INSTANCE = new RegexPatternCache( Integer.getInteger( MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE ) );
+
+    private final int maxSize;
+    private final Map<Key, Pattern> patterns = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public RegexPatternCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the Pattern used by matches() for the given pattern and flags
+     *
+     * @throws java.util.regex.PatternSyntaxException if the pattern is invalid
+     */
+    public Pattern matchesPattern(String pattern, String flags) {
+        return get( pattern, matchesFlags( flags ) );
+    }
+
+    /**
+     * Returns the Pattern used by replace() for the given pattern and flags
+     *
+     * @throws java.util.regex.PatternSyntaxException if the pattern, or the flags, are invalid
+     */
+    public Pattern replacePattern(String pattern, String flags) {
+        // the flags are embedded in the regex, as String.replaceAll() would do
+        return get( flags != null && !flags.isEmpty() ? "(?" + flags + ")" + pattern : pattern, 0 );
+    }
+
+    public Pattern get(String regex, int flags) {
+        Key key = new Key( regex, flags );
+        Pattern pattern = patterns.get( key );
+        if ( pattern != null ) {
+            hits.increment();
+            return pattern;
+        }
+        misses.increment();
+        pattern = Pattern.compile( regex, flags );
+        if ( maxSize > 0 ) {
+            if ( patterns.size() >= maxSize ) {
+                evictOne();
+            }
+            patterns.put( key, pattern );
+        }
+        return pattern;
+    }
+
+    private void evictOne() {
+        Iterator<Key> it = patterns.keySet().iterator();
+        if ( it.hasNext() ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    public void clear() {
+        patterns.clear();
+        hits.reset();
+        misses.reset();
+    }
+
+    private static int matchesFlags(String flags) {
+        int f = 0;
+        if( flags != null ) {
+            if( flags.contains( "s" ) ) {
+                f |= Pattern.DOTALL;
+            }
+            if( flags.contains( "m" ) ) {
+                f |= Pattern.MULTILINE;
+            }
+            if( flags.contains( "i" ) ) {
+                f |= Pattern.CASE_INSENSITIVE;
+            }
+        }
+        return f;
+    }
+
+    private static class Key {
+        private final String regex;
+        private final int flags;
+
+        private Key(String regex, int flags) {
+            this.regex = regex;
+            this.flags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if ( this == o ) {
+                return true;
+            }
+            if ( o == null || getClass() != o.getClass() ) {
+                return false;
+            }
+            Key key = (Key) o;
+            return flags == key.flags && regex.equals( key.regex );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * regex.hashCode() + flags;
+        }
+    }
+}
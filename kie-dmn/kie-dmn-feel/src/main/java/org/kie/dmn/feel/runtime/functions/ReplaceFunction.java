@@ -43,14 +43,7 @@ public class ReplaceFunction
             return FEELFnResult.ofError( new InvalidParametersEvent( Severity.ERROR, "replacement", "cannot be null" ) );
         }
 
-        final String flagsString;
-        if (flags != null && !flags.isEmpty()) {
-            flagsString = "(?" + flags + ")";
-        } else {
-            flagsString = "";
-        }
-
-        return FEELFnResult.ofResult( input.replaceAll( flagsString + pattern, replacement ) );
+        return FEELFnResult.ofResult( RegexPatternCache.INSTANCE.replacePattern( pattern, flags ).matcher( input ).replaceAll( replacement ) );
     }
 
 }
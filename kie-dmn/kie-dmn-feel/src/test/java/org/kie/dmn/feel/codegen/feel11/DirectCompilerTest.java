@@ -468,6 +468,15 @@ public class DirectCompilerTest {
         assertThat(result).isEqualTo(BigDecimal.valueOf(2016));
     }
 
+    @Test
+    public void test_regex_constants() {
+        // the same pattern is compiled once, while "]0" and "\u03A2" would both be escaped to the identifier part "_930"
+        assertThat(parseCompileEvaluate("[matches(\"]0\", \"]0\"), matches(\"]0\", \"\u03A2\"), matches(\"a]0\", \"]0\")]"))
+                .asList().containsExactly(Boolean.TRUE, Boolean.FALSE, Boolean.TRUE);
+        assertThat(parseCompileEvaluate("[replace(\"ab\", \"b\", \"c\"), replace(\"aB\", \"b\", \"c\", \"i\")]"))
+                .asList().containsExactly("ac", "ac");
+    }
+
     private CompiledFEELExpression parse(String input) {
         return parse( input, Collections.emptyMap() );
     }
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.kie.dmn.feel.codegen.feel11.CodegenTestUtil;
+import org.kie.dmn.feel.lang.EvaluationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BaseFEELFunctionTest {
+
+    private EvaluationContext ctx;
+
+    @Before
+    public void setUp() {
+        ctx = CodegenTestUtil.newEmptyEvaluationContext();
+    }
+
+    @Test
+    public void invokeSameSignatureRepeatedly() {
+        SumFunction sumFunction = new SumFunction();
+        for (int i = 0; i < 3; i++) {
+            assertThat((BigDecimal) sumFunction.invokeReflectively(ctx, new Object[]{ BigDecimal.ONE, BigDecimal.TEN })).isEqualByComparingTo(new BigDecimal(11));
+            assertThat((BigDecimal) sumFunction.invokeReflectively(ctx, new Object[]{ BigDecimal.TEN })).isEqualByComparingTo(BigDecimal.TEN);
+            assertThat((BigDecimal) sumFunction.invokeReflectively(ctx, new Object[]{ Arrays.asList(BigDecimal.ONE, BigDecimal.ONE) })).isEqualByComparingTo(new BigDecimal(2));
+        }
+    }
+
+    @Test
+    public void invokeSingletonListIsNotBoundToOtherSignatures() {
+        StringLengthFunction stringLengthFunction = new StringLengthFunction();
+        assertThat((BigDecimal) stringLengthFunction.invokeReflectively(ctx, new Object[]{ "abc" })).isEqualByComparingTo(new BigDecimal(3));
+        // a singleton list is the same as its element
+        assertThat((BigDecimal) stringLengthFunction.invokeReflectively(ctx, new Object[]{ Collections.singletonList("abcd") })).isEqualByComparingTo(new BigDecimal(4));
+        assertThat((BigDecimal) stringLengthFunction.invokeReflectively(ctx, new Object[]{ "ab" })).isEqualByComparingTo(new BigDecimal(2));
+    }
+
+    @Test
+    public void cachedSignatureDoesNotRetainTheClassLoaderOfItsArguments() throws Exception {
+        WeakReference<ClassLoader> classLoader = invokeWithArgumentOfNewClassLoader();
+        for (int i = 0; i < 20 && classLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertThat(classLoader.get()).isNull();
+    }
+
+    private WeakReference<ClassLoader> invokeWithArgumentOfNewClassLoader() throws Exception {
+        URL location = ArgumentType.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{ location }, null)) {
+            Object argument = classLoader.loadClass(ArgumentType.class.getName()).getConstructor().newInstance();
+            assertThat(argument.getClass()).isNotSameAs(ArgumentType.class);
+
+            ListContainsFunction listContainsFunction = new ListContainsFunction();
+            for (int i = 0; i < 2; i++) {
+                assertThat(listContainsFunction.invokeReflectively(ctx, new Object[]{ Arrays.asList(argument, "a"), argument })).isEqualTo(true);
+            }
+            return new WeakReference<>(classLoader);
+        }
+    }
+
+    public static class ArgumentType {
+    }
+}
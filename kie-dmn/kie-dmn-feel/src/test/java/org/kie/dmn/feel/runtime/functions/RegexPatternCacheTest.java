@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.dmn.feel.runtime.functions;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RegexPatternCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        RegexPatternCache cache = new RegexPatternCache(10);
+        Pattern p1 = cache.matchesPattern("^fo*b", null);
+        Pattern p2 = cache.matchesPattern("^fo*b", null);
+        Pattern p3 = cache.matchesPattern("^fo*b", "i");
+
+        assertThat(p2).isSameAs(p1);
+        assertThat(p3).isNotSameAs(p1);
+        assertThat(p3.flags()).isEqualTo(Pattern.CASE_INSENSITIVE);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getHitCount()).isZero();
+        assertThat(cache.getMissCount()).isZero();
+    }
+
+    @Test
+    public void testReplaceEmbedsFlags() {
+        RegexPatternCache cache = new RegexPatternCache(10);
+        assertThat(cache.replacePattern("ab", "i").matcher("xAbx").replaceAll("-")).isEqualTo("x-x");
+        assertThat(cache.replacePattern("ab", "").pattern()).isEqualTo("ab");
+    }
+
+    @Test
+    public void testBounded() {
+        RegexPatternCache cache = new RegexPatternCache(3);
+        for (int i = 0; i < 10; i++) {
+            cache.matchesPattern("a" + i, null);
+        }
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getMissCount()).isEqualTo(10);
+    }
+
+    @Test
+    public void testDisabled() {
+        RegexPatternCache cache = new RegexPatternCache(0);
+        cache.matchesPattern("a", null);
+        cache.matchesPattern("a", null);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidPatternIsNotCached() {
+        RegexPatternCache cache = new RegexPatternCache(10);
+        assertThatThrownBy(() -> cache.matchesPattern("(", null)).isInstanceOf(PatternSyntaxException.class);
+        assertThat(cache.size()).isZero();
+    }
+}
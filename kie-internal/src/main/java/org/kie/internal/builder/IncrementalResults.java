@@ -16,11 +16,22 @@
 
 package org.kie.internal.builder;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.kie.api.builder.Message;
 
 public interface IncrementalResults {
     List<Message> getAddedMessages();
     List<Message> getRemovedMessages();
+
+    /**
+     * Returns the time in milliseconds spent updating each KieBase of a KieContainer updated to a new version,
+     * while the sessions of that KieBase were paused. When the update of a KieBase has been deferred, because its
+     * sessions were firing, it is reported only once it has been applied.
+     */
+    default Map<String, Long> getKieBaseUpdateTimes() {
+        return Collections.emptyMap();
+    }
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for batchedExpiration option. When enabled, the events of a session expiring at the same time
+ * in the same entry point are expired by a single timer job, propagating their expirations together.
+ *
+ * drools.batchedExpiration = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum BatchedExpirationOption implements SingleValueKieBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the batched expiration option
+     */
+    public static final String PROPERTY_NAME = "drools.batchedExpiration";
+
+    private boolean value;
+
+    BatchedExpirationOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isBatchedExpiration() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for compactFactHandles option. When enabled, the facts that aren't events are inserted with a compact
+ * fact handle, which takes less memory than the default one. It is only used with the identity equality behavior
+ * and without multithread evaluation, and it doesn't support truth maintenance, so it must not be enabled
+ * for rules inserting facts logically.
+ *
+ * drools.compactFactHandles = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum CompactFactHandlesOption implements SingleValueKieBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the compact fact handles option
+     */
+    public static final String PROPERTY_NAME = "drools.compactFactHandles";
+
+    private boolean value;
+
+    CompactFactHandlesOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isCompactFactHandles() {
+        return this.value;
+    }
+
+}
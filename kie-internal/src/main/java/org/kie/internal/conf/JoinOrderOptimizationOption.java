@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for joinOrderOptimization option. When enabled, the patterns of the rules are joined
+ * in the order recorded in the join plan found in the resources of the KieModule, if any.
+ * The plan is created with JoinOrderOptimizer.createPlan() out of a session used for a representative
+ * run and stored as META-INF/drools-join-plan.properties.
+ *
+ * Since the patterns are joined in a different order, the objects returned by Match.getObjects() and
+ * the fact handles of a match follow the order of the plan instead of the one of the rule. The
+ * declarations bound by the rule are not affected.
+ *
+ * drools.joinOrderOptimization = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum JoinOrderOptimizationOption implements SingleValueKieBaseOption {
+
+    YES(true),
+    NO(false);
+
+    /**
+     * The property name for the join order optimization option
+     */
+    public static final String PROPERTY_NAME = "drools.joinOrderOptimization";
+
+    private boolean value;
+
+    JoinOrderOptimizationOption( final boolean value ) {
+        this.value = value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isJoinOrderOptimization() {
+        return this.value;
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.concurrent.KieExecutors;
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * A class for the number of slots among which the partitions of a KieBase are distributed
+ * when multithread evaluation is enabled. This is also the number of partitioned agendas
+ * that can be evaluated in parallel.
+ *
+ * drools.parallelEvaluationSlots = &lt;1...n&gt;
+ *
+ * DEFAULT = number of available processors
+ */
+public class ParallelEvaluationSlotsOption implements SingleValueKieBaseOption {
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name
+     */
+    public static final String PROPERTY_NAME = "drools.parallelEvaluationSlots";
+
+    /**
+     * The default value for this option
+     */
+    public static final int DEFAULT_VALUE = KieExecutors.Pool.SIZE;
+
+    /**
+     * number of parallel evaluation slots
+     */
+    private final int slots;
+
+    /**
+     * Private constructor to enforce the use of the factory method
+     * @param slots
+     */
+    private ParallelEvaluationSlotsOption( int slots ) {
+        this.slots = slots;
+    }
+
+    /**
+     * This is a factory method for this Parallel Evaluation Slots configuration.
+     * The factory method is a best practice for the case where the
+     * actual object construction is changed in the future.
+     *
+     * @param slots the number of parallel evaluation slots
+     *
+     * @return the actual type safe parallel evaluation slots configuration.
+     */
+    public static ParallelEvaluationSlotsOption get( int slots ) {
+        return new ParallelEvaluationSlotsOption( slots );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    /**
+     * Returns the number of parallel evaluation slots
+     *
+     * @return
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + slots;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if ( this == obj ) { return true; }
+        if ( obj == null ) { return false; }
+        if ( getClass() != obj.getClass() ) { return false; }
+        ParallelEvaluationSlotsOption other = (ParallelEvaluationSlotsOption) obj;
+        if ( slots != other.slots ) {
+            return false;
+        }
+        return true;
+    }
+
+}
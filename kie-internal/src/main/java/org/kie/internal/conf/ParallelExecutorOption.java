@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.conf;
+
+import org.kie.api.conf.SingleValueKieBaseOption;
+
+/**
+ * An Enum for the executor used by a KieBase to evaluate its partitions in parallel
+ * when multithread evaluation is enabled.
+ * <ul>
+ * <li>shared: the JVM-wide executor shared by all the KieBases</li>
+ * <li>fixed: a pool owned by the KieBase with a thread for each parallel evaluation slot</li>
+ * <li>forkjoin: a ForkJoinPool owned by the KieBase with a parallelism equal to the number of parallel evaluation slots</li>
+ * <li>virtual: a new virtual thread for each task, when running on a JVM supporting them, otherwise a cached thread pool</li>
+ * </ul>
+ *
+ * drools.parallelExecutor = &lt;shared|fixed|forkjoin|virtual&gt;
+ *
+ * DEFAULT = shared
+ */
+public enum ParallelExecutorOption implements SingleValueKieBaseOption {
+
+    SHARED("shared"),
+    FIXED("fixed"),
+    FORK_JOIN("forkjoin"),
+    VIRTUAL("virtual");
+
+    /**
+     * The property name for the parallel executor option
+     */
+    public static final String PROPERTY_NAME = "drools.parallelExecutor";
+
+    private final String string;
+
+    ParallelExecutorOption( String mode ) {
+        this.string = mode;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public String getValue() {
+        return string;
+    }
+
+    public String toString() {
+        return "ParallelExecutorOption( "+string+ " )";
+    }
+
+    public String toExternalForm() {
+        return this.string;
+    }
+
+    public static ParallelExecutorOption determineParallelExecutor(String mode) {
+        for (ParallelExecutorOption option : values()) {
+            if ( option.getValue().equalsIgnoreCase( mode ) ) {
+                return option;
+            }
+        }
+        throw new IllegalArgumentException( "Illegal enum value '" + mode + "' for ParallelExecutor" );
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.kie.internal.runtime.conf;
+
+import org.kie.api.runtime.conf.SingleValueKieSessionOption;
+
+/**
+ * An option to define if a thread safe KieSession should enqueue the propagations coming from other
+ * threads in a lock-free list instead of a synchronized one. This reduces the contention when many
+ * threads are inserting into a session running fireUntilHalt.
+ *
+ * drools.lockFreePropagationList = &lt;true|false&gt;
+ *
+ * DEFAULT = false
+ */
+public enum LockFreePropagationListOption implements SingleValueKieSessionOption {
+
+    YES(true),
+    NO(false);
+
+    private static final long serialVersionUID = 510l;
+
+    /**
+     * The property name for the lock-free propagation list configuration
+     */
+    public static final String PROPERTY_NAME = "drools.lockFreePropagationList";
+
+    private final boolean lockFree;
+
+    LockFreePropagationListOption( final boolean lockFree ) {
+        this.lockFree = lockFree;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public String getPropertyName() {
+        return PROPERTY_NAME;
+    }
+
+    public boolean isLockFree() {
+        return lockFree;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.memorycompiler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.drools.util.PortablePath;
+import org.kie.memorycompiler.resources.ResourceReader;
+import org.kie.memorycompiler.resources.ResourceStore;
+
+/**
+ * A JavaCompiler that keeps the classes produced by another compiler in a content addressed directory, so that
+ * compiling again the same sources, with the same settings and against the same classes, just copies the cached
+ * bytecode into the ResourceStore, also after a restart of the JVM.
+ *
+ * The cache key of a compilation is a SHA-256 digest of the compiled sources, of the compiler settings and of the
+ * classes visible from the compilation: the content of the ResourceStore, that some compilers search for types before
+ * the ClassLoader, the content of the stores of the StoreClassLoaders and the jars and folders of the URLClassLoaders
+ * in the hierarchy of the ClassLoader, together with the java.class.path. A compilation into a ResourceStore whose
+ * content can't be listed is never cached. Only the compilations completed without errors or warnings are cached. Entries are written to a temporary file and then moved, so the same directory can
+ * be shared by concurrent builds.
+ *
+ * It is used by the JavaCompilerFactory when the drools.compilation.cache.dir system property is set.
+ */
+public class CachingJavaCompiler implements JavaCompiler {
+
+    public static final String CACHE_DIR_PROPERTY = "drools.compilation.cache.dir";
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final JavaCompiler delegate;
+    private final Path cacheDir;
+
+    private JavaCompilerSettings javaCompilerSettings;
+    private String sourceFolder = "";
+
+    public CachingJavaCompiler( JavaCompiler delegate, Path cacheDir ) {
+        this.delegate = delegate;
+        this.cacheDir = cacheDir;
+    }
+
+    public JavaCompiler getDelegate() {
+        return delegate;
+    }
+
+    public Path getCacheDir() {
+        return cacheDir;
+    }
+
+    @Override
+    public void setSourceFolder( String sourceFolder ) {
+        this.sourceFolder = sourceFolder;
+        delegate.setSourceFolder( sourceFolder );
+    }
+
+    @Override
+    public JavaCompilerSettings createDefaultSettings() {
+        return delegate.createDefaultSettings();
+    }
+
+    @Override
+    public void setJavaCompilerSettings( JavaCompilerSettings javaCompilerSettings ) {
+        this.javaCompilerSettings = javaCompilerSettings;
+        delegate.setJavaCompilerSettings( javaCompilerSettings );
+    }
+
+    @Override
+    public CompilationResult compile( String[] pResourcePaths, ResourceReader pReader, ResourceStore pStore ) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = this.getClass().getClassLoader();
+        }
+        return compile( pResourcePaths, pReader, pStore, classLoader, createDefaultSettings() );
+    }
+
+    @Override
+    public CompilationResult compile( String[] pResourcePaths, ResourceReader pReader, ResourceStore pStore, ClassLoader pClassLoader ) {
+        return compile( pResourcePaths, pReader, pStore, pClassLoader, javaCompilerSettings != null ? javaCompilerSettings : createDefaultSettings() );
+    }
+
+    @Override
+    public CompilationResult compile( String[] pResourcePaths, ResourceReader pReader, ResourceStore pStore, ClassLoader pClassLoader, JavaCompilerSettings pSettings ) {
+        Collection<PortablePath> storedPaths = pStore.getFilePaths();
+        if (storedPaths == null) {
+            // the resources of the store could be resolved by the compilation without being part of the key
+            return delegate.compile( pResourcePaths, pReader, pStore, pClassLoader, pSettings );
+        }
+
+        Path entry = cacheDir.resolve( cacheKey( pResourcePaths, pReader, pStore, storedPaths, pClassLoader, pSettings ) );
+        List<StoredResource> cached = readEntry( entry );
+        if (cached != null) {
+            for (StoredResource resource : cached) {
+                resource.writeTo( pStore );
+            }
+            return new CompilationResult( new CompilationProblem[0] );
+        }
+
+        RecordingResourceStore recordingStore = new RecordingResourceStore( pStore );
+        CompilationResult result = delegate.compile( pResourcePaths, pReader, recordingStore, pClassLoader, pSettings );
+        if (result.getErrors().length == 0 && result.getWarnings().length == 0) {
+            writeEntry( entry, recordingStore.written );
+        }
+        return result;
+    }
+
+    private String cacheKey( String[] pResourcePaths, ResourceReader pReader, ResourceStore pStore, Collection<PortablePath> storedPaths,
+                             ClassLoader pClassLoader, JavaCompilerSettings pSettings ) {
+        MessageDigest digest = newDigest();
+        update( digest, String.valueOf( FORMAT_VERSION ) );
+        update( digest, delegate.getClass().getName() );
+        update( digest, System.getProperty( "java.version" ) );
+        update( digest, sourceFolder );
+
+        update( digest, pSettings.getSourceVersion() );
+        update( digest, pSettings.getTargetVersion() );
+        update( digest, pSettings.getSourceEncoding() );
+        update( digest, pSettings.isDebug() + ":" + pSettings.isWarnings() + ":" + pSettings.isDeprecations() );
+        update( digest, String.valueOf( pSettings.getOptions() ) );
+        if (pSettings.getClasspathLocations() != null) {
+            for (File classpath : pSettings.getClasspathLocations()) {
+                updateWithFile( digest, classpath );
+            }
+        }
+
+        String[] paths = pResourcePaths.clone();
+        Arrays.sort( paths );
+        for (String path : paths) {
+            update( digest, path );
+            byte[] source = pReader.getBytes( path );
+            digest.update( source != null ? source : new byte[0] );
+        }
+
+        List<String> stored = new ArrayList<>( storedPaths.size() );
+        for (PortablePath storedPath : storedPaths) {
+            stored.add( storedPath.asString() );
+        }
+        Collections.sort( stored );
+        for (String path : stored) {
+            update( digest, path );
+            byte[] data = pStore.read( path );
+            digest.update( data != null ? data : new byte[0] );
+        }
+
+        update( digest, System.getProperty( "java.class.path" ) );
+        for (ClassLoader classLoader = pClassLoader; classLoader != null; classLoader = classLoader.getParent()) {
+            updateWithClassLoader( digest, classLoader );
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest()) {
+            sb.append( String.format( "%02x", b ) );
+        }
+        return sb.toString();
+    }
+
+    private static void updateWithClassLoader( MessageDigest digest, ClassLoader classLoader ) {
+        update( digest, classLoader.getClass().getName() );
+        if (classLoader instanceof StoreClassLoader) {
+            Map<String, byte[]> store = ((StoreClassLoader) classLoader).getStore();
+            if (store != null) {
+                for (Map.Entry<String, byte[]> entry : new TreeMap<>( store ).entrySet()) {
+                    update( digest, entry.getKey() );
+                    digest.update( entry.getValue() );
+                }
+            }
+        }
+        if (classLoader instanceof URLClassLoader) {
+            for (URL url : ((URLClassLoader) classLoader).getURLs()) {
+                update( digest, url.toString() );
+                if ("file".equals( url.getProtocol() )) {
+                    updateWithFile( digest, new File( url.getPath() ) );
+                }
+            }
+        }
+    }
+
+    private static void updateWithFile( MessageDigest digest, File file ) {
+        update( digest, file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified() );
+    }
+
+    private static void update( MessageDigest digest, String value ) {
+        byte[] bytes = String.valueOf( value ).getBytes( StandardCharsets.UTF_8 );
+        digest.update( (byte) (bytes.length >>> 24) );
+        digest.update( (byte) (bytes.length >>> 16) );
+        digest.update( (byte) (bytes.length >>> 8) );
+        digest.update( (byte) bytes.length );
+        digest.update( bytes );
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance( "SHA-256" );
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static List<StoredResource> readEntry( Path entry ) {
+        if (!Files.isRegularFile( entry )) {
+            return null;
+        }
+        try (InputStream is = Files.newInputStream( entry );
+             DataInputStream in = new DataInputStream( new BufferedInputStream( is ) )) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int size = in.readInt();
+            List<StoredResource> resources = new ArrayList<>( size );
+            for (int i = 0; i < size; i++) {
+                String path = in.readUTF();
+                boolean createFolder = in.readBoolean();
+                byte[] data = new byte[in.readInt()];
+                in.readFully( data );
+                resources.add( new StoredResource( path, data, createFolder ) );
+            }
+            return resources;
+        } catch (IOException e) {
+            // a corrupted or unreadable entry is just a cache miss
+            return null;
+        }
+    }
+
+    private static void writeEntry( Path entry, List<StoredResource> resources ) {
+        Path tmp = null;
+        try {
+            Files.createDirectories( entry.getParent() );
+            tmp = Files.createTempFile( entry.getParent(), entry.getFileName().toString(), ".tmp" );
+            try (OutputStream os = Files.newOutputStream( tmp );
+                 DataOutputStream out = new DataOutputStream( new BufferedOutputStream( os ) )) {
+                out.writeInt( FORMAT_VERSION );
+                out.writeInt( resources.size() );
+                for (StoredResource resource : resources) {
+                    out.writeUTF( resource.path );
+                    out.writeBoolean( resource.createFolder );
+                    out.writeInt( resource.data.length );
+                    out.write( resource.data );
+                }
+            }
+            Files.move( tmp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE );
+        } catch (IOException e) {
+            // failing to populate the cache must not fail the compilation
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists( tmp );
+                } catch (IOException ignored) { }
+            }
+        }
+    }
+
+    private static class StoredResource {
+        private final String path;
+        private final byte[] data;
+        private final boolean createFolder;
+
+        private StoredResource( String path, byte[] data, boolean createFolder ) {
+            this.path = path;
+            this.data = data;
+            this.createFolder = createFolder;
+        }
+
+        private void writeTo( ResourceStore store ) {
+            if (createFolder) {
+                store.write( PortablePath.of( path ), data, true );
+            } else {
+                store.write( PortablePath.of( path ), data );
+            }
+        }
+    }
+
+    private static class RecordingResourceStore implements ResourceStore {
+        private final ResourceStore store;
+        private final List<StoredResource> written = new ArrayList<>();
+
+        private RecordingResourceStore( ResourceStore store ) {
+            this.store = store;
+        }
+
+        @Override
+        public void write( PortablePath resourcePath, byte[] pResourceData ) {
+            written.add( new StoredResource( resourcePath.asString(), pResourceData, false ) );
+            store.write( resourcePath, pResourceData );
+        }
+
+        @Override
+        public void write( PortablePath resourcePath, byte[] pResourceData, boolean createFolder ) {
+            written.add( new StoredResource( resourcePath.asString(), pResourceData, createFolder ) );
+            store.write( resourcePath, pResourceData, createFolder );
+        }
+
+        @Override
+        public byte[] read( PortablePath resourcePath ) {
+            return store.read( resourcePath );
+        }
+
+        @Override
+        public void remove( PortablePath resourcePath ) {
+            written.removeIf( resource -> resource.path.equals( resourcePath.asString() ) );
+            store.remove( resourcePath );
+        }
+    }
+}
@@ -14,6 +14,7 @@
 
 package org.kie.memorycompiler;
 
+import java.nio.file.Paths;
 import java.util.Optional;
 
 /**
@@ -31,6 +32,10 @@ public class JavaCompilerFactory {
 
     public static JavaCompiler loadCompiler( JavaConfiguration.CompilerType compilerType, String lngLevel, String sourceFolder ) {
         JavaCompiler compiler = createCompiler( compilerType ).orElseThrow( () -> new RuntimeException("Instance of " + compilerType + " compiler cannot be created!") );
+        String cacheDir = System.getProperty( CachingJavaCompiler.CACHE_DIR_PROPERTY );
+        if (cacheDir != null && !cacheDir.isEmpty()) {
+            compiler = new CachingJavaCompiler( compiler, Paths.get( cacheDir ) );
+        }
         compiler.setJavaCompilerSettings( createSettings( compiler, lngLevel ) );
         compiler.setSourceFolder(sourceFolder);
         return compiler;
@@ -14,6 +14,7 @@
 
 package org.kie.memorycompiler.resources;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -43,6 +44,11 @@ public class MemoryResourceStore implements ResourceStore {
         resources.remove( resourcePath );
     }
 
+    @Override
+    public Collection<PortablePath> getFilePaths() {
+        return resources.keySet();
+    }
+
     public Map<PortablePath, byte[]> getResources() {
         return resources;
     }
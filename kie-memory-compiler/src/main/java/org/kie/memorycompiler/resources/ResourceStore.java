@@ -14,6 +14,8 @@
 
 package org.kie.memorycompiler.resources;
 
+import java.util.Collection;
+
 import org.drools.util.PortablePath;
 
 /**
@@ -40,4 +42,11 @@ public interface ResourceStore {
     default void remove( String resourceName ) {
         remove( PortablePath.of(resourceName) );
     }
+
+    /**
+     * Returns the paths of all the resources that can be read from this store, or null if they can't be listed
+     */
+    default Collection<PortablePath> getFilePaths() {
+        return null;
+    }
 }
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2022 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.kie.memorycompiler;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.drools.util.PortablePath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.kie.memorycompiler.jdknative.NativeJavaCompiler;
+import org.kie.memorycompiler.resources.MemoryResourceReader;
+import org.kie.memorycompiler.resources.MemoryResourceStore;
+import org.kie.memorycompiler.resources.ResourceReader;
+import org.kie.memorycompiler.resources.ResourceStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingJavaCompilerTest {
+
+    private static final String SOURCE_PATH = "org/kie/memorycompiler/CachedClass.java";
+    private static final PortablePath CLASS_PATH = PortablePath.of("org/kie/memorycompiler/CachedClass.class");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReuseCompiledClassesAcrossCompilers() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+
+        CountingCompiler firstDelegate = new CountingCompiler();
+        MemoryResourceStore firstStore = new MemoryResourceStore();
+        CompilationResult result = new CachingJavaCompiler(firstDelegate, cacheDir)
+                .compile(new String[] { SOURCE_PATH }, reader("return 1;"), firstStore, getClass().getClassLoader());
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(firstDelegate.compilations).isEqualTo(1);
+        assertThat(firstStore.read(CLASS_PATH)).isNotNull();
+        assertThat(cacheEntries(cacheDir)).isEqualTo(1);
+
+        // a new compiler, as after a restart, finds the same classes in the cache
+        CountingCompiler secondDelegate = new CountingCompiler();
+        MemoryResourceStore secondStore = new MemoryResourceStore();
+        result = new CachingJavaCompiler(secondDelegate, cacheDir)
+                .compile(new String[] { SOURCE_PATH }, reader("return 1;"), secondStore, getClass().getClassLoader());
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(secondDelegate.compilations).isEqualTo(0);
+        assertThat(secondStore.read(CLASS_PATH)).isEqualTo(firstStore.read(CLASS_PATH));
+
+        // a changed source is compiled again
+        new CachingJavaCompiler(secondDelegate, cacheDir)
+                .compile(new String[] { SOURCE_PATH }, reader("return 2;"), new MemoryResourceStore(), getClass().getClassLoader());
+        assertThat(secondDelegate.compilations).isEqualTo(1);
+        assertThat(cacheEntries(cacheDir)).isEqualTo(2);
+    }
+
+    @Test
+    public void testFailedCompilationIsNotCached() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+        CountingCompiler delegate = new CountingCompiler();
+        CachingJavaCompiler compiler = new CachingJavaCompiler(delegate, cacheDir);
+
+        for (int i = 0; i < 2; i++) {
+            CompilationResult result = compiler.compile(new String[] { SOURCE_PATH }, reader("return \"1\";"), new MemoryResourceStore(), getClass().getClassLoader());
+            assertThat(result.getErrors()).isNotEmpty();
+        }
+        assertThat(delegate.compilations).isEqualTo(2);
+        assertThat(cacheEntries(cacheDir)).isEqualTo(0);
+    }
+
+    @Test
+    public void testContentOfTheStoreIsPartOfTheKey() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+        CountingCompiler delegate = new CountingCompiler();
+        CachingJavaCompiler compiler = new CachingJavaCompiler(delegate, cacheDir);
+
+        compiler.compile(new String[] { SOURCE_PATH }, reader("return 1;"), new MemoryResourceStore(), getClass().getClassLoader());
+        assertThat(delegate.compilations).isEqualTo(1);
+
+        // the classes already in the store can be resolved by the compilation
+        MemoryResourceStore store = new MemoryResourceStore();
+        store.write("org/kie/memorycompiler/Other.class", new byte[] { 1, 2, 3 });
+        compiler.compile(new String[] { SOURCE_PATH }, reader("return 1;"), store, getClass().getClassLoader());
+        assertThat(delegate.compilations).isEqualTo(2);
+        assertThat(cacheEntries(cacheDir)).isEqualTo(2);
+    }
+
+    @Test
+    public void testStoreNotListingItsContentIsNotCached() throws Exception {
+        Path cacheDir = folder.getRoot().toPath();
+        CountingCompiler delegate = new CountingCompiler();
+        CachingJavaCompiler compiler = new CachingJavaCompiler(delegate, cacheDir);
+
+        for (int i = 0; i < 2; i++) {
+            MemoryResourceStore store = new MemoryResourceStore();
+            ResourceStore unlistedStore = new ResourceStore() {
+                @Override
+                public void write(PortablePath resourcePath, byte[] pResourceData) {
+                    store.write(resourcePath, pResourceData);
+                }
+
+                @Override
+                public void write(PortablePath resourcePath, byte[] pResourceData, boolean createFolder) {
+                    store.write(resourcePath, pResourceData, createFolder);
+                }
+
+                @Override
+                public byte[] read(PortablePath resourcePath) {
+                    return store.read(resourcePath);
+                }
+
+                @Override
+                public void remove(PortablePath resourcePath) {
+                    store.remove(resourcePath);
+                }
+            };
+            CompilationResult result = compiler.compile(new String[] { SOURCE_PATH }, reader("return 1;"), unlistedStore, getClass().getClassLoader());
+            assertThat(result.getErrors()).isEmpty();
+            assertThat(store.read(CLASS_PATH)).isNotNull();
+        }
+        assertThat(delegate.compilations).isEqualTo(2);
+        assertThat(cacheEntries(cacheDir)).isEqualTo(0);
+    }
+
+    private static ResourceReader reader(String body) {
+        MemoryResourceReader reader = new MemoryResourceReader();
+        String source = "package org.kie.memorycompiler;\n" +
+                "public class CachedClass {\n" +
+                "    public int value() { " + body + " }\n" +
+                "}\n";
+        reader.add(SOURCE_PATH, source.getBytes(StandardCharsets.UTF_8));
+        return reader;
+    }
+
+    private static long cacheEntries(Path cacheDir) throws Exception {
+        try (Stream<Path> entries = Files.list(cacheDir)) {
+            return entries.count();
+        }
+    }
+
+    private static class CountingCompiler extends NativeJavaCompiler {
+
+        private int compilations;
+
+        @Override
+        public CompilationResult compile(String[] pResourcePaths, ResourceReader pReader, ResourceStore pStore, ClassLoader pClassLoader, JavaCompilerSettings pSettings) {
+            compilations++;
+            return super.compile(pResourcePaths, pReader, pStore, pClassLoader, pSettings);
+        }
+    }
+}